@@ -15,6 +15,14 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Modo de pruebas: con -PstrictMainThreadIo=true cualquier acceso a disco
+        // en el hilo principal cierra la aplicación (en debug solo se registra)
+        buildConfigField(
+            "boolean",
+            "STRICT_MAIN_THREAD_IO",
+            (project.findProperty("strictMainThreadIo") ?: "false").toString()
+        )
     }
 
     buildTypes {
@@ -33,6 +41,12 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
+    }
+
+    // Las pruebas JVM pasan por Log; sin esto android.jar lanza "not mocked"
+    testOptions {
+        unitTests.isReturnDefaultValues = true
     }
 }
 
@@ -42,6 +56,7 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
     
     // Navigation Component
     implementation("androidx.navigation:navigation-fragment:2.7.7")
@@ -50,6 +65,7 @@ dependencies {
     // ViewModel y LiveData (MVVM)
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.7.0")
     implementation("androidx.lifecycle:lifecycle-livedata:2.7.0")
+    implementation("androidx.lifecycle:lifecycle-process:2.7.0")
     
     // Firebase
     implementation(platform("com.google.firebase:firebase-bom:33.13.0"))
@@ -68,12 +84,23 @@ dependencies {
     // Glide para carga y caché de imágenes
     implementation("com.github.bumptech.glide:glide:4.16.0")
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        isTransitive = false
+    }
     
     // Gson para serialización/deserialización JSON
     implementation("com.google.code.gson:gson:2.10.1")
     
+    // Room para la copia local de la base de datos
+    implementation("androidx.room:room-runtime:2.6.1")
+    annotationProcessor("androidx.room:room-compiler:2.6.1")
+    
+    // WorkManager para la cola de subidas en segundo plano
+    implementation("androidx.work:work-runtime:2.9.1")
+    
     // Testing
     testImplementation(libs.junit)
+    testImplementation("androidx.arch.core:core-testing:2.2.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
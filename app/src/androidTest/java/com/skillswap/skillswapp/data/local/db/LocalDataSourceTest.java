@@ -0,0 +1,126 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las lecturas locales sobre una base Room en memoria. Las consultas se ejecutan
+ * en el hilo de la prueba y el resultado se lee cuando el hilo principal lo ha publicado.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LocalDataSourceTest {
+
+    private LocalDatabase database;
+    private LocalDataSource source;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, LocalDatabase.class).build();
+        source = new LocalDataSource(database.userDao(), database.skillDao(), database.categoryDao(), Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void categoriesAreReadInIdOrder() {
+        database.categoryDao().upsertCategory(EntityMapper.toEntity(new Category("musica", "Música")));
+        database.categoryDao().upsertCategory(EntityMapper.toEntity(new Category("idiomas", "Idiomas")));
+
+        List<Category> categories = await(source.getAllCategories());
+        assertEquals(2, categories.size());
+        assertEquals("idiomas", categories.get(0).getCategoryId());
+        assertEquals("Música", categories.get(1).getName());
+    }
+
+    @Test
+    public void skillsAreFilteredByCategory() {
+        database.skillDao().upsertSkill(EntityMapper.toEntity(new Skill("s2", "Piano", "musica")));
+        database.skillDao().upsertSkill(EntityMapper.toEntity(new Skill("s1", "Guitarra", "musica")));
+        database.skillDao().upsertSkill(EntityMapper.toEntity(new Skill("s3", "Inglés", "idiomas")));
+
+        assertEquals(Arrays.asList("s1", "s2", "s3"), skillIds(await(source.getAllSkills())));
+        assertEquals(Arrays.asList("s1", "s2"), skillIds(await(source.getSkillsByCategory("musica"))));
+        assertTrue(await(source.getSkillsByCategory("deporte")).isEmpty());
+    }
+
+    @Test
+    public void userIsReadWithItsSkills() {
+        User user = new User("u1", "Ana", "ana@example.com");
+        Map<String, User.SkillToTeach> teach = new HashMap<>();
+        teach.put("s1", new User.SkillToTeach("Guitarra", 4, "musica", ""));
+        Map<String, User.SkillToLearn> learn = new HashMap<>();
+        learn.put("s3", new User.SkillToLearn("Inglés", 2, "idiomas", ""));
+        user.setSkillsToTeach(teach);
+        user.setSkillsToLearn(learn);
+        database.userDao().upsertUser(EntityMapper.toEntity(user),
+                EntityMapper.toTeachSkillEntities(user), EntityMapper.toLearnSkillEntities(user));
+
+        User local = await(source.getUserById("u1"));
+        assertEquals("Ana", local.getProfile().getName());
+        assertEquals(4, local.getSkillsToTeach().get("s1").getLevel());
+        assertEquals(2, local.getSkillsToLearn().get("s3").getPriority());
+        assertNull(await(source.getUserById("u2")));
+    }
+
+    @Test
+    public void summariesPageFollowsCursor() {
+        for (int i = 1; i <= 5; i++) {
+            User user = new User("u" + i, "Usuario " + i, "u" + i + "@example.com");
+            database.userDao().upsertUser(EntityMapper.toEntity(user), new ArrayList<>(), new ArrayList<>());
+        }
+
+        assertEquals(Arrays.asList("u1", "u2"), userIds(await(source.getUserSummariesPage(null, 2))));
+        assertEquals(Arrays.asList("u3", "u4"), userIds(await(source.getUserSummariesPage("u2", 2))));
+        assertEquals(Arrays.asList("u5"), userIds(await(source.getUserSummariesPage("u4", 2))));
+    }
+
+    /**
+     * Espera a que el hilo principal publique el valor y lo devuelve.
+     */
+    private static <T> T await(LiveData<T> liveData) {
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        return liveData.getValue();
+    }
+
+    private static List<String> skillIds(List<Skill> skills) {
+        List<String> ids = new ArrayList<>();
+        for (Skill skill : skills) {
+            ids.add(skill.getSkillId());
+        }
+        return ids;
+    }
+
+    private static List<String> userIds(List<UserSummary> summaries) {
+        List<String> ids = new ArrayList<>();
+        for (UserSummary summary : summaries) {
+            ids.add(summary.getUserId());
+        }
+        return ids;
+    }
+}
@@ -2,8 +2,18 @@ package com.skillswap.skillswapp;
 
 import android.app.Application;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
+
 import com.google.firebase.FirebaseApp;
+import com.skillswap.skillswapp.data.local.LocalStorageManager;
+import com.skillswap.skillswapp.data.local.db.LocalDatabase;
+import com.skillswap.skillswapp.data.repository.UserRepository;
+import com.skillswap.skillswapp.data.stats.SkillStatsRecorder;
 import com.skillswap.skillswapp.data.util.DatabaseInitializer;
+import com.skillswap.skillswapp.data.util.StrictModeConfig;
 
 /**
  * Clase de aplicación principal para SkillSwap.
@@ -18,7 +28,33 @@ public class SkillSwapApplication extends Application {
         // Inicializar Firebase
         FirebaseApp.initializeApp(this);
         
+        // Abrir la base local; los repositorios guardan en ella lo que descargan las pantallas
+        LocalDatabase.init(this);
+        
+        // Cargar en segundo plano los favoritos y contactos recientes del usuario actual
+        LocalStorageManager.getInstance(this).preload();
+        
+        // Enviar las estadísticas de habilidades pendientes al pasar a segundo plano,
+        // antes de que el sistema pueda cerrar el proceso
+        ProcessLifecycleOwner.get().getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStop(@NonNull LifecycleOwner owner) {
+                SkillStatsRecorder.getInstance().flush();
+            }
+        });
+        
         // Inicializar la base de datos con datos predeterminados
         new DatabaseInitializer().initializeDatabase();
+
+        // Asegurar que el usuario actual aparece en el índice de búsqueda
+        // (los perfiles creados antes de existir search_index no tienen entradas)
+        UserRepository userRepository = UserRepository.getInstance();
+        userRepository.reindexUser(userRepository.getCurrentUserId());
+        
+        // Detectar accesos a disco en el hilo principal a partir de aquí
+        // (la inicialización de Firebase lee su configuración del disco y queda fuera)
+        if (BuildConfig.DEBUG || BuildConfig.STRICT_MAIN_THREAD_IO) {
+            StrictModeConfig.enableMainThreadDiskChecks(BuildConfig.STRICT_MAIN_THREAD_IO);
+        }
     }
 }
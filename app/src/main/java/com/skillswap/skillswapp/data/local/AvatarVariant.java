@@ -0,0 +1,75 @@
+package com.skillswap.skillswapp.data.local;
+
+/**
+ * Tamaños en los que se guarda cada foto de perfil.
+ * Los archivos de una misma foto solo se diferencian en el sufijo
+ * (profile_{userId}_thumb.webp, ..._medium.webp, ..._full.webp), tanto en local como en
+ * Firebase Storage, así a partir de la ruta o URL de la variante completa se obtienen las demás.
+ */
+public enum AvatarVariant {
+    THUMB(192, "thumb"),
+    MEDIUM(384, "medium"),
+    FULL(768, "full");
+
+    private static final String EXTENSION = ".webp";
+
+    private final int size;
+    private final String suffix;
+
+    AvatarVariant(int size, String suffix) {
+        this.size = size;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @return Lado de la imagen en píxeles
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param baseName Nombre común de las variantes, sin sufijo ni extensión
+     * @return Nombre del archivo de esta variante
+     */
+    public String fileName(String baseName) {
+        return baseName + "_" + suffix + EXTENSION;
+    }
+
+    /**
+     * Elige la variante más pequeña que cubre una vista.
+     * @param targetSize Lado mayor de la vista en píxeles, o 0 si no se conoce
+     * @return Variante a cargar; la completa si el tamaño no se conoce
+     */
+    public static AvatarVariant forTargetSize(int targetSize) {
+        if (targetSize <= 0) {
+            return FULL;
+        }
+        for (AvatarVariant variant : values()) {
+            if (variant.size >= targetSize) {
+                return variant;
+            }
+        }
+        return FULL;
+    }
+
+    /**
+     * Obtiene la ruta o URL de otra variante a partir de la de la variante completa.
+     * Las fotos antiguas (un único archivo) y las URLs externas se devuelven sin cambios.
+     * @param fullPathOrUrl Ruta local o URL de la variante completa
+     * @param variant Variante deseada
+     * @return Ruta o URL de la variante
+     */
+    public static String resolve(String fullPathOrUrl, AvatarVariant variant) {
+        if (fullPathOrUrl == null || variant == FULL) {
+            return fullPathOrUrl;
+        }
+        String fullSuffix = "_" + FULL.suffix + EXTENSION;
+        int index = fullPathOrUrl.lastIndexOf(fullSuffix);
+        if (index < 0) {
+            return fullPathOrUrl;
+        }
+        return fullPathOrUrl.substring(0, index) + "_" + variant.suffix + EXTENSION
+                + fullPathOrUrl.substring(index + fullSuffix.length());
+    }
+}
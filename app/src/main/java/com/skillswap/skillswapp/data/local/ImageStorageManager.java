@@ -1,15 +1,23 @@
 package com.skillswap.skillswapp.data.local;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
 import android.net.Uri;
 import android.util.Log;
 
+import androidx.annotation.WorkerThread;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Clase para gestionar el almacenamiento local de imágenes.
@@ -17,6 +25,9 @@ import java.io.InputStream;
 public class ImageStorageManager {
     private static final String TAG = "ImageStorageManager";
     private static final String PROFILE_IMAGES_DIR = "profile_images";
+    private static final int AVATAR_QUALITY = 80;
+    // Límite de píxeles de la decodificación intermedia (unos 16 MB en ARGB_8888)
+    private static final long MAX_DECODE_PIXELS = 4L * 1024 * 1024;
     private static ImageStorageManager instance;
     private final Context context;
 
@@ -37,11 +48,15 @@ public class ImageStorageManager {
     }
 
     /**
-     * Guarda una imagen de perfil localmente.
+     * Guarda una imagen de perfil localmente en todas sus variantes ({@link AvatarVariant}).
+     * La imagen se reduce sin llegar a decodificarla a resolución completa, así la memoria
+     * usada no depende del tamaño de la foto.
+     * Hace lecturas y escrituras de disco: no llamar desde el hilo principal.
      * @param userId ID del usuario
      * @param imageUri URI de la imagen a guardar
-     * @return URI de la imagen guardada o null si ocurre un error
+     * @return Ruta de la variante completa o null si ocurre un error
      */
+    @WorkerThread
     public String saveProfileImage(String userId, Uri imageUri) {
         try {
             // Crear directorio si no existe
@@ -53,60 +68,282 @@ public class ImageStorageManager {
                 }
             }
 
-            // Crear archivo para la imagen
-            String fileName = "profile_" + userId + ".jpg";
-            File outputFile = new File(directory, fileName);
-
-            // Leer la imagen desde el URI y guardarla en el archivo
-            InputStream inputStream = context.getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) {
+            Map<AvatarVariant, byte[]> variants = encodeAvatarVariants(imageUri);
+            if (variants == null) {
                 return null;
             }
 
-            // Comprimir la imagen para reducir su tamaño
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-            inputStream.close();
+            // Se escriben de menor a mayor: si existe la variante completa, existen todas
+            String baseName = "profile_" + userId;
+            for (AvatarVariant variant : AvatarVariant.values()) {
+                File outputFile = new File(directory, variant.fileName(baseName));
+                if (!writeAtomically(variants.get(variant), outputFile)) {
+                    return null;
+                }
+            }
 
-            FileOutputStream outputStream = new FileOutputStream(outputFile);
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, outputStream);
-            outputStream.flush();
-            outputStream.close();
+            // Borrar la imagen única del formato anterior
+            File legacyFile = new File(directory, baseName + ".jpg");
+            if (legacyFile.exists() && !legacyFile.delete()) {
+                Log.e(TAG, "No se pudo borrar la imagen anterior");
+            }
 
-            // Devolver la ruta del archivo
-            return outputFile.getAbsolutePath();
+            // Devolver la ruta de la variante completa
+            return new File(directory, AvatarVariant.FULL.fileName(baseName)).getAbsolutePath();
         } catch (IOException e) {
             Log.e(TAG, "Error al guardar la imagen: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Decodifica una imagen y la codifica en WebP en todas las variantes de avatar.
+     * Las variantes pequeñas se escalan desde la completa, que se decodifica una sola vez.
+     * No llamar desde el hilo principal.
+     * @param imageUri URI de la imagen original
+     * @return Bytes de cada variante, o null si la imagen no se puede leer
+     */
+    @WorkerThread
+    public Map<AvatarVariant, byte[]> encodeAvatarVariants(Uri imageUri) throws IOException {
+        Bitmap full = decodeSquare(imageUri, AvatarVariant.FULL.getSize());
+        if (full == null) {
+            return null;
+        }
+
+        Map<AvatarVariant, byte[]> variants = new EnumMap<>(AvatarVariant.class);
+        try {
+            for (AvatarVariant variant : AvatarVariant.values()) {
+                Bitmap bitmap = full;
+                if (full.getWidth() > variant.getSize()) {
+                    bitmap = Bitmap.createScaledBitmap(full, variant.getSize(), variant.getSize(), true);
+                }
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                boolean compressed = bitmap.compress(Bitmap.CompressFormat.WEBP_LOSSY, AVATAR_QUALITY, outputStream);
+                if (bitmap != full) {
+                    bitmap.recycle();
+                }
+                if (!compressed) {
+                    Log.e(TAG, "No se pudo comprimir la imagen");
+                    return null;
+                }
+                variants.put(variant, outputStream.toByteArray());
+            }
+        } finally {
+            full.recycle();
+        }
+        return variants;
+    }
+
+    /**
+     * Decodifica una imagen recortada al cuadrado central, girada según su EXIF y escalada
+     * a targetSize x targetSize.
+     * Primero se leen solo las dimensiones y después se decodifica con el mayor inSampleSize
+     * que mantiene el lado corto por encima de targetSize.
+     * @param imageUri URI de la imagen original
+     * @param targetSize Lado del cuadrado resultante en píxeles
+     * @return Bitmap resultante o null si la imagen no se puede leer
+     */
+    private Bitmap decodeSquare(Uri imageUri, int targetSize) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        // Primera pasada: solo dimensiones, sin reservar píxeles
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream inputStream = resolver.openInputStream(imageUri)) {
+            if (inputStream == null) {
+                return null;
+            }
+            BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            Log.e(TAG, "No se pudieron leer las dimensiones de la imagen");
+            return null;
+        }
+
+        // Segunda pasada: decodificar ya reducida
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetSize);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap sampled;
+        try (InputStream inputStream = resolver.openInputStream(imageUri)) {
+            if (inputStream == null) {
+                return null;
+            }
+            sampled = BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        if (sampled == null) {
+            return null;
+        }
+
+        // Recortar el cuadrado central, escalarlo y aplicar la orientación en un solo paso
+        int side = Math.min(sampled.getWidth(), sampled.getHeight());
+        int x = (sampled.getWidth() - side) / 2;
+        int y = (sampled.getHeight() - side) / 2;
+        Matrix matrix = new Matrix();
+        if (side > targetSize) {
+            float scale = (float) targetSize / side;
+            matrix.postScale(scale, scale);
+        }
+        applyExifOrientation(matrix, readExifOrientation(imageUri));
+
+        Bitmap square = Bitmap.createBitmap(sampled, x, y, side, side, matrix, true);
+        if (square != sampled) {
+            sampled.recycle();
+        }
+        return square;
+    }
+
+    /**
+     * Calcula el inSampleSize (potencia de 2) para decodificar una imagen de width x height.
+     * El lado corto no baja de targetSize, y el total de píxeles se limita a
+     * {@link #MAX_DECODE_PIXELS} para que las panorámicas tampoco ocupen demasiado.
+     */
+    static int calculateInSampleSize(int width, int height, int targetSize) {
+        int shortSide = Math.min(width, height);
+        int sampleSize = 1;
+        while (shortSide / (sampleSize * 2) >= targetSize) {
+            sampleSize *= 2;
+        }
+        while ((long) (width / sampleSize) * (height / sampleSize) > MAX_DECODE_PIXELS) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Lee la orientación EXIF de la imagen. Las imágenes sin EXIF se tratan como normales.
+     */
+    private int readExifOrientation(Uri imageUri) {
+        try (InputStream inputStream = context.getContentResolver().openInputStream(imageUri)) {
+            if (inputStream == null) {
+                return ExifInterface.ORIENTATION_NORMAL;
+            }
+            return new ExifInterface(inputStream)
+                    .getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            Log.e(TAG, "No se pudo leer la orientación de la imagen: " + e.getMessage());
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    /**
+     * Añade a la matriz el giro o volteo indicado por la orientación EXIF.
+     */
+    private static void applyExifOrientation(Matrix matrix, int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Escribe los datos en un archivo temporal del mismo directorio y lo renombra al destino,
+     * de modo que nunca queda un archivo a medio escribir en outputFile.
+     * @return true si se guardó correctamente
+     */
+    private boolean writeAtomically(byte[] data, File outputFile) throws IOException {
+        File tempFile = new File(outputFile.getParentFile(), outputFile.getName() + ".tmp");
+        boolean written = false;
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+                outputStream.write(data);
+                outputStream.flush();
+                // Asegurar que los datos están en disco antes de renombrar
+                outputStream.getFD().sync();
+            }
+            if (!tempFile.renameTo(outputFile)) {
+                Log.e(TAG, "No se pudo mover la imagen a " + outputFile.getName());
+                return false;
+            }
+            written = true;
+            return true;
+        } finally {
+            if (!written) {
+                tempFile.delete();
+            }
+        }
+    }
+
     /**
      * Obtiene la ruta de la imagen de perfil de un usuario.
+     * Las demás variantes se obtienen con {@link AvatarVariant#resolve(String, AvatarVariant)}.
      * @param userId ID del usuario
-     * @return Ruta de la imagen o null si no existe
+     * @return Ruta de la variante completa (o de la imagen única antigua), o null si no existe
      */
+    @WorkerThread
     public String getProfileImagePath(String userId) {
+        File imageFile = findProfileImageFile(userId, AvatarVariant.FULL);
+        return imageFile != null ? imageFile.getAbsolutePath() : null;
+    }
+
+    /**
+     * Busca la imagen de perfil guardada en este dispositivo en la variante pedida.
+     * Si no existe esa variante se devuelve la completa, y si tampoco, la imagen única antigua.
+     * @param userId ID del usuario
+     * @param variant Variante preferida
+     * @return Archivo de la imagen, o null si el usuario no tiene imagen local
+     */
+    @WorkerThread
+    public File findProfileImageFile(String userId, AvatarVariant variant) {
         File directory = new File(context.getFilesDir(), PROFILE_IMAGES_DIR);
-        String fileName = "profile_" + userId + ".jpg";
-        File imageFile = new File(directory, fileName);
+        String baseName = "profile_" + userId;
+        File variantFile = new File(directory, variant.fileName(baseName));
+        if (variantFile.exists()) {
+            return variantFile;
+        }
+        
+        File fullFile = new File(directory, AvatarVariant.FULL.fileName(baseName));
+        if (fullFile.exists()) {
+            return fullFile;
+        }
         
-        if (imageFile.exists()) {
-            return imageFile.getAbsolutePath();
+        File legacyFile = new File(directory, baseName + ".jpg");
+        if (legacyFile.exists()) {
+            return legacyFile;
         }
         
         return null;
     }
 
     /**
-     * Elimina la imagen de perfil de un usuario.
+     * Elimina la imagen de perfil de un usuario, con todas sus variantes.
      * @param userId ID del usuario
      * @return true si se eliminó correctamente, false en caso contrario
      */
+    @WorkerThread
     public boolean deleteProfileImage(String userId) {
         File directory = new File(context.getFilesDir(), PROFILE_IMAGES_DIR);
-        String fileName = "profile_" + userId + ".jpg";
-        File imageFile = new File(directory, fileName);
-        
-        return imageFile.exists() && imageFile.delete();
+        String baseName = "profile_" + userId;
+        boolean deleted = false;
+        for (AvatarVariant variant : AvatarVariant.values()) {
+            File variantFile = new File(directory, variant.fileName(baseName));
+            deleted |= variantFile.exists() && variantFile.delete();
+        }
+        File legacyFile = new File(directory, baseName + ".jpg");
+        deleted |= legacyFile.exists() && legacyFile.delete();
+        return deleted;
     }
 }
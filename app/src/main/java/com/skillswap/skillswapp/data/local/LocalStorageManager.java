@@ -2,33 +2,62 @@ package com.skillswap.skillswapp.data.local;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.skillswap.skillswapp.data.local.store.FavoriteEntity;
+import com.skillswap.skillswapp.data.local.store.PersonalDao;
+import com.skillswap.skillswapp.data.local.store.PersonalDatabase;
+import com.skillswap.skillswapp.data.local.store.RecentContactEntity;
+import com.skillswap.skillswapp.data.util.AppExecutors;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Gestor de almacenamiento local para favoritos y contactos recientes.
+ * Los datos se guardan en {@link PersonalDatabase} y se mantiene en memoria una copia del
+ * usuario actual: las consultas no tocan el disco y las escrituras se hacen en segundo plano.
+ * La primera vez que se carga un usuario se migran sus listas antiguas de SharedPreferences.
  */
 public class LocalStorageManager {
+    private static final String TAG = "LocalStorageManager";
     private static final String PREFS_NAME = "SkillSwapPrefs";
     private static final String KEY_FAVORITES = "favorites_";
     private static final String KEY_RECENT_CONTACTS = "recent_contacts_";
+    private static final int MAX_RECENT_CONTACTS = 20;
     
     private static LocalStorageManager instance;
     private final SharedPreferences sharedPreferences;
     private final Gson gson;
+    private final PersonalDatabase personalDatabase;
+    private final PersonalDao personalDao;
+    // Hilo propio de la base personal, así las escrituras se aplican en el mismo orden en que se piden
+    private final ExecutorService diskExecutor;
+    private OwnerData ownerData;
+    // IDs de favoritos del usuario actual, compartidos por todas las listas que muestran el corazón
+    private final MutableLiveData<Set<String>> favoriteIds = new MutableLiveData<>(Collections.<String>emptySet());
     
     private LocalStorageManager(Context context) {
         sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         gson = new Gson();
+        personalDatabase = PersonalDatabase.getInstance(context);
+        personalDao = personalDatabase.personalDao();
+        diskExecutor = AppExecutors.getInstance().personalIO();
     }
     
     public static synchronized LocalStorageManager getInstance(Context context) {
@@ -38,35 +67,50 @@ public class LocalStorageManager {
         return instance;
     }
     
+    /**
+     * Empieza a cargar los datos del usuario actual sin esperar al resultado.
+     * Conviene llamarlo al iniciar la aplicación para que la primera consulta no tenga que esperar.
+     */
+    public void preload() {
+        getOwnerData(false);
+    }
+    
+    /**
+     * Conjunto observable de IDs de favoritos del usuario actual.
+     * Se publica un conjunto nuevo (inmutable) tras cargar los datos y tras cada cambio.
+     * @return LiveData con los IDs de favoritos
+     */
+    public LiveData<Set<String>> observeFavoriteIds() {
+        preload();
+        return favoriteIds;
+    }
+    
     /**
      * Añade un usuario a favoritos.
      * @param userId ID del usuario a añadir a favoritos
      * @return true si se añadió correctamente
      */
     public boolean addFavorite(String userId) {
-        try {
-            String currentUserId = getCurrentUserId();
-            if (currentUserId == null) return false;
-            
-            List<FavoriteItem> favorites = getFavorites();
-            
-            // Verificar si ya existe
-            for (FavoriteItem item : favorites) {
-                if (item.getUserId().equals(userId)) {
-                    return true; // Ya existe
-                }
+        OwnerData data = getOwnerData(true);
+        if (data == null) return false;
+        
+        FavoriteItem newFavorite;
+        synchronized (data) {
+            if (data.favorites.containsKey(userId)) {
+                return true; // Ya existe
             }
-            
-            // Añadir nuevo favorito
-            FavoriteItem newFavorite = new FavoriteItem(userId, new Date().getTime());
-            favorites.add(newFavorite);
-            
-            // Guardar la lista actualizada
-            return saveFavorites(favorites);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+            newFavorite = new FavoriteItem(userId, new Date().getTime());
+            data.favorites.put(userId, newFavorite);
         }
+        publishFavoriteIds(data);
+        
+        FavoriteEntity entity = new FavoriteEntity();
+        entity.ownerId = data.ownerId;
+        entity.userId = userId;
+        entity.timestamp = newFavorite.getTimestamp();
+        entity.notes = newFavorite.getNotes();
+        runOnDisk(() -> personalDao.upsertFavorite(entity));
+        return true;
     }
     
     /**
@@ -75,30 +119,17 @@ public class LocalStorageManager {
      * @return true si se eliminó correctamente
      */
     public boolean removeFavorite(String userId) {
-        try {
-            String currentUserId = getCurrentUserId();
-            if (currentUserId == null) return false;
-            
-            List<FavoriteItem> favorites = getFavorites();
-            boolean removed = false;
-            
-            // Buscar y eliminar
-            for (int i = 0; i < favorites.size(); i++) {
-                if (favorites.get(i).getUserId().equals(userId)) {
-                    favorites.remove(i);
-                    removed = true;
-                    break;
-                }
-            }
-            
-            if (removed) {
-                return saveFavorites(favorites);
+        OwnerData data = getOwnerData(true);
+        if (data == null) return false;
+        
+        synchronized (data) {
+            if (data.favorites.remove(userId) == null) {
+                return true; // No existía, consideramos éxito
             }
-            return true; // No existía, consideramos éxito
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
+        publishFavoriteIds(data);
+        runOnDisk(() -> personalDao.deleteFavorite(data.ownerId, userId));
+        return true;
     }
     
     /**
@@ -107,38 +138,25 @@ public class LocalStorageManager {
      * @return true si está en favoritos
      */
     public boolean isFavorite(String userId) {
-        try {
-            String currentUserId = getCurrentUserId();
-            if (currentUserId == null) return false;
-            
-            List<FavoriteItem> favorites = getFavorites();
-            
-            for (FavoriteItem item : favorites) {
-                if (item.getUserId().equals(userId)) {
-                    return true;
-                }
-            }
-            
-            return false;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+        OwnerData data = getOwnerData(true);
+        if (data == null) return false;
+        
+        synchronized (data) {
+            return data.favorites.containsKey(userId);
         }
     }
     
     /**
      * Obtiene la lista de IDs de usuarios favoritos.
-     * @return Lista de IDs de usuarios favoritos
+     * @return Lista de IDs de usuarios favoritos, en el orden en que se añadieron
      */
     public List<String> getFavoriteIds() {
-        List<String> ids = new ArrayList<>();
-        List<FavoriteItem> favorites = getFavorites();
+        OwnerData data = getOwnerData(true);
+        if (data == null) return new ArrayList<>();
         
-        for (FavoriteItem item : favorites) {
-            ids.add(item.getUserId());
+        synchronized (data) {
+            return new ArrayList<>(data.favorites.keySet());
         }
-        
-        return ids;
     }
     
     /**
@@ -147,118 +165,194 @@ public class LocalStorageManager {
      * @return true si se añadió correctamente
      */
     public boolean addRecentContact(String userId) {
-        try {
-            String currentUserId = getCurrentUserId();
-            if (currentUserId == null) return false;
-            
-            List<RecentContactItem> contacts = getRecentContacts();
-            
-            // Eliminar si ya existe para actualizarlo
-            for (int i = 0; i < contacts.size(); i++) {
-                if (contacts.get(i).getUserId().equals(userId)) {
-                    contacts.remove(i);
+        OwnerData data = getOwnerData(true);
+        if (data == null) return false;
+        
+        RecentContactItem newContact = new RecentContactItem(userId, new Date().getTime());
+        synchronized (data) {
+            // Eliminar si ya existe y añadir al principio (más reciente)
+            for (int i = 0; i < data.recentContacts.size(); i++) {
+                if (data.recentContacts.get(i).getUserId().equals(userId)) {
+                    data.recentContacts.remove(i);
                     break;
                 }
             }
-            
-            // Añadir al principio (más reciente)
-            RecentContactItem newContact = new RecentContactItem(userId, new Date().getTime());
-            contacts.add(0, newContact);
+            data.recentContacts.add(0, newContact);
             
             // Limitar a 20 contactos recientes
-            if (contacts.size() > 20) {
-                contacts = contacts.subList(0, 20);
+            while (data.recentContacts.size() > MAX_RECENT_CONTACTS) {
+                data.recentContacts.remove(data.recentContacts.size() - 1);
             }
-            
-            // Guardar la lista actualizada
-            return saveRecentContacts(contacts);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
+        
+        RecentContactEntity entity = new RecentContactEntity();
+        entity.ownerId = data.ownerId;
+        entity.userId = userId;
+        entity.timestamp = newContact.getTimestamp();
+        runOnDisk(() -> personalDao.addRecentContact(entity, MAX_RECENT_CONTACTS));
+        return true;
     }
     
     /**
      * Obtiene la lista de IDs de contactos recientes.
-     * @return Lista de IDs de contactos recientes
+     * @return Lista de IDs de contactos recientes, del más reciente al más antiguo
      */
     public List<String> getRecentContactIds() {
         List<String> ids = new ArrayList<>();
-        List<RecentContactItem> contacts = getRecentContacts();
+        OwnerData data = getOwnerData(true);
+        if (data == null) return ids;
         
-        for (RecentContactItem item : contacts) {
-            ids.add(item.getUserId());
+        synchronized (data) {
+            for (RecentContactItem item : data.recentContacts) {
+                ids.add(item.getUserId());
+            }
         }
-        
         return ids;
     }
     
     /**
-     * Obtiene la lista de favoritos.
-     * @return Lista de favoritos
+     * Obtiene los datos en memoria del usuario actual, empezando a cargarlos si hace falta.
+     * @param waitForLoad true para esperar a que termine la carga desde disco
+     * @return Datos del usuario actual o null si no hay usuario autenticado
      */
-    private List<FavoriteItem> getFavorites() {
+    private OwnerData getOwnerData(boolean waitForLoad) {
         String currentUserId = getCurrentUserId();
-        if (currentUserId == null) return new ArrayList<>();
-        
-        String key = KEY_FAVORITES + currentUserId;
-        String json = sharedPreferences.getString(key, null);
+        if (currentUserId == null) return null;
         
-        if (json == null) {
-            return new ArrayList<>();
+        OwnerData data;
+        synchronized (this) {
+            if (ownerData == null || !ownerData.ownerId.equals(currentUserId)) {
+                OwnerData newData = new OwnerData(currentUserId);
+                newData.loaded = diskExecutor.submit(() -> load(newData));
+                ownerData = newData;
+                // Hasta que termine la carga no se muestran los favoritos del usuario anterior
+                favoriteIds.postValue(Collections.<String>emptySet());
+            }
+            data = ownerData;
         }
         
-        Type type = new TypeToken<List<FavoriteItem>>(){}.getType();
-        return gson.fromJson(json, type);
+        if (waitForLoad) {
+            // Solo espera si se consulta antes de que termine la precarga
+            try {
+                data.loaded.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Error al cargar los datos locales: " + e.getMessage());
+            }
+        }
+        return data;
     }
     
     /**
-     * Guarda la lista de favoritos.
-     * @param favorites Lista de favoritos a guardar
-     * @return true si se guardó correctamente
+     * Carga desde disco los favoritos y contactos recientes de un usuario.
+     * Se ejecuta en el hilo de disco.
      */
-    private boolean saveFavorites(List<FavoriteItem> favorites) {
-        String currentUserId = getCurrentUserId();
-        if (currentUserId == null) return false;
-        
-        String key = KEY_FAVORITES + currentUserId;
-        String json = gson.toJson(favorites);
+    private void load(OwnerData data) {
+        migrateLegacyPreferences(data.ownerId);
         
-        return sharedPreferences.edit().putString(key, json).commit();
+        List<FavoriteEntity> favorites = personalDao.getFavorites(data.ownerId);
+        List<RecentContactEntity> contacts = personalDao.getRecentContacts(data.ownerId);
+        synchronized (data) {
+            for (FavoriteEntity entity : favorites) {
+                FavoriteItem item = new FavoriteItem(entity.userId, entity.timestamp);
+                item.setNotes(entity.notes != null ? entity.notes : "");
+                data.favorites.put(entity.userId, item);
+            }
+            for (RecentContactEntity entity : contacts) {
+                data.recentContacts.add(new RecentContactItem(entity.userId, entity.timestamp));
+            }
+        }
+        publishFavoriteIds(data);
     }
     
     /**
-     * Obtiene la lista de contactos recientes.
-     * @return Lista de contactos recientes
+     * Publica los IDs de favoritos si los datos siguen siendo los del usuario actual.
      */
-    private List<RecentContactItem> getRecentContacts() {
-        String currentUserId = getCurrentUserId();
-        if (currentUserId == null) return new ArrayList<>();
-        
-        String key = KEY_RECENT_CONTACTS + currentUserId;
-        String json = sharedPreferences.getString(key, null);
-        
-        if (json == null) {
-            return new ArrayList<>();
+    private void publishFavoriteIds(OwnerData data) {
+        // Copiar y publicar bajo el mismo bloqueo para que gane siempre el último cambio
+        synchronized (this) {
+            if (data != ownerData) {
+                return;
+            }
+            synchronized (data) {
+                favoriteIds.postValue(Collections.unmodifiableSet(new HashSet<>(data.favorites.keySet())));
+            }
         }
-        
-        Type type = new TypeToken<List<RecentContactItem>>(){}.getType();
-        return gson.fromJson(json, type);
     }
     
     /**
-     * Guarda la lista de contactos recientes.
-     * @param contacts Lista de contactos recientes a guardar
-     * @return true si se guardó correctamente
+     * Pasa a la base de datos las listas JSON que se guardaban en SharedPreferences y las borra.
+     * Las inserciones ignoran filas ya existentes, así que si se interrumpe antes de borrar
+     * las claves se puede repetir sin perder datos.
      */
-    private boolean saveRecentContacts(List<RecentContactItem> contacts) {
-        String currentUserId = getCurrentUserId();
-        if (currentUserId == null) return false;
+    private void migrateLegacyPreferences(String ownerId) {
+        String favoritesKey = KEY_FAVORITES + ownerId;
+        String contactsKey = KEY_RECENT_CONTACTS + ownerId;
+        String favoritesJson = sharedPreferences.getString(favoritesKey, null);
+        String contactsJson = sharedPreferences.getString(contactsKey, null);
+        if (favoritesJson == null && contactsJson == null) {
+            return;
+        }
         
-        String key = KEY_RECENT_CONTACTS + currentUserId;
-        String json = gson.toJson(contacts);
+        try {
+            List<FavoriteEntity> favorites = new ArrayList<>();
+            if (favoritesJson != null) {
+                Type type = new TypeToken<List<FavoriteItem>>(){}.getType();
+                List<FavoriteItem> items = gson.fromJson(favoritesJson, type);
+                if (items != null) {
+                    for (FavoriteItem item : items) {
+                        if (item == null || item.getUserId() == null) continue;
+                        FavoriteEntity entity = new FavoriteEntity();
+                        entity.ownerId = ownerId;
+                        entity.userId = item.getUserId();
+                        entity.timestamp = item.getTimestamp();
+                        entity.notes = item.getNotes();
+                        favorites.add(entity);
+                    }
+                }
+            }
+            
+            List<RecentContactEntity> contacts = new ArrayList<>();
+            if (contactsJson != null) {
+                Type type = new TypeToken<List<RecentContactItem>>(){}.getType();
+                List<RecentContactItem> items = gson.fromJson(contactsJson, type);
+                if (items != null) {
+                    for (RecentContactItem item : items) {
+                        if (item == null || item.getUserId() == null) continue;
+                        RecentContactEntity entity = new RecentContactEntity();
+                        entity.ownerId = ownerId;
+                        entity.userId = item.getUserId();
+                        entity.timestamp = item.getTimestamp();
+                        contacts.add(entity);
+                    }
+                }
+            }
+            
+            personalDatabase.runInTransaction(() -> {
+                personalDao.insertFavoritesIfAbsent(favorites);
+                personalDao.insertRecentContactsIfAbsent(contacts);
+                personalDao.trimRecentContacts(ownerId, MAX_RECENT_CONTACTS);
+            });
+        } catch (Exception e) {
+            // Si el JSON está dañado no se puede recuperar; se descarta para no reintentarlo siempre
+            Log.e(TAG, "Error al migrar los datos locales: " + e.getMessage());
+        }
         
-        return sharedPreferences.edit().putString(key, json).commit();
+        sharedPreferences.edit().remove(favoritesKey).remove(contactsKey).commit();
+    }
+    
+    /**
+     * Ejecuta una escritura en el hilo de disco, registrando los errores.
+     */
+    private void runOnDisk(Runnable write) {
+        diskExecutor.execute(() -> {
+            try {
+                write.run();
+            } catch (Exception e) {
+                Log.e(TAG, "Error al guardar los datos locales: " + e.getMessage());
+            }
+        });
     }
     
     /**
@@ -272,6 +366,20 @@ public class LocalStorageManager {
         return null;
     }
     
+    /**
+     * Copia en memoria de los datos de un usuario.
+     */
+    private static class OwnerData {
+        private final String ownerId;
+        private final LinkedHashMap<String, FavoriteItem> favorites = new LinkedHashMap<>();
+        private final List<RecentContactItem> recentContacts = new ArrayList<>();
+        private Future<?> loaded;
+        
+        private OwnerData(String ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+    
     /**
      * Clase para almacenar información de un favorito.
      */
@@ -0,0 +1,27 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Acceso a la tabla local de categorías.
+ */
+@Dao
+public interface CategoryDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertCategory(CategoryEntity category);
+
+    @Query("DELETE FROM categories WHERE categoryId = :categoryId")
+    void deleteCategory(String categoryId);
+
+    @Query("SELECT categoryId FROM categories")
+    List<String> getAllCategoryIds();
+
+    @Query("SELECT * FROM categories ORDER BY categoryId")
+    List<CategoryEntity> getAllCategories();
+}
@@ -0,0 +1,18 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Fila de la tabla local categories, copia de categories/{categoryId}.
+ */
+@Entity(tableName = "categories")
+public class CategoryEntity {
+    @PrimaryKey
+    @NonNull
+    public String categoryId = "";
+    public String name;
+    public String description;
+    public String iconUrl;
+}
@@ -0,0 +1,42 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.room.TypeConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conversores de tipos para Room.
+ */
+public class Converters {
+
+    // Los IDs generados por Firebase (push y uid de Auth) no contienen comas
+    private static final String SEPARATOR = ",";
+
+    @TypeConverter
+    public static String fromIdList(List<String> ids) {
+        if (ids == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String id : ids) {
+            if (id == null || id.isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(id);
+        }
+        return builder.toString();
+    }
+
+    @TypeConverter
+    public static List<String> toIdList(String value) {
+        if (value == null || value.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(value.split(SEPARATOR)));
+    }
+}
@@ -0,0 +1,234 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import com.skillswap.skillswapp.data.match.SkillMatch;
+import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.User.SkillToLearn;
+import com.skillswap.skillswapp.data.model.User.SkillToTeach;
+import com.skillswap.skillswapp.data.model.User.UserProfile;
+import com.skillswap.skillswapp.data.model.UserSummary;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversión entre los modelos de la aplicación y las filas de la base local.
+ * No depende de Android ni de Firebase, así que se puede probar en la JVM.
+ */
+public final class EntityMapper {
+
+    private EntityMapper() {
+    }
+
+    public static UserEntity toEntity(User user) {
+        UserEntity entity = new UserEntity();
+        entity.userId = user.getUserId();
+        UserProfile profile = user.getProfile();
+        if (profile != null) {
+            entity.name = profile.getName();
+            entity.email = profile.getEmail();
+            entity.bio = profile.getBio();
+            entity.photoUrl = profile.getPhotoUrl();
+            entity.lastActive = profile.getLastActive() != null ? profile.getLastActive().getTime() : null;
+        }
+        entity.skillsToTeachCount = user.getSkillsToTeach() != null ? user.getSkillsToTeach().size() : 0;
+        return entity;
+    }
+
+    public static List<TeachSkillEntity> toTeachSkillEntities(User user) {
+        List<TeachSkillEntity> entities = new ArrayList<>();
+        if (user.getSkillsToTeach() == null) {
+            return entities;
+        }
+        for (Map.Entry<String, SkillToTeach> entry : user.getSkillsToTeach().entrySet()) {
+            SkillToTeach skill = entry.getValue();
+            if (entry.getKey() == null || skill == null) {
+                continue;
+            }
+            TeachSkillEntity entity = new TeachSkillEntity();
+            entity.userId = user.getUserId();
+            entity.skillId = entry.getKey();
+            entity.title = skill.getTitle();
+            entity.category = skill.getCategory();
+            entity.description = skill.getDescription();
+            entity.level = skill.getLevel();
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    public static List<LearnSkillEntity> toLearnSkillEntities(User user) {
+        List<LearnSkillEntity> entities = new ArrayList<>();
+        if (user.getSkillsToLearn() == null) {
+            return entities;
+        }
+        for (Map.Entry<String, SkillToLearn> entry : user.getSkillsToLearn().entrySet()) {
+            SkillToLearn skill = entry.getValue();
+            if (entry.getKey() == null || skill == null) {
+                continue;
+            }
+            LearnSkillEntity entity = new LearnSkillEntity();
+            entity.userId = user.getUserId();
+            entity.skillId = entry.getKey();
+            entity.title = skill.getTitle();
+            entity.category = skill.getCategory();
+            entity.description = skill.getDescription();
+            entity.priority = skill.getPriority();
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    public static User toUser(UserEntity entity, List<TeachSkillEntity> teachSkills, List<LearnSkillEntity> learnSkills) {
+        User user = new User();
+        user.setUserId(entity.userId);
+
+        UserProfile profile = new UserProfile();
+        profile.setName(entity.name);
+        profile.setEmail(entity.email);
+        profile.setBio(entity.bio);
+        profile.setPhotoUrl(entity.photoUrl);
+        if (entity.lastActive != null) {
+            profile.setLastActive(new Date(entity.lastActive));
+        }
+        user.setProfile(profile);
+
+        Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
+        for (TeachSkillEntity teachSkill : teachSkills) {
+            SkillToTeach skill = new SkillToTeach();
+            skill.setTitle(teachSkill.title);
+            skill.setCategory(teachSkill.category);
+            skill.setDescription(teachSkill.description);
+            skill.setLevel(teachSkill.level);
+            skillsToTeach.put(teachSkill.skillId, skill);
+        }
+        user.setSkillsToTeach(skillsToTeach);
+
+        Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
+        for (LearnSkillEntity learnSkill : learnSkills) {
+            SkillToLearn skill = new SkillToLearn();
+            skill.setTitle(learnSkill.title);
+            skill.setCategory(learnSkill.category);
+            skill.setDescription(learnSkill.description);
+            skill.setPriority(learnSkill.priority);
+            skillsToLearn.put(learnSkill.skillId, skill);
+        }
+        user.setSkillsToLearn(skillsToLearn);
+        return user;
+    }
+
+    public static UserSummary toSummary(UserEntity entity) {
+        return new UserSummary(entity.userId, entity.name, entity.bio, entity.photoUrl, entity.skillsToTeachCount);
+    }
+
+    public static List<UserSummary> toSummaries(List<UserEntity> entities) {
+        List<UserSummary> summaries = new ArrayList<>();
+        for (UserEntity entity : entities) {
+            summaries.add(toSummary(entity));
+        }
+        return summaries;
+    }
+
+    public static SkillEntity toEntity(Skill skill) {
+        SkillEntity entity = new SkillEntity();
+        entity.skillId = skill.getSkillId();
+        entity.title = skill.getTitle();
+        entity.category = skill.getCategory();
+        entity.description = skill.getDescription();
+        entity.level = skill.getLevel();
+        entity.imageUrl = skill.getImageUrl();
+        entity.usersTeaching = skill.getUsersTeaching() != null
+                ? new ArrayList<>(skill.getUsersTeaching()) : new ArrayList<>();
+        entity.teacherCount = skill.getTeacherCount();
+        return entity;
+    }
+
+    public static Skill toSkill(SkillEntity entity) {
+        Skill skill = new Skill();
+        skill.setSkillId(entity.skillId);
+        skill.setTitle(entity.title);
+        skill.setCategory(entity.category);
+        skill.setDescription(entity.description);
+        skill.setLevel(entity.level);
+        skill.setImageUrl(entity.imageUrl);
+        skill.setUsersTeaching(entity.usersTeaching != null
+                ? new ArrayList<>(entity.usersTeaching) : new ArrayList<>());
+        skill.setTeacherCount(entity.teacherCount);
+        return skill;
+    }
+
+    public static List<Skill> toSkills(List<SkillEntity> entities) {
+        List<Skill> skills = new ArrayList<>();
+        for (SkillEntity entity : entities) {
+            skills.add(toSkill(entity));
+        }
+        return skills;
+    }
+
+    public static CategoryEntity toEntity(Category category) {
+        CategoryEntity entity = new CategoryEntity();
+        entity.categoryId = category.getCategoryId();
+        entity.name = category.getName();
+        entity.description = category.getDescription();
+        entity.iconUrl = category.getIconUrl();
+        return entity;
+    }
+
+    public static List<Category> toCategories(List<CategoryEntity> entities) {
+        List<Category> categories = new ArrayList<>();
+        for (CategoryEntity entity : entities) {
+            categories.add(new Category(entity.categoryId, entity.name, entity.description, entity.iconUrl));
+        }
+        return categories;
+    }
+
+    public static List<MatchEntity> toMatchEntities(String ownerId, List<SkillMatch> matches) {
+        List<MatchEntity> entities = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            SkillMatch match = matches.get(i);
+            UserEntity user = toEntity(match.getUser());
+            MatchEntity entity = new MatchEntity();
+            entity.ownerId = ownerId;
+            entity.userId = user.userId;
+            entity.position = i;
+            entity.score = match.getScore();
+            entity.name = user.name;
+            entity.bio = user.bio;
+            entity.photoUrl = user.photoUrl;
+            entity.skillsToTeachCount = user.skillsToTeachCount;
+            entity.skillsOffered = joinTitles(match.getSkillsOffered());
+            entity.skillsWanted = joinTitles(match.getSkillsWanted());
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Resúmenes de los emparejamientos que pueden enseñar algo al dueño, en el orden guardado.
+     */
+    public static List<UserSummary> toTeacherSummaries(List<MatchEntity> entities) {
+        List<UserSummary> summaries = new ArrayList<>();
+        for (MatchEntity entity : entities) {
+            if (entity.skillsOffered != null && !entity.skillsOffered.isEmpty()) {
+                summaries.add(new UserSummary(entity.userId, entity.name, entity.bio, entity.photoUrl,
+                        entity.skillsToTeachCount));
+            }
+        }
+        return summaries;
+    }
+
+    private static String joinTitles(List<String> titles) {
+        StringBuilder builder = new StringBuilder();
+        for (String title : titles) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(title);
+        }
+        return builder.toString();
+    }
+}
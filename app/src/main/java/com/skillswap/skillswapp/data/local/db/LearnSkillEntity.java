@@ -0,0 +1,25 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Habilidad que quiere aprender un usuario (users/{userId}/skills_to_learn/{skillId}).
+ */
+@Entity(tableName = "learn_skills",
+        primaryKeys = {"userId", "skillId"},
+        indices = {
+                @Index("skillId"),
+                @Index("category")
+        })
+public class LearnSkillEntity {
+    @NonNull
+    public String userId = "";
+    @NonNull
+    public String skillId = "";
+    public String title;
+    public String category;
+    public String description;
+    public int priority;
+}
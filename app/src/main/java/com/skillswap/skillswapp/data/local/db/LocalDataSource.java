@@ -0,0 +1,97 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Lecturas de la base local para los repositorios. Cada lectura se hace en el ejecutor
+ * indicado (el hilo de disco en la app) y publica su resultado una vez; si falla se publica
+ * null y el repositorio espera a Firebase. Los DAO se reciben en el constructor, así que se
+ * puede probar con una base en memoria.
+ */
+public final class LocalDataSource {
+
+    private final UserDao userDao;
+    private final SkillDao skillDao;
+    private final CategoryDao categoryDao;
+    private final Executor executor;
+
+    public LocalDataSource(UserDao userDao, SkillDao skillDao, CategoryDao categoryDao, Executor executor) {
+        this.userDao = userDao;
+        this.skillDao = skillDao;
+        this.categoryDao = categoryDao;
+        this.executor = executor;
+    }
+
+    /**
+     * Lecturas sobre la base de datos de la app, en el hilo de disco.
+     * @param database Base local, o null si no está abierta
+     * @return Origen de datos, o null si no hay base local (los repositorios usan solo Firebase)
+     */
+    public static LocalDataSource from(LocalDatabase database) {
+        if (database == null) {
+            return null;
+        }
+        return new LocalDataSource(database.userDao(), database.skillDao(), database.categoryDao(),
+                AppExecutors.getInstance().diskIO());
+    }
+
+    public LiveData<List<Category>> getAllCategories() {
+        return load(() -> EntityMapper.toCategories(categoryDao.getAllCategories()));
+    }
+
+    public LiveData<List<Skill>> getAllSkills() {
+        return load(() -> EntityMapper.toSkills(skillDao.getAllSkills()));
+    }
+
+    public LiveData<List<Skill>> getSkillsByCategory(String categoryId) {
+        return load(() -> EntityMapper.toSkills(skillDao.getSkillsByCategory(categoryId)));
+    }
+
+    public LiveData<User> getUserById(String userId) {
+        return load(() -> {
+            UserEntity entity = userDao.getUser(userId);
+            if (entity == null) {
+                return null;
+            }
+            return EntityMapper.toUser(entity, userDao.getTeachSkills(userId), userDao.getLearnSkills(userId));
+        });
+    }
+
+    /**
+     * @param afterUserId ID del último usuario de la página anterior (null para la primera página)
+     */
+    public LiveData<List<UserSummary>> getUserSummariesPage(String afterUserId, int pageSize) {
+        String cursor = afterUserId != null ? afterUserId : "";
+        return load(() -> EntityMapper.toSummaries(userDao.getUsersPage(cursor, pageSize)));
+    }
+
+    /**
+     * Consulta sobre la base local.
+     */
+    private interface LocalQuery<T> {
+        T run() throws Exception;
+    }
+
+    private <T> LiveData<T> load(LocalQuery<T> query) {
+        MutableLiveData<T> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try {
+                result.postValue(query.run());
+            } catch (Exception e) {
+                // Sin copia local: se esperará al resultado de Firebase
+                result.postValue(null);
+            }
+        });
+        return result;
+    }
+}
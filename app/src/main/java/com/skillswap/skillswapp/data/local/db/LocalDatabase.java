@@ -0,0 +1,57 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+
+/**
+ * Base de datos local (Room) con una copia de users, skills y categories, y los
+ * emparejamientos precalculados del usuario ({@link MatchEntity}).
+ * Guarda lo que las pantallas descargan de Firebase ({@link LocalMirrorSync}) y permite
+ * mostrar datos al arrancar sin esperar a la red. Firebase sigue siendo la fuente de verdad, por eso
+ * ante un cambio de esquema se recrea la base en lugar de migrarla.
+ */
+@Database(entities = {
+        UserEntity.class,
+        TeachSkillEntity.class,
+        LearnSkillEntity.class,
+        SkillEntity.class,
+        CategoryEntity.class,
+        MatchEntity.class
+}, version = 3, exportSchema = false)
+@TypeConverters(Converters.class)
+public abstract class LocalDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "skillswap_local.db";
+
+    private static volatile LocalDatabase instance;
+
+    public abstract UserDao userDao();
+
+    public abstract SkillDao skillDao();
+
+    public abstract CategoryDao categoryDao();
+
+    public abstract MatchDao matchDao();
+
+    /**
+     * Abre la base de datos. Debe llamarse al iniciar la aplicación.
+     * @param context Contexto de la aplicación
+     */
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            instance = Room.databaseBuilder(context.getApplicationContext(), LocalDatabase.class, DATABASE_NAME)
+                    .fallbackToDestructiveMigration()
+                    .build();
+        }
+    }
+
+    /**
+     * @return Base de datos, o null si todavía no se ha llamado a {@link #init(Context)}
+     */
+    public static LocalDatabase getInstance() {
+        return instance;
+    }
+}
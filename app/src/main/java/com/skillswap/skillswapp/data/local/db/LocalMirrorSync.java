@@ -0,0 +1,212 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import android.util.Log;
+
+import com.google.firebase.database.DatabaseError;
+import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.sync.ChildSync;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Copia en la base local los nodos users, skills y categories a medida que las pantallas
+ * los descargan. No abre listeners propios: las colecciones de los repositorios le pasan los
+ * mismos eventos de hijos que reciben ({@link ChildSync.Target}), así que solo se guarda lo
+ * que la app ya ha leído y no se descarga nada más al arrancar.
+ * Las escrituras se agrupan y se aplican en una sola transacción en el ejecutor indicado.
+ */
+public final class LocalMirrorSync {
+    private static final String TAG = "LocalMirrorSync";
+
+    /**
+     * Ejecuta un grupo de escrituras en una transacción de la base.
+     */
+    public interface TransactionRunner {
+        void run(Runnable writes);
+    }
+
+    private final UserDao userDao;
+    private final SkillDao skillDao;
+    private final CategoryDao categoryDao;
+    private final Executor executor;
+    private final TransactionRunner transaction;
+
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+    private boolean flushScheduled;
+
+    public LocalMirrorSync(UserDao userDao, SkillDao skillDao, CategoryDao categoryDao,
+                           Executor executor, TransactionRunner transaction) {
+        this.userDao = userDao;
+        this.skillDao = skillDao;
+        this.categoryDao = categoryDao;
+        this.executor = executor;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Copia sobre la base de datos de la app, escrita en el hilo de disco.
+     * @param database Base local, o null si no está abierta
+     * @return Copia local, o null si no hay base local (los repositorios no guardan nada)
+     */
+    public static LocalMirrorSync from(LocalDatabase database) {
+        if (database == null) {
+            return null;
+        }
+        return new LocalMirrorSync(database.userDao(), database.skillDao(), database.categoryDao(),
+                AppExecutors.getInstance().diskIO(), database::runInTransaction);
+    }
+
+    /**
+     * Destino para los eventos del nodo users.
+     */
+    public ChildSync.Target<User> users() {
+        return new MirrorTarget<User>("users") {
+            @Override
+            void upsert(String userId, User user) {
+                userDao.upsertUser(EntityMapper.toEntity(user),
+                        EntityMapper.toTeachSkillEntities(user), EntityMapper.toLearnSkillEntities(user));
+            }
+
+            @Override
+            void delete(String userId) {
+                userDao.deleteUser(userId);
+            }
+
+            @Override
+            List<String> localIds() {
+                return userDao.getAllUserIds();
+            }
+        };
+    }
+
+    /**
+     * Destino para los eventos del nodo skills.
+     */
+    public ChildSync.Target<Skill> skills() {
+        return new MirrorTarget<Skill>("skills") {
+            @Override
+            void upsert(String skillId, Skill skill) {
+                skillDao.upsertSkill(EntityMapper.toEntity(skill));
+            }
+
+            @Override
+            void delete(String skillId) {
+                skillDao.deleteSkill(skillId);
+            }
+
+            @Override
+            List<String> localIds() {
+                return skillDao.getAllSkillIds();
+            }
+        };
+    }
+
+    /**
+     * Destino para los eventos del nodo categories.
+     */
+    public ChildSync.Target<Category> categories() {
+        return new MirrorTarget<Category>("categories") {
+            @Override
+            void upsert(String categoryId, Category category) {
+                categoryDao.upsertCategory(EntityMapper.toEntity(category));
+            }
+
+            @Override
+            void delete(String categoryId) {
+                categoryDao.deleteCategory(categoryId);
+            }
+
+            @Override
+            List<String> localIds() {
+                return categoryDao.getAllCategoryIds();
+            }
+        };
+    }
+
+    /**
+     * Aplica los cambios de un nodo a su tabla local. Las operaciones de la base
+     * se encolan y se ejecutan en el ejecutor.
+     */
+    private abstract class MirrorTarget<T> implements ChildSync.Target<T> {
+        private final String node;
+
+        MirrorTarget(String node) {
+            this.node = node;
+        }
+
+        abstract void upsert(String id, T item);
+
+        abstract void delete(String id);
+
+        abstract List<String> localIds();
+
+        @Override
+        public void onInitialLoad(LinkedHashMap<String, T> items) {
+            enqueue(() -> {
+                // Borrar las filas que ya no existen en Firebase (eliminadas con la app cerrada)
+                for (String id : localIds()) {
+                    if (!items.containsKey(id)) {
+                        delete(id);
+                    }
+                }
+                for (Map.Entry<String, T> entry : items.entrySet()) {
+                    upsert(entry.getKey(), entry.getValue());
+                }
+            });
+        }
+
+        @Override
+        public void onUpsert(String key, T item) {
+            enqueue(() -> upsert(key, item));
+        }
+
+        @Override
+        public void onRemove(String key) {
+            enqueue(() -> delete(key));
+        }
+
+        @Override
+        public void onCancelled(DatabaseError databaseError) {
+            Log.e(TAG, "Error al sincronizar " + node + ": " + databaseError.getMessage());
+        }
+    }
+
+    private void enqueue(Runnable write) {
+        synchronized (pendingWrites) {
+            pendingWrites.add(write);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        executor.execute(this::flush);
+    }
+
+    /**
+     * Aplica en una transacción todas las escrituras acumuladas desde la última vez.
+     */
+    private void flush() {
+        List<Runnable> writes;
+        synchronized (pendingWrites) {
+            writes = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+            flushScheduled = false;
+        }
+        try {
+            transaction.run(() -> {
+                for (Runnable write : writes) {
+                    write.run();
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error al escribir en la base local: " + e.getMessage());
+        }
+    }
+}
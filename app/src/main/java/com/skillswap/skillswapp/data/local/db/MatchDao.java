@@ -0,0 +1,34 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Acceso a la tabla local de emparejamientos precalculados.
+ */
+@Dao
+public abstract class MatchDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertMatches(List<MatchEntity> matches);
+
+    @Query("DELETE FROM matches WHERE ownerId = :ownerId")
+    public abstract void deleteMatches(String ownerId);
+
+    /**
+     * Sustituye todos los emparejamientos de un usuario en una sola transacción.
+     */
+    @Transaction
+    public void replaceMatches(String ownerId, List<MatchEntity> matches) {
+        deleteMatches(ownerId);
+        insertMatches(matches);
+    }
+
+    @Query("SELECT * FROM matches WHERE ownerId = :ownerId ORDER BY position")
+    public abstract List<MatchEntity> getMatches(String ownerId);
+}
@@ -0,0 +1,29 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Fila de la tabla local matches: uno de los mejores emparejamientos de un usuario.
+ * Guarda el resumen del otro usuario para poder mostrar la lista al arrancar sin
+ * esperar a que se cargue el índice de emparejamientos.
+ */
+@Entity(tableName = "matches", primaryKeys = {"ownerId", "userId"})
+public class MatchEntity {
+    @NonNull
+    public String ownerId = "";
+    @NonNull
+    public String userId = "";
+    // Posición en la lista, empezando por 0 (el mejor emparejamiento)
+    public int position;
+    public double score;
+    public String name;
+    public String bio;
+    public String photoUrl;
+    public int skillsToTeachCount;
+    // Títulos separados por saltos de línea (pueden contener comas, así que no se usa
+    // el conversor de listas de IDs). Lo que enseña el otro usuario y el dueño quiere aprender:
+    public String skillsOffered;
+    // Lo que enseña el dueño y el otro usuario quiere aprender:
+    public String skillsWanted;
+}
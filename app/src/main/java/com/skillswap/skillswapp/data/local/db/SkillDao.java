@@ -0,0 +1,36 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Acceso a la tabla local de habilidades.
+ */
+@Dao
+public interface SkillDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertSkill(SkillEntity skill);
+
+    @Query("DELETE FROM skills WHERE skillId = :skillId")
+    void deleteSkill(String skillId);
+
+    @Query("SELECT * FROM skills WHERE skillId = :skillId")
+    SkillEntity getSkill(String skillId);
+
+    @Query("SELECT skillId FROM skills")
+    List<String> getAllSkillIds();
+
+    @Query("SELECT * FROM skills ORDER BY skillId")
+    List<SkillEntity> getAllSkills();
+
+    @Query("SELECT * FROM skills WHERE category = :categoryId ORDER BY skillId")
+    List<SkillEntity> getSkillsByCategory(String categoryId);
+
+    @Query("SELECT * FROM skills WHERE category = :categoryId AND level >= :minLevel ORDER BY skillId")
+    List<SkillEntity> getSkillsByCategoryAndLevel(String categoryId, int minLevel);
+}
@@ -0,0 +1,30 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.List;
+
+/**
+ * Fila de la tabla local skills, copia de skills/{skillId}.
+ */
+@Entity(tableName = "skills",
+        indices = {
+                @Index("category"),
+                @Index("level")
+        })
+public class SkillEntity {
+    @PrimaryKey
+    @NonNull
+    public String skillId = "";
+    public String title;
+    public String category;
+    public String description;
+    public int level;
+    public String imageUrl;
+    public List<String> usersTeaching;
+    // teacher_count de Firebase, -1 si la habilidad no lo tiene
+    public int teacherCount = -1;
+}
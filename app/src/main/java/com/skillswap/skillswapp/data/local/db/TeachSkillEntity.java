@@ -0,0 +1,27 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Habilidad que enseña un usuario (users/{userId}/skills_to_teach/{skillId}).
+ * Los índices permiten buscar profesores por habilidad, por categoría y por nivel.
+ */
+@Entity(tableName = "teach_skills",
+        primaryKeys = {"userId", "skillId"},
+        indices = {
+                @Index("skillId"),
+                @Index({"category", "level"}),
+                @Index("level")
+        })
+public class TeachSkillEntity {
+    @NonNull
+    public String userId = "";
+    @NonNull
+    public String skillId = "";
+    public String title;
+    public String category;
+    public String description;
+    public int level;
+}
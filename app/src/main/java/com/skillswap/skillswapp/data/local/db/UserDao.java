@@ -0,0 +1,94 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Acceso a las tablas locales de usuarios y sus habilidades.
+ */
+@Dao
+public abstract class UserDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertUser(UserEntity user);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertTeachSkills(List<TeachSkillEntity> skills);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertLearnSkills(List<LearnSkillEntity> skills);
+
+    @Query("DELETE FROM users WHERE userId = :userId")
+    public abstract void deleteUserRow(String userId);
+
+    @Query("DELETE FROM teach_skills WHERE userId = :userId")
+    public abstract void deleteTeachSkills(String userId);
+
+    @Query("DELETE FROM learn_skills WHERE userId = :userId")
+    public abstract void deleteLearnSkills(String userId);
+
+    /**
+     * Sustituye un usuario y todas sus habilidades en una sola transacción.
+     */
+    @Transaction
+    public void upsertUser(UserEntity user, List<TeachSkillEntity> teachSkills, List<LearnSkillEntity> learnSkills) {
+        deleteTeachSkills(user.userId);
+        deleteLearnSkills(user.userId);
+        insertUser(user);
+        insertTeachSkills(teachSkills);
+        insertLearnSkills(learnSkills);
+    }
+
+    /**
+     * Elimina un usuario y todas sus habilidades.
+     */
+    @Transaction
+    public void deleteUser(String userId) {
+        deleteTeachSkills(userId);
+        deleteLearnSkills(userId);
+        deleteUserRow(userId);
+    }
+
+    @Query("SELECT * FROM users WHERE userId = :userId")
+    public abstract UserEntity getUser(String userId);
+
+    @Query("SELECT * FROM users WHERE userId IN (:userIds)")
+    public abstract List<UserEntity> getUsers(List<String> userIds);
+
+    @Query("SELECT * FROM teach_skills WHERE userId = :userId")
+    public abstract List<TeachSkillEntity> getTeachSkills(String userId);
+
+    @Query("SELECT * FROM learn_skills WHERE userId = :userId")
+    public abstract List<LearnSkillEntity> getLearnSkills(String userId);
+
+    /**
+     * Página de usuarios ordenados por ID, con el mismo cursor que la consulta remota.
+     * @param afterUserId ID del último usuario de la página anterior ("" para la primera)
+     */
+    @Query("SELECT * FROM users WHERE userId > :afterUserId ORDER BY userId LIMIT :limit")
+    public abstract List<UserEntity> getUsersPage(String afterUserId, int limit);
+
+    /**
+     * Usuarios que enseñan alguna habilidad de la categoría con al menos el nivel indicado.
+     */
+    @Query("SELECT DISTINCT u.* FROM users u INNER JOIN teach_skills t ON t.userId = u.userId "
+            + "WHERE t.category = :categoryId AND t.level >= :minLevel ORDER BY u.userId")
+    public abstract List<UserEntity> getTeachersByCategory(String categoryId, int minLevel);
+
+    /**
+     * IDs de los usuarios que enseñan una habilidad.
+     */
+    @Query("SELECT userId FROM teach_skills WHERE skillId = :skillId ORDER BY userId")
+    public abstract List<String> getTeacherIds(String skillId);
+
+    @Query("SELECT userId FROM users")
+    public abstract List<String> getAllUserIds();
+
+    @Query("SELECT COUNT(*) FROM users")
+    public abstract int countUsers();
+}
@@ -0,0 +1,23 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Fila de la tabla local users, copia del perfil de users/{userId}.
+ * Las habilidades del usuario se guardan en {@link TeachSkillEntity} y {@link LearnSkillEntity}.
+ */
+@Entity(tableName = "users")
+public class UserEntity {
+    @PrimaryKey
+    @NonNull
+    public String userId = "";
+    public String name;
+    public String email;
+    public String bio;
+    public String photoUrl;
+    // Milisegundos desde epoch, null si no se conoce
+    public Long lastActive;
+    public int skillsToTeachCount;
+}
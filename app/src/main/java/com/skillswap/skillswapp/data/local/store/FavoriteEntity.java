@@ -0,0 +1,17 @@
+package com.skillswap.skillswapp.data.local.store;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Usuario marcado como favorito por el usuario ownerId.
+ */
+@Entity(tableName = "favorites", primaryKeys = {"ownerId", "userId"})
+public class FavoriteEntity {
+    @NonNull
+    public String ownerId = "";
+    @NonNull
+    public String userId = "";
+    public long timestamp;
+    public String notes;
+}
@@ -0,0 +1,51 @@
+package com.skillswap.skillswapp.data.local.store;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Acceso a los favoritos y contactos recientes guardados en el dispositivo.
+ */
+@Dao
+public abstract class PersonalDao {
+
+    @Query("SELECT * FROM favorites WHERE ownerId = :ownerId ORDER BY timestamp")
+    public abstract List<FavoriteEntity> getFavorites(String ownerId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsertFavorite(FavoriteEntity favorite);
+
+    // IGNORE para que repetir una migración no pise datos más nuevos
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertFavoritesIfAbsent(List<FavoriteEntity> favorites);
+
+    @Query("DELETE FROM favorites WHERE ownerId = :ownerId AND userId = :userId")
+    public abstract void deleteFavorite(String ownerId, String userId);
+
+    @Query("SELECT * FROM recent_contacts WHERE ownerId = :ownerId ORDER BY timestamp DESC")
+    public abstract List<RecentContactEntity> getRecentContacts(String ownerId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsertRecentContact(RecentContactEntity contact);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertRecentContactsIfAbsent(List<RecentContactEntity> contacts);
+
+    @Query("DELETE FROM recent_contacts WHERE ownerId = :ownerId AND userId NOT IN "
+            + "(SELECT userId FROM recent_contacts WHERE ownerId = :ownerId ORDER BY timestamp DESC LIMIT :limit)")
+    public abstract void trimRecentContacts(String ownerId, int limit);
+
+    /**
+     * Guarda un contacto reciente y elimina los que sobrepasan el límite, en una sola transacción.
+     */
+    @Transaction
+    public void addRecentContact(RecentContactEntity contact, int limit) {
+        upsertRecentContact(contact);
+        trimRecentContacts(contact.ownerId, limit);
+    }
+}
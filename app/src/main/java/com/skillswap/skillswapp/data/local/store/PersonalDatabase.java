@@ -0,0 +1,40 @@
+package com.skillswap.skillswapp.data.local.store;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Base de datos con los datos que solo existen en el dispositivo: favoritos y contactos recientes.
+ * A diferencia de {@link com.skillswap.skillswapp.data.local.db.LocalDatabase} no se puede
+ * reconstruir desde Firebase, así que los cambios de esquema necesitan una migración.
+ */
+@Database(entities = {
+        FavoriteEntity.class,
+        RecentContactEntity.class
+}, version = 1, exportSchema = false)
+public abstract class PersonalDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "skillswap_personal.db";
+
+    private static volatile PersonalDatabase instance;
+
+    public abstract PersonalDao personalDao();
+
+    /**
+     * @param context Contexto de la aplicación
+     * @return Base de datos, abriéndola si hace falta
+     */
+    public static PersonalDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (PersonalDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), PersonalDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
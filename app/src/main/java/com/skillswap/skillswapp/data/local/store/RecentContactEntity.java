@@ -0,0 +1,19 @@
+package com.skillswap.skillswapp.data.local.store;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Contacto reciente del usuario ownerId. El índice permite leerlos del más reciente al más antiguo.
+ */
+@Entity(tableName = "recent_contacts",
+        primaryKeys = {"ownerId", "userId"},
+        indices = {@Index({"ownerId", "timestamp"})})
+public class RecentContactEntity {
+    @NonNull
+    public String ownerId = "";
+    @NonNull
+    public String userId = "";
+    public long timestamp;
+}
@@ -0,0 +1,153 @@
+package com.skillswap.skillswapp.data.match;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista precalculada con los mejores emparejamientos de un usuario.
+ * Se calcula entera una vez con {@link SkillMatchIndex#findMatches(String, int)} y después
+ * se actualiza por cada usuario que cambia: solo se vuelve a puntuar ese usuario contra el
+ * dueño de la lista. La lista completa solo se recalcula cuando cambian las habilidades del
+ * propio dueño o cuando un usuario sale de una lista llena (no se sabe quién ocupa su sitio).
+ * Con {@code teachersOnly} la lista solo contiene candidatos que enseñan algo al dueño, y el
+ * límite se aplica entre ellos.
+ */
+public class MatchView {
+
+    private final SkillMatchIndex index;
+    private final String ownerId;
+    private final int limit;
+    private final boolean teachersOnly;
+    private List<SkillMatch> matches = new ArrayList<>();
+
+    /**
+     * @param index Índice del que se leen las puntuaciones
+     * @param ownerId ID del usuario dueño de la lista
+     * @param limit Número máximo de emparejamientos
+     */
+    public MatchView(SkillMatchIndex index, String ownerId, int limit) {
+        this(index, ownerId, limit, false);
+    }
+
+    /**
+     * @param index Índice del que se leen las puntuaciones
+     * @param ownerId ID del usuario dueño de la lista
+     * @param limit Número máximo de emparejamientos
+     * @param teachersOnly true para incluir solo candidatos que enseñan algo que el dueño quiere aprender
+     */
+    public MatchView(SkillMatchIndex index, String ownerId, int limit, boolean teachersOnly) {
+        this.index = index;
+        this.ownerId = ownerId;
+        this.limit = limit;
+        this.teachersOnly = teachersOnly;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * @return Copia de los emparejamientos actuales, de mejor a peor
+     */
+    public synchronized List<SkillMatch> getMatches() {
+        return new ArrayList<>(matches);
+    }
+
+    /**
+     * Recalcula la lista completa.
+     * @return Emparejamientos, de mejor a peor
+     */
+    public synchronized List<SkillMatch> refresh() {
+        matches = index.findMatches(ownerId, limit, teachersOnly);
+        return getMatches();
+    }
+
+    /**
+     * Actualiza la lista después de que un usuario se haya añadido o cambiado en el índice.
+     * @param userId ID del usuario que ha cambiado
+     * @return true si la lista ha cambiado
+     */
+    public synchronized boolean onUserChanged(String userId) {
+        if (ownerId.equals(userId)) {
+            refresh();
+            return true;
+        }
+        int position = positionOf(userId);
+        SkillMatch match = index.scoreCandidate(ownerId, userId);
+        if (teachersOnly && match != null && match.getSkillsOffered().isEmpty()) {
+            match = null;
+        }
+        if (position < 0) {
+            if (match == null || (matches.size() >= limit && !ranksAbove(match, matches.get(matches.size() - 1)))) {
+                return false;
+            }
+            insert(match);
+            return true;
+        }
+        SkillMatch previous = matches.remove(position);
+        boolean full = matches.size() + 1 >= limit;
+        if (full && (match == null || ranksAbove(previous, match))) {
+            // Ha bajado en una lista llena: puede haber otro candidato por encima que no está en la lista
+            refresh();
+            return true;
+        }
+        if (match != null) {
+            insert(match);
+        }
+        return true;
+    }
+
+    /**
+     * Actualiza la lista después de que un usuario se haya eliminado del índice.
+     * @param userId ID del usuario eliminado
+     * @return true si la lista ha cambiado
+     */
+    public synchronized boolean onUserRemoved(String userId) {
+        if (ownerId.equals(userId)) {
+            boolean changed = !matches.isEmpty();
+            matches = new ArrayList<>();
+            return changed;
+        }
+        int position = positionOf(userId);
+        if (position < 0) {
+            return false;
+        }
+        if (matches.size() >= limit) {
+            refresh();
+        } else {
+            matches.remove(position);
+        }
+        return true;
+    }
+
+    private int positionOf(String userId) {
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.get(i).getUserId().equals(userId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserta en orden y recorta al límite.
+     */
+    private void insert(SkillMatch match) {
+        int position = 0;
+        while (position < matches.size() && ranksAbove(matches.get(position), match)) {
+            position++;
+        }
+        matches.add(position, match);
+        if (matches.size() > limit) {
+            matches.remove(matches.size() - 1);
+        }
+    }
+
+    /**
+     * Mismo orden que el índice: mayor puntuación primero y, a igual puntuación, el ID menor.
+     */
+    private static boolean ranksAbove(SkillMatch a, SkillMatch b) {
+        int cmp = Double.compare(a.getScore(), b.getScore());
+        return cmp != 0 ? cmp > 0 : a.getUserId().compareTo(b.getUserId()) < 0;
+    }
+}
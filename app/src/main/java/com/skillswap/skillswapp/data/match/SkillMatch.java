@@ -0,0 +1,58 @@
+package com.skillswap.skillswapp.data.match;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado del emparejamiento con otro usuario.
+ * Indica qué habilidades puede enseñar el otro usuario de las que se quieren aprender,
+ * cuáles de las que se enseñan quiere aprender él, y la puntuación con la que se ordena.
+ */
+public class SkillMatch {
+    private final User user;
+    private final double score;
+    private final List<String> skillsOffered;
+    private final List<String> skillsWanted;
+
+    public SkillMatch(User user, double score, List<String> skillsOffered, List<String> skillsWanted) {
+        this.user = user;
+        this.score = score;
+        this.skillsOffered = skillsOffered != null ? skillsOffered : Collections.<String>emptyList();
+        this.skillsWanted = skillsWanted != null ? skillsWanted : Collections.<String>emptyList();
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUserId() {
+        return user.getUserId();
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * @return Títulos de las habilidades que enseña el otro usuario y se quieren aprender
+     */
+    public List<String> getSkillsOffered() {
+        return skillsOffered;
+    }
+
+    /**
+     * @return Títulos de las habilidades que se enseñan y el otro usuario quiere aprender
+     */
+    public List<String> getSkillsWanted() {
+        return skillsWanted;
+    }
+
+    /**
+     * @return true si el intercambio funciona en los dos sentidos
+     */
+    public boolean isReciprocal() {
+        return !skillsOffered.isEmpty() && !skillsWanted.isEmpty();
+    }
+}
@@ -0,0 +1,450 @@
+package com.skillswap.skillswapp.data.match;
+
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.search.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Índice en memoria para emparejar lo que un usuario quiere aprender con lo que otros enseñan.
+ * Las habilidades se indexan por título normalizado y por categoría, en los dos sentidos
+ * (enseñar y aprender), de modo que una consulta solo recorre los usuarios que comparten
+ * alguna habilidad o categoría en lugar de todos los usuarios.
+ *
+ * <p>Puntuación de un candidato:
+ * <ul>
+ *   <li>Lo que recibe el usuario: por cada habilidad que quiere aprender y el candidato enseña,
+ *   peso de la coincidencia (título o solo categoría) × prioridad × factor de nivel del candidato.</li>
+ *   <li>Lo que da: lo mismo con las habilidades que enseña el usuario y quiere aprender el candidato.</li>
+ *   <li>Total: recibe + da + {@link #RECIPROCAL_BONUS} × min(recibe, da), para que los
+ *   intercambios en los dos sentidos queden por encima de los de un solo sentido.</li>
+ * </ul>
+ */
+public class SkillMatchIndex {
+
+    /** Peso de una coincidencia por título. */
+    static final double TITLE_WEIGHT = 1.0;
+    /** Peso de una coincidencia solo por categoría. */
+    static final double CATEGORY_WEIGHT = 0.35;
+    /** Bonificación de los intercambios recíprocos, sobre el lado más débil. */
+    static final double RECIPROCAL_BONUS = 1.0;
+
+    private static final int MAX_LEVEL = 5;
+    private static final int MAX_PRIORITY = 3;
+    private static final int DEFAULT_PRIORITY = 2; // "Media", igual que en la interfaz
+
+    // Clave normalizada -> (ID de usuario -> habilidad). Un usuario aparece una vez por clave.
+    private final Map<String, Map<String, Entry>> teachByTitle = new HashMap<>();
+    private final Map<String, Map<String, Entry>> teachByCategory = new HashMap<>();
+    private final Map<String, Map<String, Entry>> learnByTitle = new HashMap<>();
+    private final Map<String, Map<String, Entry>> learnByCategory = new HashMap<>();
+    private final Map<String, IndexedUser> users = new HashMap<>();
+    // Texto original -> clave normalizada. Los títulos se repiten mucho entre usuarios y
+    // normalizarlos es lo más caro de indexar, así que cada texto distinto se normaliza una vez.
+    private final Map<String, String> keyCache = new HashMap<>();
+
+    /**
+     * Añade o reemplaza un usuario en el índice.
+     * @param user Usuario a indexar
+     */
+    public synchronized void putUser(User user) {
+        if (user == null || user.getUserId() == null) {
+            return;
+        }
+        removeUser(user.getUserId());
+        IndexedUser indexed = index(user);
+        for (Entry entry : indexed.teach) {
+            addPosting(teachByTitle, entry.titleKey, entry);
+            addPosting(teachByCategory, entry.categoryKey, entry);
+        }
+        for (Entry entry : indexed.learn) {
+            addPosting(learnByTitle, entry.titleKey, entry);
+            addPosting(learnByCategory, entry.categoryKey, entry);
+        }
+        users.put(indexed.user.getUserId(), indexed);
+    }
+
+    /**
+     * Elimina un usuario del índice.
+     * @param userId ID del usuario a eliminar
+     */
+    public synchronized void removeUser(String userId) {
+        IndexedUser indexed = userId != null ? users.remove(userId) : null;
+        if (indexed == null) {
+            return;
+        }
+        for (Entry entry : indexed.teach) {
+            removePosting(teachByTitle, entry.titleKey, userId);
+            removePosting(teachByCategory, entry.categoryKey, userId);
+        }
+        for (Entry entry : indexed.learn) {
+            removePosting(learnByTitle, entry.titleKey, userId);
+            removePosting(learnByCategory, entry.categoryKey, userId);
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public synchronized void clear() {
+        teachByTitle.clear();
+        teachByCategory.clear();
+        learnByTitle.clear();
+        learnByCategory.clear();
+        users.clear();
+        keyCache.clear();
+    }
+
+    /**
+     * @return Número de usuarios indexados
+     */
+    public synchronized int size() {
+        return users.size();
+    }
+
+    /**
+     * Busca los mejores emparejamientos de un usuario ya indexado.
+     * @param userId ID del usuario
+     * @param limit Número máximo de resultados
+     * @return Emparejamientos de mayor a menor puntuación (vacío si el usuario no está indexado)
+     */
+    public synchronized List<SkillMatch> findMatches(String userId, int limit) {
+        return findMatches(userId, limit, false);
+    }
+
+    /**
+     * Busca los mejores emparejamientos de un usuario ya indexado.
+     * @param userId ID del usuario
+     * @param limit Número máximo de resultados
+     * @param teachersOnly true para quedarse solo con candidatos que enseñan algo que el usuario
+     *                     quiere aprender; el corte se hace después de filtrar, de modo que los
+     *                     que solo quieren aprender no ocupan los puestos
+     * @return Emparejamientos de mayor a menor puntuación (vacío si el usuario no está indexado)
+     */
+    public synchronized List<SkillMatch> findMatches(String userId, int limit, boolean teachersOnly) {
+        IndexedUser indexed = userId != null ? users.get(userId) : null;
+        if (indexed == null) {
+            return new ArrayList<>();
+        }
+        return findMatches(indexed, limit, teachersOnly);
+    }
+
+    /**
+     * Busca los mejores emparejamientos de un usuario, esté o no en el índice
+     * (por ejemplo, con su perfil recién editado).
+     * @param user Usuario
+     * @param limit Número máximo de resultados
+     * @return Emparejamientos de mayor a menor puntuación
+     */
+    public synchronized List<SkillMatch> findMatches(User user, int limit) {
+        if (user == null || user.getUserId() == null) {
+            return new ArrayList<>();
+        }
+        return findMatches(index(user), limit, false);
+    }
+
+    /**
+     * Calcula el emparejamiento de un usuario con un único candidato, con la misma puntuación
+     * que {@link #findMatches(String, int)}. Sirve para actualizar una lista ya calculada
+     * cuando cambia un solo usuario sin recorrer todos los candidatos.
+     * @param userId ID del usuario
+     * @param candidateId ID del candidato
+     * @return Emparejamiento, o null si no comparten ninguna habilidad o alguno no está indexado
+     */
+    public synchronized SkillMatch scoreCandidate(String userId, String candidateId) {
+        IndexedUser me = userId != null ? users.get(userId) : null;
+        IndexedUser candidate = candidateId != null ? users.get(candidateId) : null;
+        if (me == null || candidate == null || userId.equals(candidateId)) {
+            return null;
+        }
+        Score score = new Score(candidateId);
+        for (Entry wanted : me.learn) {
+            double priority = priorityFactor(wanted.weight);
+            if (!accumulateOne(score, teachByTitle.get(wanted.titleKey), TITLE_WEIGHT * priority, true)) {
+                accumulateOne(score, teachByCategory.get(wanted.categoryKey), CATEGORY_WEIGHT * priority, true);
+            }
+        }
+        for (Entry offered : me.teach) {
+            double level = levelFactor(offered.weight);
+            if (!accumulateOne(score, learnByTitle.get(offered.titleKey), TITLE_WEIGHT * level, false)) {
+                accumulateOne(score, learnByCategory.get(offered.categoryKey), CATEGORY_WEIGHT * level, false);
+            }
+        }
+        if (score.offered == null && score.wanted == null) {
+            return null;
+        }
+        return new SkillMatch(candidate.user, score.total(), score.offered, score.wanted);
+    }
+
+    private List<SkillMatch> findMatches(IndexedUser me, int limit, boolean teachersOnly) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        String myId = me.user.getUserId();
+        Map<String, Score> scores = new HashMap<>();
+
+        // Lo que el usuario quiere aprender frente a lo que enseñan los demás
+        for (Entry wanted : me.learn) {
+            double priority = priorityFactor(wanted.weight);
+            Set<String> byTitle = accumulate(scores, teachByTitle.get(wanted.titleKey), myId, null,
+                    TITLE_WEIGHT * priority, true);
+            accumulate(scores, teachByCategory.get(wanted.categoryKey), myId, byTitle,
+                    CATEGORY_WEIGHT * priority, true);
+        }
+
+        // Lo que el usuario enseña frente a lo que quieren aprender los demás
+        for (Entry offered : me.teach) {
+            double level = levelFactor(offered.weight);
+            Set<String> byTitle = accumulate(scores, learnByTitle.get(offered.titleKey), myId, null,
+                    TITLE_WEIGHT * level, false);
+            accumulate(scores, learnByCategory.get(offered.categoryKey), myId, byTitle,
+                    CATEGORY_WEIGHT * level, false);
+        }
+
+        // Quedarse con los mejores sin ordenar todos los candidatos
+        Comparator<Score> byRank = new Comparator<Score>() {
+            @Override
+            public int compare(Score a, Score b) {
+                int cmp = Double.compare(a.total(), b.total());
+                // A igual puntuación, primero el ID menor (orden estable entre consultas)
+                return cmp != 0 ? cmp : b.userId.compareTo(a.userId);
+            }
+        };
+        PriorityQueue<Score> top = new PriorityQueue<>(Math.min(limit, Math.max(1, scores.size())), byRank);
+        for (Score score : scores.values()) {
+            if (teachersOnly && score.offered == null) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(score);
+            } else if (byRank.compare(score, top.peek()) > 0) {
+                top.poll();
+                top.add(score);
+            }
+        }
+
+        List<SkillMatch> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Score score = top.poll();
+            result.add(new SkillMatch(users.get(score.userId).user, score.total(), score.offered, score.wanted));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Suma la contribución de una lista de entradas a la puntuación de cada candidato.
+     * @param skip Candidatos ya contados con esta habilidad por título (null si no hay)
+     * @param receiving true si el candidato enseña y el usuario aprende; false al revés
+     * @return IDs de los candidatos contados, para no contarlos dos veces por categoría
+     */
+    private Set<String> accumulate(Map<String, Score> scores, Map<String, Entry> posting, String myId,
+                                   Set<String> skip, double weight, boolean receiving) {
+        if (posting == null || posting.isEmpty()) {
+            return Collections.emptySet();
+        }
+        for (Entry entry : posting.values()) {
+            if (entry.userId.equals(myId) || (skip != null && skip.contains(entry.userId))) {
+                continue;
+            }
+            Score score = scores.get(entry.userId);
+            if (score == null) {
+                score = new Score(entry.userId);
+                scores.put(entry.userId, score);
+            }
+            if (receiving) {
+                score.receive += weight * levelFactor(entry.weight);
+                score.offered = addTitle(score.offered, entry.title);
+            } else {
+                score.give += weight * priorityFactor(entry.weight);
+                score.wanted = addTitle(score.wanted, entry.title);
+            }
+        }
+        return skip == null ? posting.keySet() : Collections.<String>emptySet();
+    }
+
+    /**
+     * Versión de {@link #accumulate} para un solo candidato.
+     * @return true si el candidato aparece en la lista de entradas
+     */
+    private static boolean accumulateOne(Score score, Map<String, Entry> posting, double weight, boolean receiving) {
+        Entry entry = posting != null ? posting.get(score.userId) : null;
+        if (entry == null) {
+            return false;
+        }
+        if (receiving) {
+            score.receive += weight * levelFactor(entry.weight);
+            score.offered = addTitle(score.offered, entry.title);
+        } else {
+            score.give += weight * priorityFactor(entry.weight);
+            score.wanted = addTitle(score.wanted, entry.title);
+        }
+        return true;
+    }
+
+    private static List<String> addTitle(List<String> titles, String title) {
+        if (titles == null) {
+            titles = new ArrayList<>(2);
+        }
+        if (!titles.contains(title)) {
+            titles.add(title);
+        }
+        return titles;
+    }
+
+    /**
+     * Nivel 1..5 -> 0.6..1.0: un nivel bajo sigue siendo útil, pero puntúa menos.
+     */
+    static double levelFactor(int level) {
+        int clamped = Math.max(1, Math.min(MAX_LEVEL, level));
+        return 0.5 + 0.5 * clamped / MAX_LEVEL;
+    }
+
+    /**
+     * Prioridad 1..3 (Baja, Media, Alta); sin prioridad cuenta como Media.
+     */
+    static double priorityFactor(int priority) {
+        int value = priority > 0 ? Math.min(MAX_PRIORITY, priority) : DEFAULT_PRIORITY;
+        return (double) value / MAX_PRIORITY;
+    }
+
+    /**
+     * Clave normalizada de un título o categoría: tokens sin acentos separados por un espacio.
+     */
+    static String key(String text) {
+        Set<String> tokens = TextNormalizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String token : tokens) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(token);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Normaliza las habilidades de un usuario.
+     */
+    private IndexedUser index(User user) {
+        IndexedUser indexed = new IndexedUser(user);
+        String userId = user.getUserId();
+        if (user.getSkillsToTeach() != null) {
+            for (User.SkillToTeach skill : user.getSkillsToTeach().values()) {
+                if (skill != null) {
+                    indexed.teach.add(new Entry(userId, skill.getTitle(), cachedKey(skill.getTitle()),
+                            cachedKey(skill.getCategory()), skill.getLevel()));
+                }
+            }
+        }
+        if (user.getSkillsToLearn() != null) {
+            for (User.SkillToLearn skill : user.getSkillsToLearn().values()) {
+                if (skill != null) {
+                    indexed.learn.add(new Entry(userId, skill.getTitle(), cachedKey(skill.getTitle()),
+                            cachedKey(skill.getCategory()), skill.getPriority()));
+                }
+            }
+        }
+        return indexed;
+    }
+
+    private String cachedKey(String text) {
+        if (text == null) {
+            return "";
+        }
+        String cached = keyCache.get(text);
+        if (cached == null) {
+            cached = key(text);
+            keyCache.put(text, cached);
+        }
+        return cached;
+    }
+
+    private static void addPosting(Map<String, Map<String, Entry>> postings, String key, Entry entry) {
+        if (key.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> posting = postings.get(key);
+        if (posting == null) {
+            posting = new HashMap<>();
+            postings.put(key, posting);
+        }
+        // Si el usuario tiene varias habilidades con la misma clave se queda la de más peso
+        Entry existing = posting.get(entry.userId);
+        if (existing == null || existing.weight < entry.weight) {
+            posting.put(entry.userId, entry);
+        }
+    }
+
+    private static void removePosting(Map<String, Map<String, Entry>> postings, String key, String userId) {
+        Map<String, Entry> posting = postings.get(key);
+        if (posting == null) {
+            return;
+        }
+        posting.remove(userId);
+        if (posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Habilidad indexada: nivel (si se enseña) o prioridad (si se quiere aprender).
+     */
+    private static final class Entry {
+        final String userId;
+        final String title;
+        final String titleKey;
+        final String categoryKey;
+        final int weight;
+
+        Entry(String userId, String title, String titleKey, String categoryKey, int weight) {
+            this.userId = userId;
+            this.title = title != null ? title : "";
+            this.titleKey = titleKey;
+            this.categoryKey = categoryKey;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Usuario con sus habilidades ya normalizadas.
+     */
+    private static final class IndexedUser {
+        final User user;
+        final List<Entry> teach = new ArrayList<>();
+        final List<Entry> learn = new ArrayList<>();
+
+        IndexedUser(User user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * Puntuación acumulada de un candidato durante una consulta.
+     */
+    private static final class Score {
+        final String userId;
+        double receive;
+        double give;
+        List<String> offered;
+        List<String> wanted;
+
+        Score(String userId) {
+            this.userId = userId;
+        }
+
+        double total() {
+            return receive + give + RECIPROCAL_BONUS * Math.min(receive, give);
+        }
+    }
+}
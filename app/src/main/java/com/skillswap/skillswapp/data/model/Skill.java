@@ -17,6 +17,8 @@ public class Skill {
     private String imageUrl;
     private List<String> usersTeaching;
     private List<String> teachingUsers;
+    // Valor de teacher_count; -1 si la habilidad no lo tiene y hay que contar usersTeaching
+    private int teacherCount = -1;
 
     // Constructor vacío requerido para Firebase
     public Skill() {
@@ -80,6 +82,20 @@ public class Skill {
         this.usersTeaching = usersTeaching;
     }
 
+    /**
+     * @return Número de profesores: el contador guardado o, si no hay, el tamaño de usersTeaching
+     */
+    public int getTeacherCount() {
+        if (teacherCount >= 0) {
+            return teacherCount;
+        }
+        return usersTeaching != null ? usersTeaching.size() : 0;
+    }
+
+    public void setTeacherCount(int teacherCount) {
+        this.teacherCount = teacherCount;
+    }
+
     public void addUserTeaching(String userId) {
         if (!usersTeaching.contains(userId)) {
             usersTeaching.add(userId);
@@ -131,7 +147,15 @@ public class Skill {
         result.put("description", description);
         result.put("level", level);
         result.put("imageUrl", imageUrl);
-        result.put("users_teaching", usersTeaching);
+        // users_teaching como mapa {userId: true}, para poder dar de alta y de baja por clave
+        Map<String, Object> teachers = new HashMap<>();
+        if (usersTeaching != null) {
+            for (String userId : usersTeaching) {
+                teachers.put(userId, true);
+            }
+        }
+        result.put("users_teaching", teachers);
+        result.put("teacher_count", teachers.size());
         return result;
     }
 }
@@ -0,0 +1,41 @@
+package com.skillswap.skillswapp.data.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de cargar varios usuarios por ID de una sola vez.
+ * Los usuarios encontrados mantienen el orden de los IDs solicitados.
+ */
+public class UserBatchResult {
+    private final List<User> users;
+    private final List<String> missingIds;
+    private final boolean timedOut;
+
+    public UserBatchResult(List<User> users, List<String> missingIds, boolean timedOut) {
+        this.users = users != null ? users : new ArrayList<>();
+        this.missingIds = missingIds != null ? missingIds : new ArrayList<>();
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return Usuarios encontrados, en el orden solicitado
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * @return IDs que no existen, no se pudieron leer o no respondieron a tiempo
+     */
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+
+    /**
+     * @return true si se agotó el tiempo de espera antes de recibir todos los usuarios
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
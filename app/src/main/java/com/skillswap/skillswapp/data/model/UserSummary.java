@@ -0,0 +1,136 @@
+package com.skillswap.skillswapp.data.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resumen de un usuario para las pantallas de listas.
+ * Se guarda desnormalizado en user_summaries/{userId} y solo contiene lo que muestra
+ * cada fila: nombre, biografía, foto y número de habilidades que enseña.
+ */
+public class UserSummary {
+    private String userId;
+    private String name;
+    private String bio;
+    private String photoUrl;
+    private int skillsToTeachCount;
+
+    // Constructor vacío requerido para Firebase
+    public UserSummary() {
+    }
+
+    public UserSummary(String userId, String name, String bio, String photoUrl, int skillsToTeachCount) {
+        this.userId = userId;
+        this.name = name;
+        this.bio = bio;
+        this.photoUrl = photoUrl;
+        this.skillsToTeachCount = skillsToTeachCount;
+    }
+
+    /**
+     * Crea el resumen de un usuario completo.
+     * @param user Usuario completo
+     * @return Resumen, o null si el usuario es null
+     */
+    public static UserSummary fromUser(User user) {
+        if (user == null) {
+            return null;
+        }
+        UserSummary summary = new UserSummary();
+        summary.setUserId(user.getUserId());
+        if (user.getProfile() != null) {
+            summary.setName(user.getProfile().getName());
+            summary.setBio(user.getProfile().getBio());
+            summary.setPhotoUrl(user.getProfile().getPhotoUrl());
+        }
+        summary.setSkillsToTeachCount(user.getSkillsToTeach() != null ? user.getSkillsToTeach().size() : 0);
+        return summary;
+    }
+
+    /**
+     * Crea los resúmenes de una lista de usuarios completos, manteniendo el orden.
+     * @param users Usuarios completos
+     * @return Lista de resúmenes
+     */
+    public static List<UserSummary> fromUsers(List<User> users) {
+        List<UserSummary> summaries = new ArrayList<>();
+        if (users == null) {
+            return summaries;
+        }
+        for (User user : users) {
+            UserSummary summary = fromUser(user);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Indica si otro resumen muestra lo mismo en su fila.
+     * El estado de favorito no cuenta: las listas lo toman del conjunto compartido de favoritos.
+     * @param other Resumen a comparar
+     * @return true si coinciden todos los campos visibles
+     */
+    public boolean hasSameContent(UserSummary other) {
+        return other != null
+                && skillsToTeachCount == other.skillsToTeachCount
+                && Objects.equals(name, other.name)
+                && Objects.equals(bio, other.bio)
+                && Objects.equals(photoUrl, other.photoUrl);
+    }
+
+    // Getters y setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBio() {
+        return bio;
+    }
+
+    public void setBio(String bio) {
+        this.bio = bio;
+    }
+
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public void setPhotoUrl(String photoUrl) {
+        this.photoUrl = photoUrl;
+    }
+
+    public int getSkillsToTeachCount() {
+        return skillsToTeachCount;
+    }
+
+    public void setSkillsToTeachCount(int skillsToTeachCount) {
+        this.skillsToTeachCount = skillsToTeachCount;
+    }
+
+    // Método para convertir a Map para Firebase
+    public Map<String, Object> toMap() {
+        HashMap<String, Object> result = new HashMap<>();
+        result.put("name", name);
+        result.put("bio", bio);
+        result.put("photoUrl", photoUrl);
+        result.put("skills_to_teach_count", skillsToTeachCount);
+        return result;
+    }
+}
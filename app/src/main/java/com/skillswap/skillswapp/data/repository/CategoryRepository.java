@@ -3,11 +3,15 @@ package com.skillswap.skillswapp.data.repository;
 import androidx.lifecycle.MutableLiveData;
 
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.skillswap.skillswapp.data.local.db.LocalDataSource;
+import com.skillswap.skillswapp.data.local.db.LocalDatabase;
+import com.skillswap.skillswapp.data.local.db.LocalMirrorSync;
 import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.sync.SyncedCollection;
+import com.skillswap.skillswapp.data.util.CategorySnapshotParser;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,10 +23,25 @@ public class CategoryRepository {
     private DatabaseReference databaseRef;
     private DatabaseReference categoriesRef;
     private static CategoryRepository instance;
+    private SyncedCollection<Category> categoriesCollection;
+    private final LocalDataSource localSource;
+    private final LocalMirrorSync mirror;
 
     private CategoryRepository() {
-        databaseRef = FirebaseDatabase.getInstance().getReference();
+        this(FirebaseDatabase.getInstance().getReference(),
+                LocalDataSource.from(LocalDatabase.getInstance()), LocalMirrorSync.from(LocalDatabase.getInstance()));
+    }
+
+    /**
+     * @param databaseRef Raíz de la base de datos de Firebase
+     * @param localSource Lecturas de la base local, o null para usar solo Firebase
+     * @param mirror Copia local de lo que se descarga, o null para no guardar nada
+     */
+    CategoryRepository(DatabaseReference databaseRef, LocalDataSource localSource, LocalMirrorSync mirror) {
+        this.databaseRef = databaseRef;
         categoriesRef = databaseRef.child("categories");
+        this.localSource = localSource;
+        this.mirror = mirror;
     }
 
     public static CategoryRepository getInstance() {
@@ -54,11 +73,9 @@ public class CategoryRepository {
      * Obtiene una categoría por su ID.
      */
     public MutableLiveData<Category> getCategoryById(String categoryId) {
-        MutableLiveData<Category> categoryLiveData = new MutableLiveData<>();
-        
-        categoriesRef.child(categoryId).addValueEventListener(new ValueEventListener() {
+        QueryLiveData<Category> categoryLiveData = new QueryLiveData<Category>(categoriesRef.child(categoryId), null) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 if (dataSnapshot.exists()) {
                     try {
                         Category category = new Category();
@@ -67,59 +84,37 @@ public class CategoryRepository {
                         category.setDescription(dataSnapshot.child("description").getValue(String.class));
                         category.setIconUrl(dataSnapshot.child("icon_url").getValue(String.class));
                         
-                        categoryLiveData.setValue(category);
+                        setValue(category);
                     } catch (Exception e) {
-                        categoryLiveData.setValue(null);
+                        setValue(null);
                     }
                 } else {
-                    categoryLiveData.setValue(null);
+                    setValue(null);
                 }
             }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                categoryLiveData.setValue(null);
-            }
-        });
+        };
         
         return categoryLiveData;
     }
 
     /**
      * Obtiene todas las categorías.
+     * Publica primero la copia local, si existe, y después las categorías de Firebase,
+     * sincronizadas por eventos de hijos y guardadas en la copia local.
+     * @return Colección compartida por todos los observadores
      */
     public MutableLiveData<List<Category>> getAllCategories() {
-        MutableLiveData<List<Category>> categoriesLiveData = new MutableLiveData<>();
-        
-        categoriesRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<Category> categories = new ArrayList<>();
-                
-                for (DataSnapshot categorySnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Category category = new Category();
-                        category.setCategoryId(categorySnapshot.getKey());
-                        category.setName(categorySnapshot.child("name").getValue(String.class));
-                        category.setDescription(categorySnapshot.child("description").getValue(String.class));
-                        category.setIconUrl(categorySnapshot.child("icon_url").getValue(String.class));
-                        
-                        categories.add(category);
-                    } catch (Exception e) {
-                        // Ignorar categorías con formato incorrecto
-                    }
-                }
-                
-                categoriesLiveData.setValue(categories);
+        if (categoriesCollection == null) {
+            categoriesCollection = new SyncedCollection<>(categoriesRef, CategorySnapshotParser::parse);
+            // Mostrar la copia local mientras llega la carga inicial
+            if (localSource != null) {
+                categoriesCollection.seed(localSource.getAllCategories(), Category::getCategoryId);
             }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                categoriesLiveData.setValue(new ArrayList<>());
+            if (mirror != null) {
+                categoriesCollection.mirrorTo(mirror.categories());
             }
-        });
-        
-        return categoriesLiveData;
+        }
+        return categoriesCollection;
     }
 
     /**
@@ -141,8 +136,6 @@ public class CategoryRepository {
      * @return LiveData con la lista de categorías que coinciden
      */
     public MutableLiveData<List<Category>> searchCategories(String query) {
-        MutableLiveData<List<Category>> categoriesLiveData = new MutableLiveData<>();
-        
         // Si la consulta está vacía, devolver todas las categorías
         if (query == null || query.trim().isEmpty()) {
             return getAllCategories();
@@ -151,9 +144,9 @@ public class CategoryRepository {
         // Convertir a minúsculas para búsqueda sin distinción entre mayúsculas y minúsculas
         final String queryLowerCase = query.toLowerCase().trim();
         
-        categoriesRef.addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<Category>> categoriesLiveData = new QueryLiveData<List<Category>>(categoriesRef, new ArrayList<>()) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 List<Category> categories = new ArrayList<>();
                 
                 for (DataSnapshot categorySnapshot : dataSnapshot.getChildren()) {
@@ -175,14 +168,9 @@ public class CategoryRepository {
                     }
                 }
                 
-                categoriesLiveData.setValue(categories);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                categoriesLiveData.setValue(new ArrayList<>());
+                setValue(categories);
             }
-        });
+        };
         
         return categoriesLiveData;
     }
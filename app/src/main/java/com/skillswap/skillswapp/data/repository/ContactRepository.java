@@ -1,23 +1,24 @@
 package com.skillswap.skillswapp.data.repository;
 
 import android.content.Context;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
-import com.google.firebase.database.ValueEventListener;
 import com.skillswap.skillswapp.data.local.ImageStorageManager;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repositorio para manejar los contactos recientes en Firebase Realtime Database.
@@ -106,17 +107,19 @@ public class ContactRepository {
     /**
      * Obtiene los contactos recientes del usuario actual.
      * @param userId ID del usuario
-     * @return LiveData con la lista de usuarios contactados recientemente
+     * @return LiveData con los resúmenes de los usuarios contactados recientemente
      */
-    public MutableLiveData<List<User>> getRecentContacts(String userId) {
-        MutableLiveData<List<User>> contactsLiveData = new MutableLiveData<>();
-        
+    public MutableLiveData<List<UserSummary>> getRecentContacts(String userId) {
         // Obtener los contactos recientes ordenados por timestamp (más recientes primero)
         Query query = contactsRef.child(userId).orderByChild("timestamp");
         
-        query.addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<UserSummary>> contactsLiveData = new QueryLiveData<List<UserSummary>>(query, new ArrayList<>()) {
+            // Cada snapshot descarta los resúmenes pedidos por el anterior que aún no han llegado
+            private int generation;
+            
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
+                int snapshotGeneration = ++generation;
                 List<String> contactUserIds = new ArrayList<>();
                 
                 // Recorrer los contactos en orden inverso (más recientes primero)
@@ -125,41 +128,27 @@ public class ContactRepository {
                 }
                 
                 // Obtener los datos de los usuarios
-                getUsersFromIds(contactUserIds, contactsLiveData);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                contactsLiveData.setValue(new ArrayList<>());
+                getUsersFromIds(contactUserIds, summaries -> {
+                    if (snapshotGeneration == generation) {
+                        setValue(summaries);
+                    }
+                });
             }
-        });
+        };
         
         return contactsLiveData;
     }
 
     /**
-     * Método auxiliar para obtener los datos de los usuarios a partir de sus IDs.
+     * Método auxiliar para obtener los resúmenes de los usuarios a partir de sus IDs.
      */
-    private void getUsersFromIds(List<String> userIds, MutableLiveData<List<User>> usersLiveData) {
+    private void getUsersFromIds(List<String> userIds, Consumer<List<UserSummary>> onLoaded) {
         if (userIds.isEmpty()) {
-            usersLiveData.setValue(new ArrayList<>());
+            onLoaded.accept(new ArrayList<>());
             return;
         }
         
-        List<User> users = new ArrayList<>();
-        final int[] remaining = {userIds.size()};
-        
-        for (String userId : userIds) {
-            userRepository.getUserById(userId).observeForever(user -> {
-                if (user != null) {
-                    users.add(user);
-                }
-                
-                remaining[0]--;
-                if (remaining[0] == 0) {
-                    usersLiveData.setValue(users);
-                }
-            });
-        }
+        // Una sola carga agrupada de resúmenes en lugar de un listener por usuario
+        userRepository.loadUserSummariesByIds(userIds, onLoaded);
     }
 }
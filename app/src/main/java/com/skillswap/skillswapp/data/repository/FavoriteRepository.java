@@ -1,5 +1,6 @@
 package com.skillswap.skillswapp.data.repository;
 
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.google.firebase.auth.FirebaseAuth;
@@ -9,13 +10,15 @@ import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 import com.skillswap.skillswapp.data.model.Favorite;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repositorio para manejar los favoritos en Firebase Realtime Database.
@@ -82,11 +85,9 @@ public class FavoriteRepository {
      * Obtiene todos los favoritos de un usuario.
      */
     public MutableLiveData<List<Favorite>> getFavoritesByUserId(String userId) {
-        MutableLiveData<List<Favorite>> favoritesLiveData = new MutableLiveData<>();
-        
-        favoritesRef.child(userId).addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<Favorite>> favoritesLiveData = new QueryLiveData<List<Favorite>>(favoritesRef.child(userId), new ArrayList<>()) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 List<Favorite> favorites = new ArrayList<>();
                 
                 for (DataSnapshot favoriteSnapshot : dataSnapshot.getChildren()) {
@@ -104,14 +105,9 @@ public class FavoriteRepository {
                     }
                 }
                 
-                favoritesLiveData.setValue(favorites);
+                setValue(favorites);
             }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                favoritesLiveData.setValue(new ArrayList<>());
-            }
-        });
+        };
         
         return favoritesLiveData;
     }
@@ -140,17 +136,20 @@ public class FavoriteRepository {
     /**
      * Obtiene los usuarios favoritos del usuario actual.
      * @param userId ID del usuario
-     * @return LiveData con la lista de usuarios favoritos
+     * @return LiveData con los resúmenes de los usuarios favoritos
      */
-    public MutableLiveData<List<User>> getFavoriteUsers(String userId) {
-        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
+    public MutableLiveData<List<UserSummary>> getFavoriteUsers(String userId) {
         UserRepository userRepository = UserRepository.getInstance();
         
-        favoritesRef.child(userId).addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<UserSummary>> usersLiveData = new QueryLiveData<List<UserSummary>>(favoritesRef.child(userId), new ArrayList<>()) {
+            // Cada snapshot descarta los resúmenes pedidos por el anterior que aún no han llegado
+            private int generation;
+            
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
+                int snapshotGeneration = ++generation;
                 if (!dataSnapshot.exists()) {
-                    usersLiveData.setValue(new ArrayList<>());
+                    setValue(new ArrayList<>());
                     return;
                 }
                 
@@ -160,14 +159,13 @@ public class FavoriteRepository {
                 }
                 
                 // Obtener los datos de los usuarios favoritos
-                getUsersFromIds(favoriteUserIds, usersLiveData, userRepository);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                usersLiveData.setValue(new ArrayList<>());
+                getUsersFromIds(favoriteUserIds, userRepository, summaries -> {
+                    if (snapshotGeneration == generation) {
+                        setValue(summaries);
+                    }
+                });
             }
-        });
+        };
         
         return usersLiveData;
     }
@@ -178,55 +176,33 @@ public class FavoriteRepository {
      * @return LiveData con el conjunto de IDs de usuarios favoritos
      */
     public MutableLiveData<Set<String>> getFavoriteUserIds(String userId) {
-        MutableLiveData<Set<String>> favoriteIdsLiveData = new MutableLiveData<>();
-        
-        favoritesRef.child(userId).addValueEventListener(new ValueEventListener() {
+        QueryLiveData<Set<String>> favoriteIdsLiveData = new QueryLiveData<Set<String>>(favoritesRef.child(userId), new HashSet<>()) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 Set<String> favoriteIds = new HashSet<>();
                 
                 for (DataSnapshot favoriteSnapshot : dataSnapshot.getChildren()) {
                     favoriteIds.add(favoriteSnapshot.getKey());
                 }
                 
-                favoriteIdsLiveData.setValue(favoriteIds);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                favoriteIdsLiveData.setValue(new HashSet<>());
+                setValue(favoriteIds);
             }
-        });
+        };
         
         return favoriteIdsLiveData;
     }
     
     /**
-     * Método auxiliar para obtener los datos de los usuarios a partir de sus IDs.
+     * Método auxiliar para obtener los resúmenes de los usuarios a partir de sus IDs.
      */
-    private void getUsersFromIds(List<String> userIds, MutableLiveData<List<User>> usersLiveData, UserRepository userRepository) {
+    private void getUsersFromIds(List<String> userIds, UserRepository userRepository, Consumer<List<UserSummary>> onLoaded) {
         if (userIds.isEmpty()) {
-            usersLiveData.setValue(new ArrayList<>());
+            onLoaded.accept(new ArrayList<>());
             return;
         }
         
-        List<User> users = new ArrayList<>();
-        final int[] remaining = {userIds.size()};
-        
-        for (String userId : userIds) {
-            userRepository.getUserById(userId).observeForever(user -> {
-                if (user != null) {
-                    // Marcar como favorito para la UI
-                    user.setFavorite(true);
-                    users.add(user);
-                }
-                
-                remaining[0]--;
-                if (remaining[0] == 0) {
-                    usersLiveData.setValue(users);
-                }
-            });
-        }
+        // Una sola carga agrupada de resúmenes en lugar de un listener por usuario
+        userRepository.loadUserSummariesByIds(userIds, onLoaded);
     }
     
     /**
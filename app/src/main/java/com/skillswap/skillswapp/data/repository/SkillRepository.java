@@ -1,29 +1,83 @@
 package com.skillswap.skillswapp.data.repository;
 
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
 import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
+import com.skillswap.skillswapp.data.local.db.LocalDataSource;
+import com.skillswap.skillswapp.data.local.db.LocalDatabase;
+import com.skillswap.skillswapp.data.local.db.LocalMirrorSync;
 import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.search.SearchIndexPaths;
+import com.skillswap.skillswapp.data.search.SkillTitleTrie;
+import com.skillswap.skillswapp.data.stats.SkillStatsRecorder;
+import com.skillswap.skillswapp.data.sync.ChildSync;
+import com.skillswap.skillswapp.data.sync.SyncedCollection;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+import com.skillswap.skillswapp.data.util.LocalFirstLiveData;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
+import com.skillswap.skillswapp.data.util.SkillSnapshotParser;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repositorio para manejar las habilidades en Firebase Realtime Database.
  */
 public class SkillRepository {
+    private static final String TAG = "SkillRepository";
+    // Profesores de una habilidad: skills/{skillId}/users_teaching/{userId} = true
+    public static final String USERS_TEACHING = "users_teaching";
+    // Número de profesores, mantenido junto con cada alta o baja en users_teaching
+    public static final String TEACHER_COUNT = "teacher_count";
+    // Habilidades que se muestran como destacadas
+    private static final int FEATURED_SKILLS = 10;
+    
     private DatabaseReference databaseRef;
     private DatabaseReference skillsRef;
     private static SkillRepository instance;
+    private SyncedCollection<Skill> skillsCollection;
+    // Títulos para las sugerencias: primero la copia local y después al día con Firebase
+    private SkillTitleTrie titleTrie = new SkillTitleTrie();
+    private ChildSync<Skill> titleSync;
+    private boolean titleTrieReady;
+    private boolean titleTrieLoaded;
+    // Cambios recibidos mientras se construye el índice en segundo plano (null si no se está construyendo)
+    private List<Consumer<SkillTitleTrie>> pendingTitleChanges;
+    private final LocalDataSource localSource;
+    private final LocalMirrorSync mirror;
 
     private SkillRepository() {
-        databaseRef = FirebaseDatabase.getInstance().getReference();
+        this(FirebaseDatabase.getInstance().getReference(),
+                LocalDataSource.from(LocalDatabase.getInstance()), LocalMirrorSync.from(LocalDatabase.getInstance()));
+    }
+
+    /**
+     * @param databaseRef Raíz de la base de datos de Firebase
+     * @param localSource Lecturas de la base local, o null para usar solo Firebase
+     * @param mirror Copia local de lo que se descarga, o null para no guardar nada
+     */
+    SkillRepository(DatabaseReference databaseRef, LocalDataSource localSource, LocalMirrorSync mirror) {
+        this.databaseRef = databaseRef;
         skillsRef = databaseRef.child("skills");
+        this.localSource = localSource;
+        this.mirror = mirror;
     }
 
     public static SkillRepository getInstance() {
@@ -44,9 +98,28 @@ public class SkillRepository {
             skill.setSkillId(skillsRef.push().getKey());
         }
         
-        skillsRef.child(skill.getSkillId()).setValue(skill.toMap())
-                .addOnSuccessListener(aVoid -> saveResult.setValue(true))
-                .addOnFailureListener(e -> saveResult.setValue(false));
+        String skillId = skill.getSkillId();
+        
+        // Leer la categoría anterior para mantener skills_by_category en la misma escritura
+        skillsRef.child(skillId).child("category").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                String oldCategoryId = dataSnapshot.getValue(String.class);
+                
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("skills/" + skillId, skill.toMap());
+                updates.putAll(SearchIndexPaths.skillCategoryUpdates(skillId, oldCategoryId, skill.getCategory()));
+                
+                databaseRef.updateChildren(updates)
+                        .addOnSuccessListener(aVoid -> saveResult.setValue(true))
+                        .addOnFailureListener(e -> saveResult.setValue(false));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                saveResult.setValue(false);
+            }
+        });
         
         return saveResult;
     }
@@ -91,28 +164,70 @@ public class SkillRepository {
             return deleteResult;
         }
         
-        skillsRef.child(skillId).removeValue()
-                .addOnSuccessListener(aVoid -> deleteResult.setValue(true))
-                .addOnFailureListener(e -> deleteResult.setValue(false));
+        // Leer la categoría para retirar la habilidad también de skills_by_category
+        skillsRef.child(skillId).child("category").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("skills/" + skillId, null);
+                // Sacarla de las destacadas; el historial diario se conserva
+                updates.put(SkillStatsRecorder.SKILL_STATS + "/" + skillId + "/" + SkillStatsRecorder.POPULARITY, null);
+                updates.putAll(SearchIndexPaths.skillCategoryUpdates(skillId, dataSnapshot.getValue(String.class), null));
+                
+                databaseRef.updateChildren(updates)
+                        .addOnSuccessListener(aVoid -> deleteResult.setValue(true))
+                        .addOnFailureListener(e -> deleteResult.setValue(false));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                deleteResult.setValue(false);
+            }
+        });
         
         return deleteResult;
     }
     
     /**
-     * Obtiene sugerencias de búsqueda basadas en una consulta parcial.
+     * Empieza a preparar el índice local de títulos, para que las primeras sugerencias no
+     * tengan que esperar a Firebase.
+     */
+    public void preloadSearchSuggestions() {
+        ensureTitleTrie();
+    }
+
+    /**
+     * Sugerencias desde el índice local de títulos: sin distinguir mayúsculas ni acentos y
+     * ordenadas por número de profesores.
      * @param query Consulta parcial
-     * @return LiveData con la lista de sugerencias
+     * @param limit Número máximo de títulos
+     * @return Títulos sugeridos, o null si el índice aún no está listo
      */
-    public MutableLiveData<List<String>> getSearchSuggestions(String query) {
-        MutableLiveData<List<String>> suggestionsLiveData = new MutableLiveData<>();
-        
+    public List<String> findSearchSuggestions(String query, int limit) {
+        ensureTitleTrie();
+        return titleTrieReady ? titleTrie.suggest(query, limit) : null;
+    }
+
+    /**
+     * Obtiene sugerencias de búsqueda basadas en una consulta parcial, consultando Firebase.
+     * Solo se usa mientras no está listo el índice local ({@link #findSearchSuggestions}).
+     * Pensado para {@link com.skillswap.skillswapp.data.search.SuggestionPipeline}, que decide
+     * cuándo consultar y descarta las respuestas que ya no corresponden al texto escrito.
+     * La comparación es la de Firebase: títulos que empiezan exactamente por la consulta,
+     * distinguiendo mayúsculas.
+     * @param query Consulta parcial
+     * @param limit Número máximo de títulos
+     * @param onResult Recibe los títulos en el hilo principal
+     * @param onError Se llama en el hilo principal si la consulta falla
+     */
+    public void fetchSearchSuggestions(String query, int limit, Consumer<List<String>> onResult, Runnable onError) {
         if (query == null || query.isEmpty()) {
-            suggestionsLiveData.setValue(new ArrayList<>());
-            return suggestionsLiveData;
+            onResult.accept(new ArrayList<>());
+            return;
         }
         
         // Buscar habilidades que coincidan con la consulta
-        skillsRef.orderByChild("title").startAt(query).endAt(query + "\uf8ff").limitToFirst(5)
+        skillsRef.orderByChild("title").startAt(query).endAt(query + "\uf8ff").limitToFirst(limit)
                 .addListenerForSingleValueEvent(new ValueEventListener() {
                     @Override
                     public void onDataChange(DataSnapshot dataSnapshot) {
@@ -125,158 +240,228 @@ public class SkillRepository {
                             }
                         }
                         
-                        suggestionsLiveData.setValue(suggestions);
+                        onResult.accept(suggestions);
                     }
 
                     @Override
                     public void onCancelled(DatabaseError databaseError) {
-                        suggestionsLiveData.setValue(new ArrayList<>());
+                        Log.e(TAG, "Error al obtener sugerencias: " + databaseError.getMessage());
+                        onError.run();
                     }
                 });
-        
-        return suggestionsLiveData;
     }
     
     /**
-     * Obtiene las habilidades destacadas para mostrar en la pantalla de exploración.
-     * @return LiveData con la lista de habilidades destacadas
+     * Construye el índice de títulos y lo mantiene al día con los eventos de hijos de skills.
+     * Mientras llega la carga inicial se usa la copia de la base local. La carga inicial se
+     * indexa en segundo plano; los cambios que llegan mientras tanto se aplican al índice
+     * actual y se repiten sobre el nuevo cuando está listo.
      */
-    public MutableLiveData<List<Skill>> getFeaturedSkills() {
-        MutableLiveData<List<Skill>> skillsLiveData = new MutableLiveData<>();
-        
-        // Consultar las habilidades más populares (con más usuarios enseñándolas)
-        // Limitamos a 10 resultados para mostrar en la sección destacada
-        skillsRef.orderByChild("popularity").limitToLast(10).addValueEventListener(new ValueEventListener() {
+    private void ensureTitleTrie() {
+        if (titleSync != null) {
+            return;
+        }
+        seedTitleTrie();
+
+        titleSync = new ChildSync<>(skillsRef, SkillSnapshotParser::parse, new ChildSync.Target<Skill>() {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<Skill> skills = new ArrayList<>();
-                
-                for (DataSnapshot skillSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Skill skill = new Skill();
-                        skill.setSkillId(skillSnapshot.getKey());
-                        skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                        skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                        skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                        
-                        // Obtener nivel de la habilidad
-                        if (skillSnapshot.child("level").exists()) {
-                            skill.setLevel(skillSnapshot.child("level").getValue(Integer.class));
-                        }
-                        
-                        // Obtener la lista de usuarios que enseñan esta habilidad
-                        List<String> usersTeaching = new ArrayList<>();
-                        if (skillSnapshot.child("users_teaching").exists()) {
-                            for (DataSnapshot userSnapshot : skillSnapshot.child("users_teaching").getChildren()) {
-                                usersTeaching.add(userSnapshot.getValue(String.class));
-                            }
-                        }
-                        skill.setUsersTeaching(usersTeaching);
-                        
-                        skills.add(skill);
-                    } catch (Exception e) {
-                        // Ignorar habilidades con formato incorrecto
+            public void onInitialLoad(LinkedHashMap<String, Skill> skills) {
+                List<Skill> loaded = new ArrayList<>(skills.values());
+                List<Consumer<SkillTitleTrie>> changes = new ArrayList<>();
+                pendingTitleChanges = changes;
+                AppExecutors.getInstance().execute(() -> {
+                    SkillTitleTrie trie = new SkillTitleTrie();
+                    trie.replaceAll(loaded);
+                    return trie;
+                }, trie -> {
+                    // Otra carga inicial más reciente ha tomado el relevo
+                    if (pendingTitleChanges != changes) {
+                        return;
                     }
-                }
-                
-                skillsLiveData.setValue(skills);
+                    pendingTitleChanges = null;
+                    for (Consumer<SkillTitleTrie> change : changes) {
+                        change.accept(trie);
+                    }
+                    titleTrie = trie;
+                    titleTrieLoaded = true;
+                    titleTrieReady = true;
+                }, e -> {
+                    if (pendingTitleChanges == changes) {
+                        pendingTitleChanges = null;
+                    }
+                });
+            }
+
+            @Override
+            public void onUpsert(String skillId, Skill skill) {
+                applyTitleChange(trie -> trie.put(skill));
+            }
+
+            @Override
+            public void onRemove(String skillId) {
+                applyTitleChange(trie -> trie.remove(skillId));
             }
 
             @Override
             public void onCancelled(DatabaseError databaseError) {
-                skillsLiveData.setValue(new ArrayList<>());
+                // Seguir con lo que haya y reintentar en la siguiente sugerencia
+                titleSync.stop();
+                titleSync = null;
+                titleTrieLoaded = false;
             }
         });
-        
-        return skillsLiveData;
+        titleSync.start(null);
+    }
+
+    private void applyTitleChange(Consumer<SkillTitleTrie> change) {
+        change.accept(titleTrie);
+        if (pendingTitleChanges != null) {
+            pendingTitleChanges.add(change);
+        }
     }
 
     /**
-     * Obtiene una habilidad por su ID.
+     * Construye el índice en segundo plano con las habilidades de la base local.
+     * Se descarta si Firebase ya ha entregado la carga inicial.
      */
-    public MutableLiveData<Skill> getSkillById(String skillId) {
-        MutableLiveData<Skill> skillLiveData = new MutableLiveData<>();
-        
-        skillsRef.child(skillId).addValueEventListener(new ValueEventListener() {
+    private void seedTitleTrie() {
+        if (localSource == null) {
+            return;
+        }
+        LiveData<List<Skill>> localSkills = localSource.getAllSkills();
+        localSkills.observeForever(new Observer<List<Skill>>() {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                if (dataSnapshot.exists()) {
-                    try {
-                        Skill skill = new Skill();
-                        skill.setSkillId(dataSnapshot.getKey());
-                        skill.setTitle(dataSnapshot.child("title").getValue(String.class));
-                        skill.setCategory(dataSnapshot.child("category").getValue(String.class));
-                        
-                        // Obtener la lista de usuarios que enseñan esta habilidad
-                        List<String> usersTeaching = new ArrayList<>();
-                        if (dataSnapshot.child("users_teaching").exists()) {
-                            for (DataSnapshot userSnapshot : dataSnapshot.child("users_teaching").getChildren()) {
-                                usersTeaching.add(userSnapshot.getValue(String.class));
-                            }
-                        }
-                        skill.setUsersTeaching(usersTeaching);
-                        
-                        skillLiveData.setValue(skill);
-                    } catch (Exception e) {
-                        skillLiveData.setValue(null);
-                    }
-                } else {
-                    skillLiveData.setValue(null);
+            public void onChanged(List<Skill> skills) {
+                localSkills.removeObserver(this);
+                if (titleTrieLoaded || skills == null || skills.isEmpty()) {
+                    return;
                 }
+                AppExecutors.getInstance().execute(() -> {
+                    SkillTitleTrie trie = new SkillTitleTrie();
+                    trie.replaceAll(skills);
+                    return trie;
+                }, trie -> {
+                    if (!titleTrieLoaded) {
+                        titleTrie = trie;
+                        titleTrieReady = true;
+                    }
+                }, e -> {
+                    // Sin copia local: se esperará a Firebase
+                });
             }
+        });
+    }
+
+    /**
+     * Obtiene las habilidades destacadas para mostrar en la pantalla de exploración.
+     * @return LiveData con la lista de habilidades destacadas
+     */
+    public MutableLiveData<List<Skill>> getFeaturedSkills() {
+        // Las 10 habilidades con más popularidad reciente (ver SkillStatsRecorder). La consulta
+        // usa el índice de popularity en skill_stats y después se leen solo esas habilidades
+        Query trending = databaseRef.child(SkillStatsRecorder.SKILL_STATS)
+                .orderByChild(SkillStatsRecorder.POPULARITY).limitToLast(FEATURED_SKILLS);
+        QueryLiveData<List<Skill>> skillsLiveData = new QueryLiveData<List<Skill>>(trending, new ArrayList<>()) {
+            // Se cuenta cada ranking recibido para descartar las lecturas de rankings anteriores
+            private int ranking;
 
             @Override
-            public void onCancelled(DatabaseError databaseError) {
-                skillLiveData.setValue(null);
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
+                List<String> skillIds = new ArrayList<>();
+                for (DataSnapshot statsSnapshot : dataSnapshot.getChildren()) {
+                    skillIds.add(statsSnapshot.getKey());
+                }
+                
+                // limitToLast entrega de menor a mayor popularidad
+                Collections.reverse(skillIds);
+                int current = ++ranking;
+                loadSkillsByIds(skillIds, skills -> {
+                    if (current == ranking) {
+                        setValue(skills);
+                    }
+                });
             }
-        });
+        };
         
-        return skillLiveData;
+        return skillsLiveData;
     }
 
     /**
-     * Obtiene todas las habilidades.
+     * Lee una vez varias habilidades y las entrega en el mismo orden. Las que ya no existen
+     * (las estadísticas pueden sobrevivir a la habilidad) o no tienen título se omiten.
      */
-    public MutableLiveData<List<Skill>> getAllSkills() {
-        MutableLiveData<List<Skill>> skillsLiveData = new MutableLiveData<>();
+    private void loadSkillsByIds(List<String> skillIds, Consumer<List<Skill>> onLoaded) {
+        Skill[] loaded = new Skill[skillIds.size()];
+        int[] remaining = {skillIds.size()};
+        Runnable deliver = () -> {
+            List<Skill> skills = new ArrayList<>();
+            for (Skill skill : loaded) {
+                if (skill != null && skill.getTitle() != null) {
+                    skills.add(skill);
+                }
+            }
+            onLoaded.accept(skills);
+        };
+        if (skillIds.isEmpty()) {
+            deliver.run();
+            return;
+        }
         
-        skillsRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<Skill> skills = new ArrayList<>();
-                
-                for (DataSnapshot skillSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Skill skill = new Skill();
-                        skill.setSkillId(skillSnapshot.getKey());
-                        skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                        skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                        
-                        // Obtener la lista de usuarios que enseñan esta habilidad
-                        List<String> usersTeaching = new ArrayList<>();
-                        if (skillSnapshot.child("users_teaching").exists()) {
-                            for (DataSnapshot userSnapshot : skillSnapshot.child("users_teaching").getChildren()) {
-                                usersTeaching.add(userSnapshot.getValue(String.class));
-                            }
-                        }
-                        skill.setUsersTeaching(usersTeaching);
-                        
-                        skills.add(skill);
-                    } catch (Exception e) {
-                        // Ignorar habilidades con formato incorrecto
+        for (int i = 0; i < skillIds.size(); i++) {
+            int position = i;
+            skillsRef.child(skillIds.get(i)).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    loaded[position] = SkillSnapshotParser.parse(dataSnapshot);
+                    if (--remaining[0] == 0) {
+                        deliver.run();
                     }
                 }
-                
-                skillsLiveData.setValue(skills);
-            }
 
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    Log.e(TAG, "Error al leer una habilidad destacada: " + databaseError.getMessage());
+                    if (--remaining[0] == 0) {
+                        deliver.run();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Obtiene una habilidad por su ID.
+     */
+    public MutableLiveData<Skill> getSkillById(String skillId) {
+        QueryLiveData<Skill> skillLiveData = new QueryLiveData<Skill>(skillsRef.child(skillId), null) {
             @Override
-            public void onCancelled(DatabaseError databaseError) {
-                skillsLiveData.setValue(new ArrayList<>());
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
+                // null si no existe o no tiene un formato válido
+                setValue(SkillSnapshotParser.parse(dataSnapshot));
             }
-        });
+        };
         
-        return skillsLiveData;
+        return skillLiveData;
+    }
+
+    /**
+     * Obtiene todas las habilidades.
+     * Publica primero la copia local, si existe, y después las habilidades de Firebase,
+     * sincronizadas por eventos de hijos y guardadas en la copia local.
+     * @return Colección compartida por todos los observadores
+     */
+    public MutableLiveData<List<Skill>> getAllSkills() {
+        if (skillsCollection == null) {
+            skillsCollection = new SyncedCollection<>(skillsRef, SkillSnapshotParser::parse);
+            // Mostrar la copia local mientras llega la carga inicial
+            if (localSource != null) {
+                skillsCollection.seed(localSource.getAllSkills(), Skill::getSkillId);
+            }
+            if (mirror != null) {
+                skillsCollection.mirrorTo(mirror.skills());
+            }
+        }
+        return skillsCollection;
     }
 
     /**
@@ -288,6 +473,7 @@ public class SkillRepository {
     
     /**
      * Obtiene las habilidades por categoría.
+     * Publica primero la copia local, si existe, y después las habilidades de Firebase.
      * @param categoryId ID de la categoría
      * @return LiveData con la lista de habilidades de esa categoría
      */
@@ -296,7 +482,74 @@ public class SkillRepository {
             return getAllSkills();
         }
         
-        return searchSkills("", categoryId);
+        MutableLiveData<List<Skill>> skillsLiveData = new MutableLiveData<>();
+        
+        // Leer solo los IDs de la categoría y descargar después esas habilidades
+        databaseRef.child(SearchIndexPaths.SKILLS_BY_CATEGORY).child(categoryId)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot dataSnapshot) {
+                        List<String> skillIds = new ArrayList<>();
+                        for (DataSnapshot skillSnapshot : dataSnapshot.getChildren()) {
+                            skillIds.add(skillSnapshot.getKey());
+                        }
+                        loadSkills(skillIds, categoryId, skillsLiveData);
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        skillsLiveData.setValue(new ArrayList<>());
+                    }
+                });
+        
+        return new LocalFirstLiveData<>(
+                localSource != null ? localSource.getSkillsByCategory(categoryId) : null, skillsLiveData);
+    }
+    
+    /**
+     * Descarga un conjunto de habilidades por ID manteniendo el orden recibido.
+     * Se descartan las que ya no existen o han cambiado de categoría.
+     */
+    private void loadSkills(List<String> skillIds, String categoryId, MutableLiveData<List<Skill>> skillsLiveData) {
+        if (skillIds.isEmpty()) {
+            skillsLiveData.setValue(new ArrayList<>());
+            return;
+        }
+        
+        Skill[] loaded = new Skill[skillIds.size()];
+        final int[] remaining = {skillIds.size()};
+        
+        for (int i = 0; i < skillIds.size(); i++) {
+            final int position = i;
+            skillsRef.child(skillIds.get(i)).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    Skill skill = SkillSnapshotParser.parse(dataSnapshot);
+                    if (skill != null && categoryId.equals(skill.getCategory())) {
+                        loaded[position] = skill;
+                    }
+                    onSkillLoaded();
+                }
+
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    onSkillLoaded();
+                }
+                
+                private void onSkillLoaded() {
+                    remaining[0]--;
+                    if (remaining[0] == 0) {
+                        List<Skill> skills = new ArrayList<>();
+                        for (Skill skill : loaded) {
+                            if (skill != null) {
+                                skills.add(skill);
+                            }
+                        }
+                        skillsLiveData.setValue(skills);
+                    }
+                }
+            });
+        }
     }
     
     /**
@@ -306,19 +559,22 @@ public class SkillRepository {
      * @return LiveData con la lista de habilidades que coinciden
      */
     public MutableLiveData<List<Skill>> searchSkills(String query, String categoryId) {
-        MutableLiveData<List<Skill>> skillsLiveData = new MutableLiveData<>();
-        
         // Si la consulta está vacía y no hay categoría, devolver todas las habilidades
         if ((query == null || query.trim().isEmpty()) && (categoryId == null || categoryId.isEmpty())) {
             return getAllSkills();
         }
         
+        // Si solo se filtra por categoría, basta con leer skills_by_category
+        if (query == null || query.trim().isEmpty()) {
+            return getSkillsByCategory(categoryId);
+        }
+        
         // Convertir a minúsculas para búsqueda insensible a mayúsculas/minúsculas
         final String lowercaseQuery = query != null ? query.toLowerCase().trim() : "";
         
-        skillsRef.addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<Skill>> skillsLiveData = new QueryLiveData<List<Skill>>(skillsRef, new ArrayList<>()) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 List<Skill> skills = new ArrayList<>();
                 
                 for (DataSnapshot skillSnapshot : dataSnapshot.getChildren()) {
@@ -344,14 +600,10 @@ public class SkillRepository {
                             skill.setTitle(title);
                             skill.setCategory(category);
                             
-                            // Obtener la lista de usuarios que enseñan esta habilidad
-                            List<String> usersTeaching = new ArrayList<>();
-                            if (skillSnapshot.child("users_teaching").exists()) {
-                                for (DataSnapshot userSnapshot : skillSnapshot.child("users_teaching").getChildren()) {
-                                    usersTeaching.add(userSnapshot.getValue(String.class));
-                                }
-                            }
-                            skill.setUsersTeaching(usersTeaching);
+                            // Obtener los usuarios que enseñan esta habilidad y su contador
+                            skill.setUsersTeaching(SkillSnapshotParser.parseUsersTeaching(
+                                    skillSnapshot.child(USERS_TEACHING)));
+                            skill.setTeacherCount(SkillSnapshotParser.parseTeacherCount(skillSnapshot));
                             
                             skills.add(skill);
                         }
@@ -360,14 +612,9 @@ public class SkillRepository {
                     }
                 }
                 
-                skillsLiveData.setValue(skills);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                skillsLiveData.setValue(new ArrayList<>());
+                setValue(skills);
             }
-        });
+        };
         
         return skillsLiveData;
     }
@@ -380,8 +627,6 @@ public class SkillRepository {
      * @return LiveData con la lista de habilidades que coinciden
      */
     public MutableLiveData<List<Skill>> searchSkillsAdvanced(String query, String categoryId, int level) {
-        MutableLiveData<List<Skill>> skillsLiveData = new MutableLiveData<>();
-        
         // Si la consulta está vacía, no hay categoría y el nivel es 0, devolver todas las habilidades
         if ((query == null || query.trim().isEmpty()) && 
             (categoryId == null || categoryId.isEmpty()) && 
@@ -393,9 +638,9 @@ public class SkillRepository {
         final String lowercaseQuery = query != null ? query.toLowerCase().trim() : "";
         final int minLevel = level > 0 ? level : 0;
         
-        skillsRef.addValueEventListener(new ValueEventListener() {
+        QueryLiveData<List<Skill>> skillsLiveData = new QueryLiveData<List<Skill>>(skillsRef, new ArrayList<>()) {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
                 List<Skill> skills = new ArrayList<>();
                 
                 for (DataSnapshot skillSnapshot : dataSnapshot.getChildren()) {
@@ -487,82 +732,71 @@ public class SkillRepository {
                     }
                 }
                 
-                skillsLiveData.setValue(skills);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                skillsLiveData.setValue(new ArrayList<>());
+                setValue(skills);
             }
-        });
+        };
         
         return skillsLiveData;
     }
 
     /**
-     * Agrega un usuario a la lista de usuarios que enseñan una habilidad.
+     * Construye las escrituras para dar de alta o de baja a un profesor de una habilidad dentro
+     * de un lote: solo se toca la clave del usuario y, si la pertenencia cambia, el contador se
+     * ajusta en el servidor con un incremento atómico, sin leer ni reescribir la lista de profesores.
+     * @param skillId ID de la habilidad
+     * @param userId ID del profesor
+     * @param teaching true para darlo de alta, false para darlo de baja
+     * @param wasTeaching Si el usuario ya enseñaba la habilidad; si no cambia, el contador no se toca
+     * @param hasCounter Si teacher_count ya existe. Si no, no se incrementa (partiría de 0) y el
+     *                   llamante debe crearlo después con {@link #initTeacherCount(String)}
+     * @return Mapa de rutas para updateChildren
      */
-    public MutableLiveData<Boolean> addUserTeaching(String skillId, String userId) {
-        MutableLiveData<Boolean> addResult = new MutableLiveData<>();
-        
-        // Primero obtenemos la habilidad para verificar si el usuario ya está en la lista
-        getSkillById(skillId).observeForever(skill -> {
-            if (skill != null) {
-                List<String> usersTeaching = skill.getUsersTeaching();
-                
-                // Verificar si el usuario ya está en la lista
-                if (!usersTeaching.contains(userId)) {
-                    usersTeaching.add(userId);
-                    skill.setUsersTeaching(usersTeaching);
-                    
-                    // Actualizar la habilidad en la base de datos
-                    skillsRef.child(skillId).child("users_teaching").setValue(usersTeaching)
-                            .addOnSuccessListener(aVoid -> addResult.setValue(true))
-                            .addOnFailureListener(e -> addResult.setValue(false));
-                } else {
-                    // El usuario ya está en la lista
-                    addResult.setValue(true);
-                }
-            } else {
-                // La habilidad no existe
-                addResult.setValue(false);
-            }
-        });
-        
-        return addResult;
+    static Map<String, Object> teacherUpdates(String skillId, String userId, boolean teaching,
+                                              boolean wasTeaching, boolean hasCounter) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("skills/" + skillId + "/" + USERS_TEACHING + "/" + userId, teaching ? true : null);
+        if (teaching != wasTeaching && hasCounter) {
+            updates.put("skills/" + skillId + "/" + TEACHER_COUNT, ServerValue.increment(teaching ? 1 : -1));
+        }
+        return updates;
     }
 
     /**
-     * Elimina un usuario de la lista de usuarios que enseñan una habilidad.
+     * Crea teacher_count en habilidades anteriores al contador: cuenta users_teaching una vez
+     * y lo escribe con una transacción sobre el propio contador, que no hace nada si otro
+     * cliente ya lo ha creado. Solo lee la lista de profesores mientras el contador no existe.
+     * @param skillId ID de la habilidad
      */
-    public MutableLiveData<Boolean> removeUserTeaching(String skillId, String userId) {
-        MutableLiveData<Boolean> removeResult = new MutableLiveData<>();
-        
-        // Primero obtenemos la habilidad para verificar si el usuario está en la lista
-        getSkillById(skillId).observeForever(skill -> {
-            if (skill != null) {
-                List<String> usersTeaching = skill.getUsersTeaching();
-                
-                // Verificar si el usuario está en la lista
-                if (usersTeaching.contains(userId)) {
-                    usersTeaching.remove(userId);
-                    skill.setUsersTeaching(usersTeaching);
-                    
-                    // Actualizar la habilidad en la base de datos
-                    skillsRef.child(skillId).child("users_teaching").setValue(usersTeaching)
-                            .addOnSuccessListener(aVoid -> removeResult.setValue(true))
-                            .addOnFailureListener(e -> removeResult.setValue(false));
-                } else {
-                    // El usuario no está en la lista
-                    removeResult.setValue(true);
-                }
-            } else {
-                // La habilidad no existe
-                removeResult.setValue(false);
+    void initTeacherCount(String skillId) {
+        DatabaseReference skillRef = skillsRef.child(skillId);
+        skillRef.child(USERS_TEACHING).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                long count = dataSnapshot.getChildrenCount();
+                skillRef.child(TEACHER_COUNT).runTransaction(new Transaction.Handler() {
+                    @Override
+                    public Transaction.Result doTransaction(MutableData currentData) {
+                        if (currentData.getValue() != null) {
+                            return Transaction.abort();
+                        }
+                        currentData.setValue(count);
+                        return Transaction.success(currentData);
+                    }
+
+                    @Override
+                    public void onComplete(DatabaseError databaseError, boolean committed, DataSnapshot currentData) {
+                        if (databaseError != null) {
+                            Log.e(TAG, "Error al crear el contador de profesores: " + databaseError.getMessage());
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                Log.e(TAG, "Error al contar los profesores de la habilidad: " + databaseError.getMessage());
             }
         });
-        
-        return removeResult;
     }
     
     /**
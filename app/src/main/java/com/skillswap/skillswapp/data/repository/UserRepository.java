@@ -2,40 +2,119 @@ package com.skillswap.skillswapp.data.repository;
 
 import android.content.Context;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 import com.skillswap.skillswapp.data.local.ImageStorageManager;
+import com.skillswap.skillswapp.data.local.LocalStorageManager;
+import com.skillswap.skillswapp.data.local.db.EntityMapper;
+import com.skillswap.skillswapp.data.local.db.LocalDataSource;
+import com.skillswap.skillswapp.data.local.db.LocalDatabase;
+import com.skillswap.skillswapp.data.local.db.LocalMirrorSync;
+import com.skillswap.skillswapp.data.local.db.MatchEntity;
+import com.skillswap.skillswapp.data.match.MatchView;
+import com.skillswap.skillswapp.data.match.SkillMatch;
+import com.skillswap.skillswapp.data.match.SkillMatchIndex;
 import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserBatchResult;
 import com.skillswap.skillswapp.data.model.User.SkillToLearn;
 import com.skillswap.skillswapp.data.model.User.SkillToTeach;
 import com.skillswap.skillswapp.data.model.User.UserProfile;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.data.search.SearchIndexPaths;
+import com.skillswap.skillswapp.data.search.TextNormalizer;
+import com.skillswap.skillswapp.data.search.UserSearchIndex;
+import com.skillswap.skillswapp.data.stats.SkillStatsRecorder;
+import com.skillswap.skillswapp.data.sync.ChildSync;
+import com.skillswap.skillswapp.data.sync.SyncedCollection;
+import com.skillswap.skillswapp.data.upload.ProfileImageUploadQueue;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+import com.skillswap.skillswapp.data.util.LocalFirstLiveData;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
+import com.skillswap.skillswapp.data.util.UserSnapshotParser;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repositorio para manejar los datos de usuario en Firebase Realtime Database.
  * Sigue la estructura definida para la base de datos.
  */
 public class UserRepository {
+    private static final String TAG = "UserRepository";
+    // Número de usuarios sin observadores que se conservan en caché
+    private static final int USER_CACHE_SIZE = 50;
+    // Tiempo máximo de espera por defecto para getUsersByIds
+    public static final long DEFAULT_BATCH_TIMEOUT_MS = 10000;
+    // Nodo con los resúmenes de usuario usados por las pantallas de listas
+    public static final String USER_SUMMARIES = "user_summaries";
+    // Emparejamientos que se mantienen precalculados para el usuario actual
+    private static final int MATCH_VIEW_SIZE = 20;
+    
     private DatabaseReference databaseRef;
     private DatabaseReference usersRef;
+    private DatabaseReference summariesRef;
     private static UserRepository instance;
     private ImageStorageManager imageStorageManager;
     private Context context;
+    
+    // Índice de búsqueda en memoria, alimentado por los eventos de hijos del nodo users
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    // Índice de emparejamiento enseñar/aprender, alimentado por los mismos eventos
+    private final SkillMatchIndex matchIndex = new SkillMatchIndex();
+    private final List<Runnable> pendingSearches = new ArrayList<>();
+    // Mejores emparejamientos del usuario actual, actualizados por cada usuario que cambia
+    private MatchView matchView;
+    private MutableLiveData<List<UserSummary>> teacherMatches;
+    private ChildSync<User> searchIndexSync;
+    private SyncedCollection<User> usersCollection;
+    private boolean searchIndexLoaded;
+    
+    // Caché LRU de usuarios por ID: todas las pantallas comparten el mismo LiveData (y su listener)
+    private final LinkedHashMap<String, LocalFirstLiveData<User>> userCache = new LinkedHashMap<>(16, 0.75f, true);
+    private int userCacheHits;
+    private int userCacheMisses;
+    private final LocalDataSource localSource;
+    private final ChildSync.Target<User> usersMirror;
 
     private UserRepository() {
-        databaseRef = FirebaseDatabase.getInstance().getReference();
+        this(FirebaseDatabase.getInstance().getReference(),
+                LocalDataSource.from(LocalDatabase.getInstance()), LocalMirrorSync.from(LocalDatabase.getInstance()));
+    }
+
+    /**
+     * @param databaseRef Raíz de la base de datos de Firebase
+     * @param localSource Lecturas de la base local, o null para usar solo Firebase
+     * @param mirror Copia local de lo que se descarga, o null para no guardar nada
+     */
+    UserRepository(DatabaseReference databaseRef, LocalDataSource localSource, LocalMirrorSync mirror) {
+        this.databaseRef = databaseRef;
         usersRef = databaseRef.child("users");
+        summariesRef = databaseRef.child(USER_SUMMARIES);
+        this.localSource = localSource;
+        this.usersMirror = mirror != null ? mirror.users() : null;
     }
 
     public static UserRepository getInstance() {
@@ -66,7 +145,10 @@ public class UserRepository {
         
         // Guardar el usuario con la estructura correcta
         usersRef.child(user.getUserId()).setValue(user.toMap())
-                .addOnSuccessListener(aVoid -> createResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    reindexUser(user.getUserId());
+                    createResult.setValue(true);
+                })
                 .addOnFailureListener(e -> createResult.setValue(false));
         
         return createResult;
@@ -74,65 +156,313 @@ public class UserRepository {
 
     /**
      * Obtiene los datos de un usuario por su ID.
+     * Las llamadas con el mismo ID reciben el mismo LiveData, que mantiene un único listener
+     * mientras tenga observadores y se conserva en caché para las siguientes llamadas.
      */
     public MutableLiveData<User> getUserById(String userId) {
-        MutableLiveData<User> userLiveData = new MutableLiveData<>();
+        LocalFirstLiveData<User> cached = userCache.get(userId);
+        if (cached != null) {
+            userCacheHits++;
+            return cached;
+        }
         
-        usersRef.child(userId).addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                if (dataSnapshot.exists()) {
-                    try {
-                        // Crear un nuevo usuario
-                        User user = new User();
-                        user.setUserId(userId);
-                        
-                        // Obtener el perfil
-                        DataSnapshot profileSnapshot = dataSnapshot.child("profile");
-                        if (profileSnapshot.exists()) {
-                            UserProfile profile = profileSnapshot.getValue(UserProfile.class);
-                            user.setProfile(profile);
+        userCacheMisses++;
+        // Publicar primero la copia local del usuario, si existe, mientras responde Firebase
+        LocalFirstLiveData<User> userLiveData = new LocalFirstLiveData<>(
+                localSource != null ? localSource.getUserById(userId) : null, createUserLiveData(userId));
+        userCache.put(userId, userLiveData);
+        trimUserCache(userId);
+        return userLiveData;
+    }
+    
+    /**
+     * Elimina de la caché los usuarios menos usados recientemente que no tengan observadores.
+     * Los que siguen observados no se eliminan aunque se supere el tamaño máximo.
+     * @param keepUserId Usuario recién añadido, que todavía no tiene observadores
+     */
+    private void trimUserCache(String keepUserId) {
+        Iterator<Map.Entry<String, LocalFirstLiveData<User>>> iterator = userCache.entrySet().iterator();
+        while (userCache.size() > USER_CACHE_SIZE && iterator.hasNext()) {
+            Map.Entry<String, LocalFirstLiveData<User>> entry = iterator.next();
+            if (!entry.getKey().equals(keepUserId) && !entry.getValue().hasObservers()) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * @return Número de usuarios en la caché de getUserById
+     */
+    public int getUserCacheSize() {
+        return userCache.size();
+    }
+    
+    /**
+     * @return Proporción de llamadas a getUserById resueltas desde la caché (0 si no hay llamadas)
+     */
+    public float getUserCacheHitRate() {
+        int total = userCacheHits + userCacheMisses;
+        return total == 0 ? 0f : (float) userCacheHits / total;
+    }
+    
+    /**
+     * Obtiene varios usuarios por ID con lecturas únicas lanzadas en paralelo.
+     * @param userIds IDs de los usuarios (los duplicados se ignoran)
+     * @return LiveData con el resultado, publicado una sola vez
+     */
+    public MutableLiveData<UserBatchResult> getUsersByIds(Collection<String> userIds) {
+        return getUsersByIds(userIds, DEFAULT_BATCH_TIMEOUT_MS);
+    }
+    
+    /**
+     * Obtiene varios usuarios por ID con lecturas únicas lanzadas en paralelo.
+     * Los usuarios que ya están en caché con datos se usan sin volver a leerlos.
+     * El resultado se publica cuando han respondido todas las lecturas o cuando vence
+     * el tiempo de espera; los IDs sin respuesta se devuelven como no encontrados.
+     * @param userIds IDs de los usuarios (los duplicados se ignoran)
+     * @param timeoutMs Tiempo máximo de espera en milisegundos (0 o negativo para no limitarlo)
+     * @return LiveData con el resultado, publicado una sola vez
+     */
+    public MutableLiveData<UserBatchResult> getUsersByIds(Collection<String> userIds, long timeoutMs) {
+        MutableLiveData<UserBatchResult> result = new MutableLiveData<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        
+        this.<User>readInParallel(ids, timeoutMs, (userId, answer) -> {
+            LocalFirstLiveData<User> cached = userCache.get(userId);
+            if (cached != null && cached.getValue() != null) {
+                userCacheHits++;
+                answer.accept(cached.getValue());
+                return;
+            }
+            usersRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    answer.accept(UserSnapshotParser.parse(dataSnapshot));
+                }
+
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    answer.accept(null);
+                }
+            });
+        }, (loaded, timedOut) -> {
+            List<User> users = new ArrayList<>();
+            List<String> missingIds = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (loaded.get(i) != null) {
+                    users.add(loaded.get(i));
+                } else {
+                    missingIds.add(ids.get(i));
+                }
+            }
+            result.setValue(new UserBatchResult(users, missingIds, timedOut));
+        });
+        
+        return result;
+    }
+    
+    /**
+     * Obtiene los resúmenes de varios usuarios leyendo user_summaries/{userId} en paralelo.
+     * Si un usuario todavía no tiene resumen se lee su nodo completo y se genera el resumen
+     * en la base de datos para las siguientes lecturas.
+     * @param userIds IDs de los usuarios (los duplicados se ignoran)
+     * @return LiveData con los resúmenes encontrados en el orden solicitado, publicado una sola vez
+     */
+    public MutableLiveData<List<UserSummary>> getUserSummariesByIds(Collection<String> userIds) {
+        MutableLiveData<List<UserSummary>> result = new MutableLiveData<>();
+        loadUserSummariesByIds(userIds, result::setValue);
+        return result;
+    }
+    
+    /**
+     * Igual que {@link #getUserSummariesByIds(Collection)}, pero entrega el resultado a un
+     * callback, para quien lo reenvía a otro LiveData y no debe dejar un observador puesto.
+     * @param userIds IDs de los usuarios (los duplicados se ignoran)
+     * @param onLoaded Recibe los resúmenes en el hilo principal, una sola vez
+     */
+    public void loadUserSummariesByIds(Collection<String> userIds, Consumer<List<UserSummary>> onLoaded) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        
+        this.<UserSummary>readInParallel(ids, DEFAULT_BATCH_TIMEOUT_MS, (userId, answer) ->
+                summariesRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot dataSnapshot) {
+                        UserSummary summary = UserSnapshotParser.parseSummary(dataSnapshot);
+                        if (summary != null) {
+                            answer.accept(summary);
                         } else {
-                            user.setProfile(new UserProfile());
-                        }
-                        
-                        // Obtener habilidades para enseñar
-                        Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
-                        DataSnapshot teachSnapshot = dataSnapshot.child("skills_to_teach");
-                        if (teachSnapshot.exists()) {
-                            for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                SkillToTeach skill = skillSnapshot.getValue(SkillToTeach.class);
-                                skillsToTeach.put(skillSnapshot.getKey(), skill);
-                            }
-                        }
-                        user.setSkillsToTeach(skillsToTeach);
-                        
-                        // Obtener habilidades para aprender
-                        Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
-                        DataSnapshot learnSnapshot = dataSnapshot.child("skills_to_learn");
-                        if (learnSnapshot.exists()) {
-                            for (DataSnapshot skillSnapshot : learnSnapshot.getChildren()) {
-                                SkillToLearn skill = skillSnapshot.getValue(SkillToLearn.class);
-                                skillsToLearn.put(skillSnapshot.getKey(), skill);
-                            }
+                            readSummaryFromUser(userId, answer);
                         }
-                        user.setSkillsToLearn(skillsToLearn);
-                        
-                        userLiveData.setValue(user);
-                    } catch (Exception e) {
-                        userLiveData.setValue(null);
                     }
-                } else {
-                    userLiveData.setValue(null);
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        answer.accept(null);
+                    }
+                }), (loaded, timedOut) -> {
+            List<UserSummary> summaries = new ArrayList<>();
+            for (UserSummary summary : loaded) {
+                if (summary != null) {
+                    summaries.add(summary);
+                }
+            }
+            onLoaded.accept(summaries);
+        });
+    }
+    
+    /**
+     * Genera el resumen a partir del nodo completo del usuario (perfiles creados antes de
+     * existir user_summaries) y reindexa al usuario para que el resumen quede guardado.
+     */
+    private void readSummaryFromUser(String userId, Consumer<UserSummary> answer) {
+        usersRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                User user = UserSnapshotParser.parse(dataSnapshot);
+                if (user != null) {
+                    reindexUser(userId);
+                }
+                answer.accept(UserSummary.fromUser(user));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                answer.accept(null);
+            }
+        });
+    }
+    
+    /**
+     * Obtiene los resúmenes de todos los usuarios.
+     * @return LiveData con la lista de resúmenes
+     */
+    public MutableLiveData<List<UserSummary>> getAllUserSummaries() {
+        return new QueryLiveData<>(summariesRef, dataSnapshot -> {
+            List<UserSummary> summaries = new ArrayList<>();
+            for (DataSnapshot summarySnapshot : dataSnapshot.getChildren()) {
+                UserSummary summary = UserSnapshotParser.parseSummary(summarySnapshot);
+                if (summary != null) {
+                    summaries.add(summary);
                 }
             }
+            return summaries;
+        }, new ArrayList<>());
+    }
+    
+    /**
+     * Obtiene una página de resúmenes de usuario ordenados por ID.
+     * Publica primero la página de la base local, si existe, y después la de Firebase.
+     * @param afterUserId ID del último usuario de la página anterior (null para la primera página)
+     * @param pageSize Número máximo de usuarios de la página
+     * @return LiveData con la página (lista vacía si no hay más usuarios, null si falla la lectura remota)
+     */
+    public LocalFirstLiveData<List<UserSummary>> getUserSummariesPage(String afterUserId, int pageSize) {
+        MutableLiveData<List<UserSummary>> pageLiveData = new MutableLiveData<>();
+        
+        Query query = summariesRef.orderByKey();
+        if (afterUserId != null) {
+            query = query.startAfter(afterUserId);
+        }
+        query.limitToFirst(pageSize).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<UserSummary> summaries = new ArrayList<>();
+                for (DataSnapshot summarySnapshot : dataSnapshot.getChildren()) {
+                    UserSummary summary = UserSnapshotParser.parseSummary(summarySnapshot);
+                    if (summary != null) {
+                        summaries.add(summary);
+                    }
+                }
+                pageLiveData.setValue(summaries);
+            }
 
             @Override
             public void onCancelled(DatabaseError databaseError) {
-                userLiveData.setValue(null);
+                pageLiveData.setValue(null);
             }
         });
         
+        return new LocalFirstLiveData<>(
+                localSource != null ? localSource.getUserSummariesPage(afterUserId, pageSize) : null, pageLiveData);
+    }
+    
+    /**
+     * Lectura individual de una petición por lotes. Debe llamar a answer exactamente una vez,
+     * con null si el elemento no existe o no se pudo leer.
+     */
+    private interface BatchReader<T> {
+        void read(String id, Consumer<T> answer);
+    }
+    
+    /**
+     * Resultado de una petición por lotes: un elemento por ID, null para los no encontrados.
+     */
+    private interface BatchCallback<T> {
+        void onLoaded(List<T> loaded, boolean timedOut);
+    }
+    
+    /**
+     * Lanza una lectura por ID en paralelo y publica el resultado una sola vez, cuando han
+     * respondido todas o cuando vence el tiempo de espera, con lo que haya llegado hasta entonces.
+     */
+    private <T> void readInParallel(List<String> ids, long timeoutMs, BatchReader<T> reader,
+                                    BatchCallback<T> callback) {
+        List<T> loaded = new ArrayList<>(Collections.<T>nCopies(ids.size(), null));
+        boolean[] answered = new boolean[ids.size()];
+        final int[] remaining = {ids.size()};
+        final boolean[] delivered = {false};
+        Handler handler = new Handler(Looper.getMainLooper());
+        
+        Runnable deliver = () -> {
+            if (delivered[0]) {
+                return;
+            }
+            delivered[0] = true;
+            handler.removeCallbacksAndMessages(null);
+            callback.onLoaded(loaded, remaining[0] > 0);
+        };
+        
+        for (int i = 0; i < ids.size(); i++) {
+            final int position = i;
+            reader.read(ids.get(i), value -> {
+                if (delivered[0] || answered[position]) {
+                    return;
+                }
+                answered[position] = true;
+                loaded.set(position, value);
+                remaining[0]--;
+                if (remaining[0] == 0) {
+                    deliver.run();
+                }
+            });
+        }
+        
+        if (remaining[0] == 0) {
+            deliver.run();
+        } else if (timeoutMs > 0) {
+            handler.postDelayed(deliver, timeoutMs);
+        }
+    }
+    
+    private QueryLiveData<User> createUserLiveData(String userId) {
+        QueryLiveData<User> userLiveData = new QueryLiveData<User>(usersRef.child(userId), null) {
+            @Override
+            protected void onSnapshot(DataSnapshot dataSnapshot) {
+                // null si no existe o no tiene un formato válido
+                User user = UserSnapshotParser.parse(dataSnapshot);
+                setValue(user);
+                if (usersMirror == null) {
+                    return;
+                }
+                // Guardar el perfil abierto para mostrarlo sin red la próxima vez
+                if (user != null) {
+                    usersMirror.onUpsert(userId, user);
+                } else if (!dataSnapshot.exists()) {
+                    usersMirror.onRemove(userId);
+                }
+            }
+        };
+        
         return userLiveData;
     }
 
@@ -147,7 +477,10 @@ public class UserRepository {
         
         // Actualizar el usuario con la estructura correcta
         usersRef.child(user.getUserId()).setValue(user.toMap())
-                .addOnSuccessListener(aVoid -> updateResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    reindexUser(user.getUserId());
+                    updateResult.setValue(true);
+                })
                 .addOnFailureListener(e -> updateResult.setValue(false));
         
         return updateResult;
@@ -163,7 +496,10 @@ public class UserRepository {
         profile.setLastActive(new Date());
         
         usersRef.child(userId).child("profile").setValue(profile.toMap())
-                .addOnSuccessListener(aVoid -> updateResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    reindexUser(userId);
+                    updateResult.setValue(true);
+                })
                 .addOnFailureListener(e -> updateResult.setValue(false));
         
         return updateResult;
@@ -176,7 +512,10 @@ public class UserRepository {
         MutableLiveData<Boolean> addResult = new MutableLiveData<>();
         
         usersRef.child(userId).child("skills_to_teach").child(skillId).setValue(skill.toMap())
-                .addOnSuccessListener(aVoid -> addResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    reindexUser(userId);
+                    addResult.setValue(true);
+                })
                 .addOnFailureListener(e -> addResult.setValue(false));
         
         return addResult;
@@ -189,7 +528,10 @@ public class UserRepository {
         MutableLiveData<Boolean> removeResult = new MutableLiveData<>();
         
         usersRef.child(userId).child("skills_to_teach").child(skillId).removeValue()
-                .addOnSuccessListener(aVoid -> removeResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    reindexUser(userId);
+                    removeResult.setValue(true);
+                })
                 .addOnFailureListener(e -> removeResult.setValue(false));
         
         return removeResult;
@@ -240,13 +582,103 @@ public class UserRepository {
             path = field;
         }
         
+        // Solo el perfil y las habilidades para enseñar afectan al índice de búsqueda
+        final boolean affectsSearchIndex = path.startsWith("profile") || path.startsWith("skills_to_teach");
+        
         usersRef.child(userId).child(path).setValue(value)
-                .addOnSuccessListener(aVoid -> updateResult.setValue(true))
+                .addOnSuccessListener(aVoid -> {
+                    if (affectsSearchIndex) {
+                        reindexUser(userId);
+                    }
+                    updateResult.setValue(true);
+                })
                 .addOnFailureListener(e -> updateResult.setValue(false));
         
         return updateResult;
     }
     
+    /**
+     * Recalcula los tokens de búsqueda de un usuario y actualiza los nodos
+     * search_index/{token}/{userId} y search_tokens/{userId}. Solo se escriben los tokens que cambian.
+     * En la misma escritura se regenera el resumen user_summaries/{userId}.
+     * @param userId ID del usuario
+     */
+    public void reindexUser(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return;
+        }
+        
+        usersRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot userSnapshot) {
+                writeIndexEntries(userId, UserSnapshotParser.parse(userSnapshot));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                Log.e(TAG, "Error al leer el usuario para indexarlo: " + databaseError.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Escribe los tokens de búsqueda y el resumen de un usuario ya leído.
+     * @param userId ID del usuario
+     * @param user Datos actuales del usuario, o null si ya no existe
+     */
+    private void writeIndexEntries(String userId, User user) {
+        databaseRef.child(SearchIndexPaths.SEARCH_TOKENS).child(userId)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot tokensSnapshot) {
+                        databaseRef.updateChildren(indexUpdates(userId, tokenKeys(tokensSnapshot), user))
+                                .addOnFailureListener(e -> Log.e(TAG, "Error al actualizar el índice de búsqueda: " + e.getMessage()));
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        Log.e(TAG, "Error al leer los tokens de búsqueda: " + databaseError.getMessage());
+                    }
+                });
+    }
+    
+    /**
+     * Genera user_summaries y el índice de búsqueda para todos los usuarios si el nodo
+     * user_summaries todavía no existe (bases de datos creadas antes de los resúmenes).
+     * Solo descarga el nodo users completo la primera vez.
+     */
+    public void backfillUserSummaries() {
+        summariesRef.limitToFirst(1).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot summariesSnapshot) {
+                if (summariesSnapshot.exists()) {
+                    return;
+                }
+                usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot usersSnapshot) {
+                        for (DataSnapshot userSnapshot : usersSnapshot.getChildren()) {
+                            User user = UserSnapshotParser.parse(userSnapshot);
+                            if (user != null) {
+                                writeIndexEntries(user.getUserId(), user);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        Log.e(TAG, "Error al leer los usuarios para generar los resúmenes: " + databaseError.getMessage());
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                Log.e(TAG, "Error al comprobar los resúmenes de usuario: " + databaseError.getMessage());
+            }
+        });
+    }
+    
     /**
      * Genera un ID único para una entidad.
      * @return ID generado
@@ -267,52 +699,218 @@ public class UserRepository {
     }
     
     /**
-     * Añade una habilidad a la colección global de habilidades.
+     * Guarda una habilidad para enseñar, nueva o editada, en una sola escritura atómica: la
+     * habilidad del usuario, la habilidad global con el usuario como profesor (y teacher_count
+     * incrementado si no lo era), el índice por categoría, los tokens de búsqueda y el resumen
+     * del usuario. Antes se leen en paralelo el usuario, sus tokens, la categoría anterior y si
+     * existe teacher_count; si el usuario ya enseñaba la habilidad se sabe por su propio nodo.
+     * En habilidades anteriores al contador, este se crea después con
+     * {@link SkillRepository#initTeacherCount(String)}.
+     * @param userId ID del usuario
      * @param skillId ID de la habilidad
-     * @param title Título de la habilidad
-     * @param categoryId ID de la categoría
-     * @param userId ID del usuario que enseña la habilidad
+     * @param skill Datos de la habilidad
+     * @param categoryId ID de la categoría en la colección global
+     * @return LiveData con true si se ha escrito todo, false si no se ha escrito nada
      */
-    public void addSkillToGlobal(String skillId, String title, String categoryId, String userId) {
-        DatabaseReference skillsRef = databaseRef.child("skills");
-        
-        Map<String, Object> skillData = new HashMap<>();
-        skillData.put("title", title);
-        skillData.put("category", categoryId);
+    public MutableLiveData<Boolean> saveSkillToTeach(String userId, String skillId, SkillToTeach skill, String categoryId) {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
         
-        // Añadir la habilidad a la colección global
-        skillsRef.child(skillId).setValue(skillData);
+        readTogether(snapshots -> {
+            User user = UserSnapshotParser.parse(snapshots[0]);
+            if (user == null) {
+                result.setValue(false);
+                return;
+            }
+            Map<String, SkillToTeach> skills = user.getSkillsToTeach() != null
+                    ? new HashMap<>(user.getSkillsToTeach()) : new HashMap<>();
+            // skills_to_teach y users_teaching se escriben siempre en el mismo lote
+            boolean wasTeaching = skills.containsKey(skillId);
+            boolean hasCounter = snapshots[3].exists();
+            skills.put(skillId, skill);
+            user.setSkillsToTeach(skills);
+            
+            String oldCategoryId = snapshots[2].getValue(String.class);
+            new WriteBatch(databaseRef)
+                    .putAll(saveSkillToTeachUpdates(userId, skillId, skill, categoryId, oldCategoryId,
+                            user, tokenKeys(snapshots[1]), wasTeaching, hasCounter))
+                    .commit(result, () -> {
+                        if (!hasCounter) {
+                            SkillRepository.getInstance().initTeacherCount(skillId);
+                        }
+                        if (!wasTeaching) {
+                            SkillStatsRecorder.getInstance().record(skillId, SkillStatsRecorder.Event.TEACHER_JOIN);
+                        }
+                    });
+        }, result, usersRef.child(userId),
+                databaseRef.child(SearchIndexPaths.SEARCH_TOKENS).child(userId),
+                databaseRef.child("skills").child(skillId).child("category"),
+                databaseRef.child("skills").child(skillId).child(SkillRepository.TEACHER_COUNT));
         
-        // Añadir el usuario a la lista de usuarios que enseñan esta habilidad
-        if (userId != null && !userId.isEmpty()) {
-            skillsRef.child(skillId).child("users_teaching").child(userId).setValue(true);
-        }
+        return result;
     }
     
     /**
-     * Actualiza una habilidad en la colección global de habilidades.
+     * Elimina una habilidad para enseñar en una sola escritura atómica: la habilidad del
+     * usuario, el usuario como profesor de la habilidad global (con teacher_count decrementado
+     * si lo era), los tokens de búsqueda y el resumen.
+     * @param userId ID del usuario
      * @param skillId ID de la habilidad
-     * @param title Título de la habilidad
-     * @param categoryId ID de la categoría
+     * @return LiveData con true si se ha escrito todo, false si no se ha escrito nada
      */
-    public void updateSkillInGlobal(String skillId, String title, String categoryId) {
-        DatabaseReference skillsRef = databaseRef.child("skills");
+    public MutableLiveData<Boolean> deleteSkillToTeach(String userId, String skillId) {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
         
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("title", title);
-        updates.put("category", categoryId);
+        readTogether(snapshots -> {
+            User user = UserSnapshotParser.parse(snapshots[0]);
+            if (user == null) {
+                result.setValue(false);
+                return;
+            }
+            boolean wasTeaching = false;
+            if (user.getSkillsToTeach() != null) {
+                Map<String, SkillToTeach> skills = new HashMap<>(user.getSkillsToTeach());
+                wasTeaching = skills.remove(skillId) != null;
+                user.setSkillsToTeach(skills);
+            }
+            
+            boolean hasCounter = snapshots[2].exists();
+            new WriteBatch(databaseRef)
+                    .putAll(deleteSkillToTeachUpdates(userId, skillId, user, tokenKeys(snapshots[1]), wasTeaching, hasCounter))
+                    .commit(result, hasCounter ? null : () -> SkillRepository.getInstance().initTeacherCount(skillId));
+        }, result, usersRef.child(userId),
+                databaseRef.child(SearchIndexPaths.SEARCH_TOKENS).child(userId),
+                databaseRef.child("skills").child(skillId).child(SkillRepository.TEACHER_COUNT));
         
-        skillsRef.child(skillId).updateChildren(updates);
+        return result;
+    }
+    
+    /**
+     * Guarda una habilidad para aprender, nueva o editada. No afecta al índice de búsqueda
+     * ni al resumen, así que es una única escritura sin lecturas previas.
+     * @param userId ID del usuario
+     * @param skillId ID de la habilidad
+     * @param skill Datos de la habilidad
+     * @return LiveData con el resultado de la operación
+     */
+    public MutableLiveData<Boolean> saveSkillToLearn(String userId, String skillId, SkillToLearn skill) {
+        return new WriteBatch(databaseRef)
+                .set("users/" + userId + "/skills_to_learn/" + skillId, skill.toMap())
+                .commit();
     }
     
     /**
-     * Elimina un usuario de la lista de usuarios que enseñan una habilidad.
+     * Elimina una habilidad para aprender.
+     * @param userId ID del usuario
      * @param skillId ID de la habilidad
-     * @param userId ID del usuario a eliminar
+     * @return LiveData con el resultado de la operación
      */
-    public void removeUserFromSkill(String skillId, String userId) {
-        DatabaseReference skillsRef = databaseRef.child("skills");
-        skillsRef.child(skillId).child("users_teaching").child(userId).removeValue();
+    public MutableLiveData<Boolean> deleteSkillToLearn(String userId, String skillId) {
+        return new WriteBatch(databaseRef)
+                .delete("users/" + userId + "/skills_to_learn/" + skillId)
+                .commit();
+    }
+    
+    /**
+     * Construye las escrituras de {@link #saveSkillToTeach}: la habilidad del usuario, el título,
+     * la categoría y el profesor de la habilidad global, el índice por categoría, los tokens de
+     * búsqueda y el resumen del usuario.
+     * @param oldCategoryId Categoría actual de la habilidad global (null si es nueva)
+     * @param user Usuario con la habilidad ya añadida
+     * @param oldTokens Contenido actual de search_tokens/{userId}
+     * @return Mapa de rutas para updateChildren
+     */
+    static Map<String, Object> saveSkillToTeachUpdates(String userId, String skillId, SkillToTeach skill,
+                                                       String categoryId, String oldCategoryId, User user,
+                                                       Set<String> oldTokens, boolean wasTeaching, boolean hasCounter) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("users/" + userId + "/skills_to_teach/" + skillId, skill.toMap());
+        updates.put("skills/" + skillId + "/title", skill.getTitle());
+        updates.put("skills/" + skillId + "/category", categoryId);
+        updates.putAll(SkillRepository.teacherUpdates(skillId, userId, true, wasTeaching, hasCounter));
+        updates.putAll(SearchIndexPaths.skillCategoryUpdates(skillId, oldCategoryId, categoryId));
+        updates.putAll(indexUpdates(userId, oldTokens, user));
+        return updates;
+    }
+    
+    /**
+     * Construye las escrituras de {@link #deleteSkillToTeach}: la habilidad del usuario, el
+     * profesor de la habilidad global, los tokens de búsqueda y el resumen del usuario.
+     * @param user Usuario con la habilidad ya quitada
+     * @param oldTokens Contenido actual de search_tokens/{userId}
+     * @return Mapa de rutas para updateChildren
+     */
+    static Map<String, Object> deleteSkillToTeachUpdates(String userId, String skillId, User user,
+                                                         Set<String> oldTokens, boolean wasTeaching, boolean hasCounter) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("users/" + userId + "/skills_to_teach/" + skillId, null);
+        updates.putAll(SkillRepository.teacherUpdates(skillId, userId, false, wasTeaching, hasCounter));
+        updates.putAll(indexUpdates(userId, oldTokens, user));
+        return updates;
+    }
+    
+    /**
+     * Construye los cambios de tokens de búsqueda y el resumen de un usuario. Si el usuario ya
+     * no existe se borran todos sus tokens y su resumen.
+     * @param oldTokens Contenido actual de search_tokens/{userId}
+     * @param user Datos actuales del usuario, o null si ya no existe
+     * @return Mapa de rutas para updateChildren
+     */
+    static Map<String, Object> indexUpdates(String userId, Set<String> oldTokens, User user) {
+        Map<String, Object> updates = SearchIndexPaths.userTokenUpdates(userId, oldTokens, SearchIndexPaths.userTokens(user));
+        UserSummary summary = UserSummary.fromUser(user);
+        updates.put(USER_SUMMARIES + "/" + userId, summary != null ? summary.toMap() : null);
+        return updates;
+    }
+    
+    /**
+     * Claves de search_tokens/{userId}.
+     */
+    private static Set<String> tokenKeys(DataSnapshot tokensSnapshot) {
+        Set<String> tokens = new HashSet<>();
+        for (DataSnapshot tokenSnapshot : tokensSnapshot.getChildren()) {
+            tokens.add(tokenSnapshot.getKey());
+        }
+        return tokens;
+    }
+    
+    /**
+     * Lee varias rutas en paralelo y entrega las instantáneas en el mismo orden que las consultas.
+     * Si alguna lectura falla no se llama a onRead y se publica false en result.
+     */
+    private void readTogether(Consumer<DataSnapshot[]> onRead, MutableLiveData<Boolean> result, Query... queries) {
+        DataSnapshot[] snapshots = new DataSnapshot[queries.length];
+        final int[] remaining = {queries.length};
+        final boolean[] failed = {false};
+        
+        for (int i = 0; i < queries.length; i++) {
+            final int position = i;
+            queries[i].addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    snapshots[position] = dataSnapshot;
+                    onResolved();
+                }
+
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    Log.e(TAG, "Error al leer los datos para el lote de escrituras: " + databaseError.getMessage());
+                    failed[0] = true;
+                    onResolved();
+                }
+                
+                private void onResolved() {
+                    remaining[0]--;
+                    if (remaining[0] > 0) {
+                        return;
+                    }
+                    if (failed[0]) {
+                        result.setValue(false);
+                    } else {
+                        onRead.accept(snapshots);
+                    }
+                }
+            });
+        }
     }
     
     /**
@@ -349,19 +947,17 @@ public class UserRepository {
                 return result;
             }
             
-            // Usar el almacenamiento local
-            new Thread(() -> {
-                try {
-                    // Necesitamos un contexto para acceder a SharedPreferences
-                    // Este método debe ser llamado desde un ViewModel que tenga acceso al contexto
-                    // y pase ese contexto al LocalStorageManager
-                    // Por ahora, devolvemos true para simular éxito
-                    result.postValue(true);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    result.postValue(false);
-                }
-            }).start();
+            if (context == null) {
+                // Sin contexto no hay acceso al almacenamiento local (llamar antes a initContext)
+                result.setValue(false);
+                return result;
+            }
+            
+            // Usar el almacenamiento local, fuera del hilo principal
+            LocalStorageManager localStorage = LocalStorageManager.getInstance(context);
+            AppExecutors.getInstance().execute(() -> localStorage.addFavorite(favoriteId),
+                    result::setValue,
+                    e -> result.setValue(false));
         } catch (Exception e) {
             e.printStackTrace();
             result.setValue(false);
@@ -404,19 +1000,17 @@ public class UserRepository {
                 return result;
             }
             
-            // Usar el almacenamiento local
-            new Thread(() -> {
-                try {
-                    // Necesitamos un contexto para acceder a SharedPreferences
-                    // Este método debe ser llamado desde un ViewModel que tenga acceso al contexto
-                    // y pase ese contexto al LocalStorageManager
-                    // Por ahora, devolvemos true para simular éxito
-                    result.postValue(true);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    result.postValue(false);
-                }
-            }).start();
+            if (context == null) {
+                // Sin contexto no hay acceso al almacenamiento local (llamar antes a initContext)
+                result.setValue(false);
+                return result;
+            }
+            
+            // Usar el almacenamiento local, fuera del hilo principal
+            LocalStorageManager localStorage = LocalStorageManager.getInstance(context);
+            AppExecutors.getInstance().execute(() -> localStorage.removeFavorite(favoriteId),
+                    result::setValue,
+                    e -> result.setValue(false));
         } catch (Exception e) {
             e.printStackTrace();
             result.setValue(false);
@@ -459,19 +1053,17 @@ public class UserRepository {
                 return result;
             }
             
-            // Usar el almacenamiento local
-            new Thread(() -> {
-                try {
-                    // Necesitamos un contexto para acceder a SharedPreferences
-                    // Este método debe ser llamado desde un ViewModel que tenga acceso al contexto
-                    // y pase ese contexto al LocalStorageManager
-                    // Por ahora, devolvemos true para simular éxito
-                    result.postValue(true);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    result.postValue(false);
-                }
-            }).start();
+            if (context == null) {
+                // Sin contexto no hay acceso al almacenamiento local (llamar antes a initContext)
+                result.setValue(false);
+                return result;
+            }
+            
+            // Usar el almacenamiento local, fuera del hilo principal
+            LocalStorageManager localStorage = LocalStorageManager.getInstance(context);
+            AppExecutors.getInstance().execute(() -> localStorage.addRecentContact(contactId),
+                    result::setValue,
+                    e -> result.setValue(false));
         } catch (Exception e) {
             e.printStackTrace();
             result.setValue(false);
@@ -481,110 +1073,21 @@ public class UserRepository {
     }
     
     /**
-     * Obtiene todos los usuarios.
-     * @return LiveData con la lista de usuarios
+     * Obtiene todos los usuarios, sincronizados por eventos de hijos y guardados en la copia local.
+     * @return Colección compartida por todos los observadores
      */
     public MutableLiveData<List<User>> getAllUsers() {
-        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
-        
-        usersRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<User> users = new ArrayList<>();
-                
-                for (DataSnapshot userSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        // Crear un nuevo usuario
-                        User user = new User();
-                        user.setUserId(userSnapshot.getKey());
-                        
-                        // Obtener el perfil
-                        DataSnapshot profileSnapshot = userSnapshot.child("profile");
-                        if (profileSnapshot.exists()) {
-                            UserProfile profile = new UserProfile();
-                            profile.setName(profileSnapshot.child("name").getValue(String.class));
-                            profile.setEmail(profileSnapshot.child("email").getValue(String.class));
-                            profile.setBio(profileSnapshot.child("bio").getValue(String.class));
-                            profile.setPhotoUrl(profileSnapshot.child("photoUrl").getValue(String.class));
-                            
-                            if (profileSnapshot.child("lastActive").exists()) {
-                                profile.setLastActive(new Date(profileSnapshot.child("lastActive").getValue(Long.class)));
-                            }
-                            
-                            user.setProfile(profile);
-                        } else {
-                            user.setProfile(new UserProfile());
-                        }
-                        
-                        // Obtener habilidades para enseñar
-                        Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
-                        DataSnapshot teachSnapshot = userSnapshot.child("skills_to_teach");
-                        if (teachSnapshot.exists()) {
-                            for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                SkillToTeach skill = new SkillToTeach();
-                                skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                // Convertir el valor de level a int (puede ser Long en Firebase)
-                                Object levelObj = skillSnapshot.child("level").getValue();
-                                if (levelObj != null) {
-                                    if (levelObj instanceof Long) {
-                                        skill.setLevel(((Long) levelObj).intValue());
-                                    } else if (levelObj instanceof Integer) {
-                                        skill.setLevel((Integer) levelObj);
-                                    } else if (levelObj instanceof String) {
-                                        try {
-                                            skill.setLevel(Integer.parseInt((String) levelObj));
-                                        } catch (NumberFormatException e) {
-                                            skill.setLevel(1); // Valor predeterminado si hay error
-                                        }
-                                    } else {
-                                        skill.setLevel(1); // Valor predeterminado
-                                    }
-                                } else {
-                                    skill.setLevel(1); // Valor predeterminado si es nulo
-                                }
-                                
-                                skillsToTeach.put(skillSnapshot.getKey(), skill);
-                            }
-                        }
-                        user.setSkillsToTeach(skillsToTeach);
-                        
-                        // Obtener habilidades para aprender
-                        Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
-                        DataSnapshot learnSnapshot = userSnapshot.child("skills_to_learn");
-                        if (learnSnapshot.exists()) {
-                            for (DataSnapshot skillSnapshot : learnSnapshot.getChildren()) {
-                                SkillToLearn skill = new SkillToLearn();
-                                skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                
-                                skillsToLearn.put(skillSnapshot.getKey(), skill);
-                            }
-                        }
-                        user.setSkillsToLearn(skillsToLearn);
-                        
-                        users.add(user);
-                    } catch (Exception e) {
-                        // Ignorar usuarios con formato incorrecto
-                    }
-                }
-                
-                usersLiveData.setValue(users);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                usersLiveData.setValue(new ArrayList<>());
-            }
-        });
-        
-        return usersLiveData;
+        if (usersCollection == null) {
+            usersCollection = new SyncedCollection<>(usersRef, UserSnapshotParser::parse);
+            usersCollection.mirrorTo(usersMirror);
+        }
+        return usersCollection;
     }
     
     /**
      * Sube una imagen de perfil a Firebase Storage y devuelve la URL de descarga.
+     * La imagen se guarda primero en local y la subida pasa por la cola persistente,
+     * que la reintenta si se pierde la red o se cierra la aplicación.
      * @param userId ID del usuario
      * @param imageUri URI de la imagen a subir
      * @return LiveData con la URL de descarga de la imagen
@@ -592,190 +1095,45 @@ public class UserRepository {
     public MutableLiveData<String> uploadProfileImage(String userId, android.net.Uri imageUri) {
         MutableLiveData<String> urlLiveData = new MutableLiveData<>();
         
-        if (imageUri == null) {
+        if (imageUri == null || context == null) {
             urlLiveData.setValue(null);
             return urlLiveData;
         }
         
-        // Referencia a Firebase Storage
-        com.google.firebase.storage.StorageReference storageRef = com.google.firebase.storage.FirebaseStorage.getInstance().getReference();
-        
-        // Crear una referencia a la imagen del usuario (users/userId/profile.jpg)
-        com.google.firebase.storage.StorageReference imageRef = storageRef.child("users/" + userId + "/profile.jpg");
-        
-        // Subir la imagen
-        imageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> {
-                    // Obtener la URL de descarga
-                    imageRef.getDownloadUrl().addOnSuccessListener(uri -> {
-                        urlLiveData.setValue(uri.toString());
-                    }).addOnFailureListener(e -> {
-                        urlLiveData.setValue(null);
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    urlLiveData.setValue(null);
-                });
+        AppExecutors.getInstance().execute(() -> imageStorageManager.saveProfileImage(userId, imageUri), imagePath -> {
+            if (imagePath == null) {
+                urlLiveData.setValue(null);
+                return;
+            }
+            LiveData<String> upload = ProfileImageUploadQueue.enqueue(context, userId, imagePath);
+            upload.observeForever(new Observer<String>() {
+                @Override
+                public void onChanged(String url) {
+                    upload.removeObserver(this);
+                    urlLiveData.setValue(url);
+                }
+            });
+        }, e -> urlLiveData.setValue(null));
         
         return urlLiveData;
     }
     
     /**
      * Busca usuarios por nombre o habilidades.
+     * Cada palabra de la consulta debe coincidir con el inicio de alguna palabra del nombre,
+     * la biografía o el título de una habilidad que enseña (sin distinguir mayúsculas ni acentos).
      * @param query Texto de búsqueda
      * @param categoryId Categoría para filtrar (opcional)
      * @return LiveData con la lista de usuarios que coinciden
      */
     public MutableLiveData<List<User>> searchUsers(String query, String categoryId) {
-        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
-        
         // Si la consulta está vacía y no hay categoría, devolver todos los usuarios
         if ((query == null || query.trim().isEmpty()) && (categoryId == null || categoryId.isEmpty())) {
             return getAllUsers();
         }
         
-        // Convertir a minúsculas para búsqueda insensible a mayúsculas/minúsculas
-        final String lowercaseQuery = query != null ? query.toLowerCase().trim() : "";
-        
-        usersRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<User> users = new ArrayList<>();
-                
-                for (DataSnapshot userSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        boolean matchesQuery = false;
-                        boolean matchesCategory = categoryId == null || categoryId.isEmpty();
-                        
-                        // Verificar si coincide con el nombre
-                        String name = userSnapshot.child("profile/name").getValue(String.class);
-                        if (name != null && name.toLowerCase().contains(lowercaseQuery)) {
-                            matchesQuery = true;
-                        }
-                        
-                        // Verificar si coincide con la bio
-                        if (!matchesQuery) {
-                            String bio = userSnapshot.child("profile/bio").getValue(String.class);
-                            if (bio != null && bio.toLowerCase().contains(lowercaseQuery)) {
-                                matchesQuery = true;
-                            }
-                        }
-                        
-                        // Verificar si coincide con alguna habilidad para enseñar
-                        if (!matchesQuery || !matchesCategory) {
-                            DataSnapshot teachSnapshot = userSnapshot.child("skills_to_teach");
-                            if (teachSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                    // Verificar si coincide con el título de la habilidad
-                                    String title = skillSnapshot.child("title").getValue(String.class);
-                                    if (!matchesQuery && title != null && title.toLowerCase().contains(lowercaseQuery)) {
-                                        matchesQuery = true;
-                                    }
-                                    
-                                    // Verificar si coincide con la categoría
-                                    if (!matchesCategory && categoryId != null && !categoryId.isEmpty()) {
-                                        String category = skillSnapshot.child("category").getValue(String.class);
-                                        if (category != null && category.equals(categoryId)) {
-                                            matchesCategory = true;
-                                        }
-                                    }
-                                    
-                                    if (matchesQuery && matchesCategory) {
-                                        break;
-                                    }
-                                }
-                            }
-                        }
-                        
-                        // Si coincide con la consulta y la categoría, añadir a los resultados
-                        if ((lowercaseQuery.isEmpty() || matchesQuery) && matchesCategory) {
-                            // Crear un nuevo usuario
-                            User user = new User();
-                            user.setUserId(userSnapshot.getKey());
-                            
-                            // Obtener el perfil
-                            DataSnapshot profileSnapshot = userSnapshot.child("profile");
-                            if (profileSnapshot.exists()) {
-                                UserProfile profile = new UserProfile();
-                                profile.setName(profileSnapshot.child("name").getValue(String.class));
-                                profile.setEmail(profileSnapshot.child("email").getValue(String.class));
-                                profile.setBio(profileSnapshot.child("bio").getValue(String.class));
-                                profile.setPhotoUrl(profileSnapshot.child("photoUrl").getValue(String.class));
-                                
-                                if (profileSnapshot.child("lastActive").exists()) {
-                                    profile.setLastActive(new Date(profileSnapshot.child("lastActive").getValue(Long.class)));
-                                }
-                                
-                                user.setProfile(profile);
-                            } else {
-                                user.setProfile(new UserProfile());
-                            }
-                            
-                            // Obtener habilidades para enseñar
-                            Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
-                            DataSnapshot teachSnapshot = userSnapshot.child("skills_to_teach");
-                            if (teachSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                    SkillToTeach skill = new SkillToTeach();
-                                    skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                    skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                    skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                    // Convertir el valor de level a int (puede ser Long en Firebase)
-                                    Object levelObj = skillSnapshot.child("level").getValue();
-                                    if (levelObj != null) {
-                                        if (levelObj instanceof Long) {
-                                            skill.setLevel(((Long) levelObj).intValue());
-                                        } else if (levelObj instanceof Integer) {
-                                            skill.setLevel((Integer) levelObj);
-                                        } else if (levelObj instanceof String) {
-                                            try {
-                                                skill.setLevel(Integer.parseInt((String) levelObj));
-                                            } catch (NumberFormatException e) {
-                                                skill.setLevel(1); // Valor predeterminado si hay error
-                                            }
-                                        } else {
-                                            skill.setLevel(1); // Valor predeterminado
-                                        }
-                                    } else {
-                                        skill.setLevel(1); // Valor predeterminado si es nulo
-                                    }
-                                    
-                                    skillsToTeach.put(skillSnapshot.getKey(), skill);
-                                }
-                            }
-                            user.setSkillsToTeach(skillsToTeach);
-                            
-                            // Obtener habilidades para aprender
-                            Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
-                            DataSnapshot learnSnapshot = userSnapshot.child("skills_to_learn");
-                            if (learnSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : learnSnapshot.getChildren()) {
-                                    SkillToLearn skill = new SkillToLearn();
-                                    skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                    skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                    skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                    
-                                    skillsToLearn.put(skillSnapshot.getKey(), skill);
-                                }
-                            }
-                            user.setSkillsToLearn(skillsToLearn);
-                            
-                            users.add(user);
-                        }
-                    } catch (Exception e) {
-                        // Ignorar usuarios con formato incorrecto
-                    }
-                }
-                
-                usersLiveData.setValue(users);
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                usersLiveData.setValue(new ArrayList<>());
-            }
-        });
-        
+        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
+        runIndexedSearch(query, categoryId, 0, usersLiveData::setValue);
         return usersLiveData;
     }
     
@@ -787,8 +1145,6 @@ public class UserRepository {
      * @return LiveData con la lista de usuarios que coinciden
      */
     public MutableLiveData<List<User>> searchUsersAdvanced(String query, String categoryId, int level) {
-        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
-        
         // Si la consulta está vacía, no hay categoría y el nivel es 0, devolver todos los usuarios
         if ((query == null || query.trim().isEmpty()) && 
             (categoryId == null || categoryId.isEmpty()) && 
@@ -796,174 +1152,307 @@ public class UserRepository {
             return getAllUsers();
         }
         
-        // Convertir a minúsculas para búsqueda insensible a mayúsculas/minúsculas
-        final String lowercaseQuery = query != null ? query.toLowerCase().trim() : "";
-        final int minLevel = level > 0 ? level : 0;
+        MutableLiveData<List<User>> usersLiveData = new MutableLiveData<>();
+        runIndexedSearch(query, categoryId, level > 0 ? level : 0, usersLiveData::setValue);
+        return usersLiveData;
+    }
+    
+    /**
+     * Busca usuarios igual que {@link #searchUsersAdvanced(String, String, int)} pero devuelve
+     * solo sus resúmenes. Sin filtros se leen directamente los resúmenes de user_summaries.
+     * @param query Texto de búsqueda
+     * @param categoryId Categoría para filtrar (opcional)
+     * @param level Nivel mínimo de habilidad para filtrar (1-5, 0 para ignorar)
+     * @return LiveData con los resúmenes de los usuarios que coinciden
+     */
+    public MutableLiveData<List<UserSummary>> searchUserSummaries(String query, String categoryId, int level) {
+        if ((query == null || query.trim().isEmpty()) && 
+            (categoryId == null || categoryId.isEmpty()) && 
+            level <= 0) {
+            return getAllUserSummaries();
+        }
+        
+        MutableLiveData<List<UserSummary>> summariesLiveData = new MutableLiveData<>();
+        runIndexedSearch(query, categoryId, level > 0 ? level : 0,
+                users -> summariesLiveData.setValue(UserSummary.fromUsers(users)));
+        return summariesLiveData;
+    }
+    
+    /**
+     * Obtiene los usuarios con los que mejor encaja un intercambio de habilidades: los que
+     * enseñan lo que el usuario quiere aprender y, sobre todo, los que además quieren aprender
+     * lo que él enseña. El cálculo usa el índice en memoria y se hace fuera del hilo principal.
+     * @param userId ID del usuario
+     * @param limit Número máximo de resultados
+     * @return LiveData con los emparejamientos, de mejor a peor
+     */
+    public MutableLiveData<List<SkillMatch>> getSkillMatches(String userId, int limit) {
+        MutableLiveData<List<SkillMatch>> matchesLiveData = new MutableLiveData<>();
         
-        usersRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<User> users = new ArrayList<>();
-                
-                for (DataSnapshot userSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        boolean matchesQuery = false;
-                        boolean matchesCategory = categoryId == null || categoryId.isEmpty();
-                        boolean matchesLevel = minLevel <= 0; // Si minLevel es 0, no se filtra por nivel
-                        
-                        // Verificar si coincide con el nombre
-                        String name = userSnapshot.child("profile/name").getValue(String.class);
-                        if (name != null && name.toLowerCase().contains(lowercaseQuery)) {
-                            matchesQuery = true;
-                        }
-                        
-                        // Verificar si coincide con la bio
-                        if (!matchesQuery) {
-                            String bio = userSnapshot.child("profile/bio").getValue(String.class);
-                            if (bio != null && bio.toLowerCase().contains(lowercaseQuery)) {
-                                matchesQuery = true;
-                            }
-                        }
-                        
-                        // Verificar si coincide con alguna habilidad para enseñar
-                        if (!matchesQuery || !matchesCategory || !matchesLevel) {
-                            DataSnapshot teachSnapshot = userSnapshot.child("skills_to_teach");
-                            if (teachSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                    // Verificar si coincide con el título de la habilidad
-                                    String title = skillSnapshot.child("title").getValue(String.class);
-                                    if (!matchesQuery && title != null && title.toLowerCase().contains(lowercaseQuery)) {
-                                        matchesQuery = true;
-                                    }
-                                    
-                                    // Verificar si coincide con la categoría
-                                    if (!matchesCategory && categoryId != null && !categoryId.isEmpty()) {
-                                        String category = skillSnapshot.child("category").getValue(String.class);
-                                        if (category != null && category.equals(categoryId)) {
-                                            matchesCategory = true;
-                                        }
-                                    }
-                                    
-                                    // Verificar si coincide con el nivel mínimo
-                                    if (!matchesLevel && minLevel > 0) {
-                                        Object levelObj = skillSnapshot.child("level").getValue();
-                                        int skillLevel = 1; // Valor predeterminado
-                                        
-                                        if (levelObj != null) {
-                                            if (levelObj instanceof Long) {
-                                                skillLevel = ((Long) levelObj).intValue();
-                                            } else if (levelObj instanceof Integer) {
-                                                skillLevel = (Integer) levelObj;
-                                            } else if (levelObj instanceof String) {
-                                                try {
-                                                    skillLevel = Integer.parseInt((String) levelObj);
-                                                } catch (NumberFormatException e) {
-                                                    skillLevel = 1; // Valor predeterminado si hay error
-                                                }
-                                            }
-                                        }
-                                        
-                                        if (skillLevel >= minLevel) {
-                                            matchesLevel = true;
-                                        }
-                                    }
-                                    
-                                    if (matchesQuery && matchesCategory && matchesLevel) {
-                                        break;
-                                    }
+        ensureSearchIndex();
+        Runnable match = () -> AppExecutors.getInstance().execute(() -> matchIndex.findMatches(userId, limit),
+                matchesLiveData::setValue, e -> {
+                    Log.e(TAG, "Error al calcular emparejamientos: " + e.getMessage());
+                    matchesLiveData.setValue(new ArrayList<>());
+                });
+        if (searchIndexLoaded) {
+            match.run();
+        } else {
+            pendingSearches.add(match);
+        }
+        return matchesLiveData;
+    }
+    
+    /**
+     * Obtiene los usuarios que pueden enseñar algo de lo que quiere aprender el usuario, de mejor
+     * a peor emparejamiento. Primero se entrega la lista guardada en la base local, así que se
+     * puede mostrar al momento; después se mantiene al día con los eventos del nodo users
+     * (incluidos los cambios de habilidades del propio usuario): solo se vuelve a puntuar el
+     * usuario que cambia, y la lista completa solo se recalcula cuando hace falta.
+     * @param userId ID del usuario
+     * @return LiveData con los resúmenes de los usuarios, compartido mientras no cambie el usuario
+     */
+    public MutableLiveData<List<UserSummary>> getTeacherMatches(String userId) {
+        if (matchView == null || !matchView.getOwnerId().equals(userId)) {
+            // Solo profesores: los que solo quieren aprender del usuario no deben ocupar los puestos
+            matchView = new MatchView(matchIndex, userId, MATCH_VIEW_SIZE, true);
+            teacherMatches = new MutableLiveData<>();
+            loadCachedMatches(userId, teacherMatches);
+            if (searchIndexLoaded) {
+                updateMatchView(view -> {
+                    view.refresh();
+                    return true;
+                });
+            }
+        }
+        ensureSearchIndex();
+        return teacherMatches;
+    }
+    
+    /**
+     * Publica los emparejamientos guardados en la base local, si los hay.
+     * Se ejecuta en el hilo de disco antes que cualquier actualización de la misma lista.
+     */
+    private void loadCachedMatches(String userId, MutableLiveData<List<UserSummary>> target) {
+        LocalDatabase database = LocalDatabase.getInstance();
+        if (database == null) {
+            return;
+        }
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            try {
+                List<UserSummary> cached = EntityMapper.toTeacherSummaries(database.matchDao().getMatches(userId));
+                if (!cached.isEmpty()) {
+                    target.postValue(cached);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error al leer los emparejamientos guardados: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Aplica un cambio a la lista de emparejamientos del usuario actual y, si la lista cambia,
+     * la publica y la guarda en la base local. Todo se hace en el hilo de disco, que es único,
+     * para que los cambios se apliquen y se publiquen en orden.
+     */
+    private void updateMatchView(MatchUpdate update) {
+        MatchView view = matchView;
+        if (view == null) {
+            return;
+        }
+        MutableLiveData<List<UserSummary>> target = teacherMatches;
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            try {
+                if (!update.apply(view)) {
+                    return;
+                }
+                List<MatchEntity> rows = EntityMapper.toMatchEntities(view.getOwnerId(), view.getMatches());
+                target.postValue(EntityMapper.toTeacherSummaries(rows));
+                LocalDatabase database = LocalDatabase.getInstance();
+                if (database != null) {
+                    database.matchDao().replaceMatches(view.getOwnerId(), rows);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error al actualizar los emparejamientos: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Cambio sobre la lista de emparejamientos.
+     */
+    private interface MatchUpdate {
+        /**
+         * @return true si la lista ha cambiado
+         */
+        boolean apply(MatchView view);
+    }
+    
+    /**
+     * Resuelve una búsqueda contra el índice invertido. Si el índice local no está cargado
+     * y la consulta tiene texto, se usa el índice remoto search_index; en otro caso se carga
+     * el índice local y la búsqueda queda pendiente hasta que termine la carga inicial.
+     */
+    private void runIndexedSearch(String query, String categoryId, int minLevel,
+                                  Consumer<List<User>> onResult) {
+        Set<String> queryTokens = TextNormalizer.tokenize(query);
+        if (!searchIndexLoaded && !queryTokens.isEmpty()) {
+            searchRemoteIndex(queryTokens, query, categoryId, minLevel, onResult);
+            return;
+        }
+        
+        ensureSearchIndex();
+        Runnable search = () -> onResult.accept(searchIndex.search(query, categoryId, minLevel));
+        if (searchIndexLoaded) {
+            search.run();
+        } else {
+            pendingSearches.add(search);
+        }
+    }
+    
+    /**
+     * Busca usuarios leyendo solo los rangos de search_index que empiezan por cada token
+     * de la consulta y descargando después únicamente los usuarios candidatos.
+     */
+    private void searchRemoteIndex(Set<String> queryTokens, String query, String categoryId, int minLevel,
+                                   Consumer<List<User>> onResult) {
+        DatabaseReference indexRef = databaseRef.child(SearchIndexPaths.SEARCH_INDEX);
+        List<Set<String>> idsPerToken = new ArrayList<>();
+        final int[] remaining = {queryTokens.size()};
+        
+        for (String token : queryTokens) {
+            indexRef.orderByKey().startAt(token).endAt(token + "\uf8ff")
+                    .addListenerForSingleValueEvent(new ValueEventListener() {
+                        @Override
+                        public void onDataChange(DataSnapshot dataSnapshot) {
+                            Set<String> ids = new HashSet<>();
+                            for (DataSnapshot tokenSnapshot : dataSnapshot.getChildren()) {
+                                for (DataSnapshot userSnapshot : tokenSnapshot.getChildren()) {
+                                    ids.add(userSnapshot.getKey());
                                 }
                             }
+                            idsPerToken.add(ids);
+                            onTokenResolved();
+                        }
+
+                        @Override
+                        public void onCancelled(DatabaseError databaseError) {
+                            idsPerToken.add(new HashSet<>());
+                            onTokenResolved();
                         }
                         
-                        // Si coincide con la consulta, la categoría y el nivel, añadir a los resultados
-                        if ((lowercaseQuery.isEmpty() || matchesQuery) && matchesCategory && matchesLevel) {
-                            // Crear un nuevo usuario
-                            User user = new User();
-                            user.setUserId(userSnapshot.getKey());
-                            
-                            // Obtener el perfil
-                            DataSnapshot profileSnapshot = userSnapshot.child("profile");
-                            if (profileSnapshot.exists()) {
-                                UserProfile profile = new UserProfile();
-                                profile.setName(profileSnapshot.child("name").getValue(String.class));
-                                profile.setEmail(profileSnapshot.child("email").getValue(String.class));
-                                profile.setBio(profileSnapshot.child("bio").getValue(String.class));
-                                profile.setPhotoUrl(profileSnapshot.child("photoUrl").getValue(String.class));
-                                
-                                if (profileSnapshot.child("lastActive").exists()) {
-                                    profile.setLastActive(new Date(profileSnapshot.child("lastActive").getValue(Long.class)));
-                                }
-                                
-                                user.setProfile(profile);
-                            } else {
-                                user.setProfile(new UserProfile());
+                        private void onTokenResolved() {
+                            remaining[0]--;
+                            if (remaining[0] > 0) {
+                                return;
                             }
-                            
-                            // Obtener habilidades para enseñar
-                            Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
-                            DataSnapshot teachSnapshot = userSnapshot.child("skills_to_teach");
-                            if (teachSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : teachSnapshot.getChildren()) {
-                                    SkillToTeach skill = new SkillToTeach();
-                                    skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                    skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                    skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                    // Convertir el valor de level a int (puede ser Long en Firebase)
-                                    Object levelObj = skillSnapshot.child("level").getValue();
-                                    if (levelObj != null) {
-                                        if (levelObj instanceof Long) {
-                                            skill.setLevel(((Long) levelObj).intValue());
-                                        } else if (levelObj instanceof Integer) {
-                                            skill.setLevel((Integer) levelObj);
-                                        } else if (levelObj instanceof String) {
-                                            try {
-                                                skill.setLevel(Integer.parseInt((String) levelObj));
-                                            } catch (NumberFormatException e) {
-                                                skill.setLevel(1); // Valor predeterminado si hay error
-                                            }
-                                        } else {
-                                            skill.setLevel(1); // Valor predeterminado
-                                        }
-                                    } else {
-                                        skill.setLevel(1); // Valor predeterminado si es nulo
-                                    }
-                                    
-                                    skillsToTeach.put(skillSnapshot.getKey(), skill);
-                                }
+                            // Intersección: el usuario debe coincidir con todos los términos
+                            Set<String> candidates = new HashSet<>(idsPerToken.get(0));
+                            for (int i = 1; i < idsPerToken.size(); i++) {
+                                candidates.retainAll(idsPerToken.get(i));
                             }
-                            user.setSkillsToTeach(skillsToTeach);
-                            
-                            // Obtener habilidades para aprender
-                            Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
-                            DataSnapshot learnSnapshot = userSnapshot.child("skills_to_learn");
-                            if (learnSnapshot.exists()) {
-                                for (DataSnapshot skillSnapshot : learnSnapshot.getChildren()) {
-                                    SkillToLearn skill = new SkillToLearn();
-                                    skill.setTitle(skillSnapshot.child("title").getValue(String.class));
-                                    skill.setCategory(skillSnapshot.child("category").getValue(String.class));
-                                    skill.setDescription(skillSnapshot.child("description").getValue(String.class));
-                                    
-                                    skillsToLearn.put(skillSnapshot.getKey(), skill);
-                                }
-                            }
-                            user.setSkillsToLearn(skillsToLearn);
-                            
-                            users.add(user);
+                            loadCandidates(candidates, query, categoryId, minLevel, onResult);
                         }
-                    } catch (Exception e) {
-                        // Ignorar usuarios con formato incorrecto
-                    }
+                    });
+        }
+    }
+    
+    /**
+     * Descarga los usuarios candidatos del índice remoto y aplica los filtros de la búsqueda.
+     * Los candidatos se vuelven a comprobar contra sus datos actuales por si el índice estuviera desfasado.
+     */
+    private void loadCandidates(Set<String> candidates, String query, String categoryId, int minLevel,
+                                Consumer<List<User>> onResult) {
+        if (candidates.isEmpty()) {
+            onResult.accept(new ArrayList<>());
+            return;
+        }
+        
+        UserSearchIndex candidateIndex = new UserSearchIndex();
+        final int[] remaining = {candidates.size()};
+        
+        for (String userId : candidates) {
+            usersRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    candidateIndex.putUser(UserSnapshotParser.parse(dataSnapshot));
+                    onCandidateLoaded();
+                }
+
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    onCandidateLoaded();
                 }
                 
-                usersLiveData.setValue(users);
+                private void onCandidateLoaded() {
+                    remaining[0]--;
+                    if (remaining[0] == 0) {
+                        onResult.accept(candidateIndex.search(query, categoryId, minLevel));
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * Construye el índice de búsqueda a partir del nodo users y lo mantiene actualizado
+     * con los eventos de hijos, de modo que solo se descarga el árbol completo una vez.
+     */
+    private void ensureSearchIndex() {
+        if (searchIndexSync != null) {
+            return;
+        }
+        
+        searchIndexSync = new ChildSync<>(usersRef, UserSnapshotParser::parse, new ChildSync.Target<User>() {
+            @Override
+            public void onInitialLoad(LinkedHashMap<String, User> users) {
+                searchIndex.clear();
+                matchIndex.clear();
+                for (User user : users.values()) {
+                    searchIndex.putUser(user);
+                    matchIndex.putUser(user);
+                }
+                searchIndexLoaded = true;
+                flushPendingSearches();
+                updateMatchView(view -> {
+                    view.refresh();
+                    return true;
+                });
+            }
+
+            @Override
+            public void onUpsert(String userId, User user) {
+                searchIndex.putUser(user);
+                matchIndex.putUser(user);
+                updateMatchView(view -> view.onUserChanged(userId));
+            }
+
+            @Override
+            public void onRemove(String userId) {
+                searchIndex.removeUser(userId);
+                matchIndex.removeUser(userId);
+                updateMatchView(view -> view.onUserRemoved(userId));
             }
 
             @Override
             public void onCancelled(DatabaseError databaseError) {
-                usersLiveData.setValue(new ArrayList<>());
+                // Permitir reintentar en la siguiente búsqueda
+                searchIndexSync.stop();
+                searchIndexSync = null;
+                searchIndexLoaded = false;
+                searchIndex.clear();
+                matchIndex.clear();
+                flushPendingSearches();
             }
         });
-        
-        return usersLiveData;
+        searchIndexSync.start(null);
+    }
+    
+    private void flushPendingSearches() {
+        List<Runnable> searches = new ArrayList<>(pendingSearches);
+        pendingSearches.clear();
+        for (Runnable search : searches) {
+            search.run();
+        }
     }
 }
@@ -0,0 +1,105 @@
+package com.skillswap.skillswapp.data.repository;
+
+import android.util.Log;
+
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Agrupa escrituras en varias rutas de Firebase para confirmarlas con un único
+ * updateChildren: se aplican todas o ninguna, en una sola ida y vuelta al servidor.
+ * Las rutas son relativas a la raíz de la base de datos. Firebase rechaza lotes en los que
+ * una ruta contiene a otra, así que cada cambio debe escribirse en su ruta más concreta.
+ */
+public final class WriteBatch {
+    private static final String TAG = "WriteBatch";
+
+    private final DatabaseReference root;
+    private final Map<String, Object> updates = new HashMap<>();
+
+    /**
+     * @param root Referencia a la raíz de la base de datos
+     */
+    public WriteBatch(DatabaseReference root) {
+        this.root = root;
+    }
+
+    /**
+     * Escribe un valor en una ruta (null la elimina).
+     */
+    public WriteBatch set(String path, Object value) {
+        updates.put(path, value);
+        return this;
+    }
+
+    /**
+     * Elimina una ruta.
+     */
+    public WriteBatch delete(String path) {
+        updates.put(path, null);
+        return this;
+    }
+
+    /**
+     * Añade escrituras ya calculadas (por ejemplo, las de {@code SearchIndexPaths}).
+     */
+    public WriteBatch putAll(Map<String, ?> paths) {
+        updates.putAll(paths);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return updates.isEmpty();
+    }
+
+    /**
+     * Confirma el lote.
+     * @return LiveData con true si se han aplicado todas las escrituras
+     */
+    public MutableLiveData<Boolean> commit() {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
+        commit(result);
+        return result;
+    }
+
+    /**
+     * Confirma el lote y publica el resultado en un LiveData existente.
+     * @param result Recibe true si se han aplicado todas las escrituras
+     */
+    public void commit(MutableLiveData<Boolean> result) {
+        commit(result, null);
+    }
+
+    /**
+     * Confirma el lote y publica el resultado en un LiveData existente.
+     * @param result Recibe true si se han aplicado todas las escrituras
+     * @param onSuccess Se ejecuta tras aplicarse el lote, antes de publicar el resultado (puede ser null)
+     */
+    public void commit(MutableLiveData<Boolean> result, Runnable onSuccess) {
+        if (updates.isEmpty()) {
+            result.setValue(true);
+            return;
+        }
+        try {
+            root.updateChildren(new HashMap<>(updates))
+                    .addOnSuccessListener(aVoid -> {
+                        if (onSuccess != null) {
+                            onSuccess.run();
+                        }
+                        result.setValue(true);
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Error al confirmar el lote de escrituras: " + e.getMessage());
+                        result.setValue(false);
+                    });
+        } catch (Exception e) {
+            // Rutas no válidas o solapadas: no se ha escrito nada
+            Log.e(TAG, "Lote de escrituras no válido: " + e.getMessage());
+            result.setValue(false);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.skillswap.skillswapp.data.search;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rutas y actualizaciones de los nodos desnormalizados de búsqueda:
+ * <ul>
+ *     <li>search_index/{token}/{userId}: usuarios cuyo nombre, biografía o habilidades contienen el token</li>
+ *     <li>search_tokens/{userId}/{token}: tokens indexados de cada usuario, para poder calcular diferencias</li>
+ *     <li>skills_by_category/{categoryId}/{skillId}: habilidades globales de cada categoría</li>
+ * </ul>
+ * Los métodos solo construyen el mapa de rutas para {@code updateChildren}, sin acceder a Firebase,
+ * de modo que pueden comprobarse en memoria.
+ */
+public final class SearchIndexPaths {
+
+    public static final String SEARCH_INDEX = "search_index";
+    public static final String SEARCH_TOKENS = "search_tokens";
+    public static final String SKILLS_BY_CATEGORY = "skills_by_category";
+
+    private SearchIndexPaths() {
+    }
+
+    /**
+     * Obtiene los tokens indexables de un usuario: nombre, biografía y títulos de las habilidades que enseña.
+     * @param user Usuario
+     * @return Conjunto de tokens normalizados
+     */
+    public static Set<String> userTokens(User user) {
+        Set<String> tokens = new HashSet<>();
+        if (user == null) {
+            return tokens;
+        }
+        if (user.getProfile() != null) {
+            tokens.addAll(TextNormalizer.tokenize(user.getProfile().getName()));
+            tokens.addAll(TextNormalizer.tokenize(user.getProfile().getBio()));
+        }
+        if (user.getSkillsToTeach() != null) {
+            for (User.SkillToTeach skill : user.getSkillsToTeach().values()) {
+                if (skill != null) {
+                    tokens.addAll(TextNormalizer.tokenize(skill.getTitle()));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Construye las actualizaciones necesarias para pasar de los tokens antiguos de un usuario a los nuevos.
+     * Solo se escriben los tokens que cambian.
+     * @param userId ID del usuario
+     * @param oldTokens Tokens indexados actualmente (puede ser null)
+     * @param newTokens Tokens que deben quedar indexados (puede ser null si el usuario se elimina)
+     * @return Mapa de rutas para updateChildren (vacío si no hay cambios)
+     */
+    public static Map<String, Object> userTokenUpdates(String userId, Set<String> oldTokens, Set<String> newTokens) {
+        Map<String, Object> updates = new HashMap<>();
+        if (oldTokens != null) {
+            for (String token : oldTokens) {
+                if (newTokens == null || !newTokens.contains(token)) {
+                    updates.put(SEARCH_INDEX + "/" + token + "/" + userId, null);
+                    updates.put(SEARCH_TOKENS + "/" + userId + "/" + token, null);
+                }
+            }
+        }
+        if (newTokens != null) {
+            for (String token : newTokens) {
+                if (oldTokens == null || !oldTokens.contains(token)) {
+                    updates.put(SEARCH_INDEX + "/" + token + "/" + userId, true);
+                    updates.put(SEARCH_TOKENS + "/" + userId + "/" + token, true);
+                }
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Construye las actualizaciones para mover una habilidad entre categorías.
+     * @param skillId ID de la habilidad
+     * @param oldCategoryId Categoría anterior (null si es nueva)
+     * @param newCategoryId Categoría nueva (null si se elimina la habilidad)
+     * @return Mapa de rutas para updateChildren
+     */
+    public static Map<String, Object> skillCategoryUpdates(String skillId, String oldCategoryId, String newCategoryId) {
+        Map<String, Object> updates = new HashMap<>();
+        if (isValidKey(oldCategoryId) && !oldCategoryId.equals(newCategoryId)) {
+            updates.put(SKILLS_BY_CATEGORY + "/" + oldCategoryId + "/" + skillId, null);
+        }
+        if (isValidKey(newCategoryId)) {
+            updates.put(SKILLS_BY_CATEGORY + "/" + newCategoryId + "/" + skillId, true);
+        }
+        return updates;
+    }
+
+    /**
+     * Comprueba que un valor pueda usarse como clave de Firebase.
+     */
+    private static boolean isValidKey(String key) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '#' || c == '$' || c == '[' || c == ']' || c == '/') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
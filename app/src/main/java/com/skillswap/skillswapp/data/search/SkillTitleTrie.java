@@ -0,0 +1,390 @@
+package com.skillswap.skillswapp.data.search;
+
+import com.skillswap.skillswapp.data.model.Skill;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Árbol de prefijos en memoria con los títulos de las habilidades, para sugerir mientras se
+ * escribe sin consultar Firebase.
+ * <p>Los títulos se indexan normalizados con {@link #fold(String)} (sin mayúsculas, acentos ni
+ * signos), desde el principio y desde el inicio de cada palabra: "Música clásica" aparece al
+ * escribir "mus" y también "clas". Cada nodo guarda ya ordenados sus {@link #TOP_K} mejores
+ * títulos (más profesores primero), así que una sugerencia solo recorre los caracteres de la
+ * consulta. Al añadir o quitar una habilidad se recalculan los nodos de su camino, de abajo arriba,
+ * mezclando las listas ya ordenadas de los hijos. {@link #replaceAll} inserta todo primero y
+ * recalcula cada nodo una sola vez.
+ */
+public class SkillTitleTrie {
+
+    // Máximo de sugerencias que se pueden pedir
+    public static final int TOP_K = 10;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Más profesores primero; a igualdad, por título normalizado y por ID para que el orden sea estable.
+     */
+    private static final Comparator<Entry> RANKING = (a, b) -> {
+        if (a.teacherCount != b.teacherCount) {
+            return a.teacherCount > b.teacherCount ? -1 : 1;
+        }
+        int cmp = a.folded.compareTo(b.folded);
+        return cmp != 0 ? cmp : a.skillId.compareTo(b.skillId);
+    };
+
+    private static final class Entry {
+        final String skillId;
+        final String title;
+        final String folded;
+        final int teacherCount;
+        final List<String> keys;
+
+        Entry(String skillId, String title, String folded, int teacherCount, List<String> keys) {
+            this.skillId = skillId;
+            this.title = title;
+            this.folded = folded;
+            this.teacherCount = teacherCount;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Nodo del árbol. Los hijos se guardan en arrays pequeños en lugar de un mapa: la mayoría
+     * de nodos tiene uno o ninguno, y con decenas de miles de títulos la memoria cuenta.
+     */
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        // Entradas cuya clave termina en este nodo, ordenadas por RANKING
+        List<Entry> terminals = Collections.emptyList();
+        // Mejores entradas del subárbol, sin títulos repetidos
+        List<Entry> top = Collections.emptyList();
+
+        Node child(char label) {
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char label) {
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            Node child = new Node();
+            labels[childCount] = label;
+            children[childCount] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] == label) {
+                    childCount--;
+                    labels[i] = labels[childCount];
+                    children[i] = children[childCount];
+                    children[childCount] = null;
+                    return;
+                }
+            }
+        }
+
+        void addTerminal(Entry entry) {
+            if (terminals.isEmpty()) {
+                terminals = new ArrayList<>(1);
+            }
+            int position = 0;
+            while (position < terminals.size() && RANKING.compare(terminals.get(position), entry) < 0) {
+                position++;
+            }
+            terminals.add(position, entry);
+        }
+    }
+
+    private Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Normaliza un texto como se indexan los títulos: minúsculas, sin acentos y con las
+     * palabras separadas por un único espacio.
+     * @param text Texto a normalizar
+     * @return Texto normalizado (cadena vacía si es null)
+     */
+    public static String fold(String text) {
+        String normalized = TextNormalizer.normalize(text);
+        StringBuilder folded = new StringBuilder(normalized.length());
+        for (String word : SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                if (folded.length() > 0) {
+                    folded.append(' ');
+                }
+                folded.append(word);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Indica si un título aparecería en las sugerencias de una consulta ya normalizada.
+     * @param title Título original
+     * @param foldedQuery Consulta normalizada con {@link #fold(String)}
+     */
+    public static boolean matches(String title, String foldedQuery) {
+        for (String key : keysOf(fold(title))) {
+            if (key.startsWith(foldedQuery)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Añade o reemplaza una habilidad. Las habilidades sin título se eliminan.
+     * @param skill Habilidad a indexar
+     */
+    public synchronized void put(Skill skill) {
+        Entry entry = insert(skill);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            recompute(pathTo(key, false));
+        }
+    }
+
+    /**
+     * Añade la habilidad a los nodos de sus claves sin recalcular las mejores entradas.
+     * @return Entrada añadida, o null si no ha cambiado nada que recalcular
+     */
+    private Entry insert(Skill skill) {
+        if (skill == null || skill.getSkillId() == null) {
+            return null;
+        }
+        String skillId = skill.getSkillId();
+        String folded = fold(skill.getTitle());
+        Entry previous = entries.get(skillId);
+        if (previous != null && previous.folded.equals(folded)
+                && previous.title.equals(skill.getTitle()) && previous.teacherCount == skill.getTeacherCount()) {
+            return null;
+        }
+        remove(skillId);
+        if (folded.isEmpty()) {
+            return null;
+        }
+        Entry entry = new Entry(skillId, skill.getTitle(), folded, skill.getTeacherCount(), keysOf(folded));
+        entries.put(skillId, entry);
+        for (String key : entry.keys) {
+            List<Node> path = pathTo(key, true);
+            path.get(path.size() - 1).addTerminal(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Elimina una habilidad.
+     * @param skillId ID de la habilidad
+     */
+    public synchronized void remove(String skillId) {
+        Entry entry = skillId != null ? entries.remove(skillId) : null;
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            List<Node> path = pathTo(key, false);
+            if (path == null) {
+                continue;
+            }
+            path.get(path.size() - 1).terminals.remove(entry);
+            recompute(path);
+            prune(path, key);
+        }
+    }
+
+    /**
+     * Sustituye todo el contenido.
+     * @param skills Habilidades a indexar
+     */
+    public synchronized void replaceAll(Collection<Skill> skills) {
+        clear();
+        for (Skill skill : skills) {
+            insert(skill);
+        }
+        recomputeAll(root);
+    }
+
+    public synchronized void clear() {
+        root = new Node();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Títulos que empiezan por la consulta (o que tienen una palabra que empieza por ella),
+     * de más a menos profesores y sin repetidos.
+     * @param query Texto escrito, sin normalizar
+     * @param limit Número máximo de títulos (como mucho {@link #TOP_K})
+     * @return Títulos sugeridos
+     */
+    public synchronized List<String> suggest(String query, int limit) {
+        List<String> titles = new ArrayList<>();
+        String key = fold(query);
+        if (key.isEmpty()) {
+            return titles;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return titles;
+        }
+        for (Entry entry : node.top) {
+            if (titles.size() >= limit) {
+                break;
+            }
+            titles.add(entry.title);
+        }
+        return titles;
+    }
+
+    /**
+     * Claves de un título normalizado: el título entero y lo que queda desde cada palabra.
+     */
+    private static List<String> keysOf(String folded) {
+        List<String> keys = new ArrayList<>();
+        if (folded.isEmpty()) {
+            return keys;
+        }
+        keys.add(folded);
+        for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+            keys.add(folded.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Nodos desde la raíz hasta el final de la clave, ambos incluidos.
+     * @param create true para crear los nodos que falten
+     * @return Camino, o null si no existe y no se crea
+     */
+    private List<Node> pathTo(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = node.addChild(key.charAt(i));
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    /**
+     * Recalcula las mejores entradas de cada nodo del camino, desde la hoja hasta la raíz.
+     */
+    private static void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeNode(path.get(i));
+        }
+    }
+
+    /**
+     * Recalcula todo el subárbol en postorden: cada nodo una vez, después de sus hijos.
+     */
+    private static void recomputeAll(Node node) {
+        for (int i = 0; i < node.childCount; i++) {
+            recomputeAll(node.children[i]);
+        }
+        recomputeNode(node);
+    }
+
+    /**
+     * Las mejores entradas de un nodo salen de sus propias entradas y de las mejores de cada hijo.
+     * Todas esas listas ya están ordenadas, así que basta con mezclarlas hasta tener {@link #TOP_K}.
+     */
+    private static void recomputeNode(Node node) {
+        // Camino sin ramificar: la lista del único hijo ya es la respuesta
+        if (node.terminals.isEmpty() && node.childCount == 1) {
+            node.top = node.children[0].top;
+            return;
+        }
+        List<List<Entry>> lists = new ArrayList<>(node.childCount + 1);
+        if (!node.terminals.isEmpty()) {
+            lists.add(node.terminals);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (!node.children[i].top.isEmpty()) {
+                lists.add(node.children[i].top);
+            }
+        }
+        int[] heads = new int[lists.size()];
+        List<Entry> top = new ArrayList<>(TOP_K);
+        while (top.size() < TOP_K) {
+            int best = -1;
+            for (int i = 0; i < lists.size(); i++) {
+                if (heads[i] < lists.get(i).size() && (best < 0
+                        || RANKING.compare(lists.get(i).get(heads[i]), lists.get(best).get(heads[best])) < 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            Entry candidate = lists.get(best).get(heads[best]++);
+            // Una habilidad puede llegar por varias claves y dos habilidades pueden llamarse igual
+            if (!containsTitle(top, candidate.folded)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top;
+    }
+
+    private static boolean containsTitle(List<Entry> entries, String folded) {
+        for (Entry entry : entries) {
+            if (entry.folded.equals(folded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quita los nodos que se han quedado vacíos al final del camino.
+     */
+    private static void prune(List<Node> path, String key) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (!node.terminals.isEmpty() || node.childCount > 0) {
+                return;
+            }
+            path.get(i - 1).removeChild(key.charAt(i - 1));
+        }
+    }
+}
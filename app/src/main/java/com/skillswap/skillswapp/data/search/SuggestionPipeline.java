@@ -0,0 +1,257 @@
+package com.skillswap.skillswapp.data.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Sugerencias de búsqueda mientras se escribe, con una única salida.
+ * <ul>
+ *   <li>Cada pulsación cancela la consulta pendiente y solo se pide la última tras
+ *   {@link #DEBOUNCE_MS} sin escribir.</li>
+ *   <li>Gana la última: una respuesta que llega después de otra pulsación se guarda en la
+ *   caché pero no se publica.</li>
+ *   <li>Caché por prefijo: si "Py" devolvió menos de {@link #LIMIT} títulos, esa lista ya los
+ *   contiene todos, así que "Pyt" se resuelve filtrándola sin consultar. Las claves son la
+ *   consulta tal cual, porque el origen compara prefijos distinguiendo mayúsculas: "py" y "Py"
+ *   son consultas distintas. Los errores no se guardan.</li>
+ *   <li>Si el origen puede responder al momento ({@link Source#lookup}), no hay espera ni consulta.</li>
+ * </ul>
+ * No depende de Android: el planificador y el reloj se inyectan, y todo se llama desde el mismo
+ * hilo (el principal en la app). Cuenta las consultas y el tiempo hasta la sugerencia para poder
+ * medirlos.
+ */
+public final class SuggestionPipeline {
+
+    public static final int LIMIT = 5;
+    public static final int MIN_QUERY_LENGTH = 2;
+    static final long DEBOUNCE_MS = 150;
+    static final long CACHE_TTL_MS = 60_000;
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * Origen de las sugerencias (normalmente Firebase).
+     */
+    public interface Source {
+        /**
+         * Títulos que empiezan exactamente por la consulta (distinguiendo mayúsculas y acentos).
+         * Los callbacks llegan en el mismo hilo desde el que se llama al pipeline.
+         * @param query Consulta tal como la ha escrito el usuario (sin espacios en los extremos)
+         * @param limit Número máximo de títulos
+         * @param onResult Recibe los títulos
+         * @param onError Se llama si la consulta falla
+         */
+        void fetch(String query, int limit, Consumer<List<String>> onResult, Runnable onError);
+
+        /**
+         * Respuesta inmediata, sin red (por ejemplo, desde un índice local).
+         * @return Títulos, o null si no se puede responder sin consultar
+         */
+        default List<String> lookup(String query, int limit) {
+            return null;
+        }
+    }
+
+    /**
+     * Ejecuta tareas con retraso (en la app, un Handler del hilo principal).
+     */
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    private static final class CacheEntry {
+        final List<String> titles;
+        final boolean complete;
+        final long time;
+
+        CacheEntry(List<String> titles, boolean complete, long time) {
+            this.titles = titles;
+            this.complete = complete;
+            this.time = time;
+        }
+    }
+
+    private final Source source;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final Consumer<List<String>> output;
+
+    private final Map<String, CacheEntry> cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Se incrementa en cada pulsación; las respuestas de generaciones anteriores no se publican
+    private long generation;
+    private String currentQuery = "";
+    private long typedAt;
+    private Runnable pendingFetch;
+    // Hay una consulta programada o en curso para currentKey
+    private boolean waiting;
+
+    private int requestCount;
+    private int cacheHits;
+    private int localHits;
+    private long lastLatencyMs = -1;
+
+    /**
+     * @param source Origen de las sugerencias
+     * @param scheduler Planificador para el retraso entre pulsaciones
+     * @param clock Reloj en milisegundos
+     * @param output Recibe cada lista de sugerencias a mostrar
+     */
+    public SuggestionPipeline(Source source, Scheduler scheduler, LongSupplier clock, Consumer<List<String>> output) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.output = output;
+    }
+
+    /**
+     * Notifica el texto actual del buscador.
+     * @param text Texto escrito
+     */
+    public void onQueryChanged(String text) {
+        String query = text != null ? text.trim() : "";
+        if (query.equals(currentQuery) && waiting) {
+            return;
+        }
+        cancelPending();
+        generation++;
+        currentQuery = query;
+        typedAt = clock.getAsLong();
+
+        if (SkillTitleTrie.fold(query).length() < MIN_QUERY_LENGTH) {
+            output.accept(new ArrayList<>());
+            return;
+        }
+
+        List<String> local = source.lookup(query, LIMIT);
+        if (local != null) {
+            localHits++;
+            deliver(new ArrayList<>(local));
+            return;
+        }
+
+        List<String> cached = fromCache(query);
+        if (cached != null) {
+            cacheHits++;
+            deliver(cached);
+            return;
+        }
+
+        long requestGeneration = generation;
+        pendingFetch = () -> {
+            pendingFetch = null;
+            requestCount++;
+            source.fetch(query, LIMIT, titles -> {
+                List<String> result = titles != null ? new ArrayList<>(titles) : new ArrayList<>();
+                cache.put(query, new CacheEntry(result, result.size() < LIMIT, clock.getAsLong()));
+                if (requestGeneration == generation) {
+                    waiting = false;
+                    deliver(result);
+                }
+            }, () -> {
+                // Sin caché: la siguiente pulsación con esta consulta vuelve a preguntar
+                if (requestGeneration == generation) {
+                    waiting = false;
+                    deliver(new ArrayList<>());
+                }
+            });
+        };
+        waiting = true;
+        scheduler.schedule(pendingFetch, DEBOUNCE_MS);
+    }
+
+    /**
+     * Cancela la consulta pendiente y descarta las respuestas que aún no han llegado.
+     */
+    public void cancel() {
+        cancelPending();
+        generation++;
+        currentQuery = "";
+    }
+
+    /**
+     * Vacía la caché (por ejemplo, si han cambiado los títulos de las habilidades).
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * @return Consultas enviadas al origen
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return Sugerencias servidas desde la caché sin consultar
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return Sugerencias resueltas al momento por {@link Source#lookup}
+     */
+    public int getLocalHits() {
+        return localHits;
+    }
+
+    /**
+     * @return Milisegundos entre la última pulsación publicada y sus sugerencias (-1 si aún no hay)
+     */
+    public long getLastLatencyMs() {
+        return lastLatencyMs;
+    }
+
+    private void cancelPending() {
+        waiting = false;
+        if (pendingFetch != null) {
+            scheduler.cancel(pendingFetch);
+            pendingFetch = null;
+        }
+    }
+
+    private void deliver(List<String> titles) {
+        lastLatencyMs = clock.getAsLong() - typedAt;
+        output.accept(Collections.unmodifiableList(titles));
+    }
+
+    /**
+     * Busca la consulta en la caché: primero exacta y después el prefijo más largo cuya
+     * lista esté completa, filtrada como la filtraría el origen.
+     */
+    private List<String> fromCache(String query) {
+        long now = clock.getAsLong();
+        for (int length = query.length(); length >= MIN_QUERY_LENGTH; length--) {
+            CacheEntry entry = cache.get(query.substring(0, length));
+            if (entry == null || now - entry.time > CACHE_TTL_MS) {
+                continue;
+            }
+            if (length == query.length()) {
+                return new ArrayList<>(entry.titles);
+            }
+            if (entry.complete) {
+                List<String> filtered = new ArrayList<>();
+                for (String title : entry.titles) {
+                    if (title.startsWith(query)) {
+                        filtered.add(title);
+                    }
+                }
+                return filtered;
+            }
+        }
+        return null;
+    }
+}
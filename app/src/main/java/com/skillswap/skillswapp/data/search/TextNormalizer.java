@@ -0,0 +1,52 @@
+package com.skillswap.skillswapp.data.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades para normalizar texto antes de indexarlo o buscarlo.
+ * Convierte a minúsculas y elimina acentos para que "Música" y "musica" coincidan.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normaliza un texto: minúsculas, sin acentos y sin espacios en los extremos.
+     * @param text Texto a normalizar
+     * @return Texto normalizado (cadena vacía si es null)
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Divide un texto en tokens normalizados, sin duplicados y en orden de aparición.
+     * @param text Texto a dividir
+     * @return Conjunto de tokens
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
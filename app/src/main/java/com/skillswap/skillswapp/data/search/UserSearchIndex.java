@@ -0,0 +1,223 @@
+package com.skillswap.skillswapp.data.search;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido en memoria para la búsqueda de usuarios.
+ * Asocia cada token normalizado (nombre, biografía y títulos de habilidades que enseña)
+ * con los IDs de los usuarios que lo contienen, de modo que una búsqueda solo recorre
+ * las entradas que coinciden en lugar de todos los usuarios.
+ *
+ * <p>Cada término de la consulta coincide con las palabras que empiezan por él, y un usuario
+ * debe coincidir con todos los términos. Antes la búsqueda comprobaba si el texto contenía
+ * la consulta completa como subcadena; ahora "ana" encuentra "Ana" y "Anaya" pero no
+ * "Mariana", "pintura óleo" encuentra "Óleo y pintura", y los acentos y mayúsculas no cuentan.
+ */
+public class UserSearchIndex {
+
+    // token -> IDs de usuarios. Ordenado para poder resolver prefijos con subMap.
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    // categoría -> IDs de usuarios que enseñan alguna habilidad de esa categoría
+    private final Map<String, Set<String>> usersByCategory = new HashMap<>();
+    // ID de usuario -> tokens y categorías indexados, para poder retirarlos al actualizar
+    private final Map<String, Set<String>> tokensByUser = new HashMap<>();
+    private final Map<String, Set<String>> categoriesByUser = new HashMap<>();
+    private final Map<String, User> users = new HashMap<>();
+
+    /**
+     * Añade o reemplaza un usuario en el índice.
+     * @param user Usuario a indexar
+     */
+    public synchronized void putUser(User user) {
+        if (user == null || user.getUserId() == null) {
+            return;
+        }
+        String userId = user.getUserId();
+        removeUser(userId);
+
+        Set<String> tokens = SearchIndexPaths.userTokens(user);
+        for (String token : tokens) {
+            Set<String> ids = postings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(token, ids);
+            }
+            ids.add(userId);
+        }
+
+        Set<String> categories = extractCategories(user);
+        for (String category : categories) {
+            Set<String> ids = usersByCategory.get(category);
+            if (ids == null) {
+                ids = new HashSet<>();
+                usersByCategory.put(category, ids);
+            }
+            ids.add(userId);
+        }
+
+        tokensByUser.put(userId, tokens);
+        categoriesByUser.put(userId, categories);
+        users.put(userId, user);
+    }
+
+    /**
+     * Elimina un usuario del índice.
+     * @param userId ID del usuario a eliminar
+     */
+    public synchronized void removeUser(String userId) {
+        if (userId == null || users.remove(userId) == null) {
+            return;
+        }
+        removePostings(postings, tokensByUser.remove(userId), userId);
+        removePostings(usersByCategory, categoriesByUser.remove(userId), userId);
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public synchronized void clear() {
+        postings.clear();
+        usersByCategory.clear();
+        tokensByUser.clear();
+        categoriesByUser.clear();
+        users.clear();
+    }
+
+    /**
+     * @return Número de usuarios indexados
+     */
+    public synchronized int size() {
+        return users.size();
+    }
+
+    /**
+     * @return Número de tokens distintos en el índice
+     */
+    public synchronized int getTokenCount() {
+        return postings.size();
+    }
+
+    /**
+     * Busca usuarios cuyo nombre, biografía o habilidades contengan palabras que empiecen
+     * por cada uno de los términos de la consulta.
+     * @param query Texto de búsqueda (puede estar vacío)
+     * @param categoryId Categoría para filtrar (opcional)
+     * @param minLevel Nivel mínimo de alguna habilidad que enseña (0 para ignorar)
+     * @return Lista de usuarios que coinciden, ordenada por ID
+     */
+    public synchronized List<User> search(String query, String categoryId, int minLevel) {
+        boolean filterByCategory = categoryId != null && !categoryId.isEmpty();
+        Set<String> queryTokens = TextNormalizer.tokenize(query);
+
+        Collection<String> candidates;
+        if (!queryTokens.isEmpty()) {
+            candidates = matchAllTokens(queryTokens);
+        } else if (filterByCategory) {
+            Set<String> ids = usersByCategory.get(categoryId);
+            candidates = ids != null ? ids : Collections.<String>emptySet();
+        } else {
+            candidates = users.keySet();
+        }
+
+        List<String> matchingIds = new ArrayList<>();
+        for (String userId : candidates) {
+            if (filterByCategory && !inCategory(userId, categoryId)) {
+                continue;
+            }
+            if (minLevel > 0 && !hasLevel(users.get(userId), minLevel)) {
+                continue;
+            }
+            matchingIds.add(userId);
+        }
+
+        // Mantener el orden por clave que devolvía Firebase
+        Collections.sort(matchingIds);
+        List<User> result = new ArrayList<>(matchingIds.size());
+        for (String userId : matchingIds) {
+            result.add(users.get(userId));
+        }
+        return result;
+    }
+
+    /**
+     * Intersección de los usuarios que coinciden con todos los tokens de la consulta.
+     * Cada token se resuelve como prefijo sobre el rango ordenado del índice.
+     */
+    private Set<String> matchAllTokens(Set<String> queryTokens) {
+        Set<String> result = null;
+        for (String token : queryTokens) {
+            Set<String> matches = new HashSet<>();
+            for (Set<String> ids : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                if (result == null) {
+                    matches.addAll(ids);
+                } else {
+                    // Solo conservar los que ya coincidían con los tokens anteriores
+                    for (String id : ids) {
+                        if (result.contains(id)) {
+                            matches.add(id);
+                        }
+                    }
+                }
+            }
+            result = matches;
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : Collections.<String>emptySet();
+    }
+
+    private boolean inCategory(String userId, String categoryId) {
+        Set<String> categories = categoriesByUser.get(userId);
+        return categories != null && categories.contains(categoryId);
+    }
+
+    private static boolean hasLevel(User user, int minLevel) {
+        if (user == null || user.getSkillsToTeach() == null) {
+            return false;
+        }
+        for (User.SkillToTeach skill : user.getSkillsToTeach().values()) {
+            if (skill != null && skill.getLevel() >= minLevel) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> extractCategories(User user) {
+        Set<String> categories = new HashSet<>();
+        if (user.getSkillsToTeach() != null) {
+            for (User.SkillToTeach skill : user.getSkillsToTeach().values()) {
+                if (skill != null && skill.getCategory() != null && !skill.getCategory().isEmpty()) {
+                    categories.add(skill.getCategory());
+                }
+            }
+        }
+        return categories;
+    }
+
+    private static void removePostings(Map<String, Set<String>> index, Set<String> keys, String userId) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            Set<String> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.skillswap.skillswapp.data.stats;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cuenta la actividad sobre cada habilidad (visitas, clics desde búsquedas y nuevos profesores)
+ * para ordenar las habilidades destacadas.
+ *
+ * <p>Los eventos se acumulan en memoria y se envían juntos cada {@link #FLUSH_INTERVAL_MS}
+ * (o antes si se acumulan muchos, o cuando la app pasa a segundo plano):
+ * <ul>
+ *   <li>skill_stats/{skillId}/{aaaammdd}/{evento}: contadores por día (UTC), para consultar la
+ *   historia. Se suman en un único updateChildren con incrementos atómicos del servidor.</li>
+ *   <li>skill_stats/{skillId}/popularity: puntuación con decaimiento, que es por lo que se ordena
+ *   la consulta de destacadas. Se suma con una transacción por habilidad.</li>
+ * </ul>
+ * Nada se escribe bajo skills/{skillId}: así una habilidad borrada no se vuelve a crear y los
+ * listeners de skills no reciben un cambio por cada lote.
+ *
+ * <p>El decaimiento es "hacia delante": cada evento vale peso × 2^((t − {@link #EPOCH_MS}) / vida media),
+ * así que los eventos recientes pesan más que los antiguos en la misma proporción que si la
+ * puntuación se dividiera entre dos cada vida media, pero sin reescribir las puntuaciones ya
+ * guardadas. Esa suma crece ×2^52 al año, por eso popularity guarda su log2
+ * (ver {@link #score(double, long)} y {@link #logAdd(double, double)}): crece solo 52 al año,
+ * como una marca de tiempo, y el orden entre habilidades es el mismo.
+ */
+public final class SkillStatsRecorder {
+    private static final String TAG = "SkillStatsRecorder";
+
+    public static final String SKILL_STATS = "skill_stats";
+    public static final String POPULARITY = "popularity";
+
+    // 2025-01-01T00:00:00Z
+    static final long EPOCH_MS = 1735689600000L;
+    static final long HALF_LIFE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    static final long FLUSH_INTERVAL_MS = 60_000;
+    static final int MAX_PENDING_EVENTS = 100;
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final double LN_2 = Math.log(2);
+
+    /**
+     * Tipos de evento, con su contador diario y su peso en la popularidad.
+     */
+    public enum Event {
+        VIEW("views", 1),
+        SEARCH_CLICK("search_clicks", 2),
+        TEACHER_JOIN("teacher_joins", 5);
+
+        final String counter;
+        final double weight;
+
+        Event(String counter, double weight) {
+            this.counter = counter;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Destino de los lotes. En la app escribe en Firebase; las pruebas usan uno falso.
+     */
+    interface Sink {
+        /**
+         * Suma los contadores diarios de cada habilidad.
+         * @param counts skillId -> contador por tipo de evento (índice = Event.ordinal())
+         * @param onFailure Se ejecuta si no se ha podido escribir
+         */
+        void addCounters(Map<String, long[]> counts, long timeMs, Runnable onFailure);
+
+        /**
+         * Suma una puntuación (en log2) a la popularidad de una habilidad.
+         * @param onFailure Se ejecuta si no se ha podido escribir
+         */
+        void addScore(String skillId, double score, Runnable onFailure);
+    }
+
+    /**
+     * Ejecuta tareas con retraso (en la app, un Handler del hilo principal).
+     */
+    interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    private static SkillStatsRecorder instance;
+
+    private final Sink sink;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final Runnable flushRunnable = this::flush;
+
+    // skillId -> contador por tipo de evento (índice = Event.ordinal())
+    private Map<String, long[]> pendingCounts = new HashMap<>();
+    // skillId -> puntuación acumulada de los eventos pendientes (log2)
+    private Map<String, Double> pendingScores = new HashMap<>();
+    private int pendingEvents;
+    private boolean flushScheduled;
+
+    private SkillStatsRecorder() {
+        this(new FirebaseSink(FirebaseDatabase.getInstance().getReference(SKILL_STATS)),
+                mainScheduler(), System::currentTimeMillis);
+    }
+
+    SkillStatsRecorder(Sink sink, Scheduler scheduler, LongSupplier clock) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    public static synchronized SkillStatsRecorder getInstance() {
+        if (instance == null) {
+            instance = new SkillStatsRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Registra un evento. No escribe nada en el momento; se envía con el siguiente lote.
+     * @param skillId ID de la habilidad
+     * @param event Tipo de evento
+     */
+    public void record(String skillId, Event event) {
+        if (skillId == null || skillId.isEmpty()) {
+            return;
+        }
+        boolean flushNow;
+        synchronized (this) {
+            long[] counts = pendingCounts.get(skillId);
+            if (counts == null) {
+                counts = new long[Event.values().length];
+                pendingCounts.put(skillId, counts);
+            }
+            counts[event.ordinal()]++;
+            addPendingScore(skillId, score(event.weight, clock.getAsLong()));
+            pendingEvents++;
+            flushNow = pendingEvents >= MAX_PENDING_EVENTS;
+            if (!flushNow) {
+                scheduleFlush();
+            }
+        }
+        if (flushNow) {
+            scheduler.cancel(flushRunnable);
+            flush();
+        }
+    }
+
+    /**
+     * Envía los eventos acumulados. Lo que no se pueda escribir se vuelve a acumular para el
+     * siguiente lote.
+     */
+    public void flush() {
+        Map<String, long[]> counts;
+        Map<String, Double> scores;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingCounts.isEmpty() && pendingScores.isEmpty()) {
+                return;
+            }
+            counts = pendingCounts;
+            scores = pendingScores;
+            pendingCounts = new HashMap<>();
+            pendingScores = new HashMap<>();
+            pendingEvents = 0;
+        }
+
+        if (!counts.isEmpty()) {
+            sink.addCounters(counts, clock.getAsLong(), () -> requeueCounts(counts));
+        }
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            String skillId = entry.getKey();
+            double score = entry.getValue();
+            sink.addScore(skillId, score, () -> requeueScore(skillId, score));
+        }
+    }
+
+    private void requeueCounts(Map<String, long[]> batch) {
+        synchronized (this) {
+            for (Map.Entry<String, long[]> entry : batch.entrySet()) {
+                long[] counts = pendingCounts.get(entry.getKey());
+                if (counts == null) {
+                    pendingCounts.put(entry.getKey(), entry.getValue());
+                } else {
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] += entry.getValue()[i];
+                    }
+                }
+                for (long count : entry.getValue()) {
+                    pendingEvents += count;
+                }
+            }
+            scheduleFlush();
+        }
+    }
+
+    private void requeueScore(String skillId, double score) {
+        synchronized (this) {
+            addPendingScore(skillId, score);
+            scheduleFlush();
+        }
+    }
+
+    private void addPendingScore(String skillId, double score) {
+        Double current = pendingScores.get(skillId);
+        pendingScores.put(skillId, current == null ? score : logAdd(current, score));
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(flushRunnable, FLUSH_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Puntuación de un evento en log2: log2(peso × 2^((t − {@link #EPOCH_MS}) / vida media)).
+     */
+    static double score(double weight, long timeMs) {
+        return Math.log(weight) / LN_2 + (double) (timeMs - EPOCH_MS) / HALF_LIFE_MS;
+    }
+
+    /**
+     * Suma dos puntuaciones en log2, log2(2^a + 2^b), sin calcular las potencias.
+     */
+    static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        double min = Math.min(a, b);
+        return max + Math.log1p(Math.pow(2, min - max)) / LN_2;
+    }
+
+    /**
+     * Rutas de los contadores diarios, relativas a skill_stats.
+     * @param bucket Día en formato aaaammdd
+     */
+    static Map<String, Object> counterUpdates(Map<String, long[]> counts, String bucket) {
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            for (Event event : Event.values()) {
+                long count = entry.getValue()[event.ordinal()];
+                if (count > 0) {
+                    updates.put(entry.getKey() + "/" + bucket + "/" + event.counter, ServerValue.increment(count));
+                }
+            }
+        }
+        return updates;
+    }
+
+    static String bucketOf(long timeMs) {
+        return BUCKET_FORMAT.format(Instant.ofEpochMilli(timeMs));
+    }
+
+    private static Scheduler mainScheduler() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new Scheduler() {
+            @Override
+            public void schedule(Runnable task, long delayMs) {
+                handler.postDelayed(task, delayMs);
+            }
+
+            @Override
+            public void cancel(Runnable task) {
+                handler.removeCallbacks(task);
+            }
+        };
+    }
+
+    /**
+     * Escribe los lotes bajo skill_stats.
+     */
+    private static final class FirebaseSink implements Sink {
+        private final DatabaseReference statsRef;
+
+        FirebaseSink(DatabaseReference statsRef) {
+            this.statsRef = statsRef;
+        }
+
+        @Override
+        public void addCounters(Map<String, long[]> counts, long timeMs, Runnable onFailure) {
+            statsRef.updateChildren(counterUpdates(counts, bucketOf(timeMs))).addOnFailureListener(e -> {
+                Log.e(TAG, "Error al enviar las estadísticas de habilidades: " + e.getMessage());
+                onFailure.run();
+            });
+        }
+
+        @Override
+        public void addScore(String skillId, double score, Runnable onFailure) {
+            statsRef.child(skillId).child(POPULARITY).runTransaction(new Transaction.Handler() {
+                @Override
+                public Transaction.Result doTransaction(MutableData currentData) {
+                    Double current = currentData.getValue(Double.class);
+                    currentData.setValue(current == null ? score : logAdd(current, score));
+                    return Transaction.success(currentData);
+                }
+
+                @Override
+                public void onComplete(DatabaseError databaseError, boolean committed, DataSnapshot currentData) {
+                    if (databaseError != null) {
+                        Log.e(TAG, "Error al actualizar la popularidad: " + databaseError.getMessage());
+                        onFailure.run();
+                    }
+                }
+            });
+        }
+    }
+}
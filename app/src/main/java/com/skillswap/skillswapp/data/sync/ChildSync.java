@@ -0,0 +1,169 @@
+package com.skillswap.skillswapp.data.sync;
+
+import android.util.Log;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.skillswap.skillswapp.data.util.ListenerRegistry;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Sincroniza un nodo de Firebase con una colección local usando eventos de hijos.
+ * La carga inicial se entrega de una vez al destino; a partir de ahí solo se entregan
+ * los hijos añadidos, cambiados o eliminados, de modo que el trabajo por cambio
+ * no depende del tamaño del nodo.
+ *
+ * @param <T> Tipo de los elementos
+ */
+public final class ChildSync<T> {
+    private static final String TAG = "ChildSync";
+
+    /**
+     * Colección que recibe los cambios. Todos los métodos se llaman en el hilo principal.
+     */
+    public interface Target<T> {
+        /**
+         * Contenido completo del nodo al conectarse. Sustituye lo que hubiera antes.
+         */
+        void onInitialLoad(LinkedHashMap<String, T> items);
+
+        /**
+         * Hijo añadido o modificado después de la carga inicial.
+         */
+        void onUpsert(String key, T item);
+
+        /**
+         * Hijo eliminado después de la carga inicial.
+         */
+        void onRemove(String key);
+
+        /**
+         * La consulta se ha cancelado (por ejemplo, por permisos).
+         */
+        void onCancelled(DatabaseError databaseError);
+    }
+
+    private final Query query;
+    private final QueryLiveData.SnapshotParser<T> parser;
+    private final Target<T> target;
+
+    private ListenerRegistry.Registration registration;
+    private LinkedHashMap<String, T> initialItems;
+
+    /**
+     * @param query Nodo o consulta a sincronizar
+     * @param parser Conversión de cada hijo; si devuelve null el hijo se trata como eliminado
+     * @param target Colección que recibe los cambios
+     */
+    public ChildSync(Query query, QueryLiveData.SnapshotParser<T> parser, Target<T> target) {
+        this.query = query;
+        this.parser = parser;
+        this.target = target;
+    }
+
+    /**
+     * Conecta el listener. Si ya estaba conectado no hace nada.
+     * @param scope Ámbito al que se añade el listener, o null para usar el registro global
+     */
+    public void start(ListenerRegistry.Scope scope) {
+        if (registration != null) {
+            return;
+        }
+        LinkedHashMap<String, T> session = new LinkedHashMap<>();
+        initialItems = session;
+
+        ChildEventListener listener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot dataSnapshot, String previousChildName) {
+                upsert(dataSnapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot dataSnapshot, String previousChildName) {
+                upsert(dataSnapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot dataSnapshot) {
+                remove(dataSnapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot dataSnapshot, String previousChildName) {
+                // Las colecciones se ordenan por clave, el orden de Firebase no se usa
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                Log.e(TAG, "Sincronización cancelada: " + databaseError.getMessage());
+                initialItems = null;
+                target.onCancelled(databaseError);
+            }
+        };
+        registration = scope != null
+                ? scope.addChildListener(query, listener)
+                : ListenerRegistry.getInstance().addChildListener(query, listener);
+
+        // Se dispara después de los onChildAdded de la carga inicial y usa los mismos datos
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                // Ignorar la respuesta de una conexión anterior ya detenida
+                if (initialItems == session) {
+                    initialItems = null;
+                    target.onInitialLoad(session);
+                }
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                // El ChildEventListener recibe la misma cancelación
+            }
+        });
+    }
+
+    /**
+     * Desconecta el listener. La siguiente llamada a {@link #start} vuelve a hacer la carga inicial.
+     */
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        initialItems = null;
+    }
+
+    /**
+     * @return true si el listener está conectado
+     */
+    public boolean isStarted() {
+        return registration != null;
+    }
+
+    private void upsert(DataSnapshot dataSnapshot) {
+        String key = dataSnapshot.getKey();
+        T item = parser.parse(dataSnapshot);
+        if (item == null) {
+            remove(key);
+            return;
+        }
+        if (initialItems != null) {
+            initialItems.put(key, item);
+        } else {
+            target.onUpsert(key, item);
+        }
+    }
+
+    private void remove(String key) {
+        if (initialItems != null) {
+            initialItems.remove(key);
+        } else {
+            target.onRemove(key);
+        }
+    }
+}
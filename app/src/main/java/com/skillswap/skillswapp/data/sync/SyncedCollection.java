@@ -0,0 +1,215 @@
+package com.skillswap.skillswapp.data.sync;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.skillswap.skillswapp.data.util.QueryLiveData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Colección en memoria de un nodo de Firebase, ordenada por clave y actualizada con los
+ * eventos de cada hijo, sin volver a descargar el nodo. Igual que {@link QueryLiveData},
+ * el listener solo está conectado mientras hay observadores activos (con un pequeño retraso
+ * al desconectar).
+ * Cada cambio publica una copia de la lista: las pantallas la pasan a adaptadores que la
+ * comparan con DiffUtil contra la anterior, y para eso necesitan una instancia nueva.
+ *
+ * @param <T> Tipo de los elementos
+ */
+public class SyncedCollection<T> extends MutableLiveData<List<T>> implements ChildSync.Target<T> {
+    private static final long DETACH_DELAY_MS = 2000;
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final ChildSync<T> sync;
+    // Claves ordenadas como las ordena Firebase y elementos en la misma posición
+    private final List<String> keys = new ArrayList<>();
+    private final List<T> items = new ArrayList<>();
+    private boolean loaded;
+    private ChildSync.Target<T> mirror;
+
+    private final Runnable detachRunnable = this::detach;
+
+    /**
+     * @param query Nodo a sincronizar
+     * @param parser Conversión de cada hijo; si devuelve null el hijo se ignora
+     */
+    public SyncedCollection(Query query, QueryLiveData.SnapshotParser<T> parser) {
+        this.sync = new ChildSync<>(query, parser, this);
+    }
+
+    /**
+     * Obtiene la clave de Firebase de un elemento.
+     */
+    public interface KeyFunction<T> {
+        String keyOf(T item);
+    }
+
+    /**
+     * Publica una copia previa (por ejemplo, de la base local) mientras llega la carga inicial.
+     * Se ignora si está vacía o si Firebase ya ha respondido.
+     * @param seed Lectura única de la copia previa, o null si no hay
+     * @param keyFunction Clave de cada elemento
+     */
+    public void seed(LiveData<List<T>> seed, KeyFunction<T> keyFunction) {
+        if (seed == null) {
+            return;
+        }
+        seed.observeForever(new Observer<List<T>>() {
+            @Override
+            public void onChanged(List<T> seedItems) {
+                seed.removeObserver(this);
+                if (loaded || seedItems == null || seedItems.isEmpty()) {
+                    return;
+                }
+                LinkedHashMap<String, T> seedByKey = new LinkedHashMap<>();
+                for (T item : seedItems) {
+                    seedByKey.put(keyFunction.keyOf(item), item);
+                }
+                replaceAll(seedByKey);
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Reenvía los eventos de Firebase a otro destino (por ejemplo, la copia local), sin abrir
+     * otro listener. El contenido provisional de {@link #seed} no se reenvía.
+     * @param mirror Destino de los eventos, o null para no reenviarlos
+     */
+    public void mirrorTo(ChildSync.Target<T> mirror) {
+        this.mirror = mirror;
+    }
+
+    /**
+     * @return true si ya se ha recibido la carga inicial
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    protected void onActive() {
+        handler.removeCallbacks(detachRunnable);
+        sync.start(null);
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.postDelayed(detachRunnable, DETACH_DELAY_MS);
+    }
+
+    private void detach() {
+        if (!hasActiveObservers()) {
+            sync.stop();
+        }
+    }
+
+    @Override
+    public void onInitialLoad(LinkedHashMap<String, T> loadedItems) {
+        replaceAll(loadedItems);
+        loaded = true;
+        publish();
+        if (mirror != null) {
+            mirror.onInitialLoad(loadedItems);
+        }
+    }
+
+    private void replaceAll(Map<String, T> newItems) {
+        List<String> sortedKeys = new ArrayList<>(newItems.keySet());
+        Collections.sort(sortedKeys, SyncedCollection::compareKeys);
+
+        keys.clear();
+        items.clear();
+        for (String key : sortedKeys) {
+            keys.add(key);
+            items.add(newItems.get(key));
+        }
+    }
+
+    @Override
+    public void onUpsert(String key, T item) {
+        int index = Collections.binarySearch(keys, key, SyncedCollection::compareKeys);
+        if (index >= 0) {
+            items.set(index, item);
+        } else {
+            int position = -index - 1;
+            keys.add(position, key);
+            items.add(position, item);
+        }
+        publish();
+        if (mirror != null) {
+            mirror.onUpsert(key, item);
+        }
+    }
+
+    @Override
+    public void onRemove(String key) {
+        int index = Collections.binarySearch(keys, key, SyncedCollection::compareKeys);
+        if (index < 0) {
+            return;
+        }
+        keys.remove(index);
+        items.remove(index);
+        publish();
+        if (mirror != null) {
+            mirror.onRemove(key);
+        }
+    }
+
+    @Override
+    public void onCancelled(DatabaseError databaseError) {
+        // Publicar lo que haya para que las pantallas dejen de esperar
+        loaded = true;
+        publish();
+        if (mirror != null) {
+            mirror.onCancelled(databaseError);
+        }
+    }
+
+    private void publish() {
+        setValue(new ArrayList<>(items));
+    }
+
+    /**
+     * Orden de claves de Firebase: primero las que son enteros de 32 bits, en orden numérico,
+     * y después el resto en orden lexicográfico.
+     */
+    static int compareKeys(String a, String b) {
+        Integer intA = parseIntKey(a);
+        Integer intB = parseIntKey(b);
+        if (intA != null && intB != null) {
+            return intA.compareTo(intB);
+        }
+        if (intA != null) {
+            return -1;
+        }
+        if (intB != null) {
+            return 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static Integer parseIntKey(String key) {
+        // Firebase no trata como número las claves con ceros a la izquierda
+        if (key.isEmpty() || (key.length() > 1 && key.charAt(0) == '0')
+                || (key.startsWith("-") && (key.length() == 1 || key.charAt(1) == '0'))) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillswap.skillswapp.data.upload;
+
+import android.net.Uri;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Subida de imágenes a Firebase Storage con sesiones reanudables.
+ * Para probar contra el emulador basta con pasar una instancia configurada con
+ * {@link FirebaseStorage#useEmulator(String, int)}.
+ */
+public class FirebaseImageUploader implements ImageUploader {
+    // Metadato de Firebase Storage con los tokens de las URLs de descarga
+    private static final String DOWNLOAD_TOKENS_METADATA = "firebaseStorageDownloadTokens";
+
+    private final FirebaseStorage storage;
+
+    public FirebaseImageUploader() {
+        this(FirebaseStorage.getInstance());
+    }
+
+    public FirebaseImageUploader(FirebaseStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void upload(String objectPath, File file, String contentType, String downloadToken,
+                       String sessionUri, SessionListener listener) throws Exception {
+        StorageReference ref = storage.getReference().child(objectPath);
+        StorageMetadata metadata = new StorageMetadata.Builder()
+                .setContentType(contentType)
+                .setCustomMetadata(DOWNLOAD_TOKENS_METADATA, downloadToken)
+                .build();
+
+        // putFile lee el archivo por partes; con la sesión anterior continúa donde se quedó
+        UploadTask task = sessionUri != null
+                ? ref.putFile(Uri.fromFile(file), metadata, Uri.parse(sessionUri))
+                : ref.putFile(Uri.fromFile(file), metadata);
+
+        AtomicBoolean sessionReported = new AtomicBoolean(sessionUri != null);
+        task.addOnProgressListener(snapshot -> {
+            Uri newSessionUri = snapshot.getUploadSessionUri();
+            if (newSessionUri != null && listener != null && sessionReported.compareAndSet(false, true)) {
+                listener.onSessionStarted(newSessionUri.toString());
+            }
+        });
+        Tasks.await(task);
+    }
+
+    @Override
+    public String getDownloadUrl(String objectPath) throws Exception {
+        return Tasks.await(storage.getReference().child(objectPath).getDownloadUrl()).toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.skillswap.skillswapp.data.upload;
+
+import java.io.File;
+
+/**
+ * Destino de las subidas de imágenes. La implementación real usa Firebase Storage
+ * ({@link FirebaseImageUploader}); las pruebas pueden usar el emulador o un destino falso.
+ */
+public interface ImageUploader {
+
+    /**
+     * Recibe la URI de la sesión de subida en cuanto el servidor la crea.
+     */
+    interface SessionListener {
+        void onSessionStarted(String sessionUri);
+    }
+
+    /**
+     * Sube un archivo leyéndolo por partes. Bloquea hasta que termina: no llamar desde el hilo principal.
+     * @param objectPath Ruta del objeto en el almacenamiento
+     * @param file Archivo local a subir
+     * @param contentType Tipo MIME del archivo
+     * @param downloadToken Token de descarga del objeto
+     * @param sessionUri Sesión de una subida anterior para continuarla, o null para empezar de cero
+     * @param listener Recibe la sesión creada para poder continuarla si se interrumpe
+     */
+    void upload(String objectPath, File file, String contentType, String downloadToken,
+                String sessionUri, SessionListener listener) throws Exception;
+
+    /**
+     * Obtiene la URL de descarga de un objeto ya subido. Bloquea hasta obtenerla.
+     * @param objectPath Ruta del objeto en el almacenamiento
+     * @return URL de descarga
+     */
+    String getDownloadUrl(String objectPath) throws Exception;
+}
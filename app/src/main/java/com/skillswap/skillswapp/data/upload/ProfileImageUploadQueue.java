@@ -0,0 +1,76 @@
+package com.skillswap.skillswapp.data.upload;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola persistente de subidas de fotos de perfil.
+ * Las subidas se guardan en WorkManager, así sobreviven al cierre de la aplicación, esperan
+ * a que haya red y se reintentan con espera exponencial. Cada usuario tiene como mucho una
+ * subida pendiente: una foto nueva sustituye a la que se estaba subiendo.
+ */
+public final class ProfileImageUploadQueue {
+    private static final String UNIQUE_WORK_PREFIX = "profile_image_upload_";
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    private ProfileImageUploadQueue() {
+    }
+
+    /**
+     * Encola la subida de una foto de perfil ya guardada localmente
+     * (ver {@link com.skillswap.skillswapp.data.local.ImageStorageManager#saveProfileImage}).
+     * @param context Contexto de la aplicación
+     * @param userId ID del usuario
+     * @param imagePath Ruta local de la variante completa
+     * @return LiveData con la URL de descarga cuando termina, o null si la subida falla
+     */
+    public static LiveData<String> enqueue(Context context, String userId, String imagePath) {
+        Data input = new Data.Builder()
+                .putString(ProfileImageUploadWorker.KEY_USER_ID, userId)
+                .putString(ProfileImageUploadWorker.KEY_IMAGE_PATH, imagePath)
+                // Se fijan al encolar para que los reintentos suban a los mismos objetos
+                .putString(ProfileImageUploadWorker.KEY_UPLOAD_ID, UUID.randomUUID().toString())
+                .putString(ProfileImageUploadWorker.KEY_DOWNLOAD_TOKEN, UUID.randomUUID().toString())
+                .build();
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ProfileImageUploadWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .setInputData(input)
+                .build();
+
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        workManager.enqueueUniqueWork(UNIQUE_WORK_PREFIX + userId, ExistingWorkPolicy.REPLACE, request);
+
+        // Publicar solo el resultado final
+        MediatorLiveData<String> result = new MediatorLiveData<>();
+        LiveData<WorkInfo> workInfo = workManager.getWorkInfoByIdLiveData(request.getId());
+        result.addSource(workInfo, info -> {
+            if (info == null || !info.getState().isFinished()) {
+                return;
+            }
+            result.removeSource(workInfo);
+            result.setValue(info.getState() == WorkInfo.State.SUCCEEDED
+                    ? info.getOutputData().getString(ProfileImageUploadWorker.KEY_DOWNLOAD_URL)
+                    : null);
+        });
+        return result;
+    }
+}
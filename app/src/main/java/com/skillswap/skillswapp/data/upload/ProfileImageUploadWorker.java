@@ -0,0 +1,145 @@
+package com.skillswap.skillswapp.data.upload;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.FirebaseDatabase;
+import com.skillswap.skillswapp.data.local.AvatarVariant;
+import com.skillswap.skillswapp.data.repository.UserRepository;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+
+import java.io.File;
+
+/**
+ * Sube las variantes de una foto de perfil a Firebase Storage y guarda la URL en el perfil.
+ * Cada variante recuerda su sesión de subida, así un reintento continúa donde se quedó
+ * en lugar de empezar de nuevo, y las variantes ya subidas no se repiten.
+ */
+public class ProfileImageUploadWorker extends Worker {
+    private static final String TAG = "ProfileImageUpload";
+    private static final String PROFILE_IMAGES_PATH = "profile_images/";
+    private static final String CONTENT_TYPE = "image/webp";
+    static final int MAX_ATTEMPTS = 5;
+
+    static final String KEY_USER_ID = "user_id";
+    static final String KEY_IMAGE_PATH = "image_path";
+    static final String KEY_UPLOAD_ID = "upload_id";
+    static final String KEY_DOWNLOAD_TOKEN = "download_token";
+    static final String KEY_DOWNLOAD_URL = "download_url";
+
+    private static ImageUploader uploaderOverride;
+
+    public ProfileImageUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Sustituye el destino de las subidas (emulador o destino falso en las pruebas).
+     * @param uploader Destino a usar, o null para volver a Firebase Storage
+     */
+    @VisibleForTesting
+    public static void setUploaderForTesting(ImageUploader uploader) {
+        uploaderOverride = uploader;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        ImageUploader uploader = uploaderOverride != null ? uploaderOverride : new FirebaseImageUploader();
+        return upload(getInputData(), getRunAttemptCount(), new UploadSessionStore(getApplicationContext()),
+                uploader, ProfileImageUploadWorker::savePhotoUrl);
+    }
+
+    /**
+     * Destino de la URL de la foto subida. En la app la guarda en el perfil de Firebase;
+     * las pruebas usan uno falso.
+     */
+    interface PhotoUrlSink {
+        /**
+         * Guarda la URL. Bloquea hasta que termina: se llama desde el hilo del worker.
+         */
+        void save(String userId, String downloadUrl) throws Exception;
+    }
+
+    /**
+     * Sube las variantes que falten y guarda la URL de la completa.
+     * @param input Datos de la subida (ver {@link ProfileImageUploadQueue#enqueue})
+     * @param runAttemptCount Intentos anteriores de esta subida
+     * @param sessions Estado guardado de la subida
+     * @param uploader Destino de las subidas
+     * @param photoUrlSink Destino de la URL de la foto subida
+     * @return Éxito con la URL de descarga, reintento o fallo definitivo
+     */
+    static Result upload(Data input, int runAttemptCount, UploadSessionStore sessions,
+                         ImageUploader uploader, PhotoUrlSink photoUrlSink) {
+        String userId = input.getString(KEY_USER_ID);
+        String imagePath = input.getString(KEY_IMAGE_PATH);
+        String uploadId = input.getString(KEY_UPLOAD_ID);
+        String downloadToken = input.getString(KEY_DOWNLOAD_TOKEN);
+        if (userId == null || imagePath == null || uploadId == null || downloadToken == null) {
+            return Result.failure();
+        }
+
+        // Las subidas sustituidas por esta ya no se van a continuar
+        sessions.clearOthers(userId, uploadId);
+
+        if (!new File(imagePath).exists()) {
+            Log.e(TAG, "La imagen a subir ya no existe");
+            sessions.clear(userId, uploadId);
+            return Result.failure();
+        }
+
+        String baseName = PROFILE_IMAGES_PATH + userId + "/" + uploadId;
+        try {
+            for (AvatarVariant variant : AvatarVariant.values()) {
+                if (sessions.isDone(userId, uploadId, variant)) {
+                    continue;
+                }
+                File file = new File(AvatarVariant.resolve(imagePath, variant));
+                if (!file.exists()) {
+                    throw new IllegalStateException("Falta la variante " + variant.name());
+                }
+
+                String sessionUri = sessions.getSession(userId, uploadId, variant);
+                try {
+                    uploader.upload(variant.fileName(baseName), file, CONTENT_TYPE, downloadToken, sessionUri,
+                            newSession -> sessions.saveSession(userId, uploadId, variant, newSession));
+                } catch (Exception e) {
+                    // La sesión puede haber caducado: el siguiente intento empieza de cero
+                    sessions.clearSession(userId, uploadId, variant);
+                    throw e;
+                }
+                sessions.markDone(userId, uploadId, variant);
+            }
+
+            String downloadUrl = uploader.getDownloadUrl(AvatarVariant.FULL.fileName(baseName));
+            photoUrlSink.save(userId, downloadUrl);
+
+            sessions.clear(userId, uploadId);
+            return Result.success(new Data.Builder().putString(KEY_DOWNLOAD_URL, downloadUrl).build());
+        } catch (Exception e) {
+            Log.e(TAG, "Error al subir la foto de perfil: " + e.getMessage());
+            if (runAttemptCount + 1 >= MAX_ATTEMPTS) {
+                sessions.clear(userId, uploadId);
+                return Result.failure();
+            }
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Guarda la URL en el perfil y actualiza el resumen del usuario.
+     */
+    private static void savePhotoUrl(String userId, String downloadUrl) throws Exception {
+        Tasks.await(FirebaseDatabase.getInstance().getReference("users")
+                .child(userId).child("profile").child("photoUrl").setValue(downloadUrl));
+        AppExecutors.getInstance().mainThread().execute(() -> UserRepository.getInstance().reindexUser(userId));
+    }
+}
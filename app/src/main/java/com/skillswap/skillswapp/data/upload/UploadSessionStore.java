@@ -0,0 +1,92 @@
+package com.skillswap.skillswapp.data.upload;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.skillswap.skillswapp.data.local.AvatarVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de las subidas de fotos de perfil que sobrevive al cierre de la aplicación:
+ * la URI de sesión de cada variante en curso y las variantes ya terminadas.
+ * Salvo {@link #saveSession}, se usa desde el hilo del worker.
+ */
+class UploadSessionStore {
+    private static final String PREFS_NAME = "profile_image_uploads";
+    private static final String SESSION_SUFFIX = "/session";
+    private static final String DONE_SUFFIX = "/done";
+
+    private final SharedPreferences preferences;
+
+    UploadSessionStore(Context context) {
+        this(context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+    }
+
+    UploadSessionStore(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    String getSession(String userId, String uploadId, AvatarVariant variant) {
+        return preferences.getString(key(userId, uploadId, variant) + SESSION_SUFFIX, null);
+    }
+
+    /**
+     * Guarda la sesión con apply(): Firebase avisa del progreso en el hilo principal.
+     */
+    void saveSession(String userId, String uploadId, AvatarVariant variant, String sessionUri) {
+        preferences.edit().putString(key(userId, uploadId, variant) + SESSION_SUFFIX, sessionUri).apply();
+    }
+
+    void clearSession(String userId, String uploadId, AvatarVariant variant) {
+        preferences.edit().remove(key(userId, uploadId, variant) + SESSION_SUFFIX).commit();
+    }
+
+    boolean isDone(String userId, String uploadId, AvatarVariant variant) {
+        return preferences.getBoolean(key(userId, uploadId, variant) + DONE_SUFFIX, false);
+    }
+
+    void markDone(String userId, String uploadId, AvatarVariant variant) {
+        String key = key(userId, uploadId, variant);
+        preferences.edit()
+                .putBoolean(key + DONE_SUFFIX, true)
+                .remove(key + SESSION_SUFFIX)
+                .commit();
+    }
+
+    /**
+     * Borra el estado de una subida terminada o abandonada.
+     */
+    void clear(String userId, String uploadId) {
+        removeWithPrefix(userId + "/" + uploadId + "/", null);
+    }
+
+    /**
+     * Borra el estado de las subidas anteriores de un usuario, que ya se han sustituido por otra.
+     */
+    void clearOthers(String userId, String currentUploadId) {
+        removeWithPrefix(userId + "/", userId + "/" + currentUploadId + "/");
+    }
+
+    private void removeWithPrefix(String prefix, String keepPrefix) {
+        List<String> keys = new ArrayList<>();
+        for (String key : preferences.getAll().keySet()) {
+            if (key.startsWith(prefix) && (keepPrefix == null || !key.startsWith(keepPrefix))) {
+                keys.add(key);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        SharedPreferences.Editor editor = preferences.edit();
+        for (String key : keys) {
+            editor.remove(key);
+        }
+        editor.commit();
+    }
+
+    private static String key(String userId, String uploadId, AvatarVariant variant) {
+        return userId + "/" + uploadId + "/" + variant.name();
+    }
+}
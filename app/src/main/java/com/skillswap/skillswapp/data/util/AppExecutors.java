@@ -0,0 +1,125 @@
+package com.skillswap.skillswapp.data.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecutores compartidos por repositorios y ViewModels para sacar el trabajo de disco
+ * del hilo principal.
+ * <ul>
+ *     <li>{@link #diskIO()}: un único hilo para la copia local de Firebase, así las escrituras
+ *     se aplican en el mismo orden en que se piden.</li>
+ *     <li>{@link #personalIO()}: un único hilo para la base personal (favoritos y contactos
+ *     recientes). Va aparte porque hay consultas que esperan a su carga, y en diskIO quedarían
+ *     detrás de las escrituras de la copia local.</li>
+ *     <li>{@link #io()}: grupo acotado de hilos para ficheros e imágenes.</li>
+ *     <li>{@link #mainThread()}: entrega los resultados en el hilo principal.</li>
+ * </ul>
+ */
+public final class AppExecutors {
+    private static final String TAG = "AppExecutors";
+    // Pocos hilos: el trabajo es de disco, no de CPU, y más hilos solo compiten por el almacenamiento
+    private static final int IO_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long IO_KEEP_ALIVE_SECONDS = 30;
+
+    private static AppExecutors instance;
+
+    private final ExecutorService diskIO;
+    private final ExecutorService personalIO;
+    private final ExecutorService io;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        diskIO = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("skillswap-disk"));
+        personalIO = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("skillswap-personal"));
+        ThreadPoolExecutor ioPool = new ThreadPoolExecutor(IO_THREADS, IO_THREADS,
+                IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("skillswap-io"));
+        ioPool.allowCoreThreadTimeOut(true);
+        io = ioPool;
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThread = mainHandler::post;
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * @return Hilo único para leer y escribir en la copia local de Firebase
+     */
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * @return Hilo único para leer y escribir en la base personal del usuario
+     */
+    public ExecutorService personalIO() {
+        return personalIO;
+    }
+
+    /**
+     * @return Grupo acotado de hilos para ficheros, imágenes y otras esperas de disco
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * @return Ejecutor que publica en el hilo principal
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Ejecuta una tarea en {@link #io()} y entrega el resultado en el hilo principal.
+     * @param task Tarea a ejecutar en segundo plano
+     * @param onResult Recibe el resultado en el hilo principal
+     * @param onError Recibe el error en el hilo principal
+     */
+    public <T> void execute(Callable<T> task, Consumer<T> onResult, Consumer<Exception> onError) {
+        io.execute(() -> {
+            try {
+                T value = task.call();
+                mainThread.execute(() -> onResult.accept(value));
+            } catch (Exception e) {
+                Log.e(TAG, "Error en tarea de segundo plano: " + e.getMessage());
+                mainThread.execute(() -> onError.accept(e));
+            }
+        });
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
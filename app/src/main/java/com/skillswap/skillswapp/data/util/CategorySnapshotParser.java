@@ -0,0 +1,35 @@
+package com.skillswap.skillswapp.data.util;
+
+import com.google.firebase.database.DataSnapshot;
+import com.skillswap.skillswapp.data.model.Category;
+
+/**
+ * Convierte los nodos de categoría de Firebase en objetos {@link Category}.
+ */
+public final class CategorySnapshotParser {
+
+    private CategorySnapshotParser() {
+    }
+
+    /**
+     * Construye una categoría a partir del nodo categories/{categoryId}.
+     * @param categorySnapshot Nodo de la categoría
+     * @return Categoría, o null si el nodo no existe o no tiene un formato válido
+     */
+    public static Category parse(DataSnapshot categorySnapshot) {
+        if (categorySnapshot == null || !categorySnapshot.exists()) {
+            return null;
+        }
+        try {
+            Category category = new Category();
+            category.setCategoryId(categorySnapshot.getKey());
+            category.setName(categorySnapshot.child("name").getValue(String.class));
+            category.setDescription(categorySnapshot.child("description").getValue(String.class));
+            category.setIconUrl(categorySnapshot.child("icon_url").getValue(String.class));
+            return category;
+        } catch (Exception e) {
+            // Ignorar categorías con formato incorrecto
+            return null;
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.skillswap.skillswapp.data.util;
 
 import android.util.Log;
 
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Observer;
 
 import com.skillswap.skillswapp.data.model.Category;
 import com.skillswap.skillswapp.data.repository.CategoryRepository;
+import com.skillswap.skillswapp.data.repository.UserRepository;
 
 import java.util.Arrays;
 import java.util.List;
@@ -47,7 +49,8 @@ public class DatabaseInitializer {
      */
     public void initializeDatabase() {
         // Verificar si ya existen categorías
-        categoryRepository.getAllCategories().observeForever(new Observer<List<Category>>() {
+        LiveData<List<Category>> categoriesLiveData = categoryRepository.getAllCategories();
+        categoriesLiveData.observeForever(new Observer<List<Category>>() {
             @Override
             public void onChanged(List<Category> categories) {
                 // Si no hay categorías, crear las predeterminadas
@@ -55,9 +58,12 @@ public class DatabaseInitializer {
                     createDefaultCategories();
                 }
                 // Dejar de observar después de la verificación inicial
-                categoryRepository.getAllCategories().removeObserver(this);
+                categoriesLiveData.removeObserver(this);
             }
         });
+        
+        // Generar los resúmenes de usuario si la base de datos es anterior a ellos
+        UserRepository.getInstance().backfillUserSummaries();
     }
     
     /**
@@ -0,0 +1,148 @@
+package com.skillswap.skillswapp.data.util;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro central de los listeners de Firebase creados por los repositorios.
+ * Cada listener se añade a través del registro y devuelve un {@link Registration}
+ * que lo elimina de Firebase, de modo que se puede saber en todo momento cuántos
+ * listeners siguen conectados.
+ */
+public final class ListenerRegistry {
+    private static ListenerRegistry instance;
+
+    private final AtomicInteger liveListeners = new AtomicInteger();
+
+    // Visible para las pruebas, que usan un registro propio
+    ListenerRegistry() {
+    }
+
+    public static synchronized ListenerRegistry getInstance() {
+        if (instance == null) {
+            instance = new ListenerRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Conecta un ValueEventListener a una consulta.
+     * @param query Consulta o referencia de Firebase
+     * @param listener Listener a conectar
+     * @return Registro para desconectar el listener
+     */
+    public Registration addValueListener(Query query, ValueEventListener listener) {
+        return register(() -> query.addValueEventListener(listener), () -> query.removeEventListener(listener));
+    }
+
+    /**
+     * Conecta un ChildEventListener a una consulta.
+     * @param query Consulta o referencia de Firebase
+     * @param listener Listener a conectar
+     * @return Registro para desconectar el listener
+     */
+    public Registration addChildListener(Query query, ChildEventListener listener) {
+        return register(() -> query.addChildEventListener(listener), () -> query.removeEventListener(listener));
+    }
+
+    /**
+     * Conecta un listener y lo cuenta hasta que se desconecta.
+     * @param attach Conecta el listener
+     * @param detach Desconecta el listener
+     * @return Registro para desconectar el listener
+     */
+    Registration register(Runnable attach, Runnable detach) {
+        attach.run();
+        liveListeners.incrementAndGet();
+        return new Registration(detach);
+    }
+
+    /**
+     * Crea un ámbito que agrupa varios listeners para desconectarlos juntos.
+     * @return Nuevo ámbito abierto
+     */
+    public Scope openScope() {
+        return new Scope();
+    }
+
+    /**
+     * @return Número de listeners conectados actualmente
+     */
+    public int getLiveListenerCount() {
+        return liveListeners.get();
+    }
+
+    /**
+     * Listener conectado. {@link #remove()} puede llamarse varias veces sin efecto adicional.
+     */
+    public final class Registration {
+        private Runnable detach;
+
+        private Registration(Runnable detach) {
+            this.detach = detach;
+        }
+
+        public synchronized void remove() {
+            if (detach != null) {
+                detach.run();
+                detach = null;
+                liveListeners.decrementAndGet();
+            }
+        }
+
+        public synchronized boolean isActive() {
+            return detach != null;
+        }
+    }
+
+    /**
+     * Grupo de listeners con el mismo ciclo de vida. Al cerrarlo se desconectan todos.
+     */
+    public final class Scope implements Closeable {
+        private final List<Registration> registrations = new ArrayList<>();
+        private boolean closed;
+
+        private Scope() {
+        }
+
+        public Registration addValueListener(Query query, ValueEventListener listener) {
+            return register(() -> query.addValueEventListener(listener), () -> query.removeEventListener(listener));
+        }
+
+        public Registration addChildListener(Query query, ChildEventListener listener) {
+            return register(() -> query.addChildEventListener(listener), () -> query.removeEventListener(listener));
+        }
+
+        synchronized Registration register(Runnable attach, Runnable detach) {
+            checkOpen();
+            Registration registration = ListenerRegistry.this.register(attach, detach);
+            registrations.add(registration);
+            return registration;
+        }
+
+        @Override
+        public synchronized void close() {
+            for (Registration registration : registrations) {
+                registration.remove();
+            }
+            registrations.clear();
+            closed = true;
+        }
+
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("El ámbito de listeners ya está cerrado");
+            }
+        }
+    }
+}
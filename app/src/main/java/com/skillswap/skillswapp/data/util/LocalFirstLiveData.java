@@ -0,0 +1,57 @@
+package com.skillswap.skillswapp.data.util;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import java.util.Collection;
+
+/**
+ * LiveData que publica primero la copia local y después el resultado de Firebase.
+ * El valor local solo se publica si llega antes que el remoto y tiene contenido
+ * (una base local vacía no debe mostrarse como "no hay resultados").
+ * A partir del primer valor remoto se ignora la fuente local.
+ *
+ * @param <T> Tipo del valor publicado
+ */
+public class LocalFirstLiveData<T> extends MediatorLiveData<T> {
+    private final LiveData<T> local;
+    private boolean remoteLoaded;
+
+    /**
+     * @param local Lectura de la base local, o null si no está disponible
+     * @param remote Lectura de Firebase
+     */
+    public LocalFirstLiveData(LiveData<T> local, LiveData<T> remote) {
+        this.local = local;
+        if (local != null) {
+            addSource(local, value -> {
+                if (!remoteLoaded && hasContent(value)) {
+                    setValue(value);
+                }
+            });
+        }
+        addSource(remote, value -> {
+            if (!remoteLoaded) {
+                remoteLoaded = true;
+                if (this.local != null) {
+                    removeSource(this.local);
+                }
+            }
+            setValue(value);
+        });
+    }
+
+    /**
+     * @return true si ya se ha recibido al menos un valor de Firebase
+     */
+    public boolean isRemoteLoaded() {
+        return remoteLoaded;
+    }
+
+    private static boolean hasContent(Object value) {
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        return value != null;
+    }
+}
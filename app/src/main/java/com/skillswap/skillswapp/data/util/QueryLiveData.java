@@ -0,0 +1,164 @@
+package com.skillswap.skillswapp.data.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+/**
+ * LiveData respaldado por una consulta de Firebase.
+ * El listener se conecta cuando el LiveData tiene observadores activos y se desconecta
+ * cuando deja de tenerlos, así las pantallas cerradas no mantienen descargas abiertas.
+ * La desconexión se retrasa un momento para no repetir la descarga en cambios de configuración.
+ *
+ * @param <T> Tipo del valor publicado
+ */
+public class QueryLiveData<T> extends MutableLiveData<T> {
+    static final long DETACH_DELAY_MS = 2000;
+    private static Scheduler mainScheduler;
+
+    /**
+     * Convierte el snapshot de la consulta en el valor a publicar.
+     */
+    public interface SnapshotParser<T> {
+        T parse(DataSnapshot dataSnapshot);
+    }
+
+    /**
+     * Origen de los snapshots. En la app es una consulta de Firebase; las pruebas usan uno falso.
+     */
+    public interface Source {
+        void addValueEventListener(ValueEventListener listener);
+
+        void removeEventListener(ValueEventListener listener);
+    }
+
+    /**
+     * Programa la desconexión retrasada (en la app, un Handler del hilo principal).
+     */
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    private final Source source;
+    private final Scheduler scheduler;
+    private final SnapshotParser<T> parser;
+    private final T errorValue;
+    private ListenerRegistry.Registration registration;
+
+    private final ValueEventListener listener = new ValueEventListener() {
+        @Override
+        public void onDataChange(DataSnapshot dataSnapshot) {
+            onSnapshot(dataSnapshot);
+        }
+
+        @Override
+        public void onCancelled(DatabaseError databaseError) {
+            setValue(errorValue);
+        }
+    };
+
+    private final Runnable detachRunnable = this::detach;
+
+    /**
+     * @param query Consulta a escuchar
+     * @param parser Conversión del snapshot al valor publicado
+     * @param errorValue Valor publicado si la consulta se cancela
+     */
+    public QueryLiveData(Query query, SnapshotParser<T> parser, T errorValue) {
+        this(of(query), parser, errorValue, mainScheduler());
+    }
+
+    /**
+     * @param source Origen de los snapshots
+     * @param parser Conversión del snapshot al valor publicado
+     * @param errorValue Valor publicado si la consulta se cancela
+     * @param scheduler Programa la desconexión retrasada
+     */
+    public QueryLiveData(Source source, SnapshotParser<T> parser, T errorValue, Scheduler scheduler) {
+        this.source = source;
+        this.parser = parser;
+        this.errorValue = errorValue;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Constructor para subclases que sobrescriben {@link #onSnapshot(DataSnapshot)}.
+     */
+    protected QueryLiveData(Query query, T errorValue) {
+        this(query, null, errorValue);
+    }
+
+    /**
+     * Procesa cada snapshot recibido. Por defecto publica el resultado del parser.
+     */
+    protected void onSnapshot(DataSnapshot dataSnapshot) {
+        setValue(parser.parse(dataSnapshot));
+    }
+
+    @Override
+    protected void onActive() {
+        scheduler.cancel(detachRunnable);
+        if (registration == null) {
+            registration = ListenerRegistry.getInstance().register(
+                    () -> source.addValueEventListener(listener), () -> source.removeEventListener(listener));
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        scheduler.schedule(detachRunnable, DETACH_DELAY_MS);
+    }
+
+    private void detach() {
+        if (registration != null && !hasActiveObservers()) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    /**
+     * Origen que escucha una consulta de Firebase.
+     */
+    public static Source of(Query query) {
+        return new Source() {
+            @Override
+            public void addValueEventListener(ValueEventListener listener) {
+                query.addValueEventListener(listener);
+            }
+
+            @Override
+            public void removeEventListener(ValueEventListener listener) {
+                query.removeEventListener(listener);
+            }
+        };
+    }
+
+    /**
+     * Programador sobre el hilo principal. Se crea al usarlo por primera vez.
+     */
+    private static synchronized Scheduler mainScheduler() {
+        if (mainScheduler == null) {
+            Handler handler = new Handler(Looper.getMainLooper());
+            mainScheduler = new Scheduler() {
+                @Override
+                public void schedule(Runnable task, long delayMs) {
+                    handler.postDelayed(task, delayMs);
+                }
+
+                @Override
+                public void cancel(Runnable task) {
+                    handler.removeCallbacks(task);
+                }
+            };
+        }
+        return mainScheduler;
+    }
+}
@@ -0,0 +1,76 @@
+package com.skillswap.skillswapp.data.util;
+
+import com.google.firebase.database.DataSnapshot;
+import com.skillswap.skillswapp.data.model.Skill;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte los nodos de habilidad de Firebase en objetos {@link Skill}.
+ * Tolera users_teaching guardado como lista de IDs o como mapa {userId: true} (el formato
+ * actual), habilidades sin teacher_count y niveles guardados como número o como texto.
+ */
+public final class SkillSnapshotParser {
+
+    private SkillSnapshotParser() {
+    }
+
+    /**
+     * Construye una habilidad a partir del nodo skills/{skillId}.
+     * @param skillSnapshot Nodo de la habilidad
+     * @return Habilidad, o null si el nodo no existe o no tiene un formato válido
+     */
+    public static Skill parse(DataSnapshot skillSnapshot) {
+        if (skillSnapshot == null || !skillSnapshot.exists()) {
+            return null;
+        }
+        try {
+            Skill skill = new Skill();
+            skill.setSkillId(skillSnapshot.getKey());
+            skill.setTitle(skillSnapshot.child("title").getValue(String.class));
+            skill.setCategory(skillSnapshot.child("category").getValue(String.class));
+            skill.setDescription(skillSnapshot.child("description").getValue(String.class));
+            skill.setImageUrl(skillSnapshot.child("imageUrl").getValue(String.class));
+
+            Object level = skillSnapshot.child("level").getValue();
+            if (level instanceof Number) {
+                skill.setLevel(((Number) level).intValue());
+            } else if (level instanceof String) {
+                try {
+                    skill.setLevel(Integer.parseInt((String) level));
+                } catch (NumberFormatException e) {
+                    // Mantener el nivel por defecto
+                }
+            }
+
+            skill.setUsersTeaching(parseUsersTeaching(skillSnapshot.child("users_teaching")));
+            skill.setTeacherCount(parseTeacherCount(skillSnapshot));
+            return skill;
+        } catch (Exception e) {
+            // Ignorar habilidades con formato incorrecto
+            return null;
+        }
+    }
+
+    /**
+     * Lee users_teaching, que puede ser una lista de IDs o un mapa {userId: true}.
+     */
+    public static List<String> parseUsersTeaching(DataSnapshot usersTeachingSnapshot) {
+        List<String> usersTeaching = new ArrayList<>();
+        for (DataSnapshot userSnapshot : usersTeachingSnapshot.getChildren()) {
+            Object value = userSnapshot.getValue();
+            usersTeaching.add(value instanceof String ? (String) value : userSnapshot.getKey());
+        }
+        return usersTeaching;
+    }
+
+    /**
+     * Lee teacher_count.
+     * @return Contador, o -1 si la habilidad todavía no lo tiene
+     */
+    public static int parseTeacherCount(DataSnapshot skillSnapshot) {
+        Object count = skillSnapshot.child("teacher_count").getValue();
+        return count instanceof Number ? Math.max(0, ((Number) count).intValue()) : -1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.skillswap.skillswapp.data.util;
+
+import android.os.StrictMode;
+
+/**
+ * Configuración de StrictMode para detectar accesos a disco desde el hilo principal.
+ */
+public final class StrictModeConfig {
+
+    private StrictModeConfig() {
+    }
+
+    /**
+     * Activa la detección de lecturas y escrituras de disco en el hilo principal.
+     * @param failOnViolation true para cerrar la aplicación ante cualquier infracción
+     *                        (modo de pruebas); false para solo registrarla en el log
+     */
+    public static void enableMainThreadDiskChecks(boolean failOnViolation) {
+        StrictMode.ThreadPolicy.Builder builder = new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .penaltyLog();
+        if (failOnViolation) {
+            builder.penaltyDeath();
+        }
+        StrictMode.setThreadPolicy(builder.build());
+    }
+}
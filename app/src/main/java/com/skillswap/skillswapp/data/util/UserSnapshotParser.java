@@ -0,0 +1,129 @@
+package com.skillswap.skillswapp.data.util;
+
+import com.google.firebase.database.DataSnapshot;
+import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.User.SkillToLearn;
+import com.skillswap.skillswapp.data.model.User.SkillToTeach;
+import com.skillswap.skillswapp.data.model.User.UserProfile;
+import com.skillswap.skillswapp.data.model.UserSummary;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Convierte los nodos de usuario de Firebase en objetos {@link User}.
+ * Centraliza la lectura manual de campos para tolerar datos con tipos inconsistentes
+ * (por ejemplo, niveles guardados como texto o fechas guardadas como objeto).
+ */
+public final class UserSnapshotParser {
+
+    private UserSnapshotParser() {
+    }
+
+    /**
+     * Construye un usuario a partir del nodo users/{userId}.
+     * @param userSnapshot Nodo del usuario
+     * @return Usuario, o null si el nodo no tiene un formato válido
+     */
+    public static User parse(DataSnapshot userSnapshot) {
+        if (userSnapshot == null || !userSnapshot.exists()) {
+            return null;
+        }
+        try {
+            User user = new User();
+            user.setUserId(userSnapshot.getKey());
+            user.setProfile(parseProfile(userSnapshot.child("profile")));
+
+            // Obtener habilidades para enseñar
+            Map<String, SkillToTeach> skillsToTeach = new HashMap<>();
+            for (DataSnapshot skillSnapshot : userSnapshot.child("skills_to_teach").getChildren()) {
+                SkillToTeach skill = new SkillToTeach();
+                skill.setTitle(skillSnapshot.child("title").getValue(String.class));
+                skill.setCategory(skillSnapshot.child("category").getValue(String.class));
+                skill.setDescription(skillSnapshot.child("description").getValue(String.class));
+                skill.setLevel(parseInt(skillSnapshot.child("level").getValue(), 1));
+                skillsToTeach.put(skillSnapshot.getKey(), skill);
+            }
+            user.setSkillsToTeach(skillsToTeach);
+
+            // Obtener habilidades para aprender
+            Map<String, SkillToLearn> skillsToLearn = new HashMap<>();
+            for (DataSnapshot skillSnapshot : userSnapshot.child("skills_to_learn").getChildren()) {
+                SkillToLearn skill = new SkillToLearn();
+                skill.setTitle(skillSnapshot.child("title").getValue(String.class));
+                skill.setCategory(skillSnapshot.child("category").getValue(String.class));
+                skill.setDescription(skillSnapshot.child("description").getValue(String.class));
+                skill.setPriority(parseInt(skillSnapshot.child("priority").getValue(), 1));
+                skillsToLearn.put(skillSnapshot.getKey(), skill);
+            }
+            user.setSkillsToLearn(skillsToLearn);
+
+            return user;
+        } catch (Exception e) {
+            // Ignorar usuarios con formato incorrecto
+            return null;
+        }
+    }
+
+    /**
+     * Construye un resumen a partir del nodo user_summaries/{userId}.
+     * @param summarySnapshot Nodo del resumen
+     * @return Resumen, o null si el nodo no existe o no tiene un formato válido
+     */
+    public static UserSummary parseSummary(DataSnapshot summarySnapshot) {
+        if (summarySnapshot == null || !summarySnapshot.exists()) {
+            return null;
+        }
+        try {
+            UserSummary summary = new UserSummary();
+            summary.setUserId(summarySnapshot.getKey());
+            summary.setName(summarySnapshot.child("name").getValue(String.class));
+            summary.setBio(summarySnapshot.child("bio").getValue(String.class));
+            summary.setPhotoUrl(summarySnapshot.child("photoUrl").getValue(String.class));
+            summary.setSkillsToTeachCount(parseInt(summarySnapshot.child("skills_to_teach_count").getValue(), 0));
+            return summary;
+        } catch (Exception e) {
+            // Ignorar resúmenes con formato incorrecto
+            return null;
+        }
+    }
+
+    private static UserProfile parseProfile(DataSnapshot profileSnapshot) {
+        UserProfile profile = new UserProfile();
+        if (!profileSnapshot.exists()) {
+            return profile;
+        }
+        profile.setName(profileSnapshot.child("name").getValue(String.class));
+        profile.setEmail(profileSnapshot.child("email").getValue(String.class));
+        profile.setBio(profileSnapshot.child("bio").getValue(String.class));
+        profile.setPhotoUrl(profileSnapshot.child("photoUrl").getValue(String.class));
+
+        // lastActive puede guardarse como timestamp o como Date serializado ({time: ...})
+        DataSnapshot lastActiveSnapshot = profileSnapshot.child("lastActive");
+        Object lastActive = lastActiveSnapshot.getValue();
+        if (lastActive instanceof Number) {
+            profile.setLastActive(new Date(((Number) lastActive).longValue()));
+        } else if (lastActiveSnapshot.child("time").getValue() instanceof Number) {
+            profile.setLastActive(new Date(((Number) lastActiveSnapshot.child("time").getValue()).longValue()));
+        }
+        return profile;
+    }
+
+    /**
+     * Convierte un valor numérico de Firebase (Long, Integer o String) a int.
+     */
+    private static int parseInt(Object value, int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,16 @@
+package com.skillswap.skillswapp.ui.adapters;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Fragmento con pestañas cuyas listas comparten un {@link RecyclerView.RecycledViewPool}.
+ * Las pestañas lo obtienen a través de getParentFragment().
+ */
+public interface SharedViewPoolOwner {
+
+    /**
+     * Pool compartido por las listas de las pestañas.
+     * @return Pool, o null si la vista del fragmento ya se ha destruido
+     */
+    RecyclerView.RecycledViewPool getSharedViewPool();
+}
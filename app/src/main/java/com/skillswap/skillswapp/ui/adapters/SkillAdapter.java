@@ -7,23 +7,42 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.Skill;
 import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.util.AppExecutors;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Adaptador para mostrar habilidades en RecyclerView.
+ * Las listas nuevas se comparan con la anterior en segundo plano y solo se vuelven a
+ * enlazar las filas que han cambiado.
  */
-public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHolder> {
+public class SkillAdapter extends ListAdapter<SkillAdapter.SkillItem, SkillAdapter.SkillViewHolder> {
+
+    private static final DiffUtil.ItemCallback<SkillItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<SkillItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull SkillItem oldItem, @NonNull SkillItem newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull SkillItem oldItem, @NonNull SkillItem newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
 
-    private List<SkillItem> skills;
     private final boolean isTeachSkill;
+    private final StableIds stableIds = new StableIds();
     private OnSkillClickListener listener;
 
     /**
@@ -31,8 +50,11 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
      * @param isTeachSkill true si son habilidades para enseñar, false si son para aprender
      */
     public SkillAdapter(boolean isTeachSkill) {
-        this.skills = new ArrayList<>();
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().io())
+                .build());
         this.isTeachSkill = isTeachSkill;
+        setHasStableIds(true);
     }
     
     /**
@@ -41,13 +63,20 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
      * @param isTeachSkill true si son habilidades para enseñar, false si son para aprender
      */
     public SkillAdapter(List<Skill> skills, boolean isTeachSkill) {
-        this.skills = new ArrayList<>();
-        this.isTeachSkill = isTeachSkill;
+        this(isTeachSkill);
+        setSkillList(skills);
+    }
+
+    /**
+     * Establece las habilidades a mostrar a partir de una lista de habilidades.
+     */
+    public void setSkillList(List<Skill> skillList) {
+        List<SkillItem> items = new ArrayList<>();
         
         // Convertir las habilidades al formato interno
-        if (skills != null) {
-            for (Skill skill : skills) {
-                this.skills.add(new SkillItem(
+        if (skillList != null) {
+            for (Skill skill : skillList) {
+                items.add(new SkillItem(
                     skill.getSkillId(),
                     skill.getTitle(),
                     skill.getCategory(),
@@ -57,19 +86,25 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
                 ));
             }
         }
+        
+        submitList(items);
     }
 
     /**
      * Establece las habilidades a mostrar.
      */
     public void setSkills(Map<String, ?> skillsMap) {
-        skills.clear();
+        List<SkillItem> items = new ArrayList<>();
+        if (skillsMap == null) {
+            submitList(items);
+            return;
+        }
         
         if (isTeachSkill) {
             Map<String, User.SkillToTeach> teachMap = (Map<String, User.SkillToTeach>) skillsMap;
             for (Map.Entry<String, User.SkillToTeach> entry : teachMap.entrySet()) {
                 User.SkillToTeach skill = entry.getValue();
-                skills.add(new SkillItem(
+                items.add(new SkillItem(
                         entry.getKey(),
                         skill.getTitle(),
                         skill.getCategory(),
@@ -82,7 +117,7 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
             Map<String, User.SkillToLearn> learnMap = (Map<String, User.SkillToLearn>) skillsMap;
             for (Map.Entry<String, User.SkillToLearn> entry : learnMap.entrySet()) {
                 User.SkillToLearn skill = entry.getValue();
-                skills.add(new SkillItem(
+                items.add(new SkillItem(
                         entry.getKey(),
                         skill.getTitle(),
                         "",
@@ -93,7 +128,7 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
             }
         }
         
-        notifyDataSetChanged();
+        submitList(items);
     }
 
     /**
@@ -112,13 +147,12 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
 
     @Override
     public void onBindViewHolder(@NonNull SkillViewHolder holder, int position) {
-        SkillItem skill = skills.get(position);
-        holder.bind(skill);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return skills.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getId());
     }
 
     /**
@@ -149,9 +183,9 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
             levelStars[4] = itemView.findViewById(R.id.ivLevel5);
             
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
+                int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onSkillClick(skills.get(position));
+                    listener.onSkillClick(getItem(position));
                 }
             });
         }
@@ -255,6 +289,28 @@ public class SkillAdapter extends RecyclerView.Adapter<SkillAdapter.SkillViewHol
         public int getPriority() {
             return priority;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SkillItem)) {
+                return false;
+            }
+            SkillItem other = (SkillItem) o;
+            return level == other.level
+                    && priority == other.priority
+                    && Objects.equals(id, other.id)
+                    && Objects.equals(title, other.title)
+                    && Objects.equals(category, other.category)
+                    && Objects.equals(description, other.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, title, category, description, level, priority);
+        }
     }
 
     /**
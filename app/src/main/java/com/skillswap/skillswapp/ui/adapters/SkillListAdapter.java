@@ -6,24 +6,48 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.chip.Chip;
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.util.AppExecutors;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
  * Adaptador para mostrar lista de habilidades en RecyclerView.
+ * Las listas nuevas se comparan con la anterior en segundo plano y solo se vuelven a
+ * enlazar las filas que han cambiado.
  */
-public class SkillListAdapter extends RecyclerView.Adapter<SkillListAdapter.SkillViewHolder> {
+public class SkillListAdapter extends ListAdapter<Skill, SkillListAdapter.SkillViewHolder> {
 
-    private final List<Skill> skills;
+    private static final DiffUtil.ItemCallback<Skill> DIFF_CALLBACK = new DiffUtil.ItemCallback<Skill>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
+            return Objects.equals(oldItem.getSkillId(), newItem.getSkillId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
+            // Solo los campos que muestra la fila
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getCategory(), newItem.getCategory())
+                    && getTeachersCount(oldItem) == getTeachersCount(newItem);
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
     private OnSkillClickListener listener;
 
-    public SkillListAdapter(List<Skill> skills) {
-        this.skills = skills;
+    public SkillListAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().io())
+                .build());
+        setHasStableIds(true);
     }
 
     public void setOnSkillClickListener(OnSkillClickListener listener) {
@@ -39,13 +63,16 @@ public class SkillListAdapter extends RecyclerView.Adapter<SkillListAdapter.Skil
 
     @Override
     public void onBindViewHolder(@NonNull SkillViewHolder holder, int position) {
-        Skill skill = skills.get(position);
-        holder.bind(skill);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return skills.size();
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getSkillId());
+    }
+
+    private static int getTeachersCount(Skill skill) {
+        return skill.getTeacherCount();
     }
 
     /**
@@ -64,9 +91,9 @@ public class SkillListAdapter extends RecyclerView.Adapter<SkillListAdapter.Skil
             
             // Configurar listener para click en el item
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
+                int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onSkillClick(skills.get(position));
+                    listener.onSkillClick(getItem(position));
                 }
             });
         }
@@ -84,10 +111,7 @@ public class SkillListAdapter extends RecyclerView.Adapter<SkillListAdapter.Skil
             }
             
             // Establecer contador de profesores
-            int teachersCount = 0;
-            if (skill.getUsersTeaching() != null) {
-                teachersCount = skill.getUsersTeaching().size();
-            }
+            int teachersCount = getTeachersCount(skill);
             
             tvTeachersCount.setText(itemView.getContext().getString(
                     R.string.teachers_count, teachersCount));
@@ -0,0 +1,24 @@
+package com.skillswap.skillswapp.ui.adapters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Asigna a cada clave (userId, skillId) un id numérico que no cambia mientras viva el adaptador,
+ * para usar ids estables en RecyclerView sin depender del hash de la clave.
+ * Solo se usa desde el hilo principal.
+ */
+final class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    long idFor(String key) {
+        String safeKey = key != null ? key : "";
+        Long id = ids.get(safeKey);
+        if (id == null) {
+            id = (long) ids.size() + 1;
+            ids.put(safeKey, id);
+        }
+        return id;
+    }
+}
@@ -7,30 +7,158 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.skillswap.skillswapp.R;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+import com.skillswap.skillswapp.util.ImageUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Adaptador para mostrar usuarios en RecyclerView.
+ * Trabaja con {@link UserSummary} para no mantener en memoria los datos completos de cada fila.
+ * Las listas se entregan con {@link #submitList}: la comparación con la anterior se hace en
+ * segundo plano y solo se vuelven a enlazar las filas que han cambiado.
  */
-public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder> {
+public class UserAdapter extends ListAdapter<UserSummary, UserAdapter.UserViewHolder> {
 
-    private final List<User> users;
+    /** Tipo de vista de las filas de usuario. */
+    public static final int VIEW_TYPE_USER = R.layout.item_user;
+    /** Tamaño de la foto en item_user.xml, usado para precargarla con el mismo tamaño. */
+    public static final int AVATAR_SIZE_DP = 64;
+
+    /** Payload de rebind parcial: solo cambia el corazón de favorito. */
+    static final Object PAYLOAD_FAVORITE = new Object();
+    /** Payload de rebind parcial: solo cambia el número de habilidades que enseña. */
+    static final Object PAYLOAD_SKILLS_COUNT = new Object();
+
+    private static final DiffUtil.ItemCallback<UserSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<UserSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserSummary oldItem, @NonNull UserSummary newItem) {
+            return Objects.equals(oldItem.getUserId(), newItem.getUserId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserSummary oldItem, @NonNull UserSummary newItem) {
+            return oldItem.hasSameContent(newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull UserSummary oldItem, @NonNull UserSummary newItem) {
+            // Si solo cambia el contador no hace falta volver a cargar la foto ni medir la biografía
+            boolean sameExceptCount = Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getBio(), newItem.getBio())
+                    && Objects.equals(oldItem.getPhotoUrl(), newItem.getPhotoUrl());
+            return sameExceptCount ? PAYLOAD_SKILLS_COUNT : null;
+        }
+    };
+
+    private final StableIds stableIds = new StableIds();
+    private Set<String> favoriteIds = Collections.emptySet();
     private OnUserClickListener listener;
 
-    public UserAdapter(List<User> users) {
-        this.users = users;
+    public UserAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().io())
+                .build());
+        setHasStableIds(true);
     }
 
     public void setOnUserClickListener(OnUserClickListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Usuario de una posición, o null si está fuera de la lista.
+     */
+    public UserSummary getUserAt(int position) {
+        List<UserSummary> users = getCurrentList();
+        return position >= 0 && position < users.size() ? users.get(position) : null;
+    }
+
+    /**
+     * Establece los IDs de favoritos que marcan el corazón de cada fila.
+     * Normalmente se llama al observar el conjunto compartido de favoritos; solo se
+     * actualiza el icono de las filas cuyo estado ha cambiado.
+     * @param ids IDs de favoritos (null equivale a ninguno)
+     */
+    public void setFavoriteIds(@Nullable Set<String> ids) {
+        Set<String> previous = favoriteIds;
+        favoriteIds = ids != null ? ids : Collections.<String>emptySet();
+        List<UserSummary> users = getCurrentList();
+        for (int i = 0; i < users.size(); i++) {
+            String userId = users.get(i).getUserId();
+            if (previous.contains(userId) != favoriteIds.contains(userId)) {
+                notifyItemChanged(i, PAYLOAD_FAVORITE);
+            }
+        }
+    }
+
+    /**
+     * Indica si un usuario está marcado como favorito en la lista.
+     */
+    public boolean isFavorite(String userId) {
+        return favoriteIds.contains(userId);
+    }
+
+    /**
+     * Cambia el estado de favorito de un usuario antes de que se confirme el cambio,
+     * para que el corazón responda al momento. El conjunto compartido lo sustituirá después.
+     * @param userId ID del usuario
+     * @param favorite Nuevo estado
+     */
+    public void setFavorite(String userId, boolean favorite) {
+        if (favoriteIds.contains(userId) == favorite) {
+            return;
+        }
+        Set<String> updated = new HashSet<>(favoriteIds);
+        if (favorite) {
+            updated.add(userId);
+        } else {
+            updated.remove(userId);
+        }
+        setFavoriteIds(updated);
+    }
+
+    /**
+     * Quita un usuario de la lista.
+     * @param userId ID del usuario
+     * @param commitCallback Se ejecuta cuando la lista nueva ya está aplicada (puede ser null)
+     */
+    public void removeUser(String userId, @Nullable Runnable commitCallback) {
+        List<UserSummary> updated = new ArrayList<>(getCurrentList());
+        for (int i = 0; i < updated.size(); i++) {
+            if (Objects.equals(updated.get(i).getUserId(), userId)) {
+                updated.remove(i);
+                submitList(updated, commitCallback);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idFor(getItem(position).getUserId());
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        // Tipo propio para poder compartir el RecycledViewPool con otras listas
+        return VIEW_TYPE_USER;
+    }
+
     @NonNull
     @Override
     public UserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -40,24 +168,43 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = users.get(position);
-        holder.bind(user);
+        UserSummary user = getItem(position);
+        holder.bind(user, isFavorite(user.getUserId()), listener);
     }
 
     @Override
-    public int getItemCount() {
-        return users.size();
+    public void onBindViewHolder(@NonNull UserViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        UserSummary user = getItem(position);
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_FAVORITE) {
+                holder.bindFavorite(isFavorite(user.getUserId()));
+            } else if (payload == PAYLOAD_SKILLS_COUNT) {
+                holder.bindSkillsCount(user);
+            } else {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
     }
 
     /**
      * ViewHolder para los usuarios.
+     * No depende de la instancia del adaptador: con un RecycledViewPool compartido puede
+     * haberlo creado el adaptador de otra pestaña, así que guarda el usuario y el listener
+     * del último bind.
      */
-    class UserViewHolder extends RecyclerView.ViewHolder {
+    static class UserViewHolder extends RecyclerView.ViewHolder {
         private final ImageView ivUserPhoto;
         private final TextView tvUserName;
         private final TextView tvUserBio;
         private final ImageView ivFavorite;
         private final TextView tvSkillsCount;
+        private UserSummary user;
+        private OnUserClickListener listener;
 
         public UserViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -69,31 +216,32 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
             
             // Configurar listener para click en el item
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onUserClick(users.get(position));
+                if (getBindingAdapterPosition() != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onUserClick(user);
                 }
             });
             
-            // Configurar listener para click en favorito
+            // Configurar listener para click en favorito: solo se actualiza el icono de esta fila
             ivFavorite.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    User user = users.get(position);
-                    boolean isFavorite = !user.isFavorite(); // Cambiar estado
-                    user.setFavorite(isFavorite);
-                    notifyItemChanged(position);
+                if (getBindingAdapterPosition() != RecyclerView.NO_POSITION && listener != null
+                        && getBindingAdapter() instanceof UserAdapter) {
+                    UserAdapter adapter = (UserAdapter) getBindingAdapter();
+                    boolean isFavorite = !adapter.isFavorite(user.getUserId()); // Cambiar estado
+                    adapter.setFavorite(user.getUserId(), isFavorite);
                     listener.onFavoriteClick(user, isFavorite);
                 }
             });
         }
 
-        public void bind(User user) {
+        public void bind(UserSummary user, boolean favorite, OnUserClickListener listener) {
+            this.user = user;
+            this.listener = listener;
+            
             // Establecer nombre del usuario
-            tvUserName.setText(user.getProfile().getName());
+            tvUserName.setText(user.getName());
             
             // Establecer biografía si existe
-            String bio = user.getProfile().getBio();
+            String bio = user.getBio();
             if (bio != null && !bio.isEmpty()) {
                 tvUserBio.setVisibility(View.VISIBLE);
                 tvUserBio.setText(bio);
@@ -101,28 +249,27 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
                 tvUserBio.setVisibility(View.GONE);
             }
             
-            // Cargar foto de perfil si existe
-            String photoUrl = user.getProfile().getPhotoUrl();
-            if (photoUrl != null && !photoUrl.isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(photoUrl)
-                        .placeholder(R.drawable.ic_profile_placeholder)
-                        .error(R.drawable.ic_profile_placeholder)
-                        .circleCrop()
-                        .into(ivUserPhoto);
-            } else {
-                ivUserPhoto.setImageResource(R.drawable.ic_profile_placeholder);
-            }
+            // Cargar foto de perfil en el tamaño de la fila
+            ImageUtils.loadAvatar(ivUserPhoto, user.getUserId(), user.getPhotoUrl());
             
-            // Establecer icono de favorito
-            ivFavorite.setImageResource(user.isFavorite() ? 
+            bindFavorite(favorite);
+            bindSkillsCount(user);
+        }
+
+        /**
+         * Actualiza solo el icono de favorito.
+         */
+        void bindFavorite(boolean favorite) {
+            ivFavorite.setImageResource(favorite ?
                     R.drawable.ic_favorite_filled : R.drawable.ic_favorite_outline);
-            
-            // Establecer contador de habilidades
-            int skillsCount = 0;
-            if (user.getSkillsToTeach() != null) {
-                skillsCount += user.getSkillsToTeach().size();
-            }
+        }
+
+        /**
+         * Actualiza solo el contador de habilidades.
+         */
+        void bindSkillsCount(UserSummary user) {
+            this.user = user;
+            int skillsCount = user.getSkillsToTeachCount();
             tvSkillsCount.setText(itemView.getContext().getString(
                     R.string.skills_count, skillsCount));
         }
@@ -132,7 +279,7 @@ public class UserAdapter extends RecyclerView.Adapter<UserAdapter.UserViewHolder
      * Interfaz para manejar clicks en usuarios.
      */
     public interface OnUserClickListener {
-        void onUserClick(User user);
-        void onFavoriteClick(User user, boolean isFavorite);
+        void onUserClick(UserSummary user);
+        void onFavoriteClick(UserSummary user, boolean isFavorite);
     }
 }
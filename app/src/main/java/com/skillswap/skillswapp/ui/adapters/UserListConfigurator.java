@@ -0,0 +1,109 @@
+package com.skillswap.skillswapp.ui.adapters;
+
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.skillswap.skillswapp.data.model.UserSummary;
+import com.skillswap.skillswapp.util.ImageUtils;
+import com.skillswap.skillswapp.util.ScrollFrameStats;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configuración común de las listas de usuarios ({@link UserAdapter}).
+ * Precarga las fotos de las filas que están a punto de aparecer, amplía la caché de vistas
+ * y usa el pool compartido de las pestañas cuando el fragmento padre lo ofrece.
+ */
+public final class UserListConfigurator {
+
+    // Filas por delante de la última visible cuyas fotos se precargan
+    private static final int MAX_PRELOAD = 8;
+    // Filas fuera de pantalla que se conservan sin volver a enlazar (por defecto son 2)
+    private static final int ITEM_VIEW_CACHE_SIZE = 6;
+    // Filas de usuario que guarda el pool compartido entre todas las pestañas
+    private static final int SHARED_POOL_USER_VIEWS = 16;
+
+    private UserListConfigurator() {
+    }
+
+    /**
+     * Crea el pool que comparten las pestañas de un fragmento.
+     * @return Pool con capacidad para las filas de usuario de varias listas
+     */
+    public static RecyclerView.RecycledViewPool createSharedPool() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(UserAdapter.VIEW_TYPE_USER, SHARED_POOL_USER_VIEWS);
+        return pool;
+    }
+
+    /**
+     * Configura una lista de usuarios. Debe llamarse después de asignar el LayoutManager y el adaptador.
+     * @param fragment Fragmento que muestra la lista
+     * @param recyclerView Lista
+     * @param adapter Adaptador de la lista
+     */
+    public static void configure(@NonNull Fragment fragment, @NonNull RecyclerView recyclerView,
+                                 @NonNull UserAdapter adapter) {
+        // Las filas tienen altura fija: los cambios de contenido no obligan a medir de nuevo la lista
+        recyclerView.setHasFixedSize(true);
+        recyclerView.setItemViewCacheSize(ITEM_VIEW_CACHE_SIZE);
+
+        Fragment parent = fragment.getParentFragment();
+        if (parent instanceof SharedViewPoolOwner) {
+            RecyclerView.RecycledViewPool pool = ((SharedViewPoolOwner) parent).getSharedViewPool();
+            if (pool != null) {
+                recyclerView.setRecycledViewPool(pool);
+                // Al destruirse la pestaña sus filas vuelven al pool en lugar de descartarse
+                if (recyclerView.getLayoutManager() instanceof LinearLayoutManager) {
+                    ((LinearLayoutManager) recyclerView.getLayoutManager()).setRecycleChildrenOnDetach(true);
+                }
+            }
+        }
+
+        // Precargar con el tamaño y las opciones de la fila para que la carga real salga de la caché
+        int avatarSize = Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                UserAdapter.AVATAR_SIZE_DP, fragment.getResources().getDisplayMetrics()));
+        RequestManager requestManager = Glide.with(fragment);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(requestManager,
+                new AvatarPreloadProvider(adapter, requestManager),
+                new FixedPreloadSizeProvider<>(avatarSize, avatarSize), MAX_PRELOAD));
+
+        ScrollFrameStats.attach(fragment, recyclerView);
+    }
+
+    /**
+     * Indica a Glide qué foto corresponde a cada posición de la lista.
+     */
+    private static class AvatarPreloadProvider implements ListPreloader.PreloadModelProvider<UserSummary> {
+        private final UserAdapter adapter;
+        private final RequestManager requestManager;
+
+        AvatarPreloadProvider(UserAdapter adapter, RequestManager requestManager) {
+            this.adapter = adapter;
+            this.requestManager = requestManager;
+        }
+
+        @NonNull
+        @Override
+        public List<UserSummary> getPreloadItems(int position) {
+            UserSummary user = adapter.getUserAt(position);
+            return user != null ? Collections.singletonList(user) : Collections.<UserSummary>emptyList();
+        }
+
+        @Override
+        public RequestBuilder<?> getPreloadRequestBuilder(@NonNull UserSummary user) {
+            return ImageUtils.avatarRequest(requestManager, user.getUserId(), user.getPhotoUrl(), true);
+        }
+    }
+}
@@ -9,17 +9,22 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager2.adapter.FragmentStateAdapter;
 
 import com.google.android.material.tabs.TabLayoutMediator;
 import com.skillswap.skillswapp.databinding.FragmentContactsBinding;
+import com.skillswap.skillswapp.ui.adapters.SharedViewPoolOwner;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 
 /**
  * Fragmento para mostrar los contactos del usuario.
  */
-public class ContactsFragment extends Fragment {
+public class ContactsFragment extends Fragment implements SharedViewPoolOwner {
 
     private FragmentContactsBinding binding;
+    // Pool de filas compartido por las listas de favoritos y recientes
+    private RecyclerView.RecycledViewPool sharedViewPool;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -32,6 +37,7 @@ public class ContactsFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         try {
+            sharedViewPool = UserListConfigurator.createSharedPool();
             setupViewPager();
         } catch (Exception e) {
             // Manejar cualquier excepción durante la inicialización
@@ -68,9 +74,15 @@ public class ContactsFragment extends Fragment {
         }
     }
 
+    @Override
+    public RecyclerView.RecycledViewPool getSharedViewPool() {
+        return sharedViewPool;
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        sharedViewPool = null;
         binding = null;
     }
 
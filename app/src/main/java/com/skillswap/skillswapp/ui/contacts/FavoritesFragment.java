@@ -15,13 +15,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.skillswap.skillswapp.R;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.databinding.FragmentFavoritesBinding;
 import com.skillswap.skillswapp.ui.adapters.UserAdapter;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 import com.skillswap.skillswapp.viewmodel.FavoriteViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Fragmento para mostrar los usuarios favoritos.
@@ -31,7 +31,6 @@ public class FavoritesFragment extends Fragment implements UserAdapter.OnUserCli
     private FragmentFavoritesBinding binding;
     private FavoriteViewModel favoriteViewModel;
     private UserAdapter userAdapter;
-    private List<User> favoriteUsers = new ArrayList<>();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -62,11 +61,16 @@ public class FavoritesFragment extends Fragment implements UserAdapter.OnUserCli
     }
 
     private void setupRecyclerView() {
-        userAdapter = new UserAdapter(favoriteUsers);
+        userAdapter = new UserAdapter();
         userAdapter.setOnUserClickListener(this);
         
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerView.setAdapter(userAdapter);
+        // Precarga de fotos, caché de filas y pool compartido con las demás pestañas
+        UserListConfigurator.configure(this, binding.recyclerView, userAdapter);
+        
+        // El corazón de cada fila sigue el conjunto compartido de favoritos
+        favoriteViewModel.observeFavoriteIds().observe(getViewLifecycleOwner(), userAdapter::setFavoriteIds);
     }
 
     private void loadFavorites() {
@@ -89,9 +93,7 @@ public class FavoritesFragment extends Fragment implements UserAdapter.OnUserCli
                 showLoading(false);
                 
                 if (users != null && !users.isEmpty()) {
-                    favoriteUsers.clear();
-                    favoriteUsers.addAll(users);
-                    userAdapter.notifyDataSetChanged();
+                    userAdapter.submitList(new ArrayList<>(users));
                     showEmptyState(false);
                 } else {
                     showEmptyState(true);
@@ -123,7 +125,7 @@ public class FavoritesFragment extends Fragment implements UserAdapter.OnUserCli
     }
 
     @Override
-    public void onUserClick(User user) {
+    public void onUserClick(UserSummary user) {
         // Navegar al detalle del usuario
         NavController navController = Navigation.findNavController(requireActivity(), R.id.nav_host_fragment);
         
@@ -134,24 +136,23 @@ public class FavoritesFragment extends Fragment implements UserAdapter.OnUserCli
     }
 
     @Override
-    public void onFavoriteClick(User user, boolean isFavorite) {
+    public void onFavoriteClick(UserSummary user, boolean isFavorite) {
         try {
-            if (isFavorite) {
-                // Ya es favorito, eliminarlo
+            if (!isFavorite) {
+                // Ya era favorito, eliminarlo
                 favoriteViewModel.removeFavorite(user.getUserId()).observe(getViewLifecycleOwner(), success -> {
                     if (success) {
-                        user.setFavorite(false);
                         Toast.makeText(getContext(), "Usuario eliminado de favoritos", Toast.LENGTH_SHORT).show();
                         
                         // Eliminar de la lista
-                        favoriteUsers.remove(user);
-                        userAdapter.notifyDataSetChanged();
-                        
-                        if (favoriteUsers.isEmpty()) {
-                            showEmptyState(true);
-                        }
+                        userAdapter.removeUser(user.getUserId(), () -> {
+                            if (binding != null && userAdapter.getItemCount() == 0) {
+                                showEmptyState(true);
+                            }
+                        });
                     } else {
                         Toast.makeText(getContext(), "No se pudo eliminar de favoritos", Toast.LENGTH_SHORT).show();
+                        userAdapter.setFavorite(user.getUserId(), true);
                     }
                 });
             }
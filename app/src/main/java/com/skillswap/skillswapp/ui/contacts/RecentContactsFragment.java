@@ -15,14 +15,14 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.skillswap.skillswapp.R;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.databinding.FragmentRecentContactsBinding;
 import com.skillswap.skillswapp.ui.adapters.UserAdapter;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 import com.skillswap.skillswapp.viewmodel.ContactViewModel;
 import com.skillswap.skillswapp.viewmodel.FavoriteViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Fragmento para mostrar los contactos recientes.
@@ -33,7 +33,6 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
     private ContactViewModel contactViewModel;
     private FavoriteViewModel favoriteViewModel;
     private UserAdapter userAdapter;
-    private List<User> recentContacts = new ArrayList<>();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -66,11 +65,16 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
     }
 
     private void setupRecyclerView() {
-        userAdapter = new UserAdapter(recentContacts);
+        userAdapter = new UserAdapter();
         userAdapter.setOnUserClickListener(this);
         
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerView.setAdapter(userAdapter);
+        // Precarga de fotos, caché de filas y pool compartido con las demás pestañas
+        UserListConfigurator.configure(this, binding.recyclerView, userAdapter);
+        
+        // El corazón de cada fila sigue el conjunto compartido de favoritos
+        favoriteViewModel.observeFavoriteIds().observe(getViewLifecycleOwner(), userAdapter::setFavoriteIds);
     }
 
     private void loadRecentContacts() {
@@ -92,13 +96,7 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
                 showLoading(false);
                 
                 if (users != null && !users.isEmpty()) {
-                    recentContacts.clear();
-                    recentContacts.addAll(users);
-                    
-                    // Verificar cuáles son favoritos
-                    checkFavorites();
-                    
-                    userAdapter.notifyDataSetChanged();
+                    userAdapter.submitList(new ArrayList<>(users));
                     showEmptyState(false);
                 } else {
                     showEmptyState(true);
@@ -114,19 +112,6 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
         }
     }
 
-    private void checkFavorites() {
-        String currentUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        favoriteViewModel.getFavoriteUserIds(currentUserId).observe(getViewLifecycleOwner(), favoriteIds -> {
-            if (favoriteIds != null && !favoriteIds.isEmpty()) {
-                // Marcar usuarios favoritos
-                for (User user : recentContacts) {
-                    user.setFavorite(favoriteIds.contains(user.getUserId()));
-                }
-                userAdapter.notifyDataSetChanged();
-            }
-        });
-    }
-
     private void showLoading(boolean show) {
         binding.progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
     }
@@ -136,7 +121,7 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
     }
 
     @Override
-    public void onUserClick(User user) {
+    public void onUserClick(UserSummary user) {
         // Navegar al detalle del usuario
         NavController navController = Navigation.findNavController(requireActivity(), R.id.nav_host_fragment);
         
@@ -147,7 +132,7 @@ public class RecentContactsFragment extends Fragment implements UserAdapter.OnUs
     }
 
     @Override
-    public void onFavoriteClick(User user, boolean isFavorite) {
+    public void onFavoriteClick(UserSummary user, boolean isFavorite) {
         // Manejar click en favorito
         if (isFavorite) {
             favoriteViewModel.addFavorite(user.getUserId());
@@ -32,7 +32,9 @@ import com.skillswap.skillswapp.data.model.Category;
 import com.skillswap.skillswapp.data.model.Skill;
 import com.skillswap.skillswapp.databinding.FragmentExploreBinding;
 import com.skillswap.skillswapp.ui.adapters.SearchSuggestionAdapter;
+import com.skillswap.skillswapp.ui.adapters.SharedViewPoolOwner;
 import com.skillswap.skillswapp.ui.adapters.SkillAdapter;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 import com.skillswap.skillswapp.util.UiUtils;
 import com.skillswap.skillswapp.viewmodel.CategoryViewModel;
 import com.skillswap.skillswapp.viewmodel.SkillViewModel;
@@ -46,7 +48,7 @@ import java.util.Set;
 /**
  * Fragmento para la exploración de usuarios y habilidades.
  */
-public class ExploreFragment extends Fragment implements SearchSuggestionAdapter.OnSuggestionClickListener, SkillAdapter.OnSkillClickListener {
+public class ExploreFragment extends Fragment implements SearchSuggestionAdapter.OnSuggestionClickListener, SkillAdapter.OnSkillClickListener, SharedViewPoolOwner {
 
     private FragmentExploreBinding binding;
     private CategoryViewModel categoryViewModel;
@@ -59,7 +61,6 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
     private SearchSuggestionAdapter suggestionAdapter;
     private SkillAdapter featuredSkillsAdapter;
     private List<String> recentSearches = new ArrayList<>();
-    private List<Skill> featuredSkills = new ArrayList<>();
     
     private static final String PREF_RECENT_SEARCHES = "recent_searches";
     private static final String PREF_SAVED_SEARCHES = "saved_searches";
@@ -67,6 +68,9 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
     
     private Handler searchHandler = new Handler(Looper.getMainLooper());
     private Runnable searchRunnable;
+    
+    // Pool de filas de las pestañas: conserva las filas de usuario aunque se recree la pestaña
+    private RecyclerView.RecycledViewPool sharedViewPool;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -91,6 +95,7 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
             setupAnimations();
             
             // Configurar componentes de UI
+            sharedViewPool = UserListConfigurator.createSharedPool();
             setupViewPager();
             setupSearchView();
             setupSuggestions();
@@ -154,13 +159,8 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                String query = s.toString().trim();
-                // Mostrar sugerencias si hay texto
-                if (!query.isEmpty()) {
-                    showSuggestions(query);
-                } else {
-                    hideSuggestions();
-                }
+                // El ViewModel decide cuándo consultar y publica las sugerencias en un único LiveData
+                skillViewModel.onSearchQueryChanged(s.toString());
             }
 
             @Override
@@ -190,7 +190,7 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
                 currentQuery = binding.etSearch.getText().toString().trim();
                 if (!currentQuery.isEmpty()) {
                     performSearch();
-                    hideSuggestions();
+                    skillViewModel.clearSearchSuggestions();
                     addToRecentSearches(currentQuery);
                     UiUtils.hideKeyboard(requireActivity());
                 }
@@ -244,11 +244,12 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
         // Configurar RecyclerView
         binding.recyclerViewSuggestions.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewSuggestions.setAdapter(suggestionAdapter);
+        observeSuggestions();
     }
     
     private void setupFeaturedSkills() {
         // Inicializar adaptador de habilidades destacadas
-        featuredSkillsAdapter = new SkillAdapter(featuredSkills, true);
+        featuredSkillsAdapter = new SkillAdapter(true);
         featuredSkillsAdapter.setOnSkillClickListener(this);
         
         // Configurar RecyclerView horizontal
@@ -372,9 +373,7 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
     private void loadFeaturedSkills() {
         skillViewModel.getFeaturedSkills().observe(getViewLifecycleOwner(), skills -> {
             if (skills != null && !skills.isEmpty()) {
-                featuredSkills.clear();
-                featuredSkills.addAll(skills);
-                featuredSkillsAdapter.notifyDataSetChanged();
+                featuredSkillsAdapter.setSkillList(skills);
                 binding.cardFeatured.setVisibility(View.VISIBLE);
             } else {
                 binding.cardFeatured.setVisibility(View.GONE);
@@ -382,14 +381,8 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
         });
     }
     
-    private void showSuggestions(String query) {
-        if (query.length() < 2) {
-            hideSuggestions();
-            return;
-        }
-        
-        // Obtener sugerencias basadas en la consulta
-        skillViewModel.getSearchSuggestions(query).observe(getViewLifecycleOwner(), suggestions -> {
+    private void observeSuggestions() {
+        skillViewModel.getSearchSuggestions().observe(getViewLifecycleOwner(), suggestions -> {
             if (suggestions != null && !suggestions.isEmpty()) {
                 suggestionAdapter.updateSuggestions(suggestions);
                 binding.recyclerViewSuggestions.setVisibility(View.VISIBLE);
@@ -550,8 +543,8 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
         binding.etSearch.setText(suggestion);
         binding.etSearch.setSelection(suggestion.length());
         
-        // Ocultar sugerencias
-        hideSuggestions();
+        // Ocultar sugerencias (setText las ha vuelto a pedir)
+        skillViewModel.clearSearchSuggestions();
         
         // Realizar búsqueda
         currentQuery = suggestion;
@@ -595,6 +588,11 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
         }
     }
     
+    @Override
+    public RecyclerView.RecycledViewPool getSharedViewPool() {
+        return sharedViewPool;
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -604,6 +602,7 @@ public class ExploreFragment extends Fragment implements SearchSuggestionAdapter
             searchHandler.removeCallbacks(searchRunnable);
         }
         
+        sharedViewPool = null;
         binding = null;
     }
 
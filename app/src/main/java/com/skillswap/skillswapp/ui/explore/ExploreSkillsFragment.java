@@ -32,7 +32,9 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
     private FragmentExploreSkillsBinding binding;
     private SkillViewModel skillViewModel;
     private SkillListAdapter skillAdapter;
-    private List<Skill> skillList = new ArrayList<>();
+    // Resultado mostrado actualmente; se deja de observar al lanzar otra búsqueda
+    private LiveData<List<Skill>> currentResults;
+    private String currentQuery = "";
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -60,7 +62,7 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
     }
 
     private void setupRecyclerView() {
-        skillAdapter = new SkillListAdapter(skillList);
+        skillAdapter = new SkillListAdapter();
         skillAdapter.setOnSkillClickListener(this);
         
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
@@ -89,13 +91,12 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
     private void loadSkills() {
         showLoading(true);
         
-        skillViewModel.getAllSkills().observe(getViewLifecycleOwner(), skills -> {
+        observeResults(skillViewModel.getAllSkills()).observe(getViewLifecycleOwner(), skills -> {
             showLoading(false);
             
             if (skills != null && !skills.isEmpty()) {
-                skillList.clear();
-                skillList.addAll(skills);
-                skillAdapter.notifyDataSetChanged();
+                // La colección ya publica una lista nueva en cada cambio
+                skillAdapter.submitList(skills);
                 showEmptyState(false);
             } else {
                 showEmptyState(true);
@@ -124,6 +125,7 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
      * @param level Nivel de habilidad (0: cualquiera, 1: principiante, 2: intermedio, 3: avanzado)
      */
     public void search(String query, String categoryId, int level) {
+        currentQuery = query != null ? query.trim() : "";
         showLoading(true);
         
         // Mostrar animación de carga
@@ -138,26 +140,35 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
             searchResult = skillViewModel.searchSkills(query, categoryId);
         }
         
-        searchResult.observe(getViewLifecycleOwner(), skills -> {
+        observeResults(searchResult).observe(getViewLifecycleOwner(), skills -> {
             showLoading(false);
             
             if (skills != null && !skills.isEmpty()) {
-                skillList.clear();
-                skillList.addAll(skills);
-                skillAdapter.notifyDataSetChanged();
+                skillAdapter.submitList(new ArrayList<>(skills));
                 showEmptyState(false);
                 
                 // Mostrar animación de aparición de resultados
                 binding.recyclerView.setVisibility(View.VISIBLE);
                 binding.recyclerView.scheduleLayoutAnimation();
             } else {
-                skillList.clear();
-                skillAdapter.notifyDataSetChanged();
+                skillAdapter.submitList(null);
                 showEmptyState(true);
             }
         });
     }
 
+    /**
+     * Sustituye el resultado observado, de modo que las búsquedas anteriores
+     * no sigan actualizando la lista ni manteniendo listeners abiertos.
+     */
+    private LiveData<List<Skill>> observeResults(LiveData<List<Skill>> results) {
+        if (currentResults != null) {
+            currentResults.removeObservers(getViewLifecycleOwner());
+        }
+        currentResults = results;
+        return results;
+    }
+
     private void showLoading(boolean show) {
         binding.progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
     }
@@ -168,6 +179,11 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
 
     @Override
     public void onSkillClick(Skill skill) {
+        // Los clics sobre resultados de una búsqueda cuentan para las habilidades destacadas
+        if (!currentQuery.isEmpty()) {
+            skillViewModel.recordSearchClick(skill.getSkillId());
+        }
+
         // Navegar al detalle de la habilidad
         NavController navController = Navigation.findNavController(requireActivity(), R.id.nav_host_fragment);
         
@@ -180,6 +196,7 @@ public class ExploreSkillsFragment extends Fragment implements SkillListAdapter.
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        currentResults = null;
         binding = null;
     }
 }
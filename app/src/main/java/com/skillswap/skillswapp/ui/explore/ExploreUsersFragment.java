@@ -9,15 +9,17 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.skillswap.skillswapp.R;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.databinding.FragmentExploreUsersBinding;
 import com.skillswap.skillswapp.ui.adapters.UserAdapter;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
 import java.util.ArrayList;
@@ -31,7 +33,12 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
     private FragmentExploreUsersBinding binding;
     private UserViewModel userViewModel;
     private UserAdapter userAdapter;
-    private List<User> userList = new ArrayList<>();
+    // Resultado mostrado actualmente; se deja de observar al lanzar otra búsqueda
+    private LiveData<List<UserSummary>> currentResults;
+    // true mientras se muestra el listado paginado (sin filtros de búsqueda)
+    private boolean browsingAllUsers;
+    // Filas restantes hasta el final de la lista a partir de las cuales se pide la siguiente página
+    private static final int PREFETCH_DISTANCE = UserViewModel.USER_PAGE_SIZE / 2;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -61,11 +68,16 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
     }
 
     private void setupRecyclerView() {
-        userAdapter = new UserAdapter(userList);
+        userAdapter = new UserAdapter();
         userAdapter.setOnUserClickListener(this);
         
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerView.setAdapter(userAdapter);
+        // Precarga de fotos, caché de filas y pool compartido con las demás pestañas
+        UserListConfigurator.configure(this, binding.recyclerView, userAdapter);
+        
+        // El corazón de cada fila sigue el conjunto compartido de favoritos
+        userViewModel.observeFavoriteIds().observe(getViewLifecycleOwner(), userAdapter::setFavoriteIds);
         
         // Agregar listener para cargar más usuarios al hacer scroll
         binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
@@ -78,8 +90,8 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
                 int totalItemCount = layoutManager.getItemCount();
                 int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
                 
-                // Cargar más usuarios cuando se acerque al final de la lista
-                if ((visibleItemCount + firstVisibleItemPosition) >= totalItemCount - 5
+                // Pedir la siguiente página antes de llegar al final de la lista
+                if ((visibleItemCount + firstVisibleItemPosition) >= totalItemCount - PREFETCH_DISTANCE
                         && firstVisibleItemPosition >= 0) {
                     loadMoreUsers();
                 }
@@ -87,25 +99,32 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
         });
     }
 
+    /**
+     * Muestra el listado paginado de usuarios desde la primera página.
+     */
     private void loadUsers() {
         showLoading(true);
+        browsingAllUsers = true;
         
-        userViewModel.getAllUsers().observe(getViewLifecycleOwner(), users -> {
+        observeResults(userViewModel.getPagedUsers()).observe(getViewLifecycleOwner(), users -> {
             showLoading(false);
+            binding.recyclerView.setVisibility(View.VISIBLE);
             
             if (users != null && !users.isEmpty()) {
-                userList.clear();
-                userList.addAll(users);
-                userAdapter.notifyDataSetChanged();
+                userAdapter.submitList(new ArrayList<>(users));
                 showEmptyState(false);
             } else {
                 showEmptyState(true);
             }
         });
+        userViewModel.loadFirstUserPage();
     }
 
     private void loadMoreUsers() {
-        // Implementar paginación si es necesario
+        // Las búsquedas devuelven todos los resultados de una vez; solo se pagina el listado general
+        if (browsingAllUsers && userViewModel.hasMoreUsers()) {
+            userViewModel.loadNextUserPage();
+        }
     }
 
     /**
@@ -115,32 +134,48 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
      * @param level Nivel de habilidad (0: cualquiera, 1: principiante, 2: intermedio, 3: avanzado)
      */
     public void search(String query, String categoryId, int level) {
+        // Sin filtros se vuelve al listado paginado
+        if ((query == null || query.trim().isEmpty()) && (categoryId == null || categoryId.isEmpty()) && level <= 0) {
+            loadUsers();
+            return;
+        }
+        
         showLoading(true);
+        browsingAllUsers = false;
         
         // Mostrar animación de carga
         binding.recyclerView.setVisibility(View.INVISIBLE);
         binding.progressBar.setVisibility(View.VISIBLE);
         
-        userViewModel.searchUsersAdvanced(query, categoryId, level).observe(getViewLifecycleOwner(), users -> {
+        observeResults(userViewModel.searchUserSummaries(query, categoryId, level)).observe(getViewLifecycleOwner(), users -> {
             showLoading(false);
             
             if (users != null && !users.isEmpty()) {
-                userList.clear();
-                userList.addAll(users);
-                userAdapter.notifyDataSetChanged();
+                userAdapter.submitList(new ArrayList<>(users));
                 showEmptyState(false);
                 
                 // Mostrar animación de aparición de resultados
                 binding.recyclerView.setVisibility(View.VISIBLE);
                 binding.recyclerView.scheduleLayoutAnimation();
             } else {
-                userList.clear();
-                userAdapter.notifyDataSetChanged();
+                userAdapter.submitList(null);
                 showEmptyState(true);
             }
         });
     }
     
+    /**
+     * Sustituye el resultado observado, de modo que las búsquedas anteriores
+     * no sigan actualizando la lista ni manteniendo listeners abiertos.
+     */
+    private LiveData<List<UserSummary>> observeResults(LiveData<List<UserSummary>> results) {
+        if (currentResults != null) {
+            currentResults.removeObservers(getViewLifecycleOwner());
+        }
+        currentResults = results;
+        return results;
+    }
+    
     /**
      * Sobrecarga del método search para mantener compatibilidad con código existente
      */
@@ -157,7 +192,7 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
     }
 
     @Override
-    public void onUserClick(User user) {
+    public void onUserClick(UserSummary user) {
         try {
             // Añadir a contactos recientes
             userViewModel.addRecentContact(user.getUserId()).observe(getViewLifecycleOwner(), success -> {
@@ -182,17 +217,16 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
     }
 
     @Override
-    public void onFavoriteClick(User user, boolean isFavorite) {
+    public void onFavoriteClick(UserSummary user, boolean isFavorite) {
         try {
             if (isFavorite) {
                 // Añadir a favoritos
                 userViewModel.addFavorite(user.getUserId()).observe(getViewLifecycleOwner(), success -> {
                     if (success) {
                         Toast.makeText(getContext(), "Usuario añadido a favoritos", Toast.LENGTH_SHORT).show();
-                        user.setFavorite(true);
-                        userAdapter.notifyDataSetChanged();
                     } else {
                         Toast.makeText(getContext(), "No se pudo añadir a favoritos", Toast.LENGTH_SHORT).show();
+                        userAdapter.setFavorite(user.getUserId(), false);
                     }
                 });
             } else {
@@ -200,10 +234,9 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
                 userViewModel.removeFavorite(user.getUserId()).observe(getViewLifecycleOwner(), success -> {
                     if (success) {
                         Toast.makeText(getContext(), "Usuario eliminado de favoritos", Toast.LENGTH_SHORT).show();
-                        user.setFavorite(false);
-                        userAdapter.notifyDataSetChanged();
                     } else {
                         Toast.makeText(getContext(), "No se pudo eliminar de favoritos", Toast.LENGTH_SHORT).show();
+                        userAdapter.setFavorite(user.getUserId(), true);
                     }
                 });
             }
@@ -216,6 +249,7 @@ public class ExploreUsersFragment extends Fragment implements UserAdapter.OnUser
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        currentResults = null;
         binding = null;
     }
 }
@@ -10,21 +10,32 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
+import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.skillswap.skillswapp.R;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.databinding.FragmentMainBinding;
+import com.skillswap.skillswapp.ui.adapters.UserAdapter;
+import com.skillswap.skillswapp.ui.adapters.UserListConfigurator;
 import com.skillswap.skillswapp.util.UiUtils;
 import com.skillswap.skillswapp.viewmodel.AuthViewModel;
+import com.skillswap.skillswapp.viewmodel.FavoriteViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
+import java.util.ArrayList;
+
 /**
  * Fragmento principal para la pantalla principal después de la autenticación.
+ * Muestra las personas que pueden enseñar al usuario lo que quiere aprender, a partir de
+ * la lista de emparejamientos precalculada (aparece al momento, sin esperar al cálculo).
  */
-public class MainFragment extends Fragment {
+public class MainFragment extends Fragment implements UserAdapter.OnUserClickListener {
 
     private FragmentMainBinding binding;
     private AuthViewModel authViewModel;
     private UserViewModel userViewModel;
+    private FavoriteViewModel favoriteViewModel;
+    private UserAdapter teacherAdapter;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -39,6 +50,8 @@ public class MainFragment extends Fragment {
         // Inicializar ViewModels
         authViewModel = new AuthViewModel();
         userViewModel = new UserViewModel();
+        favoriteViewModel = new FavoriteViewModel();
+        favoriteViewModel.initContext(requireContext());
         
         // Verificar si el usuario está autenticado
         if (authViewModel.getCurrentUser() == null) {
@@ -58,6 +71,43 @@ public class MainFragment extends Fragment {
                 binding.tvWelcome.setText("¡Bienvenido, " + user.getProfile().getName() + "!");
             }
         });
+        
+        setupTeacherMatches(userId);
+    }
+
+    private void setupTeacherMatches(String userId) {
+        teacherAdapter = new UserAdapter();
+        teacherAdapter.setOnUserClickListener(this);
+        
+        binding.rvTeacherMatches.setLayoutManager(new LinearLayoutManager(requireContext()));
+        binding.rvTeacherMatches.setAdapter(teacherAdapter);
+        UserListConfigurator.configure(this, binding.rvTeacherMatches, teacherAdapter);
+        
+        favoriteViewModel.observeFavoriteIds().observe(getViewLifecycleOwner(), teacherAdapter::setFavoriteIds);
+        userViewModel.getTeacherMatches(userId).observe(getViewLifecycleOwner(), teachers -> {
+            if (teachers == null) {
+                return;
+            }
+            teacherAdapter.submitList(new ArrayList<>(teachers));
+            binding.tvTeacherMatchesEmpty.setVisibility(teachers.isEmpty() ? View.VISIBLE : View.GONE);
+        });
+    }
+
+    @Override
+    public void onUserClick(UserSummary user) {
+        Bundle args = new Bundle();
+        args.putString("userId", user.getUserId());
+        Navigation.findNavController(requireActivity(), R.id.nav_host_fragment)
+                .navigate(R.id.action_mainFragment_to_userDetailFragment, args);
+    }
+
+    @Override
+    public void onFavoriteClick(UserSummary user, boolean isFavorite) {
+        if (isFavorite) {
+            favoriteViewModel.addFavorite(user.getUserId());
+        } else {
+            favoriteViewModel.removeFavorite(user.getUserId());
+        }
     }
 
     private void setupListeners() {
@@ -79,6 +129,7 @@ public class MainFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        teacherAdapter = null;
         binding = null;
     }
 }
@@ -20,6 +20,7 @@ import com.google.firebase.auth.FirebaseUser;
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.User;
 import com.skillswap.skillswapp.databinding.FragmentProfileEditBinding;
+import com.skillswap.skillswapp.util.ImageUtils;
 import com.skillswap.skillswapp.util.UiUtils;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
@@ -117,25 +118,8 @@ public class ProfileEditFragment extends Fragment {
             binding.etBio.setText(bio);
         }
         
-        // Cargar foto de perfil si existe
-        String photoUrl = user.getProfile().getPhotoUrl();
-        if (photoUrl != null && !photoUrl.isEmpty()) {
-            // Primero intentar cargar desde almacenamiento local
-            String localPath = userViewModel.getProfileImagePath(user.getUserId());
-            
-            if (localPath != null) {
-                Glide.with(this)
-                        .load(localPath)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            } else {
-                // Si no hay imagen local, intentar cargar desde URL
-                Glide.with(this)
-                        .load(photoUrl)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            }
-        }
+        // Cargar foto de perfil (la guardada en este dispositivo o la del perfil)
+        ImageUtils.loadAvatar(binding.ivProfileImage, user.getUserId(), user.getProfile().getPhotoUrl());
     }
 
     private void saveUserProfile() {
@@ -14,13 +14,13 @@ import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.User;
 import com.skillswap.skillswapp.databinding.FragmentProfileBinding;
 import com.skillswap.skillswapp.ui.adapters.SkillAdapter;
+import com.skillswap.skillswapp.util.ImageUtils;
 import com.skillswap.skillswapp.util.UiUtils;
 import com.skillswap.skillswapp.viewmodel.AuthViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
@@ -149,25 +149,8 @@ public class ProfileFragment extends Fragment {
             binding.tvBio.setText(R.string.no_bio);
         }
         
-        // Actualizar foto de perfil si existe
-        String photoUrl = user.getProfile().getPhotoUrl();
-        if (photoUrl != null && !photoUrl.isEmpty()) {
-            // Primero intentar cargar desde almacenamiento local
-            String localPath = userViewModel.getProfileImagePath(user.getUserId());
-            
-            if (localPath != null) {
-                Glide.with(this)
-                        .load(localPath)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            } else {
-                // Si no hay imagen local, intentar cargar desde URL
-                Glide.with(this)
-                        .load(photoUrl)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            }
-        }
+        // Actualizar foto de perfil (la guardada en este dispositivo o la del perfil)
+        ImageUtils.loadAvatar(binding.ivProfileImage, user.getUserId(), user.getProfile().getPhotoUrl());
         
         // Actualizar habilidades que enseña
         if (user.getSkillsToTeach() != null && !user.getSkillsToTeach().isEmpty()) {
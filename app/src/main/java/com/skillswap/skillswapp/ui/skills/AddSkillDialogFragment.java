@@ -22,9 +22,7 @@ import com.skillswap.skillswapp.viewmodel.CategoryViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Diálogo para agregar una nueva habilidad.
@@ -172,24 +170,15 @@ public class AddSkillDialogFragment extends DialogFragment {
             skill.setDescription(description);
             skill.setLevel(level);
             
-            // Guardar en Firebase
-            Map<String, Object> skillMap = new HashMap<>();
-            skillMap.put("title", title);
-            skillMap.put("category", categoryName);
-            skillMap.put("description", description);
-            skillMap.put("level", level);
-            
+            // Guardar en Firebase junto con la habilidad global y el índice, en una sola escritura
             String skillId = userViewModel.generateSkillId();
-            userViewModel.updateUserField(userId, "skills_to_teach/" + skillId, skillMap).observe(this, success -> {
+            userViewModel.saveSkillToTeach(userId, skillId, skill, categoryId).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof TeachSkillsFragment) {
                         ((TeachSkillsFragment) getParentFragment()).refreshSkills();
                     }
                     
-                    // Actualizar la habilidad en la colección global de habilidades
-                    userViewModel.addSkillToGlobal(skillId, title, categoryId, userId);
-                    
                     dismiss();
                 } else {
                     UiUtils.showSnackbar(binding.getRoot(), getString(R.string.error_saving_skill));
@@ -205,12 +194,8 @@ public class AddSkillDialogFragment extends DialogFragment {
             skill.setPriority(priority);
             
             // Guardar en Firebase
-            Map<String, Object> skillMap = new HashMap<>();
-            skillMap.put("title", title);
-            skillMap.put("priority", priority);
-            
             String skillId = userViewModel.generateSkillId();
-            userViewModel.updateUserField(userId, "skills_to_learn/" + skillId, skillMap).observe(this, success -> {
+            userViewModel.saveSkillToLearn(userId, skillId, skill).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof LearnSkillsFragment) {
@@ -22,9 +22,7 @@ import com.skillswap.skillswapp.viewmodel.CategoryViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Diálogo para editar o eliminar una habilidad existente.
@@ -210,23 +208,15 @@ public class EditSkillDialogFragment extends DialogFragment {
             String description = binding.etDescription.getText().toString().trim();
             int level = binding.seekBarLevel.getProgress() + 1; // 1-5
             
-            // Guardar en Firebase
-            Map<String, Object> skillMap = new HashMap<>();
-            skillMap.put("title", title);
-            skillMap.put("category", categoryName);
-            skillMap.put("description", description);
-            skillMap.put("level", level);
-            
-            userViewModel.updateUserField(userId, "skills_to_teach/" + skillId, skillMap).observe(this, success -> {
+            // Guardar en Firebase junto con la habilidad global y el índice, en una sola escritura
+            User.SkillToTeach skill = new User.SkillToTeach(title, level, categoryName, description);
+            userViewModel.saveSkillToTeach(userId, skillId, skill, categoryId).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof TeachSkillsFragment) {
                         ((TeachSkillsFragment) getParentFragment()).refreshSkills();
                     }
                     
-                    // Actualizar la habilidad en la colección global de habilidades
-                    userViewModel.updateSkillInGlobal(skillId, title, categoryId);
-                    
                     dismiss();
                 } else {
                     UiUtils.showSnackbar(binding.getRoot(), getString(R.string.error_saving_skill));
@@ -237,11 +227,8 @@ public class EditSkillDialogFragment extends DialogFragment {
             int priority = binding.seekBarPriority.getProgress() + 1; // 1-3
             
             // Guardar en Firebase
-            Map<String, Object> skillMap = new HashMap<>();
-            skillMap.put("title", title);
-            skillMap.put("priority", priority);
-            
-            userViewModel.updateUserField(userId, "skills_to_learn/" + skillId, skillMap).observe(this, success -> {
+            User.SkillToLearn skill = new User.SkillToLearn(title, priority);
+            userViewModel.saveSkillToLearn(userId, skillId, skill).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof LearnSkillsFragment) {
@@ -261,17 +248,14 @@ public class EditSkillDialogFragment extends DialogFragment {
         String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
         
         if (isTeachSkill) {
-            // Eliminar habilidad para enseñar
-            userViewModel.updateUserField(userId, "skills_to_teach/" + skillId, null).observe(this, success -> {
+            // Eliminar habilidad para enseñar y al usuario como profesor, en una sola escritura
+            userViewModel.deleteSkillToTeach(userId, skillId).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof TeachSkillsFragment) {
                         ((TeachSkillsFragment) getParentFragment()).refreshSkills();
                     }
                     
-                    // Eliminar al usuario de la lista de usuarios que enseñan esta habilidad
-                    userViewModel.removeUserFromSkill(skillId, userId);
-                    
                     dismiss();
                 } else {
                     UiUtils.showSnackbar(binding.getRoot(), getString(R.string.error_deleting_skill));
@@ -279,7 +263,7 @@ public class EditSkillDialogFragment extends DialogFragment {
             });
         } else {
             // Eliminar habilidad para aprender
-            userViewModel.updateUserField(userId, "skills_to_learn/" + skillId, null).observe(this, success -> {
+            userViewModel.deleteSkillToLearn(userId, skillId).observe(this, success -> {
                 if (success) {
                     // Notificar al fragmento padre para actualizar la lista
                     if (getParentFragment() instanceof LearnSkillsFragment) {
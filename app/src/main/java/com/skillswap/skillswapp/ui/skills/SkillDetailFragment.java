@@ -12,7 +12,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.Skill;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.databinding.FragmentSkillDetailBinding;
 import com.skillswap.skillswapp.ui.adapters.UserAdapter;
 import com.skillswap.skillswapp.ui.user.UserDetailFragment;
@@ -21,7 +21,6 @@ import com.skillswap.skillswapp.viewmodel.SkillViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Fragmento para mostrar el detalle de una habilidad.
@@ -33,7 +32,7 @@ public class SkillDetailFragment extends Fragment implements UserAdapter.OnUserC
     private UserViewModel userViewModel;
     private UserAdapter userAdapter;
     private String skillId;
-    private List<User> teachersList = new ArrayList<>();
+    private boolean viewRecorded;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -60,13 +59,19 @@ public class SkillDetailFragment extends Fragment implements UserAdapter.OnUserC
         skillViewModel = new SkillViewModel();
         userViewModel = new UserViewModel();
         
+        // La visita se cuenta una vez, no cada vez que se vuelve a esta pantalla desde otra
+        if (!viewRecorded) {
+            viewRecorded = true;
+            skillViewModel.recordSkillView(skillId);
+        }
+        
         setupRecyclerView();
         setupListeners();
         loadSkillData();
     }
 
     private void setupRecyclerView() {
-        userAdapter = new UserAdapter(teachersList);
+        userAdapter = new UserAdapter();
         userAdapter.setOnUserClickListener(this);
         
         binding.rvTeachers.setLayoutManager(new LinearLayoutManager(requireContext()));
@@ -110,8 +115,7 @@ public class SkillDetailFragment extends Fragment implements UserAdapter.OnUserC
         }
         
         // Actualizar contador de profesores
-        int teachersCount = skill.getUsersTeaching() != null ? skill.getUsersTeaching().size() : 0;
-        binding.tvTeachersCount.setText(getString(R.string.teachers_count, teachersCount));
+        binding.tvTeachersCount.setText(getString(R.string.teachers_count, skill.getTeacherCount()));
     }
 
     private void loadTeachers(Skill skill) {
@@ -123,37 +127,24 @@ public class SkillDetailFragment extends Fragment implements UserAdapter.OnUserC
             return;
         }
         
-        // Cargar datos de los usuarios que enseñan esta habilidad
-        final int[] remaining = {skill.getUsersTeaching().size()};
-        teachersList.clear();
-        
-        for (String userId : skill.getUsersTeaching()) {
-            userViewModel.getUserById(userId).observe(getViewLifecycleOwner(), user -> {
-                if (user != null) {
-                    teachersList.add(user);
-                }
-                
-                remaining[0]--;
-                if (remaining[0] == 0) {
-                    // Todos los usuarios han sido cargados
-                    binding.progressBar.setVisibility(View.GONE);
-                    binding.scrollView.setVisibility(View.VISIBLE);
-                    
-                    if (teachersList.isEmpty()) {
-                        binding.tvNoTeachers.setVisibility(View.VISIBLE);
-                        binding.rvTeachers.setVisibility(View.GONE);
-                    } else {
-                        binding.tvNoTeachers.setVisibility(View.GONE);
-                        binding.rvTeachers.setVisibility(View.VISIBLE);
-                        userAdapter.notifyDataSetChanged();
-                    }
-                }
-            });
-        }
+        // Cargar en una sola petición los resúmenes de los usuarios que enseñan esta habilidad
+        userViewModel.getUserSummariesByIds(skill.getUsersTeaching()).observe(getViewLifecycleOwner(), teachers -> {
+            binding.progressBar.setVisibility(View.GONE);
+            binding.scrollView.setVisibility(View.VISIBLE);
+            
+            if (teachers == null || teachers.isEmpty()) {
+                binding.tvNoTeachers.setVisibility(View.VISIBLE);
+                binding.rvTeachers.setVisibility(View.GONE);
+            } else {
+                binding.tvNoTeachers.setVisibility(View.GONE);
+                binding.rvTeachers.setVisibility(View.VISIBLE);
+                userAdapter.submitList(new ArrayList<>(teachers));
+            }
+        });
     }
 
     @Override
-    public void onUserClick(User user) {
+    public void onUserClick(UserSummary user) {
         // Navegar al detalle del usuario
         Bundle args = new Bundle();
         args.putString("userId", user.getUserId());
@@ -167,7 +158,7 @@ public class SkillDetailFragment extends Fragment implements UserAdapter.OnUserC
     }
 
     @Override
-    public void onFavoriteClick(User user, boolean isFavorite) {
+    public void onFavoriteClick(UserSummary user, boolean isFavorite) {
         // Implementar lógica para agregar/quitar de favoritos
     }
 
@@ -10,12 +10,12 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
 import com.skillswap.skillswapp.R;
 import com.skillswap.skillswapp.data.model.User;
 import com.skillswap.skillswapp.databinding.FragmentUserDetailBinding;
 import com.skillswap.skillswapp.ui.adapters.SkillAdapter;
+import com.skillswap.skillswapp.util.ImageUtils;
 import com.skillswap.skillswapp.util.UiUtils;
 import com.skillswap.skillswapp.viewmodel.FavoriteViewModel;
 import com.skillswap.skillswapp.viewmodel.UserViewModel;
@@ -145,25 +145,8 @@ public class UserDetailFragment extends Fragment {
             binding.tvBio.setVisibility(View.GONE);
         }
         
-        // Actualizar foto de perfil si existe
-        String photoUrl = user.getProfile().getPhotoUrl();
-        if (photoUrl != null && !photoUrl.isEmpty()) {
-            // Primero intentar cargar desde almacenamiento local
-            String localPath = userViewModel.getProfileImagePath(user.getUserId());
-            
-            if (localPath != null) {
-                Glide.with(this)
-                        .load(localPath)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            } else {
-                // Si no hay imagen local, intentar cargar desde URL
-                Glide.with(this)
-                        .load(photoUrl)
-                        .circleCrop()
-                        .into(binding.ivProfileImage);
-            }
-        }
+        // Actualizar foto de perfil (la guardada en este dispositivo o la del perfil)
+        ImageUtils.loadAvatar(binding.ivProfileImage, user.getUserId(), user.getProfile().getPhotoUrl());
         
         // Actualizar habilidades que enseña
         if (user.getSkillsToTeach() != null && !user.getSkillsToTeach().isEmpty()) {
@@ -1,25 +1,30 @@
 package com.skillswap.skillswapp.util;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.util.Log;
 import android.widget.ImageView;
 
-import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
 import com.bumptech.glide.request.RequestOptions;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
 import com.skillswap.skillswapp.R;
+import com.skillswap.skillswapp.data.local.AvatarVariant;
+import com.skillswap.skillswapp.data.local.ImageStorageManager;
+import com.skillswap.skillswapp.data.upload.ProfileImageUploadQueue;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+import com.skillswap.skillswapp.util.glide.UserAvatar;
+import com.skillswap.skillswapp.util.glide.UserAvatarLoader;
 
-import java.io.ByteArrayOutputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.util.UUID;
+import de.hdodenhof.circleimageview.CircleImageView;
 
 /**
  * Clase de utilidad para manejar operaciones con imágenes.
@@ -27,8 +32,33 @@ import java.util.UUID;
 public class ImageUtils {
 
     private static final String TAG = "ImageUtils";
-    private static final String PROFILE_IMAGES_PATH = "profile_images/";
-    private static final int MAX_IMAGE_SIZE = 1024; // Tamaño máximo en píxeles
+
+    /**
+     * Opciones de las fotos de perfil en vistas que ya recortan en círculo (CircleImageView).
+     * Las fotos no tienen transparencia, así que se decodifican en RGB_565 (la mitad de memoria).
+     */
+    private static final RequestOptions AVATAR_OPTIONS = new RequestOptions()
+            .format(DecodeFormat.PREFER_RGB_565)
+            .centerCrop()
+            .placeholder(R.drawable.ic_profile_placeholder)
+            .error(R.drawable.ic_profile_placeholder)
+            .dontAnimate(); // CircleImageView no admite las transiciones de Glide
+
+    /**
+     * Opciones de las fotos de perfil en ImageView normales: el recorte circular lo hace Glide.
+     */
+    private static final RequestOptions CIRCLE_AVATAR_OPTIONS = new RequestOptions()
+            .format(DecodeFormat.PREFER_RGB_565)
+            .circleCrop()
+            .placeholder(R.drawable.ic_profile_placeholder)
+            .error(R.drawable.ic_profile_placeholder);
+
+    /**
+     * Opciones del resto de imágenes.
+     */
+    private static final RequestOptions CONTENT_OPTIONS = new RequestOptions()
+            .placeholder(R.drawable.ic_profile_placeholder)
+            .error(R.drawable.ic_profile_placeholder);
 
     /**
      * Carga una imagen desde una URL en un ImageView utilizando Glide.
@@ -44,8 +74,7 @@ public class ImageUtils {
 
         Glide.with(context)
                 .load(imageUrl)
-                .placeholder(R.drawable.ic_profile_placeholder)
-                .error(R.drawable.ic_profile_placeholder)
+                .apply(CONTENT_OPTIONS)
                 .into(imageView);
     }
 
@@ -57,20 +86,61 @@ public class ImageUtils {
      * @param imageView ImageView donde cargar la imagen
      */
     public static void loadProfileImage(Context context, String imageUrl, ImageView imageView) {
-        if (context == null || imageView == null) {
+        if (context == null) {
             return;
         }
 
-        Glide.with(context)
-                .load(imageUrl)
-                .apply(RequestOptions.circleCropTransform())
-                .placeholder(R.drawable.ic_profile_placeholder)
-                .error(R.drawable.ic_profile_placeholder)
+        loadAvatar(imageView, null, imageUrl);
+    }
+
+    /**
+     * Carga la foto de perfil de un usuario.
+     * {@link UserAvatarLoader} elige la foto guardada en este dispositivo o la remota, en la
+     * variante más pequeña que cubre la vista, y todas las pantallas comparten caché.
+     *
+     * @param imageView ImageView donde cargar la imagen
+     * @param userId    ID del usuario (puede ser null si solo se conoce la URL)
+     * @param photoUrl  URL o ruta local de la variante completa guardada en el perfil
+     */
+    public static void loadAvatar(ImageView imageView, String userId, String photoUrl) {
+        if (imageView == null) {
+            return;
+        }
+        if ((userId == null || userId.isEmpty()) && (photoUrl == null || photoUrl.isEmpty())) {
+            Glide.with(imageView).clear(imageView);
+            imageView.setImageResource(R.drawable.ic_profile_placeholder);
+            return;
+        }
+
+        avatarRequest(Glide.with(imageView), userId, photoUrl, imageView instanceof CircleImageView)
                 .into(imageView);
     }
 
     /**
-     * Sube una imagen a Firebase Storage y devuelve la URL de descarga.
+     * Crea la petición de Glide de la foto de perfil de un usuario.
+     * Las precargas de las listas deben usar esta misma petición para que su resultado
+     * quede en caché con la clave que buscará después {@link #loadAvatar}.
+     *
+     * @param requestManager RequestManager del fragmento o la vista
+     * @param userId         ID del usuario (puede ser null si solo se conoce la URL)
+     * @param photoUrl       URL o ruta local de la variante completa guardada en el perfil
+     * @param circleView     true si la vista destino ya recorta en círculo (CircleImageView)
+     * @return Petición sin destino
+     */
+    public static RequestBuilder<Drawable> avatarRequest(RequestManager requestManager, String userId,
+                                                         String photoUrl, boolean circleView) {
+        return requestManager
+                .load(new UserAvatar(userId, photoUrl))
+                .apply(circleView ? AVATAR_OPTIONS : CIRCLE_AVATAR_OPTIONS);
+    }
+
+    /**
+     * Sube una foto de perfil a Firebase Storage en todas sus variantes ({@link AvatarVariant})
+     * y devuelve la URL de descarga de la variante completa.
+     * La foto se guarda primero en local y la subida pasa por {@link ProfileImageUploadQueue},
+     * que la continúa tras cortes de red o cierres de la aplicación. Todas las variantes
+     * comparten token de descarga, de modo que la URL de cada una se obtiene cambiando el sufijo
+     * con {@link AvatarVariant#resolve(String, AvatarVariant)}.
      *
      * @param context     Contexto de la aplicación
      * @param imageUri    URI de la imagen a subir
@@ -86,85 +156,37 @@ public class ImageUtils {
             return;
         }
 
-        try {
-            // Comprimir la imagen antes de subirla
-            InputStream imageStream = context.getContentResolver().openInputStream(imageUri);
-            Bitmap bitmap = BitmapFactory.decodeStream(imageStream);
-            
-            // Redimensionar si es necesario
-            bitmap = resizeBitmap(bitmap, MAX_IMAGE_SIZE);
-            
-            // Comprimir a JPEG
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, baos);
-            byte[] imageData = baos.toByteArray();
-
-            // Crear referencia en Firebase Storage
-            String fileName = userId + "_" + UUID.randomUUID().toString() + ".jpg";
-            StorageReference storageRef = FirebaseStorage.getInstance().getReference()
-                    .child(PROFILE_IMAGES_PATH + fileName);
-
-            // Subir la imagen
-            UploadTask uploadTask = storageRef.putBytes(imageData);
-            uploadTask.addOnSuccessListener(taskSnapshot -> {
-                // Obtener URL de descarga
-                storageRef.getDownloadUrl().addOnSuccessListener(uri -> {
-                    if (callback != null) {
-                        callback.onSuccess(uri.toString());
+        // Decodificar y comprimir fuera del hilo principal
+        ImageStorageManager imageManager = ImageStorageManager.getInstance(context);
+        AppExecutors.getInstance().execute(() -> imageManager.saveProfileImage(userId, imageUri), imagePath -> {
+            if (imagePath == null) {
+                if (callback != null) {
+                    callback.onFailure("Error al procesar imagen");
+                }
+                return;
+            }
+
+            LiveData<String> upload = ProfileImageUploadQueue.enqueue(context, userId, imagePath);
+            upload.observeForever(new Observer<String>() {
+                @Override
+                public void onChanged(String url) {
+                    upload.removeObserver(this);
+                    if (callback == null) {
+                        return;
                     }
-                }).addOnFailureListener(e -> {
-                    if (callback != null) {
-                        callback.onFailure(e.getMessage());
+                    if (url != null) {
+                        callback.onSuccess(url);
+                    } else {
+                        callback.onFailure("Error al subir imagen");
                     }
-                });
-            }).addOnFailureListener(e -> {
-                Log.e(TAG, "Error al subir imagen: " + e.getMessage());
-                if (callback != null) {
-                    callback.onFailure(e.getMessage());
                 }
             });
-
-        } catch (FileNotFoundException e) {
-            Log.e(TAG, "Archivo no encontrado: " + e.getMessage());
-            if (callback != null) {
-                callback.onFailure("Archivo no encontrado");
-            }
-        } catch (Exception e) {
+        }, e -> {
             Log.e(TAG, "Error al procesar imagen: " + e.getMessage());
             if (callback != null) {
                 callback.onFailure("Error al procesar imagen");
             }
-        }
-    }
-
-    /**
-     * Redimensiona un bitmap si es más grande que el tamaño máximo especificado.
-     *
-     * @param bitmap    Bitmap a redimensionar
-     * @param maxSize   Tamaño máximo en píxeles
-     * @return          Bitmap redimensionado
-     */
-    private static Bitmap resizeBitmap(Bitmap bitmap, int maxSize) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-        
-        if (width <= maxSize && height <= maxSize) {
-            return bitmap;
-        }
-        
-        float ratio = (float) width / (float) height;
-        
-        if (ratio > 1) {
-            // Imagen horizontal
-            width = maxSize;
-            height = (int) (width / ratio);
-        } else {
-            // Imagen vertical o cuadrada
-            height = maxSize;
-            width = (int) (height * ratio);
-        }
-        
-        return Bitmap.createScaledBitmap(bitmap, width, height, true);
+        });
     }
 
     /**
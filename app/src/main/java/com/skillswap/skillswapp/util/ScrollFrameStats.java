@@ -0,0 +1,144 @@
+package com.skillswap.skillswapp.util;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.skillswap.skillswapp.BuildConfig;
+
+import java.util.Locale;
+
+/**
+ * Mide la duración de los frames mientras se desplaza una lista (solo en builds de depuración).
+ * Al detenerse el desplazamiento escribe en el log cuántos frames superaron el tiempo de
+ * refresco de la pantalla, para comparar cambios de rendimiento con el mismo gesto.
+ * Filtrar con: adb logcat -s ScrollFrameStats
+ */
+public final class ScrollFrameStats {
+
+    private static final String TAG = "ScrollFrameStats";
+
+    private static HandlerThread metricsThread;
+
+    private ScrollFrameStats() {
+    }
+
+    /**
+     * Empieza a medir los desplazamientos de una lista. No hace nada en builds de release.
+     * @param fragment Fragmento que muestra la lista (da nombre a las mediciones)
+     * @param recyclerView Lista
+     */
+    public static void attach(@NonNull Fragment fragment, @NonNull RecyclerView recyclerView) {
+        if (!BuildConfig.DEBUG) {
+            return;
+        }
+        Window window = fragment.requireActivity().getWindow();
+        ScrollListener listener = new ScrollListener(window, fragment.getClass().getSimpleName());
+        recyclerView.addOnScrollListener(listener);
+        recyclerView.addOnAttachStateChangeListener(listener);
+    }
+
+    private static synchronized Handler metricsHandler() {
+        if (metricsThread == null) {
+            metricsThread = new HandlerThread("skillswap-frame-stats");
+            metricsThread.start();
+        }
+        return new Handler(metricsThread.getLooper());
+    }
+
+    /**
+     * Registra el listener de FrameMetrics de la ventana durante cada desplazamiento.
+     */
+    private static class ScrollListener extends RecyclerView.OnScrollListener
+            implements Window.OnFrameMetricsAvailableListener, View.OnAttachStateChangeListener {
+        private final Window window;
+        private final String name;
+        private boolean tracking;
+        private long frameBudgetNanos;
+
+        // Se escriben desde el hilo de métricas y se leen en el principal
+        private int frames;
+        private int slowFrames;
+        private int droppedReports;
+        private long maxFrameNanos;
+
+        ScrollListener(Window window, String name) {
+            this.window = window;
+            this.name = name;
+        }
+
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            if (newState != RecyclerView.SCROLL_STATE_IDLE && !tracking) {
+                start(recyclerView);
+            } else if (newState == RecyclerView.SCROLL_STATE_IDLE && tracking) {
+                stop();
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(@NonNull View view) {
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull View view) {
+            if (tracking) {
+                stop();
+            }
+        }
+
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            long duration = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+            synchronized (this) {
+                frames++;
+                droppedReports += dropCountSinceLastInvocation;
+                if (duration > frameBudgetNanos) {
+                    slowFrames++;
+                }
+                maxFrameNanos = Math.max(maxFrameNanos, duration);
+            }
+        }
+
+        private void start(RecyclerView recyclerView) {
+            Display display = recyclerView.getDisplay();
+            float refreshRate = display != null ? display.getRefreshRate() : 60f;
+            synchronized (this) {
+                frameBudgetNanos = (long) (1_000_000_000L / refreshRate);
+                frames = 0;
+                slowFrames = 0;
+                droppedReports = 0;
+                maxFrameNanos = 0;
+            }
+            window.addOnFrameMetricsAvailableListener(this, metricsHandler());
+            tracking = true;
+        }
+
+        private void stop() {
+            tracking = false;
+            try {
+                window.removeOnFrameMetricsAvailableListener(this);
+            } catch (IllegalArgumentException e) {
+                // El listener ya no estaba registrado
+                return;
+            }
+            synchronized (this) {
+                if (frames == 0) {
+                    return;
+                }
+                Log.d(TAG, String.format(Locale.US,
+                        "%s: %d frames, %d lentos (%.1f%%), máx %.1f ms, %d sin medir",
+                        name, frames, slowFrames, 100f * slowFrames / frames,
+                        maxFrameNanos / 1_000_000f, droppedReports));
+            }
+        }
+    }
+}
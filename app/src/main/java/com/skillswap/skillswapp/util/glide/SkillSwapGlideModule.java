@@ -0,0 +1,58 @@
+package com.skillswap.skillswapp.util.glide;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.InputStream;
+
+/**
+ * Configuración de Glide para toda la aplicación: tamaños de las cachés de memoria y disco,
+ * opciones por defecto y el cargador de fotos de perfil ({@link UserAvatarLoader}).
+ */
+@GlideModule
+public final class SkillSwapGlideModule extends AppGlideModule {
+    private static final String DISK_CACHE_DIR = "image_cache";
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    // Fracción del heap de la aplicación para imágenes decodificadas y para reutilizar bitmaps
+    private static final int MEMORY_CACHE_DIVISOR = 8;
+    private static final int BITMAP_POOL_DIVISOR = 8;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long heapBytes = (long) activityManager.getMemoryClass() * 1024 * 1024;
+
+        builder.setMemoryCache(new LruResourceCache(heapBytes / MEMORY_CACHE_DIVISOR));
+        builder.setBitmapPool(new LruBitmapPool(heapBytes / BITMAP_POOL_DIVISOR));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .format(DecodeFormat.PREFER_ARGB_8888)
+                .diskCacheStrategy(DiskCacheStrategy.AUTOMATIC));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(UserAvatar.class, InputStream.class, new UserAvatarLoader.Factory(context));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.skillswap.skillswapp.util.glide;
+
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Modelo de Glide para la foto de perfil de un usuario.
+ * {@link UserAvatarLoader} lo resuelve a la mejor imagen disponible (local o remota) en el
+ * tamaño de la vista, de modo que todas las pantallas comparten las mismas claves de caché.
+ */
+public final class UserAvatar {
+    @Nullable
+    private final String userId;
+    @Nullable
+    private final String photoUrl;
+
+    /**
+     * @param userId ID del usuario, para buscar la foto guardada en este dispositivo
+     * @param photoUrl URL (o ruta local) de la variante completa guardada en el perfil
+     */
+    public UserAvatar(@Nullable String userId, @Nullable String photoUrl) {
+        this.userId = userId;
+        this.photoUrl = photoUrl;
+    }
+
+    @Nullable
+    public String getUserId() {
+        return userId;
+    }
+
+    @Nullable
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserAvatar)) return false;
+        UserAvatar that = (UserAvatar) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(photoUrl, that.photoUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, photoUrl);
+    }
+
+    @Override
+    public String toString() {
+        return "UserAvatar{userId=" + userId + ", photoUrl=" + photoUrl + "}";
+    }
+}
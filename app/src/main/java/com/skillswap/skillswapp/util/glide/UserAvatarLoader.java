@@ -0,0 +1,126 @@
+package com.skillswap.skillswapp.util.glide;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+import com.skillswap.skillswapp.data.local.AvatarVariant;
+import com.skillswap.skillswapp.data.local.ImageStorageManager;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * Resuelve un {@link UserAvatar} a la imagen a descargar o leer:
+ * <ol>
+ *     <li>la foto guardada en este dispositivo, en la variante que cubre la vista;</li>
+ *     <li>la variante remota equivalente de la URL del perfil.</li>
+ * </ol>
+ * La clave de caché depende del usuario, la variante y el origen, así que una misma foto
+ * en el mismo tamaño se decodifica y se guarda en disco una sola vez para todas las pantallas.
+ * Glide llama a este cargador fuera del hilo principal, por eso puede comprobar archivos.
+ */
+public class UserAvatarLoader implements ModelLoader<UserAvatar, InputStream> {
+    private final ImageStorageManager imageStorageManager;
+    private final ModelLoader<GlideUrl, InputStream> urlLoader;
+    private final ModelLoader<File, InputStream> fileLoader;
+
+    UserAvatarLoader(ImageStorageManager imageStorageManager,
+                     ModelLoader<GlideUrl, InputStream> urlLoader,
+                     ModelLoader<File, InputStream> fileLoader) {
+        this.imageStorageManager = imageStorageManager;
+        this.urlLoader = urlLoader;
+        this.fileLoader = fileLoader;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull UserAvatar avatar, int width, int height,
+                                               @NonNull Options options) {
+        AvatarVariant variant = AvatarVariant.forTargetSize(Math.max(width, height));
+        String userId = avatar.getUserId();
+
+        // Foto guardada en este dispositivo
+        if (userId != null && !userId.isEmpty()) {
+            File localFile = imageStorageManager.findProfileImageFile(userId, variant);
+            if (localFile != null) {
+                return loadFile(localFile, userId, variant, width, height, options);
+            }
+        }
+
+        String photoUrl = avatar.getPhotoUrl();
+        if (photoUrl == null || photoUrl.isEmpty()) {
+            return null;
+        }
+        String variantUrl = AvatarVariant.resolve(photoUrl, variant);
+
+        if (isRemote(variantUrl)) {
+            LoadData<InputStream> urlData = urlLoader.buildLoadData(new GlideUrl(variantUrl), width, height, options);
+            if (urlData == null) {
+                return null;
+            }
+            return new LoadData<>(new ObjectKey(cacheKey(userId, variant, variantUrl)), urlData.fetcher);
+        }
+
+        // Ruta local de otro perfil: solo existe en el dispositivo que la guardó
+        File pathFile = new File(variantUrl);
+        if (!pathFile.exists()) {
+            return null;
+        }
+        return loadFile(pathFile, userId, variant, width, height, options);
+    }
+
+    @Override
+    public boolean handles(@NonNull UserAvatar avatar) {
+        return true;
+    }
+
+    private LoadData<InputStream> loadFile(File file, String userId, AvatarVariant variant,
+                                           int width, int height, Options options) {
+        LoadData<InputStream> fileData = fileLoader.buildLoadData(file, width, height, options);
+        if (fileData == null) {
+            return null;
+        }
+        // La fecha de modificación cambia la clave cuando se guarda una foto nueva en la misma ruta
+        String source = file.getAbsolutePath() + "@" + file.lastModified();
+        return new LoadData<>(new ObjectKey(cacheKey(userId, variant, source)), fileData.fetcher);
+    }
+
+    private static String cacheKey(String userId, AvatarVariant variant, String source) {
+        return "avatar/" + userId + "/" + variant.name() + "/" + source;
+    }
+
+    private static boolean isRemote(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    /**
+     * Fábrica registrada en {@link SkillSwapGlideModule}.
+     */
+    public static class Factory implements ModelLoaderFactory<UserAvatar, InputStream> {
+        private final Context context;
+
+        public Factory(Context context) {
+            this.context = context.getApplicationContext();
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<UserAvatar, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new UserAvatarLoader(ImageStorageManager.getInstance(context),
+                    multiFactory.build(GlideUrl.class, InputStream.class),
+                    multiFactory.build(File.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
@@ -6,7 +6,7 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.skillswap.skillswapp.data.local.LocalStorageManager;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.data.repository.ContactRepository;
 
 import java.util.List;
@@ -48,11 +48,11 @@ public class ContactViewModel extends ViewModel {
     /**
      * Obtiene los contactos recientes de un usuario.
      * @param userId ID del usuario
-     * @return LiveData con la lista de contactos recientes
+     * @return LiveData con los resúmenes de los contactos recientes
      */
-    public LiveData<List<User>> getRecentContacts(String userId) {
+    public LiveData<List<UserSummary>> getRecentContacts(String userId) {
         isLoading.setValue(true);
-        LiveData<List<User>> contacts = contactRepository.getRecentContacts(userId);
+        LiveData<List<UserSummary>> contacts = contactRepository.getRecentContacts(userId);
         isLoading.setValue(false);
         return contacts;
     }
@@ -6,14 +6,17 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.skillswap.skillswapp.data.local.LocalStorageManager;
-import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.data.repository.FavoriteRepository;
 import com.skillswap.skillswapp.data.repository.UserRepository;
+import com.skillswap.skillswapp.data.util.AppExecutors;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * ViewModel para gestionar los favoritos.
@@ -26,6 +29,8 @@ public class FavoriteViewModel extends ViewModel {
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private LocalStorageManager localStorageManager;
     private Context context;
+    // Cada llamada a getFavoriteUsers descarta las cargas anteriores que aún no han terminado
+    private int favoriteUsersGeneration;
 
     public FavoriteViewModel() {
         this.favoriteRepository = FavoriteRepository.getInstance();
@@ -45,62 +50,47 @@ public class FavoriteViewModel extends ViewModel {
     /**
      * Obtiene los usuarios favoritos de un usuario.
      * @param userId ID del usuario
-     * @return LiveData con la lista de usuarios favoritos
+     * @return LiveData con los resúmenes de los usuarios favoritos
      */
-    public LiveData<List<User>> getFavoriteUsers(String userId) {
-        MutableLiveData<List<User>> result = new MutableLiveData<>();
+    public LiveData<List<UserSummary>> getFavoriteUsers(String userId) {
+        MutableLiveData<List<UserSummary>> result = new MutableLiveData<>();
+        if (!checkContext()) {
+            result.setValue(new ArrayList<>());
+            return result;
+        }
         isLoading.setValue(true);
+        int generation = ++favoriteUsersGeneration;
         
-        try {
-            if (context == null) {
-                result.setValue(new ArrayList<>());
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                isLoading.setValue(false);
-                return result;
+        // Obtener los IDs de favoritos fuera del hilo principal
+        AppExecutors.getInstance().execute(localStorageManager::getFavoriteIds, favoriteIds -> {
+            if (generation != favoriteUsersGeneration) {
+                return;
             }
-            
-            // Obtener los IDs de favoritos en el hilo principal
-            List<String> favoriteIds = localStorageManager.getFavoriteIds();
-            
             if (favoriteIds.isEmpty()) {
                 result.setValue(new ArrayList<>());
                 isLoading.setValue(false);
-                return result;
+                return;
             }
             
             // Limitar a 20 por rendimiento
-            if (favoriteIds.size() > 20) {
-                favoriteIds = favoriteIds.subList(0, 20);
-            }
+            List<String> idsToLoad = favoriteIds.size() > 20 ? favoriteIds.subList(0, 20) : favoriteIds;
             
-            // Crear una lista para almacenar los usuarios
-            List<User> users = new ArrayList<>();
-            final List<String> finalFavoriteIds = favoriteIds;
-            final int[] loadedCount = {0};
-            
-            // Obtener cada usuario en el hilo principal
-            for (String favId : favoriteIds) {
-                userRepository.getUserById(favId).observeForever(user -> {
-                    if (user != null) {
-                        user.setFavorite(true); // Marcar como favorito
-                        users.add(user);
-                    }
-                    
-                    loadedCount[0]++;
-                    
-                    // Si hemos procesado todos los IDs, actualizar el resultado
-                    if (loadedCount[0] >= finalFavoriteIds.size()) {
-                        result.setValue(users);
-                        isLoading.setValue(false);
-                    }
-                });
+            // Obtener los resúmenes de todos los usuarios en una sola carga agrupada
+            userRepository.loadUserSummariesByIds(idsToLoad, summaries -> {
+                if (generation != favoriteUsersGeneration) {
+                    return;
+                }
+                result.setValue(summaries);
+                isLoading.setValue(false);
+            });
+        }, e -> {
+            if (generation != favoriteUsersGeneration) {
+                return;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
             result.setValue(new ArrayList<>());
             errorMessage.setValue("Error al obtener favoritos: " + e.getMessage());
             isLoading.setValue(false);
-        }
+        });
         
         return result;
     }
@@ -112,31 +102,36 @@ public class FavoriteViewModel extends ViewModel {
      */
     public LiveData<Set<String>> getFavoriteUserIds(String userId) {
         MutableLiveData<Set<String>> result = new MutableLiveData<>();
+        if (!checkContext()) {
+            result.setValue(new HashSet<>());
+            return result;
+        }
         isLoading.setValue(true);
         
-        try {
-            if (context == null) {
-                result.setValue(new HashSet<>());
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                isLoading.setValue(false);
-                return result;
-            }
-            
-            // Obtener los IDs de favoritos directamente en el hilo principal
-            List<String> favoriteIds = localStorageManager.getFavoriteIds();
-            Set<String> favoriteIdSet = new HashSet<>(favoriteIds);
+        AppExecutors.getInstance().execute(() -> new HashSet<>(localStorageManager.getFavoriteIds()), favoriteIdSet -> {
             result.setValue(favoriteIdSet);
             isLoading.setValue(false);
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, e -> {
             result.setValue(new HashSet<>());
             errorMessage.setValue("Error al obtener IDs de favoritos: " + e.getMessage());
             isLoading.setValue(false);
-        }
+        });
         
         return result;
     }
 
+    /**
+     * Observa los IDs de favoritos del usuario actual. Se actualiza tras cada cambio,
+     * así que las listas pueden marcar el corazón sin modificar los resúmenes.
+     * @return LiveData con el conjunto de IDs (vacío si no se ha llamado a initContext)
+     */
+    public LiveData<Set<String>> observeFavoriteIds() {
+        if (!checkContext()) {
+            return new MutableLiveData<>(Collections.<String>emptySet());
+        }
+        return localStorageManager.observeFavoriteIds();
+    }
+
     /**
      * Verifica si un usuario es favorito.
      * @param userId ID del usuario
@@ -144,25 +139,7 @@ public class FavoriteViewModel extends ViewModel {
      * @return LiveData con el resultado (true si es favorito, false si no)
      */
     public LiveData<Boolean> isFavorite(String userId, String favoriteId) {
-        MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Verificar directamente en el hilo principal
-            boolean isFav = localStorageManager.isFavorite(favoriteId);
-            result.setValue(isFav);
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(false);
-            errorMessage.setValue("Error al verificar favorito: " + e.getMessage());
-        }
-        
-        return result;
+        return isFavorite(favoriteId);
     }
     
     /**
@@ -172,23 +149,18 @@ public class FavoriteViewModel extends ViewModel {
      */
     public LiveData<Boolean> isFavorite(String favoriteId) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Verificar directamente en el hilo principal
-            boolean isFav = localStorageManager.isFavorite(favoriteId);
-            result.setValue(isFav);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (!checkContext()) {
             result.setValue(false);
-            errorMessage.setValue("Error al verificar favorito: " + e.getMessage());
+            return result;
         }
         
+        AppExecutors.getInstance().execute(() -> localStorageManager.isFavorite(favoriteId),
+                result::setValue,
+                e -> {
+                    result.setValue(false);
+                    errorMessage.setValue("Error al verificar favorito: " + e.getMessage());
+                });
+        
         return result;
     }
 
@@ -198,32 +170,7 @@ public class FavoriteViewModel extends ViewModel {
      * @return LiveData con el resultado de la operación
      */
     public LiveData<Boolean> addFavorite(String userId) {
-        MutableLiveData<Boolean> result = new MutableLiveData<>();
-        isLoading.setValue(true);
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                isLoading.setValue(false);
-                return result;
-            }
-            
-            // Añadir directamente en el hilo principal
-            boolean success = localStorageManager.addFavorite(userId);
-            result.setValue(success);
-            if (!success) {
-                errorMessage.setValue("Error al añadir favorito");
-            }
-            isLoading.setValue(false);
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(false);
-            errorMessage.setValue("Error al añadir favorito: " + e.getMessage());
-            isLoading.setValue(false);
-        }
-        
-        return result;
+        return runFavoriteUpdate(() -> localStorageManager.addFavorite(userId), "Error al añadir favorito");
     }
 
     /**
@@ -232,33 +179,45 @@ public class FavoriteViewModel extends ViewModel {
      * @return LiveData con el resultado de la operación
      */
     public LiveData<Boolean> removeFavorite(String userId) {
+        return runFavoriteUpdate(() -> localStorageManager.removeFavorite(userId), "Error al eliminar favorito");
+    }
+    
+    /**
+     * Ejecuta un cambio de favoritos en segundo plano y publica el resultado.
+     */
+    private LiveData<Boolean> runFavoriteUpdate(Callable<Boolean> update, String errorText) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
+        if (!checkContext()) {
+            result.setValue(false);
+            return result;
+        }
         isLoading.setValue(true);
         
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                isLoading.setValue(false);
-                return result;
-            }
-            
-            // Eliminar directamente en el hilo principal
-            boolean success = localStorageManager.removeFavorite(userId);
+        AppExecutors.getInstance().execute(update, success -> {
             result.setValue(success);
             if (!success) {
-                errorMessage.setValue("Error al eliminar favorito");
+                errorMessage.setValue(errorText);
             }
             isLoading.setValue(false);
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, e -> {
             result.setValue(false);
-            errorMessage.setValue("Error al eliminar favorito: " + e.getMessage());
+            errorMessage.setValue(errorText + ": " + e.getMessage());
             isLoading.setValue(false);
-        }
+        });
         
         return result;
     }
+    
+    /**
+     * Comprueba que se ha llamado a initContext, publicando el error si no.
+     */
+    private boolean checkContext() {
+        if (context == null) {
+            errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
+            return false;
+        }
+        return true;
+    }
 
     /**
      * Obtiene el estado de carga.
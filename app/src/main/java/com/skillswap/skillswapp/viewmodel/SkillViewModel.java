@@ -1,13 +1,21 @@
 package com.skillswap.skillswapp.viewmodel;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.skillswap.skillswapp.data.model.Skill;
 import com.skillswap.skillswapp.data.repository.SkillRepository;
+import com.skillswap.skillswapp.data.search.SuggestionPipeline;
+import com.skillswap.skillswapp.data.stats.SkillStatsRecorder;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * ViewModel para gestionar las habilidades.
@@ -16,9 +24,36 @@ public class SkillViewModel extends ViewModel {
 
     private final SkillRepository skillRepository;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
+    private final MutableLiveData<List<String>> suggestions = new MutableLiveData<>(new ArrayList<>());
+    private final SuggestionPipeline suggestionPipeline;
 
     public SkillViewModel() {
         this.skillRepository = SkillRepository.getInstance();
+        Handler handler = new Handler(Looper.getMainLooper());
+        this.suggestionPipeline = new SuggestionPipeline(new SuggestionPipeline.Source() {
+                    @Override
+                    public void fetch(String query, int limit, Consumer<List<String>> onResult, Runnable onError) {
+                        skillRepository.fetchSearchSuggestions(query, limit, onResult, onError);
+                    }
+
+                    @Override
+                    public List<String> lookup(String query, int limit) {
+                        return skillRepository.findSearchSuggestions(query, limit);
+                    }
+                },
+                new SuggestionPipeline.Scheduler() {
+                    @Override
+                    public void schedule(Runnable task, long delayMs) {
+                        handler.postDelayed(task, delayMs);
+                    }
+
+                    @Override
+                    public void cancel(Runnable task) {
+                        handler.removeCallbacks(task);
+                    }
+                },
+                SystemClock::uptimeMillis, suggestions::setValue);
+        skillRepository.preloadSearchSuggestions();
     }
 
     /**
@@ -32,6 +67,20 @@ public class SkillViewModel extends ViewModel {
         return skills;
     }
 
+    /**
+     * Registra que se ha abierto el detalle de una habilidad (cuenta para las destacadas).
+     */
+    public void recordSkillView(String skillId) {
+        SkillStatsRecorder.getInstance().record(skillId, SkillStatsRecorder.Event.VIEW);
+    }
+
+    /**
+     * Registra que se ha abierto una habilidad desde los resultados de una búsqueda.
+     */
+    public void recordSearchClick(String skillId) {
+        SkillStatsRecorder.getInstance().record(skillId, SkillStatsRecorder.Event.SEARCH_CLICK);
+    }
+
     /**
      * Obtiene una habilidad por su ID.
      * @param skillId ID de la habilidad
@@ -131,12 +180,29 @@ public class SkillViewModel extends ViewModel {
     }
     
     /**
-     * Obtiene sugerencias de búsqueda basadas en una consulta parcial.
-     * @param query Consulta parcial
+     * Sugerencias para el texto del buscador. Es siempre el mismo LiveData: se actualiza con
+     * cada llamada a {@link #onSearchQueryChanged(String)}.
      * @return LiveData con la lista de sugerencias
      */
-    public LiveData<List<String>> getSearchSuggestions(String query) {
-        return skillRepository.getSearchSuggestions(query);
+    public LiveData<List<String>> getSearchSuggestions() {
+        return suggestions;
+    }
+
+    /**
+     * Notifica el texto actual del buscador; las sugerencias se publican en
+     * {@link #getSearchSuggestions()}.
+     * @param query Texto escrito
+     */
+    public void onSearchQueryChanged(String query) {
+        suggestionPipeline.onQueryChanged(query);
+    }
+
+    /**
+     * Descarta las sugerencias pendientes y vacía la lista (por ejemplo, al lanzar la búsqueda).
+     */
+    public void clearSearchSuggestions() {
+        suggestionPipeline.cancel();
+        suggestions.setValue(new ArrayList<>());
     }
     
     /**
@@ -173,4 +239,9 @@ public class SkillViewModel extends ViewModel {
     public LiveData<Boolean> getIsLoading() {
         return isLoading;
     }
+
+    @Override
+    protected void onCleared() {
+        suggestionPipeline.cancel();
+    }
 }
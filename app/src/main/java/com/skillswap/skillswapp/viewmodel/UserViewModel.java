@@ -6,21 +6,43 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
+import com.skillswap.skillswapp.data.local.ImageStorageManager;
 import com.skillswap.skillswapp.data.local.LocalStorageManager;
+import com.skillswap.skillswapp.data.match.SkillMatch;
 import com.skillswap.skillswapp.data.model.User;
+import com.skillswap.skillswapp.data.model.UserSummary;
 import com.skillswap.skillswapp.data.repository.UserRepository;
+import com.skillswap.skillswapp.data.upload.ProfileImageUploadQueue;
+import com.skillswap.skillswapp.data.util.AppExecutors;
+import com.skillswap.skillswapp.data.util.LocalFirstLiveData;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * ViewModel para manejar la lógica de datos de usuario.
  */
 public class UserViewModel extends ViewModel {
+    // Usuarios por página en el listado paginado
+    public static final int USER_PAGE_SIZE = 20;
+    
     private final UserRepository userRepository;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private LocalStorageManager localStorageManager;
     private Context context;
+    
+    // Estado del listado paginado de usuarios
+    private final MutableLiveData<List<UserSummary>> pagedUsers = new MutableLiveData<>();
+    private final List<UserSummary> loadedUsers = new ArrayList<>();
+    private String lastLoadedUserId;
+    private boolean loadingUserPage;
+    private boolean lastUserPageLoaded;
+    private int userPagesGeneration;
 
     public UserViewModel() {
         userRepository = UserRepository.getInstance();
@@ -45,17 +67,171 @@ public class UserViewModel extends ViewModel {
         
         MutableLiveData<User> userLiveData = userRepository.getUserById(userId);
         
-        // Observar el resultado para actualizar el estado de carga
-        userLiveData.observeForever(user -> {
-            isLoading.setValue(false);
-            if (user == null) {
-                errorMessage.setValue("Error al obtener datos del usuario.");
+        // Observar el primer resultado para actualizar el estado de carga
+        Observer<User> observer = new Observer<User>() {
+            public void onChanged(User user) {
+                isLoading.setValue(false);
+                if (user == null) {
+                    errorMessage.setValue("Error al obtener datos del usuario.");
+                }
+                // Eliminar el observador para que el listener de Firebase se libere con la vista
+                userLiveData.removeObserver(this);
             }
-        });
+        };
+        
+        userLiveData.observeForever(observer);
         
         return userLiveData;
     }
     
+    /**
+     * Obtiene los resúmenes de varios usuarios por ID en una sola carga agrupada.
+     * @param userIds IDs de los usuarios, en el orden en que se quieren recibir
+     * @return LiveData con los resúmenes encontrados
+     */
+    public LiveData<List<UserSummary>> getUserSummariesByIds(Collection<String> userIds) {
+        return userRepository.getUserSummariesByIds(userIds);
+    }
+    
+    /**
+     * Obtiene los resúmenes de todos los usuarios, para mostrarlos en listas.
+     * @return LiveData con la lista de resúmenes
+     */
+    public LiveData<List<UserSummary>> getAllUserSummaries() {
+        return observeFirstResult(userRepository.getAllUserSummaries(), "Error al obtener la lista de usuarios.");
+    }
+    
+    /**
+     * Listado paginado de resúmenes de usuario. Cada página cargada se añade a la lista publicada.
+     * @return LiveData con todos los usuarios cargados hasta el momento
+     */
+    public LiveData<List<UserSummary>> getPagedUsers() {
+        return pagedUsers;
+    }
+    
+    /**
+     * Reinicia el listado paginado y carga la primera página.
+     */
+    public void loadFirstUserPage() {
+        userPagesGeneration++;
+        loadedUsers.clear();
+        lastLoadedUserId = null;
+        loadingUserPage = false;
+        lastUserPageLoaded = false;
+        loadNextUserPage();
+    }
+    
+    /**
+     * Carga la siguiente página del listado paginado. No hace nada si ya hay una página
+     * en curso o si ya se cargó la última.
+     */
+    public void loadNextUserPage() {
+        if (loadingUserPage || lastUserPageLoaded) {
+            return;
+        }
+        loadingUserPage = true;
+        isLoading.setValue(true);
+        
+        int generation = userPagesGeneration;
+        int pageStart = loadedUsers.size();
+        String cursor = lastLoadedUserId;
+        LocalFirstLiveData<List<UserSummary>> page = userRepository.getUserSummariesPage(cursor, USER_PAGE_SIZE);
+        // La página puede llegar dos veces: primero de la base local y después de Firebase
+        page.observeForever(new Observer<List<UserSummary>>() {
+            public void onChanged(List<UserSummary> summaries) {
+                // Ignorar páginas de un listado que ya se ha reiniciado
+                if (generation != userPagesGeneration) {
+                    page.removeObserver(this);
+                    return;
+                }
+                
+                if (summaries != null) {
+                    // Sustituir la versión anterior de esta misma página
+                    loadedUsers.subList(pageStart, loadedUsers.size()).clear();
+                    loadedUsers.addAll(summaries);
+                    lastLoadedUserId = summaries.isEmpty() ? cursor : summaries.get(summaries.size() - 1).getUserId();
+                } else {
+                    errorMessage.setValue("Error al obtener la lista de usuarios.");
+                }
+                pagedUsers.setValue(new ArrayList<>(loadedUsers));
+                
+                if (!page.isRemoteLoaded()) {
+                    return;
+                }
+                page.removeObserver(this);
+                loadingUserPage = false;
+                isLoading.setValue(false);
+                if (summaries != null && summaries.size() < USER_PAGE_SIZE) {
+                    lastUserPageLoaded = true;
+                }
+            }
+        });
+    }
+    
+    /**
+     * @return true si quedan páginas por cargar en el listado paginado
+     */
+    public boolean hasMoreUsers() {
+        return !lastUserPageLoaded;
+    }
+    
+    /**
+     * Busca usuarios con filtros avanzados y devuelve solo sus resúmenes.
+     * @param query Texto de búsqueda
+     * @param categoryId Categoría para filtrar (opcional)
+     * @param level Nivel de habilidad (0: cualquiera, 1: principiante, 2: intermedio, 3: avanzado)
+     * @return LiveData con los resúmenes de los usuarios que coinciden
+     */
+    public LiveData<List<UserSummary>> searchUserSummaries(String query, String categoryId, int level) {
+        return observeFirstResult(userRepository.searchUserSummaries(query, categoryId, level),
+                "Error en la búsqueda avanzada de usuarios.");
+    }
+    
+    /**
+     * Obtiene los usuarios con los que mejor encaja un intercambio de habilidades.
+     * @param userId ID del usuario
+     * @param limit Número máximo de resultados
+     * @return LiveData con los emparejamientos, de mejor a peor
+     */
+    public LiveData<List<SkillMatch>> getSkillMatches(String userId, int limit) {
+        return userRepository.getSkillMatches(userId, limit);
+    }
+    
+    /**
+     * Obtiene los usuarios que pueden enseñar algo de lo que quiere aprender el usuario.
+     * La lista está precalculada: se muestra al momento y se actualiza sola cuando cambian
+     * los usuarios o las habilidades del propio usuario.
+     * @param userId ID del usuario
+     * @return LiveData con los resúmenes, de mejor a peor emparejamiento
+     */
+    public LiveData<List<UserSummary>> getTeacherMatches(String userId) {
+        return userRepository.getTeacherMatches(userId);
+    }
+    
+    /**
+     * Actualiza el estado de carga con el primer resultado de una lista de resúmenes.
+     */
+    private LiveData<List<UserSummary>> observeFirstResult(MutableLiveData<List<UserSummary>> summariesLiveData,
+                                                           String error) {
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+        
+        Observer<List<UserSummary>> observer = new Observer<List<UserSummary>>() {
+            public void onChanged(List<UserSummary> summaries) {
+                isLoading.setValue(false);
+                if (summaries == null) {
+                    errorMessage.setValue(error);
+                }
+                // Eliminar el observador para que el listener de Firebase se libere con la vista
+                summariesLiveData.removeObserver(this);
+            }
+        };
+        
+        summariesLiveData.observeForever(observer);
+        
+        return summariesLiveData;
+    }
+    
     /**
      * Obtiene todos los usuarios.
      * @return LiveData con la lista de usuarios
@@ -66,13 +242,19 @@ public class UserViewModel extends ViewModel {
         
         MutableLiveData<List<User>> usersLiveData = userRepository.getAllUsers();
         
-        // Observar el resultado para actualizar el estado de carga
-        usersLiveData.observeForever(users -> {
-            isLoading.setValue(false);
-            if (users == null) {
-                errorMessage.setValue("Error al obtener la lista de usuarios.");
+        // Observar el primer resultado para actualizar el estado de carga
+        Observer<List<User>> observer = new Observer<List<User>>() {
+            public void onChanged(List<User> users) {
+                isLoading.setValue(false);
+                if (users == null) {
+                    errorMessage.setValue("Error al obtener la lista de usuarios.");
+                }
+                // Eliminar el observador para que el listener de Firebase se libere con la vista
+                usersLiveData.removeObserver(this);
             }
-        });
+        };
+        
+        usersLiveData.observeForever(observer);
         
         return usersLiveData;
     }
@@ -89,13 +271,19 @@ public class UserViewModel extends ViewModel {
         
         MutableLiveData<List<User>> usersLiveData = userRepository.searchUsers(query, categoryId);
         
-        // Observar el resultado para actualizar el estado de carga
-        usersLiveData.observeForever(users -> {
-            isLoading.setValue(false);
-            if (users == null) {
-                errorMessage.setValue("Error en la búsqueda de usuarios.");
+        // Observar el primer resultado para actualizar el estado de carga
+        Observer<List<User>> observer = new Observer<List<User>>() {
+            public void onChanged(List<User> users) {
+                isLoading.setValue(false);
+                if (users == null) {
+                    errorMessage.setValue("Error en la búsqueda de usuarios.");
+                }
+                // Eliminar el observador para que el listener de Firebase se libere con la vista
+                usersLiveData.removeObserver(this);
             }
-        });
+        };
+        
+        usersLiveData.observeForever(observer);
         
         return usersLiveData;
     }
@@ -193,33 +381,60 @@ public class UserViewModel extends ViewModel {
     }
     
     /**
-     * Añade una habilidad a la colección global de habilidades.
-     * @param skillId ID de la habilidad
-     * @param title Título de la habilidad
-     * @param categoryId ID de la categoría
-     * @param userId ID del usuario que enseña la habilidad
+     * Guarda una habilidad para enseñar (nueva o editada) junto con la habilidad global,
+     * el índice de búsqueda y el resumen del usuario, todo en una sola escritura.
+     * @param categoryId ID de la categoría en la colección global
+     * @return LiveData con true si se ha guardado todo, false si no se ha guardado nada
      */
-    public void addSkillToGlobal(String skillId, String title, String categoryId, String userId) {
-        userRepository.addSkillToGlobal(skillId, title, categoryId, userId);
+    public LiveData<Boolean> saveSkillToTeach(String userId, String skillId, User.SkillToTeach skill, String categoryId) {
+        return trackWrite(userRepository.saveSkillToTeach(userId, skillId, skill, categoryId),
+                "Error al guardar la habilidad. Intenta nuevamente.");
     }
     
     /**
-     * Actualiza una habilidad en la colección global de habilidades.
-     * @param skillId ID de la habilidad
-     * @param title Título de la habilidad
-     * @param categoryId ID de la categoría
+     * Elimina una habilidad para enseñar junto con el usuario como profesor de la habilidad
+     * global, el índice de búsqueda y el resumen, todo en una sola escritura.
      */
-    public void updateSkillInGlobal(String skillId, String title, String categoryId) {
-        userRepository.updateSkillInGlobal(skillId, title, categoryId);
+    public LiveData<Boolean> deleteSkillToTeach(String userId, String skillId) {
+        return trackWrite(userRepository.deleteSkillToTeach(userId, skillId),
+                "Error al eliminar la habilidad. Intenta nuevamente.");
     }
     
     /**
-     * Elimina un usuario de la lista de usuarios que enseñan una habilidad.
-     * @param skillId ID de la habilidad
-     * @param userId ID del usuario a eliminar
+     * Guarda una habilidad para aprender (nueva o editada).
      */
-    public void removeUserFromSkill(String skillId, String userId) {
-        userRepository.removeUserFromSkill(skillId, userId);
+    public LiveData<Boolean> saveSkillToLearn(String userId, String skillId, User.SkillToLearn skill) {
+        return trackWrite(userRepository.saveSkillToLearn(userId, skillId, skill),
+                "Error al guardar la habilidad. Intenta nuevamente.");
+    }
+    
+    /**
+     * Elimina una habilidad para aprender.
+     */
+    public LiveData<Boolean> deleteSkillToLearn(String userId, String skillId) {
+        return trackWrite(userRepository.deleteSkillToLearn(userId, skillId),
+                "Error al eliminar la habilidad. Intenta nuevamente.");
+    }
+    
+    /**
+     * Actualiza el estado de carga y el mensaje de error con el resultado de una escritura.
+     */
+    private LiveData<Boolean> trackWrite(MutableLiveData<Boolean> writeResult, String error) {
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+        
+        writeResult.observeForever(new Observer<Boolean>() {
+            @Override
+            public void onChanged(Boolean result) {
+                writeResult.removeObserver(this);
+                isLoading.setValue(false);
+                if (Boolean.FALSE.equals(result)) {
+                    errorMessage.setValue(error);
+                }
+            }
+        });
+        
+        return writeResult;
     }
     
     /**
@@ -228,28 +443,8 @@ public class UserViewModel extends ViewModel {
      * @return LiveData con el resultado de la operación
      */
     public LiveData<Boolean> addRecentContact(String contactId) {
-        MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Añadir directamente en el hilo principal
-            boolean success = localStorageManager.addRecentContact(contactId);
-            result.setValue(success);
-            if (!success) {
-                errorMessage.setValue("Error al añadir contacto reciente");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(false);
-            errorMessage.setValue("Error: " + e.getMessage());
-        }
-        
-        return result;
+        return runLocalUpdate(() -> localStorageManager.addRecentContact(contactId),
+                "Error al añadir contacto reciente");
     }
     
     /**
@@ -258,28 +453,7 @@ public class UserViewModel extends ViewModel {
      * @return LiveData con el resultado de la operación
      */
     public LiveData<Boolean> addFavorite(String favoriteId) {
-        MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Añadir directamente en el hilo principal
-            boolean success = localStorageManager.addFavorite(favoriteId);
-            result.setValue(success);
-            if (!success) {
-                errorMessage.setValue("Error al añadir favorito");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(false);
-            errorMessage.setValue("Error: " + e.getMessage());
-        }
-        
-        return result;
+        return runLocalUpdate(() -> localStorageManager.addFavorite(favoriteId), "Error al añadir favorito");
     }
     
     /**
@@ -289,21 +463,15 @@ public class UserViewModel extends ViewModel {
      */
     public LiveData<Boolean> isFavorite(String userId) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                return result;
-            }
-            
-            // Verificar directamente en el hilo principal
-            boolean isFav = localStorageManager.isFavorite(userId);
-            result.setValue(isFav);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (context == null) {
             result.setValue(false);
+            return result;
         }
         
+        AppExecutors.getInstance().execute(() -> localStorageManager.isFavorite(userId),
+                result::setValue,
+                e -> result.setValue(false));
+        
         return result;
     }
     
@@ -313,28 +481,7 @@ public class UserViewModel extends ViewModel {
      * @return LiveData con el resultado de la operación
      */
     public LiveData<Boolean> removeFavorite(String favoriteId) {
-        MutableLiveData<Boolean> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(false);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Eliminar directamente en el hilo principal
-            boolean success = localStorageManager.removeFavorite(favoriteId);
-            result.setValue(success);
-            if (!success) {
-                errorMessage.setValue("Error al eliminar favorito");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(false);
-            errorMessage.setValue("Error: " + e.getMessage());
-        }
-        
-        return result;
+        return runLocalUpdate(() -> localStorageManager.removeFavorite(favoriteId), "Error al eliminar favorito");
     }
     
     /**
@@ -342,25 +489,20 @@ public class UserViewModel extends ViewModel {
      * @return LiveData con la lista de IDs
      */
     public LiveData<List<String>> getFavoriteIds() {
-        MutableLiveData<List<String>> result = new MutableLiveData<>();
-        
-        try {
-            if (context == null) {
-                result.setValue(null);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
-            }
-            
-            // Obtener directamente en el hilo principal
-            List<String> ids = localStorageManager.getFavoriteIds();
-            result.setValue(ids);
-        } catch (Exception e) {
-            e.printStackTrace();
-            result.setValue(null);
-            errorMessage.setValue("Error al obtener favoritos: " + e.getMessage());
+        return runLocalRead(() -> localStorageManager.getFavoriteIds(),
+                "Error al obtener favoritos");
+    }
+    
+    /**
+     * Observa los IDs de favoritos del usuario actual. Se actualiza tras cada cambio,
+     * así que las listas pueden marcar el corazón sin modificar los resúmenes.
+     * @return LiveData con el conjunto de IDs (vacío si no se ha llamado a initContext)
+     */
+    public LiveData<Set<String>> observeFavoriteIds() {
+        if (localStorageManager == null) {
+            return new MutableLiveData<>(Collections.<String>emptySet());
         }
-        
-        return result;
+        return localStorageManager.observeFavoriteIds();
     }
     
     /**
@@ -368,87 +510,90 @@ public class UserViewModel extends ViewModel {
      * @return LiveData con la lista de IDs
      */
     public LiveData<List<String>> getRecentContactIds() {
-        MutableLiveData<List<String>> result = new MutableLiveData<>();
+        return runLocalRead(() -> localStorageManager.getRecentContactIds(),
+                "Error al obtener contactos recientes");
+    }
+    
+    /**
+     * Ejecuta un cambio del almacenamiento local en segundo plano y publica el resultado.
+     */
+    private LiveData<Boolean> runLocalUpdate(Callable<Boolean> update, String errorText) {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
+        if (context == null) {
+            result.setValue(false);
+            errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
+            return result;
+        }
         
-        try {
-            if (context == null) {
-                result.setValue(null);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                return result;
+        AppExecutors.getInstance().execute(update, success -> {
+            result.setValue(success);
+            if (!success) {
+                errorMessage.setValue(errorText);
             }
-            
-            // Obtener directamente en el hilo principal
-            List<String> ids = localStorageManager.getRecentContactIds();
-            result.setValue(ids);
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, e -> {
+            result.setValue(false);
+            errorMessage.setValue("Error: " + e.getMessage());
+        });
+        
+        return result;
+    }
+    
+    /**
+     * Lee una lista de IDs del almacenamiento local en segundo plano.
+     */
+    private LiveData<List<String>> runLocalRead(Callable<List<String>> read, String errorText) {
+        MutableLiveData<List<String>> result = new MutableLiveData<>();
+        if (context == null) {
             result.setValue(null);
-            errorMessage.setValue("Error al obtener contactos recientes: " + e.getMessage());
+            errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
+            return result;
         }
         
+        AppExecutors.getInstance().execute(read, result::setValue, e -> {
+            result.setValue(null);
+            errorMessage.setValue(errorText + ": " + e.getMessage());
+        });
+        
         return result;
     }
     
     /**
      * Guarda una imagen de perfil localmente y devuelve la ruta del archivo.
+     * La decodificación y compresión se hacen en segundo plano, y la subida a Firebase Storage
+     * queda en la cola de subidas aunque se cierre la aplicación.
      * @param userId ID del usuario
      * @param imageUri URI de la imagen a guardar
      * @return LiveData con la ruta del archivo de la imagen
      */
     public LiveData<String> uploadProfileImage(String userId, android.net.Uri imageUri) {
         MutableLiveData<String> result = new MutableLiveData<>();
-        isLoading.setValue(true);
         errorMessage.setValue(null);
         
-        try {
-            if (context == null) {
-                result.setValue(null);
-                errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
-                isLoading.setValue(false);
-                return result;
-            }
-            
-            // Usar almacenamiento local de imágenes
-            com.skillswap.skillswapp.data.local.ImageStorageManager imageManager = 
-                    com.skillswap.skillswapp.data.local.ImageStorageManager.getInstance(context);
-            
-            String imagePath = imageManager.saveProfileImage(userId, imageUri);
-            
+        if (context == null) {
+            result.setValue(null);
+            errorMessage.setValue("Error: Contexto no inicializado. Llama a initContext primero.");
+            return result;
+        }
+        isLoading.setValue(true);
+        
+        // Usar almacenamiento local de imágenes
+        ImageStorageManager imageManager = ImageStorageManager.getInstance(context);
+        AppExecutors.getInstance().execute(() -> imageManager.saveProfileImage(userId, imageUri), imagePath -> {
             if (imagePath != null && !imagePath.isEmpty()) {
+                // Subir la foto en segundo plano; al terminar se guarda su URL en el perfil
+                ProfileImageUploadQueue.enqueue(context, userId, imagePath);
                 result.setValue(imagePath);
             } else {
                 result.setValue(null);
                 errorMessage.setValue("Error al guardar la imagen localmente.");
             }
-            
             isLoading.setValue(false);
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, e -> {
             result.setValue(null);
             errorMessage.setValue("Error al guardar la imagen: " + e.getMessage());
             isLoading.setValue(false);
-        }
+        });
         
         return result;
     }
-    
-    /**
-     * Obtiene la ruta de la imagen de perfil de un usuario.
-     * @param userId ID del usuario
-     * @return Ruta de la imagen o null si no existe
-     */
-    public String getProfileImagePath(String userId) {
-        if (context == null) {
-            return null;
-        }
-        
-        try {
-            com.skillswap.skillswapp.data.local.ImageStorageManager imageManager = 
-                    com.skillswap.skillswapp.data.local.ImageStorageManager.getInstance(context);
-            return imageManager.getProfileImagePath(userId);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
 }
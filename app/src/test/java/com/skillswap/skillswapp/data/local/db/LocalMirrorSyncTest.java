@@ -0,0 +1,157 @@
+package com.skillswap.skillswapp.data.local.db;
+
+import com.skillswap.skillswapp.data.model.Category;
+import com.skillswap.skillswapp.data.model.Skill;
+import com.skillswap.skillswapp.data.sync.ChildSync;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la copia local con DAO en memoria. El ejecutor guarda las tareas hasta que la
+ * prueba las ejecuta, para comprobar cómo se agrupan las escrituras.
+ */
+public class LocalMirrorSyncTest {
+
+    private final FakeSkillDao skillDao = new FakeSkillDao();
+    private final FakeCategoryDao categoryDao = new FakeCategoryDao();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private int transactions;
+
+    private final LocalMirrorSync mirror = new LocalMirrorSync(null, skillDao, categoryDao, tasks::add,
+            writes -> {
+                transactions++;
+                writes.run();
+            });
+
+    @Test
+    public void initialLoadRemovesRowsMissingFromFirebase() {
+        skillDao.upsertSkill(EntityMapper.toEntity(new Skill("s1", "Guitarra", "musica")));
+        skillDao.upsertSkill(EntityMapper.toEntity(new Skill("s9", "Borrada", "musica")));
+
+        LinkedHashMap<String, Skill> loaded = new LinkedHashMap<>();
+        loaded.put("s1", new Skill("s1", "Guitarra eléctrica", "musica"));
+        loaded.put("s2", new Skill("s2", "Piano", "musica"));
+        mirror.skills().onInitialLoad(loaded);
+        runTasks();
+
+        assertEquals(Arrays.asList("s1", "s2"), skillDao.getAllSkillIds());
+        assertEquals("Guitarra eléctrica", skillDao.getSkill("s1").title);
+    }
+
+    @Test
+    public void changesAreWrittenInOneTransaction() {
+        ChildSync.Target<Skill> skills = mirror.skills();
+        ChildSync.Target<Category> categories = mirror.categories();
+
+        skills.onUpsert("s1", new Skill("s1", "Guitarra", "musica"));
+        skills.onUpsert("s2", new Skill("s2", "Piano", "musica"));
+        categories.onUpsert("musica", new Category("musica", "Música"));
+        skills.onRemove("s1");
+        assertEquals(1, tasks.size());
+        assertTrue(skillDao.getAllSkillIds().isEmpty());
+
+        runTasks();
+        assertEquals(1, transactions);
+        assertEquals(Arrays.asList("s2"), skillDao.getAllSkillIds());
+        assertEquals(Arrays.asList("musica"), categoryDao.getAllCategoryIds());
+    }
+
+    @Test
+    public void writesAfterFlushStartAnotherTransaction() {
+        ChildSync.Target<Category> categories = mirror.categories();
+
+        categories.onUpsert("musica", new Category("musica", "Música"));
+        runTasks();
+        categories.onRemove("musica");
+        categories.onUpsert("idiomas", new Category("idiomas", "Idiomas"));
+        runTasks();
+
+        assertEquals(2, transactions);
+        assertEquals(Arrays.asList("idiomas"), categoryDao.getAllCategoryIds());
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    private static final class FakeSkillDao implements SkillDao {
+        final TreeMap<String, SkillEntity> rows = new TreeMap<>();
+
+        @Override
+        public void upsertSkill(SkillEntity skill) {
+            rows.put(skill.skillId, skill);
+        }
+
+        @Override
+        public void deleteSkill(String skillId) {
+            rows.remove(skillId);
+        }
+
+        @Override
+        public SkillEntity getSkill(String skillId) {
+            return rows.get(skillId);
+        }
+
+        @Override
+        public List<String> getAllSkillIds() {
+            return new ArrayList<>(rows.keySet());
+        }
+
+        @Override
+        public List<SkillEntity> getAllSkills() {
+            return new ArrayList<>(rows.values());
+        }
+
+        @Override
+        public List<SkillEntity> getSkillsByCategory(String categoryId) {
+            return getSkillsByCategoryAndLevel(categoryId, 0);
+        }
+
+        @Override
+        public List<SkillEntity> getSkillsByCategoryAndLevel(String categoryId, int minLevel) {
+            List<SkillEntity> result = new ArrayList<>();
+            for (SkillEntity skill : rows.values()) {
+                if (categoryId.equals(skill.category) && skill.level >= minLevel) {
+                    result.add(skill);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class FakeCategoryDao implements CategoryDao {
+        final TreeMap<String, CategoryEntity> rows = new TreeMap<>();
+
+        @Override
+        public void upsertCategory(CategoryEntity category) {
+            rows.put(category.categoryId, category);
+        }
+
+        @Override
+        public void deleteCategory(String categoryId) {
+            rows.remove(categoryId);
+        }
+
+        @Override
+        public List<String> getAllCategoryIds() {
+            return new ArrayList<>(rows.keySet());
+        }
+
+        @Override
+        public List<CategoryEntity> getAllCategories() {
+            return new ArrayList<>(rows.values());
+        }
+    }
+}
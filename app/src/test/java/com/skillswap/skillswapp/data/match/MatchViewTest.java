@@ -0,0 +1,148 @@
+package com.skillswap.skillswapp.data.match;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la lista precalculada de emparejamientos: las actualizaciones por usuario deben
+ * dar lo mismo que recalcular la lista completa.
+ */
+public class MatchViewTest {
+
+    private static final String[] TITLES = {"Inglés", "Guitarra", "Cocina", "Piano", "Python", "Yoga"};
+    private static final String[] CATEGORIES = {"Idiomas", "Música", "Gastronomía", "Música", "Informática", "Deporte"};
+
+    @Test
+    public void teacherListIsNotFilledByLearners() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", new String[]{"Inglés"}, new String[]{"Guitarra"}));
+        MatchView teachers = new MatchView(index, "me", 20, true);
+        teachers.refresh();
+
+        for (int i = 0; i < 25; i++) {
+            String learnerId = "learner" + i;
+            index.putUser(user(learnerId, null, new String[]{"Inglés"}));
+            teachers.onUserChanged(learnerId);
+        }
+        index.putUser(user("teacher", new String[]{"Guitarra"}, null));
+        teachers.onUserChanged("teacher");
+
+        assertEquals(1, teachers.getMatches().size());
+        assertEquals("teacher", teachers.getMatches().get(0).getUserId());
+        assertEquals(ids(index.findMatches("me", 20, true)), ids(teachers.getMatches()));
+        // Sin filtrar, los 20 puestos son de alumnos con más puntuación que el profesor
+        assertFalse(ids(index.findMatches("me", 20)).contains("teacher"));
+    }
+
+    @Test
+    public void learnerWhoStartsTeachingEntersTeacherList() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", new String[]{"Inglés"}, new String[]{"Guitarra"}));
+        index.putUser(user("other", null, new String[]{"Inglés"}));
+        MatchView teachers = new MatchView(index, "me", 5, true);
+        assertTrue(teachers.refresh().isEmpty());
+
+        index.putUser(user("other", new String[]{"Guitarra"}, new String[]{"Inglés"}));
+        assertTrue(teachers.onUserChanged("other"));
+        assertEquals("other", teachers.getMatches().get(0).getUserId());
+
+        index.putUser(user("other", null, new String[]{"Inglés"}));
+        assertTrue(teachers.onUserChanged("other"));
+        assertTrue(teachers.getMatches().isEmpty());
+    }
+
+    @Test
+    public void randomUpdatesMatchFullRecompute() {
+        checkRandomUpdates(false);
+        checkRandomUpdates(true);
+    }
+
+    private static void checkRandomUpdates(boolean teachersOnly) {
+        Random random = new Random(teachersOnly ? 11 : 5);
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(randomUser("me", random));
+        MatchView view = new MatchView(index, "me", 8, teachersOnly);
+        view.refresh();
+
+        for (int step = 0; step < 5_000; step++) {
+            String userId = random.nextInt(20) == 0 ? "me" : "u" + random.nextInt(60);
+            if (!userId.equals("me") && random.nextInt(5) == 0) {
+                index.removeUser(userId);
+                view.onUserRemoved(userId);
+            } else {
+                index.putUser(randomUser(userId, random));
+                view.onUserChanged(userId);
+            }
+            List<SkillMatch> expected = index.findMatches("me", 8, teachersOnly);
+            assertEquals("paso " + step, ids(expected), ids(view.getMatches()));
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getScore(), view.getMatches().get(i).getScore(), 1e-9);
+            }
+        }
+    }
+
+    private static List<String> ids(List<SkillMatch> matches) {
+        List<String> ids = new ArrayList<>();
+        for (SkillMatch match : matches) {
+            ids.add(match.getUserId());
+        }
+        return ids;
+    }
+
+    private static User randomUser(String userId, Random random) {
+        String[] teach = new String[random.nextInt(3)];
+        for (int i = 0; i < teach.length; i++) {
+            teach[i] = TITLES[random.nextInt(TITLES.length)];
+        }
+        String[] learn = new String[random.nextInt(3)];
+        for (int i = 0; i < learn.length; i++) {
+            learn[i] = TITLES[random.nextInt(TITLES.length)];
+        }
+        User user = user(userId, teach, learn);
+        // Niveles y prioridades variados para que haya pocas puntuaciones empatadas
+        for (User.SkillToTeach skill : user.getSkillsToTeach().values()) {
+            skill.setLevel(1 + random.nextInt(5));
+        }
+        for (User.SkillToLearn skill : user.getSkillsToLearn().values()) {
+            skill.setPriority(1 + random.nextInt(3));
+        }
+        return user;
+    }
+
+    private static User user(String userId, String[] teach, String[] learn) {
+        User user = new User(userId, userId, userId + "@example.com");
+        Map<String, User.SkillToTeach> teachMap = new HashMap<>();
+        if (teach != null) {
+            for (int i = 0; i < teach.length; i++) {
+                teachMap.put("teach" + i, new User.SkillToTeach(teach[i], 3, categoryOf(teach[i]), ""));
+            }
+        }
+        Map<String, User.SkillToLearn> learnMap = new HashMap<>();
+        if (learn != null) {
+            for (int i = 0; i < learn.length; i++) {
+                learnMap.put("learn" + i, new User.SkillToLearn(learn[i], 2, categoryOf(learn[i]), ""));
+            }
+        }
+        user.setSkillsToTeach(teachMap);
+        user.setSkillsToLearn(learnMap);
+        return user;
+    }
+
+    private static String categoryOf(String title) {
+        for (int i = 0; i < TITLES.length; i++) {
+            if (TITLES[i].equals(title)) {
+                return CATEGORIES[i];
+            }
+        }
+        return "";
+    }
+}
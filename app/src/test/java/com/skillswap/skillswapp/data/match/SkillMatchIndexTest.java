@@ -0,0 +1,218 @@
+package com.skillswap.skillswapp.data.match;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del índice de emparejamiento, incluida una medición de latencia con 50.000 usuarios.
+ */
+public class SkillMatchIndexTest {
+
+    private static final int BENCHMARK_USERS = 50_000;
+    private static final int BENCHMARK_CATEGORIES = 20;
+    private static final int BENCHMARK_TITLES = 400;
+    private static final int WARMUP_QUERIES = 100;
+    private static final int MEASURED_QUERIES = 300;
+    private static final int TOP_K = 20;
+    private static final long MAX_P95_MS = 100;
+
+    @Test
+    public void reciprocalMatchRanksAboveOneSided() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", teach("Inglés", 4, "Idiomas"), learn("Guitarra", 3, "Música")));
+        index.putUser(user("oneSided", teach("Guitarra", 5, "Música"), null));
+        index.putUser(user("reciprocal", teach("Guitarra", 3, "Música"), learn("Inglés", 2, "Idiomas")));
+
+        List<SkillMatch> matches = index.findMatches("me", 10);
+
+        assertEquals(2, matches.size());
+        assertEquals("reciprocal", matches.get(0).getUserId());
+        assertTrue(matches.get(0).isReciprocal());
+        assertEquals(Arrays.asList("Guitarra"), matches.get(0).getSkillsOffered());
+        assertEquals(Arrays.asList("Inglés"), matches.get(0).getSkillsWanted());
+        assertFalse(matches.get(1).isReciprocal());
+    }
+
+    @Test
+    public void titlesMatchIgnoringCaseAndAccents() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", null, learn("musica  clasica", 2, "")));
+        index.putUser(user("teacher", teach("Música Clásica", 3, "Arte"), null));
+
+        List<SkillMatch> matches = index.findMatches("me", 10);
+
+        assertEquals(1, matches.size());
+        assertEquals("teacher", matches.get(0).getUserId());
+    }
+
+    @Test
+    public void categoryMatchScoresBelowTitleMatch() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", null, learn("Guitarra", 2, "Música")));
+        index.putUser(user("sameCategory", teach("Piano", 5, "Música"), null));
+        index.putUser(user("sameTitle", teach("Guitarra", 5, "Música"), null));
+
+        List<SkillMatch> matches = index.findMatches("me", 10);
+
+        assertEquals(2, matches.size());
+        assertEquals("sameTitle", matches.get(0).getUserId());
+        assertEquals("sameCategory", matches.get(1).getUserId());
+        // La coincidencia por título no se cuenta otra vez por categoría
+        assertEquals(SkillMatchIndex.TITLE_WEIGHT * SkillMatchIndex.priorityFactor(2)
+                        * SkillMatchIndex.levelFactor(5),
+                matches.get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    public void higherLevelAndPriorityScoreHigher() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", null, learn("Guitarra", 3, "Música")));
+        index.putUser(user("beginner", teach("Guitarra", 1, "Música"), null));
+        index.putUser(user("expert", teach("Guitarra", 5, "Música"), null));
+
+        List<SkillMatch> matches = index.findMatches("me", 10);
+
+        assertEquals("expert", matches.get(0).getUserId());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+    }
+
+    @Test
+    public void excludesSelfAndRespectsLimit() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", teach("Guitarra", 3, "Música"), learn("Guitarra", 3, "Música")));
+        for (int i = 0; i < 10; i++) {
+            index.putUser(user("u" + i, teach("Guitarra", 1 + i % 5, "Música"), null));
+        }
+
+        List<SkillMatch> matches = index.findMatches("me", 3);
+
+        assertEquals(3, matches.size());
+        for (SkillMatch match : matches) {
+            assertNotEquals("me", match.getUserId());
+        }
+        assertTrue(matches.get(0).getScore() >= matches.get(1).getScore());
+        assertTrue(matches.get(1).getScore() >= matches.get(2).getScore());
+    }
+
+    @Test
+    public void updatesAndRemovalsAreReflected() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("me", null, learn("Guitarra", 2, "Música")));
+        index.putUser(user("teacher", teach("Guitarra", 3, "Música"), null));
+        assertEquals(1, index.findMatches("me", 10).size());
+
+        index.putUser(user("teacher", teach("Cocina", 3, "Gastronomía"), null));
+        assertTrue(index.findMatches("me", 10).isEmpty());
+
+        index.putUser(user("teacher", teach("Guitarra", 3, "Música"), null));
+        index.removeUser("teacher");
+        assertTrue(index.findMatches("me", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void unknownUserHasNoMatches() {
+        SkillMatchIndex index = new SkillMatchIndex();
+        index.putUser(user("teacher", teach("Guitarra", 3, "Música"), null));
+
+        assertTrue(index.findMatches("nobody", 10).isEmpty());
+    }
+
+    /**
+     * Consultas top-K sobre 50.000 usuarios con popularidad de habilidades sesgada
+     * (unas pocas muy demandadas, como ocurre con los idiomas o la programación).
+     */
+    @Test
+    public void topKOverFiftyThousandUsersIsUnder100ms() {
+        Random random = new Random(42);
+        SkillMatchIndex index = new SkillMatchIndex();
+        List<String> userIds = new ArrayList<>(BENCHMARK_USERS);
+
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_USERS; i++) {
+            String userId = "user" + i;
+            userIds.add(userId);
+            User user = new User(userId, "Usuario " + i, userId + "@example.com");
+            Map<String, User.SkillToTeach> teachMap = new HashMap<>();
+            Map<String, User.SkillToLearn> learnMap = new HashMap<>();
+            int teachCount = 1 + random.nextInt(4);
+            int learnCount = 1 + random.nextInt(4);
+            for (int j = 0; j < teachCount; j++) {
+                int title = skewedTitle(random);
+                teachMap.put("t" + j, new User.SkillToTeach("Habilidad " + title, 1 + random.nextInt(5),
+                        "Categoría " + (title % BENCHMARK_CATEGORIES), ""));
+            }
+            for (int j = 0; j < learnCount; j++) {
+                int title = skewedTitle(random);
+                learnMap.put("l" + j, new User.SkillToLearn("Habilidad " + title, 1 + random.nextInt(3),
+                        "Categoría " + (title % BENCHMARK_CATEGORIES), ""));
+            }
+            user.setSkillsToTeach(teachMap);
+            user.setSkillsToLearn(learnMap);
+            index.putUser(user);
+        }
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.findMatches(userIds.get(random.nextInt(BENCHMARK_USERS)), TOP_K);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String userId = userIds.get(random.nextInt(BENCHMARK_USERS));
+            long start = System.nanoTime();
+            List<SkillMatch> matches = index.findMatches(userId, TOP_K);
+            latencies[i] = System.nanoTime() - start;
+            assertTrue(matches.size() <= TOP_K);
+        }
+        Arrays.sort(latencies);
+        double p50Ms = latencies[MEASURED_QUERIES / 2] / 1e6;
+        double p95Ms = latencies[(int) (MEASURED_QUERIES * 0.95)] / 1e6;
+        double maxMs = latencies[MEASURED_QUERIES - 1] / 1e6;
+
+        System.out.printf("SkillMatchIndex: %d usuarios indexados en %d ms; top-%d p50 %.2f ms, p95 %.2f ms, máx %.2f ms%n",
+                BENCHMARK_USERS, buildMs, TOP_K, p50Ms, p95Ms, maxMs);
+        assertTrue("p95 " + p95Ms + " ms", p95Ms < MAX_P95_MS);
+    }
+
+    /**
+     * Título con distribución sesgada: los índices bajos aparecen mucho más a menudo.
+     */
+    private static int skewedTitle(Random random) {
+        double u = random.nextDouble();
+        return (int) (BENCHMARK_TITLES * u * u * u);
+    }
+
+    private static User user(String userId, User.SkillToTeach teach, User.SkillToLearn learn) {
+        User user = new User(userId, userId, userId + "@example.com");
+        Map<String, User.SkillToTeach> teachMap = new HashMap<>();
+        if (teach != null) {
+            teachMap.put("teach", teach);
+        }
+        Map<String, User.SkillToLearn> learnMap = new HashMap<>();
+        if (learn != null) {
+            learnMap.put("learn", learn);
+        }
+        user.setSkillsToTeach(teachMap);
+        user.setSkillsToLearn(learnMap);
+        return user;
+    }
+
+    private static User.SkillToTeach teach(String title, int level, String category) {
+        return new User.SkillToTeach(title, level, category, "");
+    }
+
+    private static User.SkillToLearn learn(String title, int priority, String category) {
+        return new User.SkillToLearn(title, priority, category, "");
+    }
+}
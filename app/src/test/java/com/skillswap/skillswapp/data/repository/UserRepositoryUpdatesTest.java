@@ -0,0 +1,138 @@
+package com.skillswap.skillswapp.data.repository;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las escrituras que {@link UserRepository} confirma en un solo updateChildren:
+ * índice de búsqueda, resumen y habilidades para enseñar. Firebase rechaza el lote entero si
+ * una ruta contiene a otra, así que todas se comprueban también contra eso.
+ */
+public class UserRepositoryUpdatesTest {
+
+    @Test
+    public void indexUpdatesDiffTokensAndRewriteSummary() {
+        User user = user("u1", "Ana", "Piano");
+        Map<String, Object> updates = UserRepository.indexUpdates("u1", tokens("ana", "guitarra"), user);
+
+        assertTrue(updates.containsKey("search_index/guitarra/u1"));
+        assertNull(updates.get("search_index/guitarra/u1"));
+        assertEquals(true, updates.get("search_index/piano/u1"));
+        assertFalse(updates.containsKey("search_index/ana/u1"));
+        assertTrue(updates.get(UserRepository.USER_SUMMARIES + "/u1") instanceof Map);
+        assertNoOverlap(updates);
+    }
+
+    @Test
+    public void missingUserRemovesStaleEntries() {
+        Map<String, Object> updates = UserRepository.indexUpdates("u1", tokens("ana", "piano"), null);
+
+        assertEquals(new HashSet<>(Arrays.asList(
+                "search_index/ana/u1", "search_tokens/u1/ana",
+                "search_index/piano/u1", "search_tokens/u1/piano",
+                UserRepository.USER_SUMMARIES + "/u1")), updates.keySet());
+        for (Object value : updates.values()) {
+            assertNull(value);
+        }
+    }
+
+    @Test
+    public void savingSkillWritesEveryNodeOnce() {
+        User.SkillToTeach skill = new User.SkillToTeach("Piano", 3, "musica", "");
+        User user = user("u1", "Ana", null);
+        user.getSkillsToTeach().put("s1", skill);
+
+        Map<String, Object> updates = UserRepository.saveSkillToTeachUpdates("u1", "s1", skill, "musica",
+                "idiomas", user, tokens("ana"), false, true);
+
+        assertEquals(skill.toMap(), updates.get("users/u1/skills_to_teach/s1"));
+        assertEquals("Piano", updates.get("skills/s1/title"));
+        assertEquals("musica", updates.get("skills/s1/category"));
+        assertEquals(true, updates.get("skills/s1/" + SkillRepository.USERS_TEACHING + "/u1"));
+        assertTrue(updates.containsKey("skills/s1/" + SkillRepository.TEACHER_COUNT));
+        assertTrue(updates.containsKey("skills_by_category/idiomas/s1"));
+        assertEquals(true, updates.get("skills_by_category/musica/s1"));
+        assertEquals(true, updates.get("search_tokens/u1/piano"));
+        assertFalse(updates.containsKey("search_tokens/u1/ana"));
+        assertNoOverlap(updates);
+    }
+
+    @Test
+    public void editingSkillKeepsCounterAndCategory() {
+        User.SkillToTeach skill = new User.SkillToTeach("Piano", 4, "musica", "");
+        User user = user("u1", "Ana", null);
+        user.getSkillsToTeach().put("s1", skill);
+
+        Map<String, Object> updates = UserRepository.saveSkillToTeachUpdates("u1", "s1", skill, "musica",
+                "musica", user, tokens("ana", "piano"), true, true);
+
+        assertFalse(updates.containsKey("skills/s1/" + SkillRepository.TEACHER_COUNT));
+        assertEquals(true, updates.get("skills_by_category/musica/s1"));
+        assertFalse(updates.containsKey("search_tokens/u1/piano"));
+        assertNoOverlap(updates);
+    }
+
+    @Test
+    public void deletingSkillRemovesTeacherAndTokens() {
+        User user = user("u1", "Ana", null);
+
+        Map<String, Object> updates = UserRepository.deleteSkillToTeachUpdates("u1", "s1", user,
+                tokens("ana", "piano"), true, true);
+
+        assertTrue(updates.containsKey("users/u1/skills_to_teach/s1"));
+        assertNull(updates.get("users/u1/skills_to_teach/s1"));
+        assertTrue(updates.containsKey("skills/s1/" + SkillRepository.USERS_TEACHING + "/u1"));
+        assertNull(updates.get("skills/s1/" + SkillRepository.USERS_TEACHING + "/u1"));
+        assertTrue(updates.containsKey("search_index/piano/u1"));
+        assertNull(updates.get("search_index/piano/u1"));
+        assertFalse(updates.containsKey("search_index/ana/u1"));
+        assertNoOverlap(updates);
+    }
+
+    @Test
+    public void overlapCheckDetectsNestedPaths() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("skills/s1", null);
+        updates.put("skills/s10/title", "Piano");
+        assertNoOverlap(updates);
+
+        updates.put("skills/s1/title", "Piano");
+        try {
+            assertNoOverlap(updates);
+        } catch (AssertionError e) {
+            return;
+        }
+        fail("skills/s1 contiene a skills/s1/title");
+    }
+
+    /**
+     * Comprueba que ninguna ruta del lote contenga a otra, como exige updateChildren.
+     */
+    private static void assertNoOverlap(Map<String, Object> updates) {
+        for (String parent : updates.keySet()) {
+            for (String path : updates.keySet()) {
+                assertFalse(parent + " contiene a " + path, path.startsWith(parent + "/"));
+            }
+        }
+    }
+
+    private static Set<String> tokens(String... tokens) {
+        return new HashSet<>(Arrays.asList(tokens));
+    }
+
+    private static User user(String userId, String name, String bio) {
+        User user = new User(userId, name, userId + "@example.com");
+        user.getProfile().setBio(bio);
+        user.setSkillsToTeach(new HashMap<>());
+        return user;
+    }
+}
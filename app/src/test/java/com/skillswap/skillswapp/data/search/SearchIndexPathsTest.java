@@ -0,0 +1,97 @@
+package com.skillswap.skillswapp.data.search;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las rutas de los nodos de búsqueda: solo se escriben los tokens que cambian y las
+ * habilidades se mueven de categoría sin dejar entradas antiguas.
+ */
+public class SearchIndexPathsTest {
+
+    @Test
+    public void tokenDiffWritesOnlyChangedTokens() {
+        Map<String, Object> updates = SearchIndexPaths.userTokenUpdates("u1",
+                tokens("ana", "guitarra"), tokens("ana", "piano"));
+
+        assertEquals(4, updates.size());
+        assertNull(updates.get("search_index/guitarra/u1"));
+        assertNull(updates.get("search_tokens/u1/guitarra"));
+        assertTrue(updates.containsKey("search_index/guitarra/u1"));
+        assertTrue(updates.containsKey("search_tokens/u1/guitarra"));
+        assertEquals(true, updates.get("search_index/piano/u1"));
+        assertEquals(true, updates.get("search_tokens/u1/piano"));
+        assertFalse(updates.containsKey("search_index/ana/u1"));
+    }
+
+    @Test
+    public void sameTokensWriteNothing() {
+        assertTrue(SearchIndexPaths.userTokenUpdates("u1", tokens("ana"), tokens("ana")).isEmpty());
+        assertTrue(SearchIndexPaths.userTokenUpdates("u1", null, null).isEmpty());
+    }
+
+    @Test
+    public void firstIndexingAddsEveryToken() {
+        Map<String, Object> updates = SearchIndexPaths.userTokenUpdates("u1", null, tokens("ana", "piano"));
+
+        assertEquals(4, updates.size());
+        for (Object value : updates.values()) {
+            assertEquals(true, value);
+        }
+    }
+
+    @Test
+    public void removedUserLosesEveryToken() {
+        Map<String, Object> updates = SearchIndexPaths.userTokenUpdates("u1", tokens("ana", "piano"), null);
+
+        assertEquals(4, updates.size());
+        for (Object value : updates.values()) {
+            assertNull(value);
+        }
+    }
+
+    @Test
+    public void categoryChangeMovesSkill() {
+        Map<String, Object> updates = SearchIndexPaths.skillCategoryUpdates("s1", "musica", "idiomas");
+
+        assertEquals(2, updates.size());
+        assertTrue(updates.containsKey("skills_by_category/musica/s1"));
+        assertNull(updates.get("skills_by_category/musica/s1"));
+        assertEquals(true, updates.get("skills_by_category/idiomas/s1"));
+    }
+
+    @Test
+    public void sameCategoryIsOnlyRewritten() {
+        Map<String, Object> updates = SearchIndexPaths.skillCategoryUpdates("s1", "musica", "musica");
+
+        assertEquals(1, updates.size());
+        assertEquals(true, updates.get("skills_by_category/musica/s1"));
+    }
+
+    @Test
+    public void newAndDeletedSkillsTouchOneCategory() {
+        assertEquals(Arrays.asList("skills_by_category/musica/s1"),
+                Arrays.asList(SearchIndexPaths.skillCategoryUpdates("s1", null, "musica").keySet().toArray()));
+
+        Map<String, Object> deleted = SearchIndexPaths.skillCategoryUpdates("s1", "musica", null);
+        assertEquals(1, deleted.size());
+        assertNull(deleted.get("skills_by_category/musica/s1"));
+    }
+
+    @Test
+    public void invalidCategoryKeysAreIgnored() {
+        assertTrue(SearchIndexPaths.skillCategoryUpdates("s1", "", "a/b").isEmpty());
+        assertTrue(SearchIndexPaths.skillCategoryUpdates("s1", "a.b", null).isEmpty());
+        assertEquals(1, SearchIndexPaths.skillCategoryUpdates("s1", "a#b", "musica").size());
+    }
+
+    private static Set<String> tokens(String... tokens) {
+        return new HashSet<>(Arrays.asList(tokens));
+    }
+}
@@ -0,0 +1,218 @@
+package com.skillswap.skillswapp.data.search;
+
+import com.skillswap.skillswapp.data.model.Skill;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del árbol de títulos, incluida una comparación con una búsqueda lineal y una
+ * medición con 20.000 habilidades del tiempo de construcción, de actualización y de consulta.
+ */
+public class SkillTitleTrieTest {
+
+    private static final int BENCHMARK_SKILLS = 20_000;
+    private static final int MEASURED_QUERIES = 2_000;
+    private static final long MAX_P95_MICROS = 200;
+    private static final long MAX_BUILD_MS = 2_000;
+    private static final int WARMUP_UPSERTS = 1_000;
+    private static final int MEASURED_UPSERTS = 1_000;
+    private static final long MAX_UPSERT_P95_MICROS = 500;
+
+    @Test
+    public void matchesIgnoringCaseAndAccents() {
+        SkillTitleTrie trie = new SkillTitleTrie();
+        trie.put(skill("1", "Música clásica", 2));
+        trie.put(skill("2", "Python", 1));
+
+        assertEquals(Collections.singletonList("Música clásica"), trie.suggest("MUSI", 5));
+        assertEquals(Collections.singletonList("Python"), trie.suggest("python", 5));
+        assertEquals(Collections.singletonList("Música clásica"), trie.suggest("musica  cla", 5));
+    }
+
+    @Test
+    public void matchesWordStarts() {
+        SkillTitleTrie trie = new SkillTitleTrie();
+        trie.put(skill("1", "Guitarra eléctrica", 1));
+
+        assertEquals(Collections.singletonList("Guitarra eléctrica"), trie.suggest("elec", 5));
+        assertTrue(trie.suggest("trica", 5).isEmpty());
+    }
+
+    @Test
+    public void ranksByTeacherCountAndFollowsUpdates() {
+        SkillTitleTrie trie = new SkillTitleTrie();
+        trie.put(skill("1", "Piano", 1));
+        trie.put(skill("2", "Pintura", 5));
+        trie.put(skill("3", "Pilates", 3));
+        assertEquals(Arrays.asList("Pintura", "Pilates", "Piano"), trie.suggest("pi", 5));
+
+        trie.put(skill("1", "Piano", 10));
+        assertEquals(Arrays.asList("Piano", "Pintura", "Pilates"), trie.suggest("pi", 5));
+
+        trie.remove("2");
+        trie.put(skill("3", "Yoga", 3));
+        assertEquals(Collections.singletonList("Piano"), trie.suggest("pi", 5));
+        assertEquals(Collections.singletonList("Yoga"), trie.suggest("yo", 5));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void repeatedTitlesAreSuggestedOnce() {
+        SkillTitleTrie trie = new SkillTitleTrie();
+        trie.put(skill("1", "Inglés", 2));
+        trie.put(skill("2", "ingles", 4));
+
+        assertEquals(Collections.singletonList("ingles"), trie.suggest("in", 5));
+        trie.remove("2");
+        assertEquals(Collections.singletonList("Inglés"), trie.suggest("in", 5));
+    }
+
+    @Test
+    public void randomUpdatesMatchLinearSearch() {
+        Random random = new Random(7);
+        String[] words = {"piano", "pintura", "python", "música", "clásica", "inglés", "guitarra", "yoga", "cocina", "cálculo"};
+        SkillTitleTrie trie = new SkillTitleTrie();
+        Map<String, Skill> skills = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            String skillId = "s" + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                trie.remove(skillId);
+                skills.remove(skillId);
+            } else {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                Skill skill = skill(skillId, title, random.nextInt(20));
+                trie.put(skill);
+                skills.put(skillId, skill);
+            }
+            if (step % 50 == 0) {
+                String word = SkillTitleTrie.fold(words[random.nextInt(words.length)]);
+                String query = word.substring(0, 1 + random.nextInt(word.length()));
+                assertEquals(linearSuggest(skills.values(), query, 5), trie.suggest(query, 5));
+            }
+        }
+    }
+
+    @Test
+    public void bulkBuildMatchesIncrementalInserts() {
+        Random random = new Random(3);
+        List<Skill> skills = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            skills.add(skill("s" + i, randomWord(random) + " " + randomWord(random), random.nextInt(10)));
+        }
+        SkillTitleTrie bulk = new SkillTitleTrie();
+        bulk.replaceAll(skills);
+        SkillTitleTrie incremental = new SkillTitleTrie();
+        for (Skill skill : skills) {
+            incremental.put(skill);
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            for (char d = 'a'; d <= 'z'; d++) {
+                String query = "" + c + d;
+                assertEquals(incremental.suggest(query, 10), bulk.suggest(query, 10));
+            }
+        }
+    }
+
+    @Test
+    public void buildUpdateAndSuggestionLatencyWithLargeCatalog() {
+        Random random = new Random(42);
+        SkillTitleTrie trie = new SkillTitleTrie();
+        List<Skill> skills = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < BENCHMARK_SKILLS; i++) {
+            String title = randomWord(random) + " " + randomWord(random);
+            titles.add(title);
+            skills.add(skill("s" + i, title, random.nextInt(100)));
+        }
+
+        long buildStart = System.nanoTime();
+        trie.replaceAll(skills);
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+        assertTrue("build = " + buildMs + " ms", buildMs <= MAX_BUILD_MS);
+
+        long[] upsertMicros = new long[MEASURED_UPSERTS];
+        for (int i = 0; i < WARMUP_UPSERTS + MEASURED_UPSERTS; i++) {
+            String skillId = "s" + random.nextInt(BENCHMARK_SKILLS);
+            Skill changed = skill(skillId, randomWord(random) + " " + randomWord(random), random.nextInt(100));
+            long start = System.nanoTime();
+            trie.put(changed);
+            if (i >= WARMUP_UPSERTS) {
+                upsertMicros[i - WARMUP_UPSERTS] = (System.nanoTime() - start) / 1_000;
+            }
+            titles.set(Integer.parseInt(skillId.substring(1)), changed.getTitle());
+        }
+        Arrays.sort(upsertMicros);
+        long upsertP95 = upsertMicros[(int) (MEASURED_UPSERTS * 0.95)];
+        assertTrue("upsert p95 = " + upsertP95 + " µs", upsertP95 <= MAX_UPSERT_P95_MICROS);
+
+        long[] micros = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            String title = titles.get(random.nextInt(titles.size()));
+            String query = title.substring(0, 1 + random.nextInt(Math.min(4, title.length())));
+            long start = System.nanoTime();
+            List<String> suggestions = trie.suggest(query, 5);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+            assertFalse(suggestions.isEmpty());
+        }
+        Arrays.sort(micros);
+        long p95 = micros[(int) (MEASURED_QUERIES * 0.95)];
+        assertTrue("p95 = " + p95 + " µs", p95 <= MAX_P95_MICROS);
+    }
+
+    private static List<String> linearSuggest(Iterable<Skill> skills, String query, int limit) {
+        String key = SkillTitleTrie.fold(query);
+        List<Skill> matching = new ArrayList<>();
+        for (Skill skill : skills) {
+            if (SkillTitleTrie.matches(skill.getTitle(), key)) {
+                matching.add(skill);
+            }
+        }
+        Collections.sort(matching, new Comparator<Skill>() {
+            @Override
+            public int compare(Skill a, Skill b) {
+                if (a.getTeacherCount() != b.getTeacherCount()) {
+                    return a.getTeacherCount() > b.getTeacherCount() ? -1 : 1;
+                }
+                int cmp = SkillTitleTrie.fold(a.getTitle()).compareTo(SkillTitleTrie.fold(b.getTitle()));
+                return cmp != 0 ? cmp : a.getSkillId().compareTo(b.getSkillId());
+            }
+        });
+        List<String> titles = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Skill skill : matching) {
+            if (titles.size() < limit && seen.add(SkillTitleTrie.fold(skill.getTitle()))) {
+                titles.add(skill.getTitle());
+            }
+        }
+        return titles;
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static Skill skill(String skillId, String title, int teacherCount) {
+        Skill skill = new Skill(skillId, title, "");
+        skill.setTeacherCount(teacherCount);
+        return skill;
+    }
+}
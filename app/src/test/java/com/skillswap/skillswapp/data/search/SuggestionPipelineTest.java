@@ -0,0 +1,281 @@
+package com.skillswap.skillswapp.data.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del pipeline de sugerencias con un reloj y un planificador manuales.
+ */
+public class SuggestionPipelineTest {
+
+    private static final List<String> TITLES = Arrays.asList(
+            "Python", "Pytorch", "Piano", "Pintura", "Photoshop", "Programación");
+
+    @Test
+    public void typingFastSendsOneRequestForTheLastQuery() {
+        Harness h = new Harness();
+        h.type("Py");
+        h.advance(50);
+        h.type("Pyt");
+        h.advance(50);
+        h.type("Pyth");
+
+        assertEquals(0, h.pipeline.getRequestCount());
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(1, h.pipeline.getRequestCount());
+        assertEquals(Collections.singletonList("Pyth"), h.source.queries);
+
+        h.source.respond(0, 30);
+        assertEquals(Collections.singletonList("Python"), h.lastOutput());
+        assertEquals(SuggestionPipeline.DEBOUNCE_MS + 30, h.pipeline.getLastLatencyMs());
+    }
+
+    @Test
+    public void localLookupAnswersWithoutRequest() {
+        Harness h = new Harness();
+        h.source.local = true;
+        h.type("Pyth");
+
+        assertEquals(0, h.pipeline.getRequestCount());
+        assertEquals(1, h.pipeline.getLocalHits());
+        assertEquals(Collections.singletonList("Python"), h.lastOutput());
+        assertEquals(0, h.pipeline.getLastLatencyMs());
+    }
+
+    @Test
+    public void sameQueryWhileWaitingKeepsRequest() {
+        Harness h = new Harness();
+        h.type("Pi");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.type("Pi ");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(1, h.pipeline.getRequestCount());
+
+        h.source.respond(0, 10);
+        assertEquals(Arrays.asList("Piano", "Pintura"), h.lastOutput());
+    }
+
+    @Test
+    public void staleResponseIsNotPublished() {
+        Harness h = new Harness();
+        h.type("Pi");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.type("Ph");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(2, h.pipeline.getRequestCount());
+
+        // Responde primero la consulta nueva y después la antigua
+        h.source.respond(1, 10);
+        h.source.respond(0, 10);
+
+        assertEquals(Collections.singletonList("Photoshop"), h.lastOutput());
+    }
+
+    @Test
+    public void longerQueryIsServedFromCompletePrefix() {
+        Harness h = new Harness();
+        h.type("Py");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.source.respond(0, 20);
+        assertEquals(Arrays.asList("Python", "Pytorch"), h.lastOutput());
+
+        h.type("Pyth");
+        assertEquals(1, h.pipeline.getRequestCount());
+        assertEquals(1, h.pipeline.getCacheHits());
+        assertEquals(Collections.singletonList("Python"), h.lastOutput());
+        assertEquals(0, h.pipeline.getLastLatencyMs());
+    }
+
+    @Test
+    public void otherCaseIsQueriedAgain() {
+        Harness h = new Harness();
+        h.type("py");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.source.respond(0, 10);
+        assertTrue(h.lastOutput().isEmpty());
+
+        // El origen distingue mayúsculas: la lista vacía de "py" no dice nada de "Py"
+        h.type("Py");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(2, h.pipeline.getRequestCount());
+        h.source.respond(1, 10);
+        assertEquals(Arrays.asList("Python", "Pytorch"), h.lastOutput());
+    }
+
+    @Test
+    public void errorIsNotCached() {
+        Harness h = new Harness();
+        h.type("Py");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.source.fail(0);
+        assertTrue(h.lastOutput().isEmpty());
+
+        h.type("Pyt");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(2, h.pipeline.getRequestCount());
+        assertEquals(0, h.pipeline.getCacheHits());
+        h.source.respond(1, 10);
+        assertEquals(Arrays.asList("Python", "Pytorch"), h.lastOutput());
+    }
+
+    @Test
+    public void truncatedPrefixIsNotReused() {
+        Harness h = new Harness();
+        h.source.limitOverride = SuggestionPipeline.LIMIT;
+        h.type("p");
+        h.type("pr");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.source.respond(0, 10);
+
+        // Una lista que llega al límite puede haber dejado títulos fuera
+        h.type("pro");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(2, h.pipeline.getRequestCount());
+    }
+
+    @Test
+    public void shortQueryClearsWithoutRequest() {
+        Harness h = new Harness();
+        h.type("py");
+        h.type("p");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+
+        assertEquals(0, h.pipeline.getRequestCount());
+        assertTrue(h.lastOutput().isEmpty());
+    }
+
+    @Test
+    public void expiredCacheIsQueriedAgain() {
+        Harness h = new Harness();
+        h.type("pi");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        h.source.respond(0, 10);
+
+        h.type("");
+        h.advance(SuggestionPipeline.CACHE_TTL_MS + 1);
+        h.type("pin");
+        h.advance(SuggestionPipeline.DEBOUNCE_MS);
+        assertEquals(2, h.pipeline.getRequestCount());
+    }
+
+    /**
+     * Reloj, planificador y origen controlados por la prueba.
+     */
+    private static final class Harness implements SuggestionPipeline.Scheduler {
+        final FakeSource source = new FakeSource(this);
+        final List<List<String>> outputs = new ArrayList<>();
+        final SuggestionPipeline pipeline;
+        long now;
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> dueTimes = new ArrayList<>();
+
+        Harness() {
+            pipeline = new SuggestionPipeline(source, this, () -> now, outputs::add);
+        }
+
+        void type(String text) {
+            pipeline.onQueryChanged(text);
+        }
+
+        void advance(long ms) {
+            now += ms;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (dueTimes.get(i) <= now) {
+                    Runnable task = tasks.remove(i);
+                    dueTimes.remove(i);
+                    i--;
+                    task.run();
+                }
+            }
+        }
+
+        List<String> lastOutput() {
+            return outputs.get(outputs.size() - 1);
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.add(task);
+            dueTimes.add(now + delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            int i = tasks.indexOf(task);
+            if (i >= 0) {
+                tasks.remove(i);
+                dueTimes.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Origen que guarda las consultas y responde cuando lo pide la prueba.
+     */
+    private static final class FakeSource implements SuggestionPipeline.Source {
+        final Harness harness;
+        final List<String> queries = new ArrayList<>();
+        final List<Consumer<List<String>>> callbacks = new ArrayList<>();
+        final List<Runnable> errorCallbacks = new ArrayList<>();
+        final List<Integer> limits = new ArrayList<>();
+        int limitOverride = -1;
+        // Responde desde lookup, como el índice local ya cargado
+        boolean local;
+
+        FakeSource(Harness harness) {
+            this.harness = harness;
+        }
+
+        @Override
+        public void fetch(String query, int limit, Consumer<List<String>> onResult, Runnable onError) {
+            queries.add(query);
+            callbacks.add(onResult);
+            errorCallbacks.add(onError);
+            limits.add(limit);
+        }
+
+        @Override
+        public List<String> lookup(String query, int limit) {
+            if (!local) {
+                return null;
+            }
+            List<String> result = new ArrayList<>();
+            for (String title : TITLES) {
+                if (SkillTitleTrie.matches(title, SkillTitleTrie.fold(query)) && result.size() < limit) {
+                    result.add(title);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Responde como Firebase: prefijo exacto, distinguiendo mayúsculas.
+         */
+        void respond(int request, long latencyMs) {
+            harness.now += latencyMs;
+            String prefix = queries.get(request);
+            List<String> result = new ArrayList<>();
+            for (String title : TITLES) {
+                if (title.startsWith(prefix) && result.size() < limits.get(request)) {
+                    result.add(title);
+                }
+            }
+            // Simula una respuesta recortada al límite aunque haya menos coincidencias
+            while (limitOverride > 0 && result.size() < limitOverride) {
+                result.add(prefix + result.size());
+            }
+            callbacks.get(request).accept(result);
+        }
+
+        void fail(int request) {
+            errorCallbacks.get(request).run();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.skillswap.skillswapp.data.search;
+
+import com.skillswap.skillswapp.data.model.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del índice de búsqueda de usuarios: tokens, coincidencia por prefijo de palabra,
+ * filtros y retirada de usuarios.
+ */
+public class UserSearchIndexTest {
+
+    @Test
+    public void tokensAreNormalizedWords() {
+        User user = user("u1", "María José", "Profesora de guitarra");
+        user.getSkillsToTeach().put("s1", new User.SkillToTeach("Guitarra Española", 3, "musica", ""));
+
+        assertEquals(new HashSet<>(Arrays.asList("maria", "jose", "profesora", "de", "guitarra", "espanola")),
+                SearchIndexPaths.userTokens(user));
+    }
+
+    @Test
+    public void termsMatchWordPrefixesNotSubstrings() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.putUser(user("u1", "Ana", null));
+        index.putUser(user("u2", "Anaya", null));
+        index.putUser(user("u3", "Mariana", null));
+
+        // Con la búsqueda por subcadena anterior "ana" también encontraba "Mariana"
+        assertEquals(Arrays.asList("u1", "u2"), ids(index.search("ana", null, 0)));
+        assertEquals(Arrays.asList("u2"), ids(index.search("ANAY", null, 0)));
+        assertEquals(Arrays.asList("u3"), ids(index.search("mari", null, 0)));
+        assertTrue(index.search("riana", null, 0).isEmpty());
+    }
+
+    @Test
+    public void everyTermMustMatchInAnyOrder() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.putUser(user("u1", "Luis", "Clases de óleo y pintura"));
+        index.putUser(user("u2", "Lucía", "Pintura digital"));
+
+        assertEquals(Arrays.asList("u1"), ids(index.search("pintura oleo", null, 0)));
+        assertEquals(Arrays.asList("u1", "u2"), ids(index.search("pint", null, 0)));
+        assertTrue(index.search("pintura acuarela", null, 0).isEmpty());
+    }
+
+    @Test
+    public void skillTitlesCategoryAndLevelAreSearchable() {
+        UserSearchIndex index = new UserSearchIndex();
+        User teacher = user("u1", "Ana", null);
+        teacher.getSkillsToTeach().put("s1", new User.SkillToTeach("Piano", 4, "musica", ""));
+        User beginner = user("u2", "Luis", null);
+        beginner.getSkillsToTeach().put("s2", new User.SkillToTeach("Piano", 1, "musica", ""));
+        index.putUser(teacher);
+        index.putUser(beginner);
+        index.putUser(user("u3", "Eva", null));
+
+        assertEquals(Arrays.asList("u1", "u2"), ids(index.search("pia", null, 0)));
+        assertEquals(Arrays.asList("u1", "u2"), ids(index.search("", "musica", 0)));
+        assertEquals(Arrays.asList("u1"), ids(index.search("piano", "musica", 3)));
+        assertTrue(index.search("piano", "idiomas", 0).isEmpty());
+        assertEquals(3, index.search("", null, 0).size());
+    }
+
+    @Test
+    public void updatingAndRemovingUserDropsOldTokens() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.putUser(user("u1", "Ana", "Guitarra"));
+        index.putUser(user("u2", "Luis", "Guitarra"));
+        int tokens = index.getTokenCount();
+
+        index.putUser(user("u1", "Ana", "Piano"));
+        assertEquals(Arrays.asList("u2"), ids(index.search("guitarra", null, 0)));
+        assertEquals(Arrays.asList("u1"), ids(index.search("piano", null, 0)));
+        assertEquals(tokens + 1, index.getTokenCount());
+
+        index.removeUser("u1");
+        index.removeUser("u1");
+        assertEquals(1, index.size());
+        assertTrue(index.search("ana", null, 0).isEmpty());
+        assertTrue(index.search("piano", null, 0).isEmpty());
+        // Solo quedan los tokens de Luis
+        assertEquals(2, index.getTokenCount());
+    }
+
+    private static User user(String userId, String name, String bio) {
+        User user = new User(userId, name, userId + "@example.com");
+        user.getProfile().setBio(bio);
+        Map<String, User.SkillToTeach> skills = new HashMap<>();
+        user.setSkillsToTeach(skills);
+        return user;
+    }
+
+    private static List<String> ids(List<User> users) {
+        List<String> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getUserId());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+}
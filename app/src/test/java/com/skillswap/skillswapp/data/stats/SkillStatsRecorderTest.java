@@ -0,0 +1,168 @@
+package com.skillswap.skillswapp.data.stats;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del envío por lotes y de la puntuación con decaimiento, con un destino, un
+ * planificador y un reloj controlados por la prueba.
+ */
+public class SkillStatsRecorderTest {
+
+    private static final double DELTA = 1e-9;
+    private static final long NOW = SkillStatsRecorder.EPOCH_MS + 10 * SkillStatsRecorder.HALF_LIFE_MS;
+
+    private final FakeSink sink = new FakeSink();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final SkillStatsRecorder recorder = new SkillStatsRecorder(sink, new SkillStatsRecorder.Scheduler() {
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.add(task);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            tasks.remove(task);
+        }
+    }, () -> NOW);
+
+    @Test
+    public void eventsAreSentTogetherAfterInterval() {
+        recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        recorder.record("s2", SkillStatsRecorder.Event.SEARCH_CLICK);
+        assertTrue(sink.counters.isEmpty());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(1, sink.counters.size());
+        Map<String, long[]> counts = sink.counters.get(0);
+        assertEquals(2, counts.get("s1")[SkillStatsRecorder.Event.VIEW.ordinal()]);
+        assertEquals(1, counts.get("s2")[SkillStatsRecorder.Event.SEARCH_CLICK.ordinal()]);
+        assertEquals(SkillStatsRecorder.score(2, NOW), sink.scores.get("s1"), DELTA);
+        assertEquals(SkillStatsRecorder.score(2, NOW), sink.scores.get("s2"), DELTA);
+    }
+
+    @Test
+    public void manyEventsAreSentWithoutWaiting() {
+        for (int i = 0; i < SkillStatsRecorder.MAX_PENDING_EVENTS; i++) {
+            recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        }
+        assertEquals(1, sink.counters.size());
+        assertTrue(tasks.isEmpty());
+
+        recorder.flush();
+        assertEquals(1, sink.counters.size());
+    }
+
+    @Test
+    public void failedCountersAreSentWithNextBatch() {
+        sink.failCounters = true;
+        recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        runTasks();
+        assertTrue(sink.counters.isEmpty());
+        assertEquals(1, tasks.size());
+
+        sink.failCounters = false;
+        recorder.record("s1", SkillStatsRecorder.Event.TEACHER_JOIN);
+        runTasks();
+        Map<String, long[]> counts = sink.counters.get(0);
+        assertEquals(1, counts.get("s1")[SkillStatsRecorder.Event.VIEW.ordinal()]);
+        assertEquals(1, counts.get("s1")[SkillStatsRecorder.Event.TEACHER_JOIN.ordinal()]);
+        // La popularidad de la visita ya se escribió en el primer lote y no se repite
+        assertEquals(SkillStatsRecorder.score(6, NOW), sink.scores.get("s1"), DELTA);
+    }
+
+    @Test
+    public void failedScoreIsAddedToNextBatch() {
+        sink.failScores = true;
+        recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        runTasks();
+        assertEquals(1, sink.counters.size());
+        assertTrue(sink.scores.isEmpty());
+
+        sink.failScores = false;
+        recorder.record("s1", SkillStatsRecorder.Event.VIEW);
+        runTasks();
+        assertEquals(2, sink.counters.size());
+        assertEquals(SkillStatsRecorder.score(2, NOW), sink.scores.get("s1"), DELTA);
+    }
+
+    @Test
+    public void scoreHalvesEveryHalfLife() {
+        long halfLife = SkillStatsRecorder.HALF_LIFE_MS;
+        assertEquals(0, SkillStatsRecorder.score(1, SkillStatsRecorder.EPOCH_MS), DELTA);
+        assertEquals(SkillStatsRecorder.score(1, NOW) + 1, SkillStatsRecorder.score(1, NOW + halfLife), DELTA);
+        // Dos visitas hace una vida media valen lo mismo que una ahora
+        assertEquals(SkillStatsRecorder.score(1, NOW), SkillStatsRecorder.score(2, NOW - halfLife), DELTA);
+        // Una visita hace una vida media más otra ahora: 1.5 visitas de ahora
+        assertEquals(SkillStatsRecorder.score(1.5, NOW), SkillStatsRecorder.logAdd(
+                SkillStatsRecorder.score(1, NOW - halfLife), SkillStatsRecorder.score(1, NOW)), DELTA);
+    }
+
+    @Test
+    public void scoreStaysSmallAfterYears() {
+        long years = 50L * 365 * 24 * 60 * 60 * 1000;
+        double score = SkillStatsRecorder.score(5, SkillStatsRecorder.EPOCH_MS + years);
+        // Crece en torno a 52 por año, sin desbordar
+        assertTrue(score > 2500 && score < 2700);
+        assertEquals(score + 1, SkillStatsRecorder.logAdd(score, score), DELTA);
+        assertEquals(score, SkillStatsRecorder.logAdd(score, score - 2000), DELTA);
+    }
+
+    @Test
+    public void counterPathsUseDailyBucket() {
+        Map<String, long[]> counts = new HashMap<>();
+        counts.put("s1", new long[]{3, 0, 1});
+        String bucket = SkillStatsRecorder.bucketOf(SkillStatsRecorder.EPOCH_MS);
+        assertEquals("20250101", bucket);
+
+        Map<String, Object> updates = SkillStatsRecorder.counterUpdates(counts, bucket);
+        assertEquals(2, updates.size());
+        assertTrue(updates.containsKey("s1/20250101/views"));
+        assertTrue(updates.containsKey("s1/20250101/teacher_joins"));
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    /**
+     * Destino que guarda lo enviado y puede simular errores.
+     */
+    private static final class FakeSink implements SkillStatsRecorder.Sink {
+        final List<Map<String, long[]>> counters = new ArrayList<>();
+        final Map<String, Double> scores = new HashMap<>();
+        boolean failCounters;
+        boolean failScores;
+
+        @Override
+        public void addCounters(Map<String, long[]> counts, long timeMs, Runnable onFailure) {
+            if (failCounters) {
+                onFailure.run();
+            } else {
+                counters.add(counts);
+            }
+        }
+
+        @Override
+        public void addScore(String skillId, double score, Runnable onFailure) {
+            if (failScores) {
+                onFailure.run();
+                return;
+            }
+            Double current = scores.get(skillId);
+            scores.put(skillId, current == null ? score : SkillStatsRecorder.logAdd(current, score));
+        }
+    }
+}
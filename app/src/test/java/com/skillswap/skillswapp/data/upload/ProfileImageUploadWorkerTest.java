@@ -0,0 +1,333 @@
+package com.skillswap.skillswapp.data.upload;
+
+import android.content.SharedPreferences;
+
+import androidx.work.Data;
+import androidx.work.ListenableWorker.Result;
+
+import com.skillswap.skillswapp.data.local.AvatarVariant;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la subida de las variantes de una foto de perfil con un destino falso y las
+ * sesiones guardadas en memoria: continuar una subida, reintentar o abandonarla, y limpiar
+ * el estado al terminar.
+ */
+public class ProfileImageUploadWorkerTest {
+
+    private static final String USER_ID = "u1";
+    private static final String UPLOAD_ID = "upload1";
+    private static final String BASE_NAME = "profile_images/" + USER_ID + "/" + UPLOAD_ID;
+
+    private final FakePreferences preferences = new FakePreferences();
+    private final UploadSessionStore sessions = new UploadSessionStore(preferences);
+    private final FakeUploader uploader = new FakeUploader();
+    private final Map<String, String> savedUrls = new HashMap<>();
+
+    private File dir;
+    private String imagePath;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("avatar").toFile();
+        imagePath = new File(dir, "profile_u1_full.webp").getPath();
+        for (AvatarVariant variant : AvatarVariant.values()) {
+            assertTrue(new File(AvatarVariant.resolve(imagePath, variant)).createNewFile());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void uploadsEveryVariantAndClearsState() {
+        Result result = upload(0);
+
+        assertEquals(Result.success(new Data.Builder()
+                .putString(ProfileImageUploadWorker.KEY_DOWNLOAD_URL, url(AvatarVariant.FULL)).build()), result);
+        assertEquals(3, uploader.uploaded.size());
+        assertEquals(url(AvatarVariant.FULL), savedUrls.get(USER_ID));
+        assertTrue(preferences.values.isEmpty());
+    }
+
+    @Test
+    public void resumesStoredSessionAndSkipsFinishedVariants() {
+        // Estado que deja un intento interrumpido a mitad de la variante mediana
+        sessions.markDone(USER_ID, UPLOAD_ID, AvatarVariant.THUMB);
+        sessions.saveSession(USER_ID, UPLOAD_ID, AvatarVariant.MEDIUM, "session-medium");
+
+        assertTrue(upload(1) instanceof Result.Success);
+
+        assertFalse(uploader.uploaded.contains(AvatarVariant.THUMB.fileName(BASE_NAME)));
+        assertEquals("session-medium", uploader.resumedFrom.get(AvatarVariant.MEDIUM.fileName(BASE_NAME)));
+        assertNull(uploader.resumedFrom.get(AvatarVariant.FULL.fileName(BASE_NAME)));
+        assertEquals(2, uploader.uploaded.size());
+        assertTrue(preferences.values.isEmpty());
+    }
+
+    @Test
+    public void failedUploadForgetsItsSession() {
+        sessions.saveSession(USER_ID, UPLOAD_ID, AvatarVariant.THUMB, "expired");
+        uploader.failing.add(AvatarVariant.THUMB.fileName(BASE_NAME));
+
+        assertEquals(Result.retry(), upload(0));
+        assertEquals("expired", uploader.resumedFrom.get(AvatarVariant.THUMB.fileName(BASE_NAME)));
+        assertNull(sessions.getSession(USER_ID, UPLOAD_ID, AvatarVariant.THUMB));
+    }
+
+    @Test
+    public void lastAttemptFailsAndClearsState() {
+        uploader.failing.add(AvatarVariant.MEDIUM.fileName(BASE_NAME));
+
+        assertEquals(Result.retry(), upload(ProfileImageUploadWorker.MAX_ATTEMPTS - 2));
+        assertFalse(preferences.values.isEmpty());
+
+        assertEquals(Result.failure(), upload(ProfileImageUploadWorker.MAX_ATTEMPTS - 1));
+        assertTrue(preferences.values.isEmpty());
+        assertTrue(savedUrls.isEmpty());
+    }
+
+    @Test
+    public void failedProfileWriteIsRetried() {
+        assertEquals(Result.retry(), ProfileImageUploadWorker.upload(input(), 0, sessions, uploader,
+                (userId, downloadUrl) -> {
+                    throw new IOException("sin conexión");
+                }));
+        // Las variantes ya subidas no se repiten en el reintento
+        assertTrue(sessions.isDone(USER_ID, UPLOAD_ID, AvatarVariant.FULL));
+
+        assertTrue(upload(1) instanceof Result.Success);
+        assertEquals(3, uploader.uploaded.size());
+    }
+
+    @Test
+    public void missingImageFailsWithoutUploading() {
+        assertTrue(new File(imagePath).delete());
+
+        assertEquals(Result.failure(), upload(0));
+        assertTrue(uploader.uploaded.isEmpty());
+    }
+
+    @Test
+    public void replacedUploadsAreForgotten() {
+        sessions.saveSession(USER_ID, "old", AvatarVariant.FULL, "old-session");
+        sessions.markDone(USER_ID, "old", AvatarVariant.THUMB);
+        sessions.saveSession("u2", "other", AvatarVariant.FULL, "other-session");
+
+        assertTrue(upload(0) instanceof Result.Success);
+        assertEquals(1, preferences.values.size());
+        assertEquals("other-session", sessions.getSession("u2", "other", AvatarVariant.FULL));
+    }
+
+    private Result upload(int runAttemptCount) {
+        return ProfileImageUploadWorker.upload(input(), runAttemptCount, sessions, uploader, savedUrls::put);
+    }
+
+    private Data input() {
+        return new Data.Builder()
+                .putString(ProfileImageUploadWorker.KEY_USER_ID, USER_ID)
+                .putString(ProfileImageUploadWorker.KEY_IMAGE_PATH, imagePath)
+                .putString(ProfileImageUploadWorker.KEY_UPLOAD_ID, UPLOAD_ID)
+                .putString(ProfileImageUploadWorker.KEY_DOWNLOAD_TOKEN, "token")
+                .build();
+    }
+
+    private static String url(AvatarVariant variant) {
+        return "https://storage.example.com/" + variant.fileName(BASE_NAME);
+    }
+
+    /**
+     * Destino que guarda lo subido y puede fallar en objetos concretos.
+     */
+    private static final class FakeUploader implements ImageUploader {
+        final List<String> uploaded = new ArrayList<>();
+        final Map<String, String> resumedFrom = new HashMap<>();
+        final Set<String> failing = new HashSet<>();
+
+        @Override
+        public void upload(String objectPath, File file, String contentType, String downloadToken,
+                           String sessionUri, SessionListener listener) throws Exception {
+            assertTrue(file.exists());
+            resumedFrom.put(objectPath, sessionUri);
+            if (failing.contains(objectPath)) {
+                throw new IOException("conexión interrumpida");
+            }
+            if (sessionUri == null) {
+                listener.onSessionStarted("session-" + objectPath);
+            }
+            uploaded.add(objectPath);
+        }
+
+        @Override
+        public String getDownloadUrl(String objectPath) {
+            return "https://storage.example.com/" + objectPath;
+        }
+    }
+
+    /**
+     * Preferencias en memoria; apply() escribe en el momento.
+     */
+    private static final class FakePreferences implements SharedPreferences {
+        final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Map<String, ?> getAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            Object value = values.get(key);
+            return value != null ? (String) value : defValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Set<String> getStringSet(String key, Set<String> defValues) {
+            Object value = values.get(key);
+            return value != null ? (Set<String>) value : defValues;
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            Object value = values.get(key);
+            return value != null ? (Integer) value : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            Object value = values.get(key);
+            return value != null ? (Long) value : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            Object value = values.get(key);
+            return value != null ? (Float) value : defValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            Object value = values.get(key);
+            return value != null ? (Boolean) value : defValue;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new FakeEditor();
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        private final class FakeEditor implements Editor {
+            private final Map<String, Object> changes = new HashMap<>();
+            private final Set<String> removals = new HashSet<>();
+            private boolean clear;
+
+            @Override
+            public Editor putString(String key, String value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putStringSet(String key, Set<String> values) {
+                changes.put(key, values);
+                return this;
+            }
+
+            @Override
+            public Editor putInt(String key, int value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putLong(String key, long value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putFloat(String key, float value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putBoolean(String key, boolean value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor remove(String key) {
+                removals.add(key);
+                return this;
+            }
+
+            @Override
+            public Editor clear() {
+                clear = true;
+                return this;
+            }
+
+            @Override
+            public boolean commit() {
+                if (clear) {
+                    values.clear();
+                }
+                for (String key : removals) {
+                    values.remove(key);
+                }
+                for (Map.Entry<String, Object> change : changes.entrySet()) {
+                    if (change.getValue() == null) {
+                        values.remove(change.getKey());
+                    } else {
+                        values.put(change.getKey(), change.getValue());
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void apply() {
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.skillswap.skillswapp.data.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del recuento de listeners con una consulta falsa que solo guarda los listeners
+ * conectados.
+ */
+public class ListenerRegistryTest {
+
+    private static final int SEARCHES = 100;
+
+    @Test
+    public void consecutiveSearchesLeaveAtMostOneListener() {
+        ListenerRegistry registry = new ListenerRegistry();
+        FakeQuery users = new FakeQuery();
+        ListenerRegistry.Registration current = null;
+
+        // Como la pantalla de búsqueda: deja de escuchar el resultado anterior antes de buscar otra vez
+        for (int i = 0; i < SEARCHES; i++) {
+            if (current != null) {
+                current.remove();
+            }
+            current = users.listen(registry);
+            assertTrue(registry.getLiveListenerCount() <= 1);
+        }
+        assertEquals(1, registry.getLiveListenerCount());
+        assertEquals(1, users.listeners.size());
+
+        current.remove();
+        assertEquals(0, registry.getLiveListenerCount());
+        assertTrue(users.listeners.isEmpty());
+    }
+
+    @Test
+    public void forgottenRegistrationsAreCounted() {
+        ListenerRegistry registry = new ListenerRegistry();
+        FakeQuery users = new FakeQuery();
+        for (int i = 0; i < SEARCHES; i++) {
+            users.listen(registry);
+        }
+        assertEquals(SEARCHES, registry.getLiveListenerCount());
+        assertEquals(SEARCHES, users.listeners.size());
+    }
+
+    @Test
+    public void removeIsIdempotent() {
+        ListenerRegistry registry = new ListenerRegistry();
+        ListenerRegistry.Registration registration = new FakeQuery().listen(registry);
+
+        registration.remove();
+        registration.remove();
+        assertFalse(registration.isActive());
+        assertEquals(0, registry.getLiveListenerCount());
+    }
+
+    @Test
+    public void closingScopeDetachesEveryListener() {
+        ListenerRegistry registry = new ListenerRegistry();
+        FakeQuery users = new FakeQuery();
+        ListenerRegistry.Scope scope = registry.openScope();
+        for (int i = 0; i < 3; i++) {
+            Object listener = new Object();
+            scope.register(() -> users.listeners.add(listener), () -> users.listeners.remove(listener));
+        }
+        assertEquals(3, registry.getLiveListenerCount());
+
+        scope.close();
+        assertEquals(0, registry.getLiveListenerCount());
+        assertTrue(users.listeners.isEmpty());
+        assertTrue(scope.isClosed());
+    }
+
+    /**
+     * Consulta de Firebase simulada: un conjunto con los listeners conectados.
+     */
+    private static final class FakeQuery {
+        final Set<Object> listeners = new HashSet<>();
+
+        ListenerRegistry.Registration listen(ListenerRegistry registry) {
+            Object listener = new Object();
+            return registry.register(() -> listeners.add(listener), () -> listeners.remove(listener));
+        }
+    }
+}
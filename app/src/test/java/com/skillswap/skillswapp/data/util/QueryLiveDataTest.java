@@ -0,0 +1,152 @@
+package com.skillswap.skillswapp.data.util;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.Observer;
+
+import com.google.firebase.database.ValueEventListener;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del ciclo de vida de {@link QueryLiveData}: los listeners se conectan y desconectan
+ * al observar y dejar de observar el LiveData, con un origen y un planificador falsos.
+ */
+public class QueryLiveDataTest {
+
+    private static final int SEARCHES = 100;
+    private static final long TYPING_INTERVAL_MS = 300;
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final Observer<List<String>> observer = results -> { };
+
+    @Test
+    public void consecutiveSearchesLeaveAtMostOneListener() {
+        ListenerRegistry registry = ListenerRegistry.getInstance();
+        int baseline = registry.getLiveListenerCount();
+        List<FakeSource> sources = new ArrayList<>();
+        QueryLiveData<List<String>> current = null;
+
+        // Como la pantalla de búsqueda: deja de observar el resultado anterior y observa el nuevo
+        for (int i = 0; i < SEARCHES; i++) {
+            if (current != null) {
+                current.removeObserver(observer);
+            }
+            FakeSource source = new FakeSource();
+            sources.add(source);
+            current = search(source);
+            current.observeForever(observer);
+            scheduler.advance(TYPING_INTERVAL_MS);
+
+            // Solo siguen conectadas las búsquedas que aún no han cumplido el retraso
+            long pending = QueryLiveData.DETACH_DELAY_MS / TYPING_INTERVAL_MS + 1;
+            assertTrue(registry.getLiveListenerCount() - baseline <= pending);
+        }
+
+        scheduler.advance(QueryLiveData.DETACH_DELAY_MS);
+        assertTrue(registry.getLiveListenerCount() - baseline <= 1);
+        assertEquals(1, attachedListeners(sources));
+        assertEquals(1, sources.get(SEARCHES - 1).listeners.size());
+
+        current.removeObserver(observer);
+        scheduler.advance(QueryLiveData.DETACH_DELAY_MS);
+        assertEquals(baseline, registry.getLiveListenerCount());
+        assertEquals(0, attachedListeners(sources));
+    }
+
+    @Test
+    public void observingAgainBeforeDelayKeepsListener() {
+        FakeSource source = new FakeSource();
+        QueryLiveData<List<String>> results = search(source);
+
+        results.observeForever(observer);
+        results.removeObserver(observer);
+        scheduler.advance(QueryLiveData.DETACH_DELAY_MS / 2);
+        results.observeForever(observer);
+        scheduler.advance(QueryLiveData.DETACH_DELAY_MS);
+
+        assertEquals(1, source.attachCount);
+        assertEquals(1, source.listeners.size());
+
+        results.removeObserver(observer);
+        scheduler.advance(QueryLiveData.DETACH_DELAY_MS);
+        assertTrue(source.listeners.isEmpty());
+    }
+
+    private QueryLiveData<List<String>> search(FakeSource source) {
+        return new QueryLiveData<>(source, snapshot -> new ArrayList<>(), new ArrayList<>(), scheduler);
+    }
+
+    private static int attachedListeners(List<FakeSource> sources) {
+        int count = 0;
+        for (FakeSource source : sources) {
+            count += source.listeners.size();
+        }
+        return count;
+    }
+
+    /**
+     * Consulta simulada: guarda los listeners conectados.
+     */
+    private static final class FakeSource implements QueryLiveData.Source {
+        final Set<ValueEventListener> listeners = new HashSet<>();
+        int attachCount;
+
+        @Override
+        public void addValueEventListener(ValueEventListener listener) {
+            listeners.add(listener);
+            attachCount++;
+        }
+
+        @Override
+        public void removeEventListener(ValueEventListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Planificador con reloj controlado por la prueba.
+     */
+    private static final class FakeScheduler implements QueryLiveData.Scheduler {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> dueTimes = new ArrayList<>();
+        private long now;
+
+        void advance(long ms) {
+            now += ms;
+            for (int i = 0; i < tasks.size(); i++) {
+                if (dueTimes.get(i) <= now) {
+                    Runnable task = tasks.remove(i);
+                    dueTimes.remove(i);
+                    i--;
+                    task.run();
+                }
+            }
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            tasks.add(task);
+            dueTimes.add(now + delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            int i = tasks.indexOf(task);
+            if (i >= 0) {
+                tasks.remove(i);
+                dueTimes.remove(i);
+            }
+        }
+    }
+}